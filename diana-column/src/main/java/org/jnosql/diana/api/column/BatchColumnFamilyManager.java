@@ -0,0 +1,163 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+
+package org.jnosql.diana.api.column;
+
+import org.jnosql.diana.api.ConditionalResult;
+import org.jnosql.diana.api.aggregation.AggregateResult;
+import org.jnosql.diana.api.batch.BatchFailure;
+import org.jnosql.diana.api.batch.BatchPolicy;
+import org.jnosql.diana.api.batch.BatchWriteException;
+import org.jnosql.diana.api.batch.Batcher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link ColumnFamilyManager} that saves and updates {@link Iterable} of entities in batches grouped by
+ * column family, the other operations are delegated.
+ *
+ * @see ColumnBatches#of(ColumnFamilyManager, ColumnBatchWriter, BatchPolicy)
+ */
+final class BatchColumnFamilyManager implements ColumnFamilyManager {
+
+    private final ColumnFamilyManager manager;
+
+    private final ColumnBatchWriter writer;
+
+    private final BatchPolicy policy;
+
+    BatchColumnFamilyManager(ColumnFamilyManager manager, ColumnBatchWriter writer, BatchPolicy policy) {
+        this.manager = requireNonNull(manager, "manager is required");
+        this.writer = requireNonNull(writer, "writer is required");
+        this.policy = requireNonNull(policy, "policy is required");
+    }
+
+    @Override
+    public ColumnEntity insert(ColumnEntity entity) throws NullPointerException {
+        return manager.insert(entity);
+    }
+
+    @Override
+    public ColumnEntity update(ColumnEntity entity) throws NullPointerException {
+        return manager.update(entity);
+    }
+
+    @Override
+    public Iterable<ColumnEntity> update(Iterable<ColumnEntity> entities) throws NullPointerException {
+        return batch(entities, writer::update);
+    }
+
+    @Override
+    public ColumnEntity insert(ColumnEntity entity, Duration ttl) throws NullPointerException,
+            UnsupportedOperationException {
+        return manager.insert(entity, ttl);
+    }
+
+    @Override
+    public Iterable<ColumnEntity> insert(Iterable<ColumnEntity> entities) throws NullPointerException {
+        return batch(entities, writer::insert);
+    }
+
+    @Override
+    public Iterable<ColumnEntity> insert(Iterable<ColumnEntity> entities, Duration ttl) throws NullPointerException,
+            UnsupportedOperationException {
+        requireNonNull(ttl, "ttl is required");
+        return batch(entities, (columnFamily, batch) -> writer.insert(columnFamily, batch, ttl));
+    }
+
+    @Override
+    public void delete(ColumnDeleteQuery query) throws NullPointerException {
+        manager.delete(query);
+    }
+
+    @Override
+    public List<ColumnEntity> select(ColumnQuery query) throws NullPointerException {
+        return manager.select(query);
+    }
+
+    @Override
+    public long count(ColumnQuery query) throws NullPointerException {
+        return manager.count(query);
+    }
+
+    @Override
+    public AggregateResult aggregate(ColumnAggregateQuery query) throws NullPointerException {
+        return manager.aggregate(query);
+    }
+
+    @Override
+    public long patch(ColumnPatchQuery query) throws NullPointerException {
+        return manager.patch(query);
+    }
+
+    @Override
+    public ConditionalResult<ColumnEntity> insertIfAbsent(ColumnEntity entity) throws NullPointerException,
+            UnsupportedOperationException {
+        return manager.insertIfAbsent(entity);
+    }
+
+    @Override
+    public ConditionalResult<ColumnEntity> updateIf(ColumnEntity entity, ColumnCondition condition)
+            throws NullPointerException, UnsupportedOperationException {
+        return manager.updateIf(entity, condition);
+    }
+
+    @Override
+    public ConditionalResult<ColumnEntity> deleteIf(ColumnEntity entity, ColumnCondition condition)
+            throws NullPointerException, UnsupportedOperationException {
+        return manager.deleteIf(entity, condition);
+    }
+
+    @Override
+    public void close() {
+        manager.close();
+    }
+
+    private Iterable<ColumnEntity> batch(Iterable<ColumnEntity> entities,
+                                         BiConsumer<String, List<ColumnEntity>> operation) {
+        requireNonNull(entities, "entities is required");
+        List<ColumnEntity> result = new ArrayList<>();
+        List<BatchFailure<ColumnEntity>> failures = new ArrayList<>();
+        try (Batcher<String, ColumnEntity> batcher = new Batcher<>(policy, ColumnEntity::getName,
+                ColumnEntitySizes::estimate, operation, failures::add)) {
+            for (ColumnEntity entity : entities) {
+                batcher.add(entity);
+                result.add(entity);
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new BatchWriteException(failures.size() + " entities failed", failures);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("BatchColumnFamilyManager{");
+        sb.append("manager=").append(manager);
+        sb.append(", writer=").append(writer);
+        sb.append(", policy=").append(policy);
+        sb.append('}');
+        return sb.toString();
+    }
+}
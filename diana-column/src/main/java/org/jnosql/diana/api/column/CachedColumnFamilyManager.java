@@ -0,0 +1,410 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.column;
+
+import org.jnosql.diana.api.ConditionalResult;
+import org.jnosql.diana.api.Fingerprint;
+import org.jnosql.diana.api.Sizes;
+import org.jnosql.diana.api.aggregation.AggregateResult;
+import org.jnosql.diana.api.cache.Cache;
+import org.jnosql.diana.api.cache.CacheStats;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link ColumnFamilyManager} decorator that caches the result of {@link ColumnFamilyManager#select(ColumnQuery)},
+ * so a query that runs again and again, e.g. from a dashboard, reaches the database once per time to live.
+ * <ul>
+ * <li>The result is cached by the query fingerprint, two queries that differ only in the order of the conditions
+ * of an AND, an OR or the values of an IN share the same result.</li>
+ * <li>A query with a value whose type does not have a stable fingerprint, see
+ * {@link org.jnosql.diana.api.FingerprintHasher#putValue(Object)}, is not cached.</li>
+ * <li>An insert, an update or a delete invalidates every cached result of its column family. A result loaded while
+ * a write happened is not cached.</li>
+ * <li>Each column family might have its own time to live, that also bounds how stale a result might be when the
+ * column family is written by other clients.</li>
+ * <li>The cache is bounded by the estimated size, in bytes, of the cached entities.</li>
+ * <li>Concurrent identical queries are coalesced, just one of them reaches the database and the others wait for
+ * its result.</li>
+ * <li>The entities returned are copies, so a caller that changes them does not change the cached result.</li>
+ * </ul>
+ *
+ * <pre>
+ * CachedColumnFamilyManager cached = CachedColumnFamilyManager.of(manager, 64 * 1024 * 1024,
+ *         Duration.ofSeconds(30), Collections.singletonMap("metrics", Duration.ofSeconds(5)));
+ * </pre>
+ */
+public final class CachedColumnFamilyManager implements ColumnFamilyManager {
+
+    private final ColumnFamilyManager manager;
+
+    private final Cache<Fingerprint, Result> cache;
+
+    private final Map<String, Duration> ttls;
+
+    private final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Fingerprint, Flight> flights = new ConcurrentHashMap<>();
+
+    private CachedColumnFamilyManager(ColumnFamilyManager manager, Cache<Fingerprint, Result> cache,
+                                      Map<String, Duration> ttls) {
+        this.manager = manager;
+        this.cache = cache;
+        this.ttls = ttls;
+    }
+
+    /**
+     * Creates a {@link CachedColumnFamilyManager} with the same time to live to every column family
+     *
+     * @param manager  the manager to be decorated
+     * @param maxBytes the maximum estimated size of the cached entities
+     * @param ttl      the time to live of the cached results
+     * @return a {@link CachedColumnFamilyManager} instance
+     * @throws NullPointerException     when either manager or ttl is null
+     * @throws IllegalArgumentException when either maxBytes or ttl is either zero or negative
+     */
+    public static CachedColumnFamilyManager of(ColumnFamilyManager manager, long maxBytes, Duration ttl)
+            throws NullPointerException, IllegalArgumentException {
+        return of(manager, maxBytes, ttl, Collections.emptyMap());
+    }
+
+    /**
+     * Creates a {@link CachedColumnFamilyManager}
+     *
+     * @param manager  the manager to be decorated
+     * @param maxBytes the maximum estimated size of the cached entities
+     * @param ttl      the time to live of the cached results, it is also the maximum time to live
+     * @param ttls     the time to live of the cached results by column family, a column family that is not
+     *                 there uses the default ttl
+     * @return a {@link CachedColumnFamilyManager} instance
+     * @throws NullPointerException     when there is a null parameter
+     * @throws IllegalArgumentException when either maxBytes or a ttl is either zero or negative
+     */
+    public static CachedColumnFamilyManager of(ColumnFamilyManager manager, long maxBytes, Duration ttl,
+                                               Map<String, Duration> ttls)
+            throws NullPointerException, IllegalArgumentException {
+        requireNonNull(manager, "manager is required");
+        requireNonNull(ttls, "ttls is required");
+        Map<String, Duration> copy = new HashMap<>();
+        ttls.forEach((columnFamily, familyTtl) -> {
+            requireNonNull(columnFamily, "columnFamily is required");
+            requireNonNull(familyTtl, "ttl is required");
+            if (familyTtl.isNegative() || familyTtl.isZero()) {
+                throw new IllegalArgumentException("ttl must be greater than zero");
+            }
+            copy.put(columnFamily, familyTtl);
+        });
+        Cache<Fingerprint, Result> cache = Cache.<Fingerprint, Result>builder()
+                .maximumWeight(maxBytes, (k, v) -> v.weight)
+                .expireAfterWrite(ttl).build();
+        return new CachedColumnFamilyManager(manager, cache, copy);
+    }
+
+    @Override
+    public ColumnEntity insert(ColumnEntity entity) throws NullPointerException {
+        requireNonNull(entity, "entity is required");
+        try {
+            return manager.insert(entity);
+        } finally {
+            invalidate(entity.getName());
+        }
+    }
+
+    @Override
+    public ColumnEntity update(ColumnEntity entity) throws NullPointerException {
+        requireNonNull(entity, "entity is required");
+        try {
+            return manager.update(entity);
+        } finally {
+            invalidate(entity.getName());
+        }
+    }
+
+    @Override
+    public Iterable<ColumnEntity> update(Iterable<ColumnEntity> entities) throws NullPointerException {
+        requireNonNull(entities, "entities is required");
+        List<ColumnEntity> list = toList(entities);
+        try {
+            return manager.update(list);
+        } finally {
+            invalidate(list);
+        }
+    }
+
+    @Override
+    public ColumnEntity insert(ColumnEntity entity, Duration ttl) throws NullPointerException,
+            UnsupportedOperationException {
+        requireNonNull(entity, "entity is required");
+        requireNonNull(ttl, "ttl is required");
+        try {
+            return manager.insert(entity, ttl);
+        } finally {
+            invalidate(entity.getName());
+        }
+    }
+
+    @Override
+    public Iterable<ColumnEntity> insert(Iterable<ColumnEntity> entities) throws NullPointerException {
+        requireNonNull(entities, "entities is required");
+        List<ColumnEntity> list = toList(entities);
+        try {
+            return manager.insert(list);
+        } finally {
+            invalidate(list);
+        }
+    }
+
+    @Override
+    public Iterable<ColumnEntity> insert(Iterable<ColumnEntity> entities, Duration ttl) throws NullPointerException,
+            UnsupportedOperationException {
+        requireNonNull(entities, "entities is required");
+        requireNonNull(ttl, "ttl is required");
+        List<ColumnEntity> list = toList(entities);
+        try {
+            return manager.insert(list, ttl);
+        } finally {
+            invalidate(list);
+        }
+    }
+
+    @Override
+    public void delete(ColumnDeleteQuery query) throws NullPointerException {
+        requireNonNull(query, "query is required");
+        try {
+            manager.delete(query);
+        } finally {
+            invalidate(query.getColumnFamily());
+        }
+    }
+
+    @Override
+    public List<ColumnEntity> select(ColumnQuery query) throws NullPointerException {
+        requireNonNull(query, "query is required");
+        Fingerprint key = fingerprint(query);
+        if (key == null) {
+            return manager.select(query);
+        }
+        AtomicLong generation = generation(query.getColumnFamily());
+        long current = generation.get();
+        Result cached = cache.get(key).orElse(null);
+        if (cached != null && cached.generation == current) {
+            return copy(cached.entities);
+        }
+
+        Flight flight = new Flight(current);
+        Flight running = flights.putIfAbsent(key, flight);
+        if (running != null) {
+            return running.generation == current ? copy(running.join()) : manager.select(query);
+        }
+        try {
+            List<ColumnEntity> entities = manager.select(query);
+            Result result = new Result(current, copy(entities));
+            if (generation.get() == current) {
+                Duration ttl = ttls.get(query.getColumnFamily());
+                if (ttl == null) {
+                    cache.put(key, result);
+                } else {
+                    cache.put(key, result, ttl);
+                }
+            }
+            flight.future.complete(result.entities);
+            return entities;
+        } catch (RuntimeException | Error e) {
+            flight.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    /**
+     * Discards the cached results of a column family
+     *
+     * @param columnFamily the column family
+     * @throws NullPointerException when columnFamily is null
+     */
+    public void invalidate(String columnFamily) throws NullPointerException {
+        requireNonNull(columnFamily, "columnFamily is required");
+        generation(columnFamily).incrementAndGet();
+    }
+
+    /**
+     * @return a snapshot of the result cache statistics
+     */
+    public CacheStats getStats() {
+        return cache.getStats();
+    }
+
+    @Override
+    public long count(ColumnQuery query) throws NullPointerException {
+        return manager.count(query);
+    }
+
+    @Override
+    public AggregateResult aggregate(ColumnAggregateQuery query) throws NullPointerException {
+        return manager.aggregate(query);
+    }
+
+    @Override
+    public long patch(ColumnPatchQuery query) throws NullPointerException {
+        requireNonNull(query, "query is required");
+        try {
+            return manager.patch(query);
+        } finally {
+            invalidate(query.getColumnFamily());
+        }
+    }
+
+    @Override
+    public ConditionalResult<ColumnEntity> insertIfAbsent(ColumnEntity entity) throws NullPointerException,
+            UnsupportedOperationException {
+        requireNonNull(entity, "entity is required");
+        try {
+            return manager.insertIfAbsent(entity);
+        } finally {
+            invalidate(entity.getName());
+        }
+    }
+
+    @Override
+    public ConditionalResult<ColumnEntity> updateIf(ColumnEntity entity, ColumnCondition condition)
+            throws NullPointerException, UnsupportedOperationException {
+        requireNonNull(entity, "entity is required");
+        try {
+            return manager.updateIf(entity, condition);
+        } finally {
+            invalidate(entity.getName());
+        }
+    }
+
+    @Override
+    public ConditionalResult<ColumnEntity> deleteIf(ColumnEntity entity, ColumnCondition condition)
+            throws NullPointerException, UnsupportedOperationException {
+        requireNonNull(entity, "entity is required");
+        try {
+            return manager.deleteIf(entity, condition);
+        } finally {
+            invalidate(entity.getName());
+        }
+    }
+
+    /**
+     * Closes the decorated manager and discards the cached results
+     */
+    @Override
+    public void close() {
+        cache.clear();
+        manager.close();
+    }
+
+    /**
+     * A query with a value that does not have a stable fingerprint is not cached, since it might share the key with
+     * another query
+     */
+    private static Fingerprint fingerprint(ColumnQuery query) {
+        try {
+            return ColumnFingerprints.of(query);
+        } catch (IllegalArgumentException exception) {
+            return null;
+        }
+    }
+
+    private void invalidate(Iterable<ColumnEntity> entities) {
+        Set<String> columnFamilies = new LinkedHashSet<>();
+        for (ColumnEntity entity : entities) {
+            columnFamilies.add(entity.getName());
+        }
+        columnFamilies.forEach(this::invalidate);
+    }
+
+    private AtomicLong generation(String columnFamily) {
+        return generations.computeIfAbsent(columnFamily, c -> new AtomicLong());
+    }
+
+    private static List<ColumnEntity> copy(List<ColumnEntity> entities) {
+        List<ColumnEntity> copies = new ArrayList<>(entities.size());
+        for (ColumnEntity entity : entities) {
+            copies.add(entity.copy());
+        }
+        return copies;
+    }
+
+    private static <T> List<T> toList(Iterable<T> elements) {
+        List<T> list = new ArrayList<>();
+        elements.forEach(list::add);
+        return list;
+    }
+
+    private static final class Result {
+
+        private final long generation;
+
+        private final List<ColumnEntity> entities;
+
+        private final long weight;
+
+        private Result(long generation, List<ColumnEntity> entities) {
+            this.generation = generation;
+            this.entities = entities;
+            long weight = Sizes.OBJECT_HEADER + Sizes.REFERENCE;
+            for (ColumnEntity entity : entities) {
+                weight += Sizes.REFERENCE + ColumnEntitySizes.estimate(entity);
+            }
+            this.weight = weight;
+        }
+    }
+
+    private static final class Flight {
+
+        private final long generation;
+
+        private final CompletableFuture<List<ColumnEntity>> future = new CompletableFuture<>();
+
+        private Flight(long generation) {
+            this.generation = generation;
+        }
+
+        private List<ColumnEntity> join() {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.column;
+
+
+import org.jnosql.diana.api.aggregation.Aggregate;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Class that contains information to do an aggregation to {@link ColumnEntity}, e.g. count or sum, optionally grouped
+ * by columns
+ *
+ * @see ColumnFamilyManager#aggregate(ColumnAggregateQuery)
+ * @see Aggregate
+ */
+public interface ColumnAggregateQuery {
+
+    /**
+     * The column family name
+     *
+     * @return the column family name
+     */
+    String getColumnFamily();
+
+    /**
+     * The conditions that contains in this {@link ColumnAggregateQuery}, when empty every entity is aggregated
+     *
+     * @return the conditions
+     */
+    Optional<ColumnCondition> getCondition();
+
+    /**
+     * The columns to group by, when empty the result has a single group
+     *
+     * @return the columns
+     */
+    List<String> getGroupBy();
+
+    /**
+     * The aggregates, there is at least one and their aliases are unique
+     *
+     * @return the aggregates
+     */
+    List<Aggregate> getAggregates();
+
+    /**
+     * The select of the entities of this aggregation, its columns are the group by columns and the aggregate columns,
+     * e.g. to a driver that can not aggregate. When the aggregation reads no column, e.g. a count, it selects just the
+     * first column of the condition, or the {@code _id} column when there is no condition, so the whole entities are
+     * not read, an entity without that column is still selected, see {@link ColumnProjection}
+     *
+     * @return the select query
+     * @see ColumnFamilyManager#aggregate(ColumnAggregateQuery)
+     */
+    ColumnQuery toQuery();
+}
@@ -0,0 +1,179 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+
+package org.jnosql.diana.api.column;
+
+import org.jnosql.diana.api.batch.BatchFailure;
+import org.jnosql.diana.api.batch.BatchPolicy;
+import org.jnosql.diana.api.batch.Batcher;
+import org.jnosql.diana.api.batch.BulkExecutor;
+import org.jnosql.diana.api.batch.BulkResult;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Utilitarian class to write {@link ColumnEntity} in batches grouped by column family and to
+ * bulk load them asynchronously with a bounded number of operations in flight.
+ * The {@link ColumnFamilyManagerAsync} callbacks do not report failures, so an entity that fails is reported
+ * right away just by a manager created from {@link ColumnFamilyManagerAsync#of(ColumnFamilyManager)}, to other managers it is
+ * reported when the {@link BulkExecutor} has a timeout.
+ *
+ * @see ColumnBatchWriter
+ * @see Batcher
+ */
+public final class ColumnBatches {
+
+    private ColumnBatches() {
+    }
+
+    /**
+     * Creates a {@link ColumnFamilyManager} whose {@link ColumnFamilyManager#insert(Iterable)},
+     * {@link ColumnFamilyManager#insert(Iterable, java.time.Duration)} and {@link ColumnFamilyManager#update(Iterable)}
+     * write in batches. When the manager implements {@link ColumnBatchWriter} it is used to write the batches,
+     * otherwise {@link ColumnBatchWriter#of(ColumnFamilyManager)}.
+     * When some entities fail, the batches that remain are still written and then
+     * a {@link org.jnosql.diana.api.batch.BatchWriteException} is thrown with all entities that failed.
+     *
+     * @param manager the manager
+     * @param policy  the thresholds, the linger is ignored
+     * @return a {@link ColumnFamilyManager} instance
+     * @throws NullPointerException when either manager or policy are null
+     */
+    public static ColumnFamilyManager of(ColumnFamilyManager manager, BatchPolicy policy) throws NullPointerException {
+        requireNonNull(manager, "manager is required");
+        if (manager instanceof ColumnBatchWriter) {
+            return of(manager, ColumnBatchWriter.class.cast(manager), policy);
+        }
+        return of(manager, ColumnBatchWriter.of(manager), policy);
+    }
+
+    /**
+     * Creates a {@link ColumnFamilyManager} whose {@link ColumnFamilyManager#insert(Iterable)},
+     * {@link ColumnFamilyManager#insert(Iterable, java.time.Duration)} and {@link ColumnFamilyManager#update(Iterable)}
+     * write in batches using the writer.
+     *
+     * @param manager the manager
+     * @param writer  the batch writer
+     * @param policy  the thresholds, the linger is ignored
+     * @return a {@link ColumnFamilyManager} instance
+     * @throws NullPointerException when there is a null parameter
+     */
+    public static ColumnFamilyManager of(ColumnFamilyManager manager, ColumnBatchWriter writer, BatchPolicy policy)
+            throws NullPointerException {
+        return new BatchColumnFamilyManager(manager, writer, policy);
+    }
+
+    /**
+     * Creates a {@link Batcher} that saves the entities added to it in batches, a batch is written when it reaches
+     * either a threshold of the policy or the linger time.
+     *
+     * @param writer          the batch writer
+     * @param policy          the thresholds
+     * @param failureListener the listener to each entity that failed
+     * @param scheduler       the scheduler to linger, when it is null the linger is ignored
+     * @return a {@link Batcher} instance
+     * @throws NullPointerException when there is a null parameter but scheduler
+     */
+    public static Batcher<String, ColumnEntity> inserter(ColumnBatchWriter writer, BatchPolicy policy,
+                                                         Consumer<BatchFailure<ColumnEntity>> failureListener,
+                                                         ScheduledExecutorService scheduler)
+            throws NullPointerException {
+        requireNonNull(writer, "writer is required");
+        return new Batcher<>(policy, ColumnEntity::getName, ColumnEntitySizes::estimate, writer::insert,
+                failureListener, scheduler);
+    }
+
+    /**
+     * Creates a {@link Batcher} that updates the entities added to it in batches, a batch is written when it reaches
+     * either a threshold of the policy or the linger time.
+     *
+     * @param writer          the batch writer
+     * @param policy          the thresholds
+     * @param failureListener the listener to each entity that failed
+     * @param scheduler       the scheduler to linger, when it is null the linger is ignored
+     * @return a {@link Batcher} instance
+     * @throws NullPointerException when there is a null parameter but scheduler
+     */
+    public static Batcher<String, ColumnEntity> updater(ColumnBatchWriter writer, BatchPolicy policy,
+                                                        Consumer<BatchFailure<ColumnEntity>> failureListener,
+                                                        ScheduledExecutorService scheduler)
+            throws NullPointerException {
+        requireNonNull(writer, "writer is required");
+        return new Batcher<>(policy, ColumnEntity::getName, ColumnEntitySizes::estimate, writer::update,
+                failureListener, scheduler);
+    }
+
+    /**
+     * Saves the entities asynchronously keeping at most {@link BulkExecutor#getMaxInFlight()} inserts in flight,
+     * the entities are read from the {@link Iterable} just when there is room to one more insert.
+     *
+     * @param manager  the manager
+     * @param entities the entities
+     * @param executor the bulk executor
+     * @param callback the callback to the outcome, called when all inserts are finished
+     * @throws NullPointerException when there is a null parameter
+     */
+    public static void insert(ColumnFamilyManagerAsync manager, Iterable<ColumnEntity> entities, BulkExecutor executor,
+                              Consumer<BulkResult<ColumnEntity>> callback) throws NullPointerException {
+        requireNonNull(manager, "manager is required");
+        requireNonNull(executor, "executor is required");
+        executor.execute(entities, (e, done, failure) -> manager.insert(e, s -> done.run(), failure), callback);
+    }
+
+    /**
+     * Saves the entities asynchronously with time to live keeping at most {@link BulkExecutor#getMaxInFlight()}
+     * inserts in flight, the entities are read from the {@link Iterable} just when there is room to one more insert.
+     *
+     * @param manager  the manager
+     * @param entities the entities
+     * @param ttl      time to live
+     * @param executor the bulk executor
+     * @param callback the callback to the outcome, called when all inserts are finished
+     * @throws NullPointerException when there is a null parameter
+     */
+    public static void insert(ColumnFamilyManagerAsync manager, Iterable<ColumnEntity> entities, Duration ttl,
+                              BulkExecutor executor, Consumer<BulkResult<ColumnEntity>> callback)
+            throws NullPointerException {
+        requireNonNull(manager, "manager is required");
+        requireNonNull(ttl, "ttl is required");
+        requireNonNull(executor, "executor is required");
+        executor.execute(entities, (e, done, failure) -> manager.insert(e, ttl, s -> done.run(), failure),
+                callback);
+    }
+
+    /**
+     * Updates the entities asynchronously keeping at most {@link BulkExecutor#getMaxInFlight()} updates in flight,
+     * the entities are read from the {@link Iterable} just when there is room to one more update.
+     *
+     * @param manager  the manager
+     * @param entities the entities
+     * @param executor the bulk executor
+     * @param callback the callback to the outcome, called when all updates are finished
+     * @throws NullPointerException when there is a null parameter
+     */
+    public static void update(ColumnFamilyManagerAsync manager, Iterable<ColumnEntity> entities, BulkExecutor executor,
+                              Consumer<BulkResult<ColumnEntity>> callback) throws NullPointerException {
+        requireNonNull(manager, "manager is required");
+        requireNonNull(executor, "executor is required");
+        executor.execute(entities, (e, done, failure) -> manager.update(e, s -> done.run(), failure), callback);
+    }
+}
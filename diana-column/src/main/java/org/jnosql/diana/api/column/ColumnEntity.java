@@ -27,6 +27,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 /**
  * A column family is a NoSQL object that contains columns of related data. It is a tuple (pair) that consists
@@ -116,6 +117,18 @@ public interface ColumnEntity extends Serializable {
      */
     List<Column> getColumns();
 
+    /**
+     * Performs the action to each column of this entity, the name and the value are given without creating
+     * a {@link Column}, so it is the cheapest way to walk the columns
+     *
+     * @param action the action to each name and value
+     * @throws NullPointerException when action is null
+     */
+    default void forEach(BiConsumer<String, Value> action) throws NullPointerException {
+        Objects.requireNonNull(action, "action is required");
+        getColumns().forEach(c -> action.accept(c.getName(), c.getValue()));
+    }
+
     /**
      * Column Family's name
      *
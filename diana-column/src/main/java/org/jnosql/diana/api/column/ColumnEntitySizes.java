@@ -0,0 +1,52 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+
+package org.jnosql.diana.api.column;
+
+import org.jnosql.diana.api.Sizes;
+
+/**
+ * Estimates the memory that a {@link ColumnEntity} takes
+ *
+ * @see Sizes
+ */
+final class ColumnEntitySizes {
+
+    private ColumnEntitySizes() {
+    }
+
+    static long estimate(ColumnEntity entity) {
+        long size = Sizes.OBJECT_HEADER + Sizes.estimate(entity.getName());
+        for (Column column : entity.getColumns()) {
+            size += Sizes.REFERENCE + estimateNested(column);
+        }
+        return size;
+    }
+
+    private static long estimateNested(Object value) {
+        if (value instanceof Column) {
+            Column column = Column.class.cast(value);
+            return Sizes.OBJECT_HEADER + Sizes.estimate(column.getName())
+                    + Sizes.estimate(column.getValue(), ColumnEntitySizes::estimateNested);
+        }
+        if (value instanceof ColumnEntity) {
+            return estimate(ColumnEntity.class.cast(value));
+        }
+        return Sizes.OBJECT_HEADER;
+    }
+}
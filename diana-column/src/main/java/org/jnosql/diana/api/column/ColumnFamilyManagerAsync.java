@@ -20,6 +20,9 @@ package org.jnosql.diana.api.column;
 
 import org.jnosql.diana.api.ExecuteAsyncQueryException;
 import org.jnosql.diana.api.NonUniqueResultException;
+import org.jnosql.diana.api.aggregation.AggregateResult;
+import org.jnosql.diana.api.aggregation.Aggregator;
+import org.jnosql.diana.api.column.query.ColumnQueryBuilder;
 
 import java.time.Duration;
 import java.util.List;
@@ -36,6 +39,29 @@ import java.util.stream.StreamSupport;
  */
 public interface ColumnFamilyManagerAsync extends AutoCloseable {
 
+    /**
+     * Creates a {@link ColumnFamilyManagerAsync} that runs the operations of a synchronous
+     * {@link ColumnFamilyManager} using the default settings of {@link ColumnFamilyManagerAsyncBuilder}
+     *
+     * @param manager the synchronous manager
+     * @return a {@link ColumnFamilyManagerAsync} instance
+     * @throws NullPointerException when manager is null
+     */
+    static ColumnFamilyManagerAsync of(ColumnFamilyManager manager) throws NullPointerException {
+        return builder(manager).build();
+    }
+
+    /**
+     * Creates a builder to a {@link ColumnFamilyManagerAsync} that runs the operations of a synchronous
+     * {@link ColumnFamilyManager}
+     *
+     * @param manager the synchronous manager
+     * @return a {@link ColumnFamilyManagerAsyncBuilder} instance
+     * @throws NullPointerException when manager is null
+     */
+    static ColumnFamilyManagerAsyncBuilder builder(ColumnFamilyManager manager) throws NullPointerException {
+        return new ColumnFamilyManagerAsyncBuilder(manager);
+    }
 
     /**
      * Saves an entity asynchronously
@@ -71,11 +97,35 @@ public interface ColumnFamilyManagerAsync extends AutoCloseable {
     void insert(ColumnEntity entity, Consumer<ColumnEntity> callBack) throws ExecuteAsyncQueryException,
             UnsupportedOperationException, NullPointerException;
 
+    /**
+     * Saves an entity asynchronously, the onError is called instead of the callback when the operation fails.
+     * By default it calls {@link ColumnFamilyManagerAsync#insert(ColumnEntity, Consumer)} and just the failures
+     * thrown by that call go to the onError, each NoSQL vendor might replace to report the asynchronous ones too.
+     *
+     * @param entity   entity to be saved
+     * @param callBack the callback, when the process is finished will call this instance returning the saved entity
+     *                 within parameters
+     * @param onError  the callback to the failure
+     * @throws NullPointerException when either entity, callback or onError are null
+     */
+    default void insert(ColumnEntity entity, Consumer<ColumnEntity> callBack, Consumer<Throwable> onError)
+            throws NullPointerException {
+        Objects.requireNonNull(entity, "entity is required");
+        Objects.requireNonNull(callBack, "callBack is required");
+        Objects.requireNonNull(onError, "onError is required");
+        try {
+            insert(entity, callBack);
+        } catch (RuntimeException e) {
+            onError.accept(e);
+        }
+    }
+
 
     /**
      * Saves an entities asynchronously, by default it's just run for each saving using
      * {@link ColumnFamilyManagerAsync#insert(ColumnEntity)},
-     * each NoSQL vendor might replace to a more appropriate one.
+     * each NoSQL vendor might replace to a more appropriate one. There is no limit to the operations in flight,
+     * to a bounded bulk load see {@link ColumnBatches}.
      *
      * @param entities entity to be saved
      * @throws ExecuteAsyncQueryException    when there is a async error
@@ -90,7 +140,8 @@ public interface ColumnFamilyManagerAsync extends AutoCloseable {
     /**
      * Saves an entities asynchronously with time to live, by default it's just run for each saving using
      * {@link ColumnFamilyManagerAsync#insert(ColumnEntity, Duration)},
-     * each NoSQL vendor might replace to a more appropriate one.
+     * each NoSQL vendor might replace to a more appropriate one. There is no limit to the operations in flight,
+     * to a bounded bulk load see {@link ColumnBatches}.
      *
      * @param entities entity to be saved
      * @param ttl      time to live
@@ -120,6 +171,32 @@ public interface ColumnFamilyManagerAsync extends AutoCloseable {
     void insert(ColumnEntity entity, Duration ttl, Consumer<ColumnEntity> callBack) throws ExecuteAsyncQueryException,
             UnsupportedOperationException, NullPointerException;
 
+    /**
+     * Saves an entity asynchronously with time to live, the onError is called instead of the callback when the
+     * operation fails. By default it calls {@link ColumnFamilyManagerAsync#insert(ColumnEntity, Duration, Consumer)}
+     * and just the failures thrown by that call go to the onError, each NoSQL vendor might replace to report the
+     * asynchronous ones too.
+     *
+     * @param entity   entity to be saved
+     * @param ttl      time to live
+     * @param callBack the callback, when the process is finished will call this instance returning the saved entity
+     *                 within parameters
+     * @param onError  the callback to the failure
+     * @throws NullPointerException when either entity, ttl, callback or onError are null
+     */
+    default void insert(ColumnEntity entity, Duration ttl, Consumer<ColumnEntity> callBack,
+                        Consumer<Throwable> onError) throws NullPointerException {
+        Objects.requireNonNull(entity, "entity is required");
+        Objects.requireNonNull(ttl, "ttl is required");
+        Objects.requireNonNull(callBack, "callBack is required");
+        Objects.requireNonNull(onError, "onError is required");
+        try {
+            insert(entity, ttl, callBack);
+        } catch (RuntimeException e) {
+            onError.accept(e);
+        }
+    }
+
 
     /**
      * Updates an entity asynchronously
@@ -134,7 +211,8 @@ public interface ColumnFamilyManagerAsync extends AutoCloseable {
     /**
      * Updates an entities asynchronously, by default it's just run for each saving using
      * {@link ColumnFamilyManagerAsync#update(ColumnEntity)},
-     * each NoSQL vendor might replace to a more appropriate one.
+     * each NoSQL vendor might replace to a more appropriate one. There is no limit to the operations in flight,
+     * to a bounded bulk load see {@link ColumnBatches}.
      *
      * @param entities entity to be saved
      * @throws ExecuteAsyncQueryException    when there is a async error
@@ -159,6 +237,29 @@ public interface ColumnFamilyManagerAsync extends AutoCloseable {
     void update(ColumnEntity entity, Consumer<ColumnEntity> callBack) throws
             ExecuteAsyncQueryException, UnsupportedOperationException, NullPointerException;
 
+    /**
+     * Updates an entity asynchronously, the onError is called instead of the callback when the operation fails.
+     * By default it calls {@link ColumnFamilyManagerAsync#update(ColumnEntity, Consumer)} and just the failures
+     * thrown by that call go to the onError, each NoSQL vendor might replace to report the asynchronous ones too.
+     *
+     * @param entity   entity to be saved
+     * @param callBack the callback, when the process is finished will call this instance returning
+     *                 the updated entity within parameters
+     * @param onError  the callback to the failure
+     * @throws NullPointerException when either entity, callback or onError are null
+     */
+    default void update(ColumnEntity entity, Consumer<ColumnEntity> callBack, Consumer<Throwable> onError)
+            throws NullPointerException {
+        Objects.requireNonNull(entity, "entity is required");
+        Objects.requireNonNull(callBack, "callBack is required");
+        Objects.requireNonNull(onError, "onError is required");
+        try {
+            update(entity, callBack);
+        } catch (RuntimeException e) {
+            onError.accept(e);
+        }
+    }
+
 
     /**
      * Deletes an entity asynchronously
@@ -183,6 +284,29 @@ public interface ColumnFamilyManagerAsync extends AutoCloseable {
     void delete(ColumnDeleteQuery query, Consumer<Void> callBack) throws ExecuteAsyncQueryException,
             UnsupportedOperationException, NullPointerException;
 
+    /**
+     * Deletes an entity asynchronously, the onError is called instead of the callback when the operation fails.
+     * By default it calls {@link ColumnFamilyManagerAsync#delete(ColumnDeleteQuery, Consumer)} and just the failures
+     * thrown by that call go to the onError, each NoSQL vendor might replace to report the asynchronous ones too.
+     *
+     * @param query    select to delete an entity
+     * @param callBack the callback, when the process is finished will call this instance returning
+     *                 the null within parameters
+     * @param onError  the callback to the failure
+     * @throws NullPointerException when either select, callback or onError are null
+     */
+    default void delete(ColumnDeleteQuery query, Consumer<Void> callBack, Consumer<Throwable> onError)
+            throws NullPointerException {
+        Objects.requireNonNull(query, "query is required");
+        Objects.requireNonNull(callBack, "callBack is required");
+        Objects.requireNonNull(onError, "onError is required");
+        try {
+            delete(query, callBack);
+        } catch (RuntimeException e) {
+            onError.accept(e);
+        }
+    }
+
 
     /**
      * Finds {@link ColumnEntity} from select asynchronously
@@ -197,6 +321,30 @@ public interface ColumnFamilyManagerAsync extends AutoCloseable {
     void select(ColumnQuery query, Consumer<List<ColumnEntity>> callBack) throws ExecuteAsyncQueryException,
             UnsupportedOperationException, NullPointerException;
 
+    /**
+     * Finds {@link ColumnEntity} from select asynchronously, the onError is called instead of the callback when
+     * the operation fails. By default it calls {@link ColumnFamilyManagerAsync#select(ColumnQuery, Consumer)} and
+     * just the failures thrown by that call go to the onError, each NoSQL vendor might replace to report the
+     * asynchronous ones too.
+     *
+     * @param query    select to select entities
+     * @param callBack the callback, when the process is finished will call this instance returning the
+     *                 result of select within parameters
+     * @param onError  the callback to the failure
+     * @throws NullPointerException when either select, callback or onError are null
+     */
+    default void select(ColumnQuery query, Consumer<List<ColumnEntity>> callBack, Consumer<Throwable> onError)
+            throws NullPointerException {
+        Objects.requireNonNull(query, "query is required");
+        Objects.requireNonNull(callBack, "callBack is required");
+        Objects.requireNonNull(onError, "onError is required");
+        try {
+            select(query, callBack);
+        } catch (RuntimeException e) {
+            onError.accept(e);
+        }
+    }
+
     /**
      * Returns a single entity from select
      *
@@ -219,6 +367,53 @@ public interface ColumnFamilyManagerAsync extends AutoCloseable {
 
     }
 
+    /**
+     * Executes an aggregation asynchronously, see {@link ColumnFamilyManager#aggregate(ColumnAggregateQuery)}.
+     * A driver whose database can aggregate overrides this method to push the aggregation down, by default it
+     * selects {@link ColumnAggregateQuery#toQuery()} and aggregates the entities of the result with an
+     * {@link Aggregator}
+     *
+     * @param query    the aggregation
+     * @param callBack the callback, when the process is finished will call this instance returning the result of
+     *                 the aggregation
+     * @throws ExecuteAsyncQueryException    when there is a async error
+     * @throws UnsupportedOperationException when the database does not support this feature
+     * @throws NullPointerException          when either query or callback are null
+     */
+    default void aggregate(ColumnAggregateQuery query, Consumer<AggregateResult> callBack) throws
+            ExecuteAsyncQueryException, UnsupportedOperationException, NullPointerException {
+        Objects.requireNonNull(query, "query is required");
+        Objects.requireNonNull(callBack, "callBack is required");
+        select(query.toQuery(), entities -> {
+            Aggregator<ColumnEntity> aggregator = Aggregator.of(query.getGroupBy(), query.getAggregates(),
+                    name -> entity -> entity.find(name).map(Column::getValue).orElse(null));
+            entities.forEach(aggregator);
+            callBack.accept(aggregator.getResult());
+        });
+    }
+
+    /**
+     * Counts the entities that match the condition of the query asynchronously, the first result, the max results, the
+     * sorts and the columns of the query are ignored, see {@link ColumnFamilyManager#count(ColumnQuery)}. By default it
+     * runs the {@link ColumnQueryBuilder#count(ColumnQuery)} aggregation, see
+     * {@link #aggregate(ColumnAggregateQuery, Consumer)}, so a driver that aggregates counts without moving the
+     * entities, and otherwise a single column of each entity is selected.
+     *
+     * @param query    the query
+     * @param callBack the callback, when the process is finished will call this instance returning the number of
+     *                 entities
+     * @throws ExecuteAsyncQueryException    when there is a async error
+     * @throws UnsupportedOperationException when the database does not support this feature
+     * @throws NullPointerException          when either query or callback are null
+     */
+    default void count(ColumnQuery query, Consumer<Long> callBack) throws ExecuteAsyncQueryException,
+            UnsupportedOperationException, NullPointerException {
+        Objects.requireNonNull(query, "query is required");
+        Objects.requireNonNull(callBack, "callBack is required");
+        aggregate(ColumnQueryBuilder.count(query), result -> callBack.accept(result.singleResult()
+                .flatMap(g -> g.find("count")).map(v -> v.get(Long.class)).orElse(0L)));
+    }
+
     /**
      * closes a resource
      */
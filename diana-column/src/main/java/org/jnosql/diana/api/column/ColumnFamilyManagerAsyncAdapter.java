@@ -0,0 +1,281 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+
+package org.jnosql.diana.api.column;
+
+import org.jnosql.diana.api.ExecuteAsyncQueryException;
+import org.jnosql.diana.api.aggregation.AggregateResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link ColumnFamilyManagerAsync} that runs every operation of a synchronous {@link ColumnFamilyManager}
+ * on an {@link ExecutorService}. When there is a concurrency limit, the caller waits for a free permit before
+ * the operation is submitted, so a fast producer cannot queue more work than the limit allows.
+ * A failure of an operation called without an error callback goes to the default error callback of the builder,
+ * or to the uncaught exception handler of the thread that ran the operation, so it is never lost.
+ *
+ * @see ColumnFamilyManagerAsyncBuilder
+ */
+final class ColumnFamilyManagerAsyncAdapter implements ColumnFamilyManagerAsync {
+
+    private final ColumnFamilyManager manager;
+
+    private final ExecutorService executor;
+
+    private final Executor callbackExecutor;
+
+    private final Consumer<Throwable> defaultOnError;
+
+    private final Semaphore permits;
+
+    private final boolean shutdownExecutor;
+
+    ColumnFamilyManagerAsyncAdapter(ColumnFamilyManager manager, ExecutorService executor, Executor callbackExecutor,
+                                    Consumer<Throwable> defaultOnError, Semaphore permits, boolean shutdownExecutor) {
+        this.manager = manager;
+        this.executor = executor;
+        this.callbackExecutor = callbackExecutor;
+        this.defaultOnError = defaultOnError;
+        this.permits = permits;
+        this.shutdownExecutor = shutdownExecutor;
+    }
+
+    @Override
+    public void insert(ColumnEntity entity) throws ExecuteAsyncQueryException, UnsupportedOperationException,
+            NullPointerException {
+        requireNonNull(entity, "entity is required");
+        execute(() -> manager.insert(entity), e -> {
+        });
+    }
+
+    @Override
+    public void insert(ColumnEntity entity, Duration ttl) throws ExecuteAsyncQueryException,
+            UnsupportedOperationException, NullPointerException {
+        requireNonNull(entity, "entity is required");
+        requireNonNull(ttl, "ttl is required");
+        execute(() -> manager.insert(entity, ttl), e -> {
+        });
+    }
+
+    @Override
+    public void insert(ColumnEntity entity, Consumer<ColumnEntity> callBack) throws ExecuteAsyncQueryException,
+            UnsupportedOperationException, NullPointerException {
+        requireNonNull(entity, "entity is required");
+        requireNonNull(callBack, "callBack is required");
+        execute(() -> manager.insert(entity), callBack);
+    }
+
+    @Override
+    public void insert(ColumnEntity entity, Duration ttl, Consumer<ColumnEntity> callBack) throws
+            ExecuteAsyncQueryException, UnsupportedOperationException, NullPointerException {
+        requireNonNull(entity, "entity is required");
+        requireNonNull(ttl, "ttl is required");
+        requireNonNull(callBack, "callBack is required");
+        execute(() -> manager.insert(entity, ttl), callBack);
+    }
+
+    @Override
+    public void update(ColumnEntity entity) throws ExecuteAsyncQueryException, UnsupportedOperationException,
+            NullPointerException {
+        requireNonNull(entity, "entity is required");
+        execute(() -> manager.update(entity), e -> {
+        });
+    }
+
+    @Override
+    public void update(ColumnEntity entity, Consumer<ColumnEntity> callBack) throws ExecuteAsyncQueryException,
+            UnsupportedOperationException, NullPointerException {
+        requireNonNull(entity, "entity is required");
+        requireNonNull(callBack, "callBack is required");
+        execute(() -> manager.update(entity), callBack);
+    }
+
+    @Override
+    public void delete(ColumnDeleteQuery query) throws ExecuteAsyncQueryException, UnsupportedOperationException,
+            NullPointerException {
+        requireNonNull(query, "query is required");
+        delete(query, v -> {
+        });
+    }
+
+    @Override
+    public void delete(ColumnDeleteQuery query, Consumer<Void> callBack) throws ExecuteAsyncQueryException,
+            UnsupportedOperationException, NullPointerException {
+        requireNonNull(query, "query is required");
+        requireNonNull(callBack, "callBack is required");
+        execute(() -> {
+            manager.delete(query);
+            return null;
+        }, callBack);
+    }
+
+    @Override
+    public void select(ColumnQuery query, Consumer<List<ColumnEntity>> callBack) throws ExecuteAsyncQueryException,
+            UnsupportedOperationException, NullPointerException {
+        requireNonNull(query, "query is required");
+        requireNonNull(callBack, "callBack is required");
+        execute(() -> manager.select(query), callBack);
+    }
+
+    @Override
+    public void aggregate(ColumnAggregateQuery query, Consumer<AggregateResult> callBack) throws
+            ExecuteAsyncQueryException, UnsupportedOperationException, NullPointerException {
+        requireNonNull(query, "query is required");
+        requireNonNull(callBack, "callBack is required");
+        execute(() -> manager.aggregate(query), callBack);
+    }
+
+    @Override
+    public void count(ColumnQuery query, Consumer<Long> callBack) throws ExecuteAsyncQueryException,
+            UnsupportedOperationException, NullPointerException {
+        requireNonNull(query, "query is required");
+        requireNonNull(callBack, "callBack is required");
+        execute(() -> manager.count(query), callBack);
+    }
+
+    @Override
+    public void close() {
+        if (shutdownExecutor) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        manager.close();
+    }
+
+    @Override
+    public void insert(ColumnEntity entity, Consumer<ColumnEntity> callBack, Consumer<Throwable> onError) {
+        requireNonNull(entity, "entity is required");
+        requireNonNull(callBack, "callBack is required");
+        requireNonNull(onError, "onError is required");
+        execute(() -> manager.insert(entity), callBack, onError);
+    }
+
+    @Override
+    public void insert(ColumnEntity entity, Duration ttl, Consumer<ColumnEntity> callBack,
+                       Consumer<Throwable> onError) {
+        requireNonNull(entity, "entity is required");
+        requireNonNull(ttl, "ttl is required");
+        requireNonNull(callBack, "callBack is required");
+        requireNonNull(onError, "onError is required");
+        execute(() -> manager.insert(entity, ttl), callBack, onError);
+    }
+
+    @Override
+    public void update(ColumnEntity entity, Consumer<ColumnEntity> callBack, Consumer<Throwable> onError) {
+        requireNonNull(entity, "entity is required");
+        requireNonNull(callBack, "callBack is required");
+        requireNonNull(onError, "onError is required");
+        execute(() -> manager.update(entity), callBack, onError);
+    }
+
+    @Override
+    public void delete(ColumnDeleteQuery query, Consumer<Void> callBack, Consumer<Throwable> onError) {
+        requireNonNull(query, "query is required");
+        requireNonNull(callBack, "callBack is required");
+        requireNonNull(onError, "onError is required");
+        execute(() -> {
+            manager.delete(query);
+            return null;
+        }, callBack, onError);
+    }
+
+    @Override
+    public void select(ColumnQuery query, Consumer<List<ColumnEntity>> callBack, Consumer<Throwable> onError) {
+        requireNonNull(query, "query is required");
+        requireNonNull(callBack, "callBack is required");
+        requireNonNull(onError, "onError is required");
+        execute(() -> manager.select(query), callBack, onError);
+    }
+
+    private <T> void execute(Supplier<T> operation, Consumer<T> callBack) {
+        execute(operation, callBack, null);
+    }
+
+    private <T> void execute(Supplier<T> operation, Consumer<T> callBack, Consumer<Throwable> onError) {
+        acquire();
+        try {
+            executor.execute(() -> {
+                T result;
+                try {
+                    result = operation.get();
+                } catch (RuntimeException e) {
+                    fail(e, onError == null ? defaultOnError : onError);
+                    return;
+                } finally {
+                    release();
+                }
+                callbackExecutor.execute(() -> callBack.accept(result));
+            });
+        } catch (RejectedExecutionException e) {
+            release();
+            throw new ExecuteAsyncQueryException("The operation was rejected by the executor", e);
+        }
+    }
+
+    private void fail(RuntimeException exception, Consumer<Throwable> onError) {
+        if (onError != null) {
+            callbackExecutor.execute(() -> onError.accept(exception));
+            return;
+        }
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, exception);
+    }
+
+    private void acquire() {
+        if (permits == null) {
+            return;
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExecuteAsyncQueryException("Interrupted while waiting for a free permit", e);
+        }
+    }
+
+    private void release() {
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ColumnFamilyManagerAsyncAdapter{");
+        sb.append("manager=").append(manager);
+        sb.append(", executor=").append(executor);
+        sb.append(", permits=").append(permits);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+
+package org.jnosql.diana.api.column;
+
+import org.jnosql.diana.api.batch.BatchFailure;
+import org.jnosql.diana.api.batch.BatchWriteException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The {@link ColumnBatchWriter} to the NoSQL vendors that don't have a native batch,
+ * it saves each entity with the {@link ColumnFamilyManager}.
+ */
+final class ColumnFamilyManagerBatchWriter implements ColumnBatchWriter {
+
+    private final ColumnFamilyManager manager;
+
+    ColumnFamilyManagerBatchWriter(ColumnFamilyManager manager) {
+        this.manager = requireNonNull(manager, "manager is required");
+    }
+
+    @Override
+    public void insert(String columnFamily, List<ColumnEntity> entities) {
+        execute(columnFamily, entities, manager::insert);
+    }
+
+    @Override
+    public void insert(String columnFamily, List<ColumnEntity> entities, Duration ttl) {
+        requireNonNull(ttl, "ttl is required");
+        execute(columnFamily, entities, e -> manager.insert(e, ttl));
+    }
+
+    @Override
+    public void update(String columnFamily, List<ColumnEntity> entities) {
+        execute(columnFamily, entities, manager::update);
+    }
+
+    private void execute(String columnFamily, List<ColumnEntity> entities, Consumer<ColumnEntity> operation) {
+        requireNonNull(columnFamily, "columnFamily is required");
+        requireNonNull(entities, "entities is required");
+        List<BatchFailure<ColumnEntity>> failures = new ArrayList<>();
+        for (ColumnEntity entity : entities) {
+            try {
+                operation.accept(entity);
+            } catch (RuntimeException exception) {
+                failures.add(BatchFailure.of(entity, exception));
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new BatchWriteException(failures.size() + " entities failed on the column family "
+                    + columnFamily, failures);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ColumnFamilyManagerBatchWriter{");
+        sb.append("manager=").append(manager);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.column;
+
+import org.jnosql.diana.api.Condition;
+import org.jnosql.diana.api.Fingerprint;
+import org.jnosql.diana.api.FingerprintHasher;
+import org.jnosql.diana.api.Sort;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Utilitarian class to create the {@link Fingerprint} of a {@link ColumnQuery} or a {@link ColumnDeleteQuery}.
+ * <ul>
+ * <li>The fingerprint identifies the query: two queries that differ only in the order of the conditions of an AND
+ * or an OR, the values of an IN, or the columns to be returned have the same fingerprint.</li>
+ * <li>The shape ignores the parameters, i.e. the values of the conditions, the first and the maximum results, so
+ * the queries that differ only in their parameters have the same shape.</li>
+ * </ul>
+ * Both are stable across JVMs.
+ */
+public final class ColumnFingerprints {
+
+    private static final String SELECT = "select";
+
+    private static final String DELETE = "delete";
+
+    private ColumnFingerprints() {
+    }
+
+    /**
+     * Creates the fingerprint of a query
+     *
+     * @param query the query
+     * @return the query fingerprint
+     * @throws NullPointerException     when query is null
+     * @throws IllegalArgumentException when a value of a condition has a type that is not supported by
+     *                                  {@link FingerprintHasher#putValue(Object)}
+     */
+    public static Fingerprint of(ColumnQuery query) throws NullPointerException, IllegalArgumentException {
+        requireNonNull(query, "query is required");
+        return select(query, false);
+    }
+
+    /**
+     * Creates the fingerprint of a delete query
+     *
+     * @param query the query
+     * @return the query fingerprint
+     * @throws NullPointerException     when query is null
+     * @throws IllegalArgumentException when a value of a condition has a type that is not supported by
+     *                                  {@link FingerprintHasher#putValue(Object)}
+     */
+    public static Fingerprint of(ColumnDeleteQuery query) throws NullPointerException, IllegalArgumentException {
+        requireNonNull(query, "query is required");
+        return delete(query, false);
+    }
+
+    /**
+     * Creates the fingerprint of the shape of a query, that ignores its parameters
+     *
+     * @param query the query
+     * @return the shape fingerprint
+     * @throws NullPointerException when query is null
+     */
+    public static Fingerprint shape(ColumnQuery query) throws NullPointerException {
+        requireNonNull(query, "query is required");
+        return select(query, true);
+    }
+
+    /**
+     * Creates the fingerprint of the shape of a delete query, that ignores its parameters
+     *
+     * @param query the query
+     * @return the shape fingerprint
+     * @throws NullPointerException when query is null
+     */
+    public static Fingerprint shape(ColumnDeleteQuery query) throws NullPointerException {
+        requireNonNull(query, "query is required");
+        return delete(query, true);
+    }
+
+    private static Fingerprint select(ColumnQuery query, boolean shape) {
+        FingerprintHasher hasher = Fingerprint.hasher().putString(SELECT).putString(query.getColumnFamily());
+        names(hasher, query.getColumns());
+        hasher.putInt(query.getSorts().size());
+        for (Sort sort : query.getSorts()) {
+            hasher.putString(sort.getName()).putString(sort.getType().name());
+        }
+        if (shape) {
+            hasher.putBoolean(query.getFirstResult() > 0).putBoolean(query.getMaxResults() > 0);
+        } else {
+            hasher.putLong(query.getFirstResult()).putLong(query.getMaxResults());
+        }
+        return condition(hasher, query.getCondition(), shape).hash();
+    }
+
+    private static Fingerprint delete(ColumnDeleteQuery query, boolean shape) {
+        FingerprintHasher hasher = Fingerprint.hasher().putString(DELETE).putString(query.getColumnFamily());
+        names(hasher, query.getColumns());
+        return condition(hasher, query.getCondition(), shape).hash();
+    }
+
+    private static void names(FingerprintHasher hasher, List<String> names) {
+        List<Fingerprint> fingerprints = new ArrayList<>(names.size());
+        for (String name : names) {
+            fingerprints.add(Fingerprint.hasher().putString(name).hash());
+        }
+        hasher.putUnordered(fingerprints);
+    }
+
+    private static FingerprintHasher condition(FingerprintHasher hasher, Optional<ColumnCondition> condition,
+                                               boolean shape) {
+        hasher.putBoolean(condition.isPresent());
+        condition.ifPresent(c -> hasher.putFingerprint(condition(c, shape)));
+        return hasher;
+    }
+
+    private static Fingerprint condition(ColumnCondition condition, boolean shape) {
+        Condition type = condition.getCondition();
+        Column column = condition.getColumn();
+        FingerprintHasher hasher = Fingerprint.hasher().putString(type.name());
+        switch (type) {
+            case AND:
+            case OR:
+                List<Fingerprint> conditions = new ArrayList<>();
+                for (Object value : Iterable.class.cast(column.get())) {
+                    conditions.add(condition(ColumnCondition.class.cast(value), shape));
+                }
+                return hasher.putUnordered(conditions).hash();
+            case NOT:
+                return hasher.putFingerprint(condition(ColumnCondition.class.cast(column.get()), shape)).hash();
+            default:
+                hasher.putString(column.getName());
+                if (shape) {
+                    return hasher.hash();
+                }
+                Object value = column.get();
+                if (Condition.IN.equals(type) && value instanceof Iterable) {
+                    List<Fingerprint> values = new ArrayList<>();
+                    for (Object element : Iterable.class.cast(value)) {
+                        values.add(Fingerprint.hasher().putValue(plain(element)).hash());
+                    }
+                    return hasher.putUnordered(values).hash();
+                }
+                return hasher.putValue(plain(value)).hash();
+        }
+    }
+
+    /**
+     * Converts the sub-columns to entries and the sub-entities to maps, so {@link FingerprintHasher#putValue(Object)}
+     * adds them by name and value
+     */
+    private static Object plain(Object value) {
+        if (value instanceof ColumnEntity) {
+            Map<String, Object> values = new HashMap<>();
+            ColumnEntity.class.cast(value).getColumns().forEach(c -> values.put(c.getName(), plain(c.get())));
+            return values;
+        }
+        if (value instanceof Column) {
+            Column column = Column.class.cast(value);
+            return new AbstractMap.SimpleImmutableEntry<>(column.getName(), plain(column.get()));
+        }
+        if (value instanceof Iterable) {
+            List<Object> values = new ArrayList<>();
+            for (Object element : Iterable.class.cast(value)) {
+                values.add(plain(element));
+            }
+            return values;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.column;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The projection of a {@link ColumnQuery}, see {@link ColumnQuery#getColumns()}: when it is empty the query returns
+ * every column, otherwise each entity returned has only the listed columns that it has, a column that the entity does
+ * not have is not returned with a null value, it is just absent. The key column is not added when it is not listed.
+ * The repeated names are ignored.
+ * Drivers and engines use it to skip the columns not requested instead of decoding the whole row, either through
+ * {@link #apply(ColumnEntity)} or {@link #lazy(String, Function)} that reads a column only when it is requested.
+ *
+ * @see ColumnProjection#of(ColumnQuery)
+ */
+public final class ColumnProjection {
+
+    private static final ColumnProjection ALL = new ColumnProjection(Collections.emptyList());
+
+    private final List<String> columns;
+
+    private final Map<String, Integer> positions;
+
+    private ColumnProjection(List<String> columns) {
+        this.columns = Collections.unmodifiableList(columns);
+        this.positions = new HashMap<>(columns.size() * 2);
+        for (int index = 0; index < columns.size(); index++) {
+            positions.put(columns.get(index), index);
+        }
+    }
+
+    /**
+     * Creates a {@link ColumnProjection}
+     *
+     * @param columns the columns, when empty every column
+     * @return a {@link ColumnProjection} instance
+     * @throws NullPointerException when columns or any column is null
+     */
+    public static ColumnProjection of(List<String> columns) throws NullPointerException {
+        requireNonNull(columns, "columns is required");
+        if (columns.isEmpty()) {
+            return ALL;
+        }
+        LinkedHashSet<String> names = new LinkedHashSet<>(columns.size() * 2);
+        for (String column : columns) {
+            names.add(requireNonNull(column, "column is required"));
+        }
+        return new ColumnProjection(new ArrayList<>(names));
+    }
+
+    /**
+     * Creates the {@link ColumnProjection} of a query
+     *
+     * @param query the query
+     * @return a {@link ColumnProjection} instance
+     * @throws NullPointerException when query is null
+     */
+    public static ColumnProjection of(ColumnQuery query) throws NullPointerException {
+        requireNonNull(query, "query is required");
+        return of(query.getColumns());
+    }
+
+    /**
+     * @return true when the projection returns every column
+     */
+    public boolean isAll() {
+        return columns.isEmpty();
+    }
+
+    /**
+     * @return the columns without repetition, empty when the projection returns every column
+     */
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Whether the projection returns the column
+     *
+     * @param column the column name
+     * @return true when the column is returned
+     * @throws NullPointerException when column is null
+     */
+    public boolean contains(String column) throws NullPointerException {
+        requireNonNull(column, "column is required");
+        return isAll() || positions.containsKey(column);
+    }
+
+    /**
+     * Creates a new entity with the columns of this projection, the columns not requested are not read from the entity
+     *
+     * @param entity the entity
+     * @return a new entity, a copy of the entity when the projection returns every column
+     * @throws NullPointerException when entity is null
+     */
+    public ColumnEntity apply(ColumnEntity entity) throws NullPointerException {
+        requireNonNull(entity, "entity is required");
+        if (isAll()) {
+            return entity.copy();
+        }
+        ColumnEntity projection = ColumnEntity.of(entity.getName());
+        for (String column : columns) {
+            entity.find(column).ifPresent(projection::add);
+        }
+        return projection;
+    }
+
+    /**
+     * Creates a read-only entity with the columns of this projection that reads each column from the reader only when
+     * it is first requested, e.g. a driver decodes just the columns that the caller reads from a wide row.
+     * The operations on the whole entity, such as {@link ColumnEntity#getColumns()}, read every column of the
+     * projection, never the others. {@link ColumnEntity#copy()} returns a mutable entity.
+     * The entity is not thread-safe.
+     *
+     * @param name   the column family name
+     * @param reader reads the value, either a raw object or a {@link org.jnosql.diana.api.Value}, of a column from
+     *               its name, it returns null when the row does not have the column
+     * @return a lazy entity
+     * @throws NullPointerException  when either name or reader is null
+     * @throws IllegalStateException when the projection returns every column, so the names are not known
+     */
+    public ColumnEntity lazy(String name, Function<String, ?> reader) throws NullPointerException,
+            IllegalStateException {
+        requireNonNull(name, "name is required");
+        requireNonNull(reader, "reader is required");
+        if (isAll()) {
+            throw new IllegalStateException("A lazy entity requires the columns of the projection");
+        }
+        return new ProjectedColumnEntity(name, this, reader);
+    }
+
+    int position(String column) {
+        Integer position = positions.get(column);
+        return position == null ? -1 : position;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ColumnProjection that = (ColumnProjection) o;
+        return Objects.equals(positions.keySet(), that.positions.keySet());
+    }
+
+    @Override
+    public int hashCode() {
+        return positions.keySet().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ColumnProjection{");
+        sb.append("columns=").append(columns);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -62,7 +62,9 @@ public interface ColumnQuery {
 
     /**
      * Returns the columns to returns in that query if empty will return all elements in the query.
-     * The implementation might ignore this option.
+     * Otherwise each entity returned has only the listed columns that it has, the semantics are described in
+     * {@link ColumnProjection}, an implementation that can not skip the other columns when it reads the rows
+     * removes them with {@link ColumnProjection#apply(ColumnEntity)}.
      *
      * @return the columns
      */
@@ -0,0 +1,242 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.column;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A dictionary that gives an ordinal slot to each column name. The {@link ColumnEntity} instances created with the
+ * same schema share the names, each one just keeps its values by slot, so a result set from a select might use a
+ * single schema to all its rows:
+ * <pre>
+ * ColumnSchema schema = ColumnSchema.of("id", "name", "age");
+ * ColumnEntity row = schema.newEntity("person");
+ * </pre>
+ * A slot never changes and the names are only added, so this class is thread-safe and the lookups do not lock.
+ * The schema just maps the names to slots, each entity keeps only the values it has.
+ */
+public final class ColumnSchema implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The maximum number of names of the schema shared by a column family, when it is full the column family moves
+     * to a new schema and the entities that need more names move to a schema of their own
+     */
+    static final int MAX_FAMILY_NAMES = 1_024;
+
+    /**
+     * The maximum number of column families that share a schema, a column family is evicted to make room to another
+     * one and its entities keep the schema they already have
+     */
+    static final int MAX_FAMILIES = 256;
+
+    private static final int MIN_CAPACITY = 8;
+
+    private static final Map<String, ColumnSchema> FAMILIES = new ConcurrentHashMap<>();
+
+    private final Map<String, Integer> slots;
+
+    private volatile String[] names;
+
+    private volatile int size;
+
+    private ColumnSchema(int capacity, Map<String, Integer> slots) {
+        this.names = new String[Math.max(MIN_CAPACITY, capacity)];
+        this.slots = slots;
+    }
+
+    /**
+     * Creates an empty {@link ColumnSchema}
+     *
+     * @return a {@link ColumnSchema} instance
+     */
+    public static ColumnSchema of() {
+        return new ColumnSchema(MIN_CAPACITY, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Creates a {@link ColumnSchema} with the names in the slots following the order
+     *
+     * @param names the names
+     * @return a {@link ColumnSchema} instance
+     * @throws NullPointerException when either names or a name are null
+     */
+    public static ColumnSchema of(String... names) throws NullPointerException {
+        requireNonNull(names, "names is required");
+        ColumnSchema schema = new ColumnSchema(names.length, new ConcurrentHashMap<>());
+        for (String name : names) {
+            schema.add(name);
+        }
+        return schema;
+    }
+
+    /**
+     * Creates a {@link ColumnSchema} with the names in the slots following the order
+     *
+     * @param names the names
+     * @return a {@link ColumnSchema} instance
+     * @throws NullPointerException when either names or a name are null
+     */
+    public static ColumnSchema of(Iterable<String> names) throws NullPointerException {
+        requireNonNull(names, "names is required");
+        ColumnSchema schema = of();
+        names.forEach(schema::add);
+        return schema;
+    }
+
+    /**
+     * Creates a schema to the names of a single entity, it is not thread-safe, so it must not be shared
+     *
+     * @return a {@link ColumnSchema} instance
+     */
+    static ColumnSchema local() {
+        return new ColumnSchema(MIN_CAPACITY, new HashMap<>());
+    }
+
+    /**
+     * Returns the schema shared by the entities of a column family that were not created with a schema. A column
+     * family whose schema is full gets a new one, and when there are {@link #MAX_FAMILIES} column families another
+     * one is evicted, the entities keep the schema they were created with.
+     *
+     * @return the shared schema
+     */
+    static ColumnSchema family(String columnFamily) {
+        ColumnSchema schema = FAMILIES.get(columnFamily);
+        if (schema != null && schema.size() < MAX_FAMILY_NAMES) {
+            return schema;
+        }
+        if (schema == null && FAMILIES.size() >= MAX_FAMILIES) {
+            Iterator<String> families = FAMILIES.keySet().iterator();
+            if (families.hasNext()) {
+                families.next();
+                families.remove();
+            }
+        }
+        return FAMILIES.compute(columnFamily, (k, current) ->
+                current == null || current.size() >= MAX_FAMILY_NAMES ? of() : current);
+    }
+
+    /**
+     * @return the number of column families that share a schema
+     */
+    static int families() {
+        return FAMILIES.size();
+    }
+
+    /**
+     * Creates an empty {@link ColumnEntity} that keeps its names in this schema
+     *
+     * @param name the column family name
+     * @return a {@link ColumnEntity} instance
+     * @throws NullPointerException when name is null
+     */
+    public ColumnEntity newEntity(String name) throws NullPointerException {
+        return new DefaultColumnEntity(name, this);
+    }
+
+    /**
+     * Returns the slot of a name
+     *
+     * @param name the name
+     * @return the slot or -1 when the name is not in this schema
+     * @throws NullPointerException when name is null
+     */
+    public int getSlot(String name) throws NullPointerException {
+        Integer slot = slots.get(requireNonNull(name, "name is required"));
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Returns the slot of a name, the name is added to the next slot when it is not in this schema
+     *
+     * @param name the name
+     * @return the slot
+     * @throws NullPointerException when name is null
+     */
+    public int add(String name) throws NullPointerException {
+        Integer slot = slots.get(requireNonNull(name, "name is required"));
+        if (slot != null) {
+            return slot;
+        }
+        return append(name);
+    }
+
+    private synchronized int append(String name) {
+        Integer slot = slots.get(name);
+        if (slot != null) {
+            return slot;
+        }
+        int next = size;
+        String[] current = names;
+        if (next == current.length) {
+            current = Arrays.copyOf(current, next + (next >> 1));
+        }
+        current[next] = name;
+        names = current;
+        size = next + 1;
+        slots.put(name, next);
+        return next;
+    }
+
+    /**
+     * Returns the name in a slot
+     *
+     * @param slot the slot
+     * @return the name
+     * @throws IndexOutOfBoundsException when there is no name in the slot
+     */
+    public String getName(int slot) throws IndexOutOfBoundsException {
+        if (slot < 0 || slot >= size) {
+            throw new IndexOutOfBoundsException("There is no name in the slot " + slot);
+        }
+        return names[slot];
+    }
+
+    /**
+     * @return the number of names
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the names following the slots order
+     */
+    public List<String> getNames() {
+        int current = size;
+        return Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(names, current)));
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ColumnSchema{");
+        sb.append("names=").append(getNames());
+        sb.append('}');
+        return sb.toString();
+    }
+}
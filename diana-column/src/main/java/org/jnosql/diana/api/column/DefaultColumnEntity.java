@@ -19,31 +19,94 @@ package org.jnosql.diana.api.column;
 
 import org.jnosql.diana.api.Value;
 
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.RandomAccess;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.BiConsumer;
 
 import static java.util.Arrays.asList;
-import static java.util.Collections.unmodifiableSet;
 import static java.util.Objects.requireNonNull;
-import static java.util.Optional.ofNullable;
-import static java.util.stream.Collectors.collectingAndThen;
-import static java.util.stream.Collectors.toList;
 
+/**
+ * A default implementation of {@link ColumnEntity}. The names are in a {@link ColumnSchema} and this entity just
+ * keeps its values in the order of their slots, a {@link Column} is created when it is read. An entity created
+ * without a schema shares the schema of its column family, see {@link ColumnSchema#family(String)}.
+ * The {@link #getColumns()}, {@link #getColumnNames()}, {@link #getValues()} and {@link #toMap()} return read-only
+ * live views instead of copies, and {@link #forEach(BiConsumer)} walks the columns without allocation.
+ * A {@link #copy()} shares the values with this entity, the first one that changes copies the values. When the
+ * entity has a schema of its own, the first one that adds a name copies the schema too. This class is not
+ * thread-safe, the copies of an entity might be taken concurrently but not while it changes.
+ * The entity keeps a fingerprint of its columns that is updated on each change, so {@link #hashCode()} does not walk
+ * the columns and {@link #equals(Object)} tells apart most of the different entities without comparing the values.
+ * As in a hash key, a value must not change its hash code while it is in the entity.
+ */
 final class DefaultColumnEntity implements ColumnEntity {
 
-    private final Map<String, Column> columns = new HashMap<>();
+    private static final int MIN_CAPACITY = 4;
+
+    private static final Value[] EMPTY = new Value[0];
 
     private final String name;
 
+    private ColumnSchema schema;
+
+    private boolean familySchema;
+
+    private boolean localSchema;
+
+    private volatile boolean sharedSchema;
+
+    /**
+     * The values in the order of their slots, just the first {@link #size} positions are in use
+     */
+    private Value[] values;
+
+    /**
+     * The slot of each position, it is null while each value is in the position of the same number as its slot
+     */
+    private int[] slots;
+
+    private volatile boolean sharedValues;
+
+    private int size;
+
+    private long fingerprint;
+
     DefaultColumnEntity(String name) {
         this.name = Objects.requireNonNull(name, "name is required");
+        this.schema = ColumnSchema.family(name);
+        this.familySchema = true;
+        this.values = EMPTY;
+    }
+
+    DefaultColumnEntity(String name, ColumnSchema schema) {
+        this.name = Objects.requireNonNull(name, "name is required");
+        this.schema = Objects.requireNonNull(schema, "schema is required");
+        this.values = EMPTY;
+    }
+
+    private DefaultColumnEntity(DefaultColumnEntity entity) {
+        this.name = entity.name;
+        this.schema = entity.schema;
+        this.familySchema = entity.familySchema;
+        this.localSchema = entity.localSchema;
+        this.sharedSchema = entity.localSchema;
+        this.values = entity.values;
+        this.slots = entity.slots;
+        this.sharedValues = true;
+        this.size = entity.size;
+        this.fingerprint = entity.fingerprint;
     }
 
     /**
@@ -81,91 +144,243 @@ final class DefaultColumnEntity implements ColumnEntity {
     @Override
     public void add(Column column) {
         Objects.requireNonNull(column, "Column is required");
-        this.columns.put(column.getName(), column);
+        put(column.getName(), column.getValue());
     }
 
     @Override
     public void add(String columnName, Object value) throws UnsupportedOperationException, NullPointerException {
         requireNonNull(columnName, "columnName is required");
         requireNonNull(value, "value is required");
-        this.add(Column.of(columnName, value));
+        put(columnName, Value.of(value));
     }
 
     @Override
     public void add(String columnName, Value value) throws UnsupportedOperationException, NullPointerException {
         requireNonNull(columnName, "columnName is required");
         requireNonNull(value, "value is required");
-        this.add(Column.of(columnName, value));
+        put(columnName, value);
     }
 
     public Map<String, Object> toMap() {
-        return columns.entrySet().stream()
-                .collect(collectingAndThen(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().get()),
-                        Collections::unmodifiableMap));
+        return new MapView();
     }
 
     public List<Column> getColumns() {
-        return columns.entrySet()
-                .stream()
-                .map(Map.Entry::getValue)
-                .collect(collectingAndThen(toList(), Collections::unmodifiableList));
+        return new ColumnsView();
+    }
+
+    @Override
+    public void forEach(BiConsumer<String, Value> action) throws NullPointerException {
+        requireNonNull(action, "action is required");
+        for (int position = 0; position < size; position++) {
+            action.accept(nameAt(position), values[position]);
+        }
     }
 
     public String getName() {
         return name;
     }
 
+    /**
+     * @return the schema that gives the slots to the names of this entity
+     */
+    ColumnSchema getSchema() {
+        return schema;
+    }
+
     @Override
     public boolean remove(String columnName) {
         requireNonNull(columnName, "columnName is required");
-        return columns.remove(columnName) != null;
+        int position = positionOf(columnName);
+        if (position < 0) {
+            return false;
+        }
+        fingerprint -= fingerprint(columnName, values[position]);
+        writableValues();
+        int moved = size - position - 1;
+        if (slots == null && moved > 0) {
+            slots = positions(values.length);
+        }
+        System.arraycopy(values, position + 1, values, position, moved);
+        if (slots != null) {
+            System.arraycopy(slots, position + 1, slots, position, moved);
+        }
+        values[--size] = null;
+        return true;
     }
 
 
     @Override
     public Optional<Column> find(String columnName) {
         requireNonNull(columnName, "columnName is required");
-        Column column = columns.get(columnName);
-        return ofNullable(column);
+        int position = positionOf(columnName);
+        if (position < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(Column.of(nameAt(position), values[position]));
     }
 
     @Override
     public int size() {
-        return columns.size();
+        return size;
     }
 
     public boolean isEmpty() {
-        return columns.isEmpty();
+        return size == 0;
     }
 
     @Override
     public ColumnEntity copy() {
-        DefaultColumnEntity entity = new DefaultColumnEntity(this.name);
-        entity.columns.putAll(new HashMap<>(this.columns));
-        return entity;
+        this.sharedValues = true;
+        this.sharedSchema = localSchema;
+        return new DefaultColumnEntity(this);
     }
 
     @Override
     public Set<String> getColumnNames() {
-        return unmodifiableSet(columns.keySet());
+        return new NamesView();
     }
 
     @Override
     public Collection<Value> getValues() {
-        return columns.values().stream()
-                .map(Column::getValue)
-                .collect(toList());
+        return new ValuesView();
     }
 
     @Override
     public boolean contains(String columnName) {
         requireNonNull(columnName, "columnName is required");
-        return columns.containsKey(columnName);
+        return positionOf(columnName) >= 0;
     }
 
     @Override
     public void clear() {
-        columns.clear();
+        if (sharedValues) {
+            values = EMPTY;
+            sharedValues = false;
+        } else {
+            Arrays.fill(values, 0, size, null);
+        }
+        slots = null;
+        size = 0;
+        fingerprint = 0L;
+    }
+
+    /**
+     * @return the position of the name when this entity has a value to it, otherwise -1
+     */
+    private int positionOf(String columnName) {
+        int slot = schema.getSlot(columnName);
+        if (slot < 0) {
+            return -1;
+        }
+        int position = positionOf(slot);
+        return position < 0 ? -1 : position;
+    }
+
+    /**
+     * @return the position of the slot, or (-(insertion point) - 1) when this entity does not have a value to it
+     */
+    private int positionOf(int slot) {
+        if (slots == null) {
+            return slot < size ? slot : -(size + 1);
+        }
+        return Arrays.binarySearch(slots, 0, size, slot);
+    }
+
+    private String nameAt(int position) {
+        return schema.getName(slots == null ? position : slots[position]);
+    }
+
+    private void put(String columnName, Value value) {
+        int slot = schema.getSlot(columnName);
+        if (slot < 0) {
+            if (sharedSchema || (familySchema && schema.size() >= ColumnSchema.MAX_FAMILY_NAMES)) {
+                detach();
+            }
+            slot = schema.add(columnName);
+        }
+        int position = positionOf(slot);
+        if (position >= 0) {
+            fingerprint -= fingerprint(columnName, values[position]);
+            writableValues()[position] = value;
+        } else {
+            insert(-position - 1, slot, value);
+        }
+        fingerprint += fingerprint(columnName, value);
+    }
+
+    private void insert(int position, int slot, Value value) {
+        if (size == values.length) {
+            int capacity = size + (size >> 1) + MIN_CAPACITY;
+            values = Arrays.copyOf(values, capacity);
+            slots = slots == null ? null : Arrays.copyOf(slots, capacity);
+            sharedValues = false;
+        } else {
+            writableValues();
+        }
+        if (slots == null && slot != size) {
+            slots = positions(values.length);
+        }
+        System.arraycopy(values, position, values, position + 1, size - position);
+        values[position] = value;
+        if (slots != null) {
+            System.arraycopy(slots, position, slots, position + 1, size - position);
+            slots[position] = slot;
+        }
+        size++;
+    }
+
+    /**
+     * @return the slots of the positions in use while each value is in the position of the same number as its slot
+     */
+    private int[] positions(int capacity) {
+        int[] positions = new int[capacity];
+        for (int position = 0; position < size; position++) {
+            positions[position] = position;
+        }
+        return positions;
+    }
+
+    /**
+     * Mixes the hash codes of a column into 64 bits, the fingerprint of the entity is the sum of its columns,
+     * so it does not depend on the order and it is updated on each change
+     */
+    private static long fingerprint(String columnName, Value value) {
+        long hash = ((long) columnName.hashCode() << 32) | (value.hashCode() & 0xFFFFFFFFL);
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * The values and slots arrays are shared with the copies until the first change, see {@link #copy()}
+     */
+    private Value[] writableValues() {
+        if (sharedValues) {
+            values = values.clone();
+            slots = slots == null ? null : slots.clone();
+            sharedValues = false;
+        }
+        return values;
+    }
+
+    /**
+     * Moves this entity to a schema with just its names, when the column family schema is full or when its own
+     * schema is shared with a copy
+     */
+    private void detach() {
+        ColumnSchema detached = ColumnSchema.local();
+        for (int position = 0; position < size; position++) {
+            detached.add(nameAt(position));
+        }
+        this.schema = detached;
+        this.familySchema = false;
+        this.localSchema = true;
+        this.sharedSchema = false;
+        this.slots = null;
     }
 
     @Override
@@ -177,21 +392,187 @@ final class DefaultColumnEntity implements ColumnEntity {
             return false;
         }
         DefaultColumnEntity that = (DefaultColumnEntity) o;
-        return Objects.equals(columns, that.columns) &&
-                Objects.equals(name, that.name);
+        if (size != that.size || fingerprint != that.fingerprint || !Objects.equals(name, that.name)) {
+            return false;
+        }
+        for (int position = 0; position < size; position++) {
+            int other = that.schema == schema ? that.positionOf(slots == null ? position : slots[position])
+                    : that.positionOf(nameAt(position));
+            if (other < 0 || !values[position].equals(that.values[other])) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(columns, name);
+        return 31 * (int) (fingerprint ^ (fingerprint >>> 32)) + name.hashCode();
     }
 
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("DefaultColumnEntity{");
-        sb.append("columns=").append(toMap());
+        sb.append("columns={");
+        forEach(new BiConsumer<String, Value>() {
+            private boolean first = true;
+
+            @Override
+            public void accept(String columnName, Value value) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                first = false;
+                sb.append(columnName).append('=').append(value.get());
+            }
+        });
+        sb.append('}');
         sb.append(", name='").append(name).append('\'');
         sb.append('}');
         return sb.toString();
     }
+
+    /**
+     * Iterates the positions in use
+     */
+    private abstract class PositionIterator<T> implements Iterator<T> {
+
+        private int position;
+
+        abstract T get(int position);
+
+        @Override
+        public boolean hasNext() {
+            return position < size;
+        }
+
+        @Override
+        public T next() {
+            if (position >= size) {
+                throw new NoSuchElementException();
+            }
+            return get(position++);
+        }
+    }
+
+    /**
+     * A read-only view of the column names
+     */
+    private class NamesView extends AbstractSet<String> {
+
+        @Override
+        public Iterator<String> iterator() {
+            return new PositionIterator<String>() {
+                @Override
+                String get(int position) {
+                    return nameAt(position);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof String && positionOf((String) o) >= 0;
+        }
+    }
+
+    /**
+     * A read-only view of the values
+     */
+    private class ValuesView extends AbstractCollection<Value> {
+
+        @Override
+        public Iterator<Value> iterator() {
+            return new PositionIterator<Value>() {
+                @Override
+                Value get(int position) {
+                    return values[position];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * A read-only view of the columns, a column is created when it is read
+     */
+    private class ColumnsView extends AbstractList<Column> implements RandomAccess {
+
+        @Override
+        public Column get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return Column.of(nameAt(index), values[index]);
+        }
+
+        @Override
+        public Iterator<Column> iterator() {
+            return new PositionIterator<Column>() {
+                @Override
+                Column get(int position) {
+                    return Column.of(nameAt(position), values[position]);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * A read-only view of the columns as a map from the name to {@link Value#get()}
+     */
+    private class MapView extends AbstractMap<String, Object> {
+
+        @Override
+        public Object get(Object key) {
+            if (!(key instanceof String)) {
+                return null;
+            }
+            int position = positionOf((String) key);
+            return position < 0 ? null : values[position].get();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && positionOf((String) key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<Entry<String, Object>>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new PositionIterator<Entry<String, Object>>() {
+                        @Override
+                        Entry<String, Object> get(int position) {
+                            return new SimpleImmutableEntry<>(nameAt(position), values[position].get());
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+    }
 }
@@ -0,0 +1,212 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.column;
+
+import org.jnosql.diana.api.Value;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A read-only {@link ColumnEntity} with the columns of a {@link ColumnProjection}, each column is read once from the
+ * reader, when it is first requested.
+ *
+ * @see ColumnProjection#lazy(String, Function)
+ */
+final class ProjectedColumnEntity implements ColumnEntity {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String READ_ONLY = "The entity is read only, use copy to change it";
+
+    private final String name;
+
+    private final ColumnProjection projection;
+
+    private final Function<String, ?> reader;
+
+    private final Value[] values;
+
+    private final boolean[] loaded;
+
+    private ColumnEntity entity;
+
+    ProjectedColumnEntity(String name, ColumnProjection projection, Function<String, ?> reader) {
+        this.name = name;
+        this.projection = projection;
+        this.reader = reader;
+        this.values = new Value[projection.getColumns().size()];
+        this.loaded = new boolean[values.length];
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Optional<Column> find(String columnName) throws NullPointerException {
+        Value value = load(columnName);
+        return value == null ? Optional.empty() : Optional.of(Column.of(columnName, value));
+    }
+
+    @Override
+    public boolean contains(String columnName) {
+        return load(columnName) != null;
+    }
+
+    @Override
+    public List<Column> getColumns() {
+        return Collections.unmodifiableList(entity().getColumns());
+    }
+
+    @Override
+    public void forEach(BiConsumer<String, Value> action) throws NullPointerException {
+        entity().forEach(action);
+    }
+
+    @Override
+    public Map<String, Object> toMap() {
+        return Collections.unmodifiableMap(entity().toMap());
+    }
+
+    @Override
+    public int size() {
+        return entity().size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return entity().isEmpty();
+    }
+
+    @Override
+    public Set<String> getColumnNames() {
+        return Collections.unmodifiableSet(entity().getColumnNames());
+    }
+
+    @Override
+    public Collection<Value> getValues() {
+        return Collections.unmodifiableCollection(entity().getValues());
+    }
+
+    @Override
+    public ColumnEntity copy() {
+        return entity().copy();
+    }
+
+    @Override
+    public void addAll(List<Column> columns) throws NullPointerException {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public void add(Column column) throws NullPointerException {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public void add(String name, Object value) throws UnsupportedOperationException, NullPointerException {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public void add(String name, Value value) throws UnsupportedOperationException, NullPointerException {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean remove(String name) throws NullPointerException {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    private Value load(String columnName) {
+        int position = projection.position(requireNonNull(columnName, "columnName is required"));
+        if (position < 0) {
+            return null;
+        }
+        if (!loaded[position]) {
+            Object value = reader.apply(columnName);
+            values[position] = value == null || value instanceof Value ? (Value) value : Value.of(value);
+            loaded[position] = true;
+        }
+        return values[position];
+    }
+
+    /**
+     * Neither the projection nor the reader are serializable, so the entity is serialized with its columns read
+     */
+    private Object writeReplace() {
+        return entity();
+    }
+
+    /**
+     * @return the entity with every column of the projection, it is created on the first call
+     */
+    private ColumnEntity entity() {
+        if (entity == null) {
+            ColumnEntity columns = ColumnEntity.of(name);
+            for (String column : projection.getColumns()) {
+                Value value = load(column);
+                if (value != null) {
+                    columns.add(column, value);
+                }
+            }
+            entity = columns;
+        }
+        return entity;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return entity().equals(((ProjectedColumnEntity) o).entity());
+    }
+
+    @Override
+    public int hashCode() {
+        return entity().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ProjectedColumnEntity{");
+        sb.append("name='").append(name).append('\'');
+        sb.append(", projection=").append(projection.getColumns());
+        sb.append('}');
+        return sb.toString();
+    }
+}
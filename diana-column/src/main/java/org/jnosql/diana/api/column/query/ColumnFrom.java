@@ -18,6 +18,8 @@ package org.jnosql.diana.api.column.query;
 
 
 import org.jnosql.diana.api.Sort;
+import org.jnosql.diana.api.aggregation.Aggregate;
+import org.jnosql.diana.api.column.ColumnAggregateQuery;
 import org.jnosql.diana.api.column.ColumnCondition;
 import org.jnosql.diana.api.column.ColumnQuery;
 
@@ -76,4 +78,26 @@ public interface ColumnFrom {
      * @return a new {@link ColumnQuery} instance
      */
     ColumnQuery build();
+
+    /**
+     * Groups the aggregation by columns
+     *
+     * @param names the column names
+     * @return a query with the group by defined
+     * @throws NullPointerException     when names or any name is null
+     * @throws IllegalArgumentException when names is empty
+     */
+    ColumnGroupBy groupBy(String... names) throws NullPointerException, IllegalArgumentException;
+
+    /**
+     * Creates a new instance of {@link ColumnAggregateQuery} without group by
+     *
+     * @param aggregates the aggregates
+     * @return a new {@link ColumnAggregateQuery} instance
+     * @throws NullPointerException     when aggregates or any aggregate is null
+     * @throws IllegalArgumentException when aggregates is empty or two aggregates have the same alias
+     * @throws IllegalStateException    when the select has columns
+     */
+    ColumnAggregateQuery aggregate(Aggregate... aggregates) throws NullPointerException, IllegalArgumentException,
+            IllegalStateException;
 }
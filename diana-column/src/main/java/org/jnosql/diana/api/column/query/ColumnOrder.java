@@ -17,7 +17,9 @@
 package org.jnosql.diana.api.column.query;
 
 
+import org.jnosql.diana.api.Continuation;
 import org.jnosql.diana.api.Sort;
+import org.jnosql.diana.api.column.ColumnEntity;
 import org.jnosql.diana.api.column.ColumnQuery;
 
 /**
@@ -31,9 +33,39 @@ public interface ColumnOrder {
      *
      * @param sort the order
      * @return a query with the sort defined
-     * @throws NullPointerException when sort is null
+     * @throws NullPointerException  when sort is null
+     * @throws IllegalStateException when the query already has an after
      */
-    ColumnOrder orderBy(Sort sort) throws NullPointerException;
+    ColumnOrder orderBy(Sort sort) throws NullPointerException, IllegalStateException;
+
+    /**
+     * Selects the entities after an entity in the order of the sorts, that is the keyset pagination: the next
+     * page starts after the last entity of the previous one, so it does not skip the previous pages as
+     * {@link ColumnOrder#start(long)} does. The sorts should end with a unique column, e.g. the key, otherwise the
+     * entities with the same values as the last one are skipped.
+     *
+     * @param entity the last entity of the previous page, it must have a column to each sort
+     * @return a query with the entities after the entity
+     * @throws NullPointerException     when entity is null
+     * @throws IllegalArgumentException when the entity has no column of a sort
+     * @throws IllegalStateException    when the query either has no sort or already has an after
+     * @see ColumnQueryBuilder#continuation(ColumnQuery, ColumnEntity)
+     */
+    ColumnOrder after(ColumnEntity entity) throws NullPointerException, IllegalArgumentException,
+            IllegalStateException;
+
+    /**
+     * Selects the entities after a continuation, that is the keyset pagination
+     *
+     * @param continuation the continuation of the previous page
+     * @return a query with the entities after the continuation
+     * @throws NullPointerException     when continuation is null
+     * @throws IllegalArgumentException when the continuation was created to other sorts
+     * @throws IllegalStateException    when the query already has an after
+     * @see ColumnOrder#after(ColumnEntity)
+     */
+    ColumnOrder after(Continuation continuation) throws NullPointerException, IllegalArgumentException,
+            IllegalStateException;
 
     /**
      * Defines the position of the first result to retrieve.
@@ -16,10 +16,18 @@
  */
 package org.jnosql.diana.api.column.query;
 
+import org.jnosql.diana.api.Continuation;
+import org.jnosql.diana.api.aggregation.Aggregate;
+import org.jnosql.diana.api.column.ColumnAggregateQuery;
+import org.jnosql.diana.api.column.ColumnEntity;
+import org.jnosql.diana.api.column.ColumnFamilyManager;
+import org.jnosql.diana.api.column.ColumnPatchQuery;
+import org.jnosql.diana.api.column.ColumnQuery;
 
 import java.util.stream.Stream;
 
 import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 
@@ -77,5 +85,46 @@ public final class ColumnQueryBuilder {
         return new DefaultDeleteQueryBuilder(emptyList());
     }
 
+    /**
+     * Creates a partial update to Column, see {@link ColumnFamilyManager#patch(ColumnPatchQuery)}
+     *
+     * @param columnFamily the column family name
+     * @return a new {@link ColumnPatch} instance
+     * @throws NullPointerException when columnFamily is null
+     */
+    public static ColumnPatch patch(String columnFamily) throws NullPointerException {
+        requireNonNull(columnFamily, "columnFamily is required");
+        return new DefaultColumnPatchBuilder(columnFamily);
+    }
 
+    /**
+     * Creates the continuation of a page, to select the next page with {@link ColumnOrder#after(Continuation)}
+     *
+     * @param query the query of the page
+     * @param last  the last entity of the page
+     * @return the {@link Continuation}
+     * @throws NullPointerException     when either query or last is null
+     * @throws IllegalArgumentException when the query has no sort, the entity has no column of a sort or has a
+     *                                  value of a type that is not supported by {@link Continuation}
+     */
+    public static Continuation continuation(ColumnQuery query, ColumnEntity last) throws NullPointerException,
+            IllegalArgumentException {
+        requireNonNull(query, "query is required");
+        requireNonNull(last, "last is required");
+        return Continuation.of(query.getSorts(), DefaultSelectQueryBuilder.values(query.getSorts(), last));
+    }
+
+    /**
+     * Creates the aggregation that counts the entities that match the condition of the query, the first result,
+     * the max results, the sorts and the columns of the query are ignored
+     *
+     * @param query the query
+     * @return a new {@link ColumnAggregateQuery} instance with the {@link Aggregate#count()}
+     * @throws NullPointerException when query is null
+     */
+    public static ColumnAggregateQuery count(ColumnQuery query) throws NullPointerException {
+        requireNonNull(query, "query is required");
+        return new DefaultColumnAggregateQuery(query.getColumnFamily(), query.getCondition().orElse(null), emptyList(),
+                singletonList(Aggregate.count()));
+    }
 }
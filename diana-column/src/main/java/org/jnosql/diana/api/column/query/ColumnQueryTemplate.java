@@ -0,0 +1,114 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.column.query;
+
+import org.jnosql.diana.api.Fingerprint;
+import org.jnosql.diana.api.Parameter;
+import org.jnosql.diana.api.column.ColumnQuery;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A prepared {@link ColumnQuery}, whose values might be {@link Parameter} placeholders. The condition tree is
+ * validated and compiled once: the nested ANDs and ORs are flattened and the branches without parameters are
+ * reused, so each execution just binds the values.
+ * <p>A template uses either named or positional parameters, the positional ones start from zero and have no gaps.
+ * A parameter might be the value of a condition, but a BETWEEN, or an element of the value of an IN or a
+ * BETWEEN.</p>
+ *
+ * <pre>
+ * ColumnQueryTemplate template = ColumnQueryTemplate.of(select().from("person")
+ *         .where(eq(Column.of("name", Parameter.of("name"))))
+ *         .and(gt(Column.of("age", Parameter.of("age")))).build());
+ * ColumnQuery query = template.bind(parameters);
+ * </pre>
+ * <p>A driver might keep its native prepared statement at the template with
+ * {@link ColumnQueryTemplate#prepared(Object, Function)}, or at its own cache by {@link #getFingerprint()}.</p>
+ */
+public interface ColumnQueryTemplate {
+
+    /**
+     * Creates a {@link ColumnQueryTemplate}
+     *
+     * @param query the query with the placeholders
+     * @return a {@link ColumnQueryTemplate} instance
+     * @throws NullPointerException     when query is null
+     * @throws IllegalArgumentException when the template mixes named and positional parameters or there is a gap
+     *                                  between the positional ones
+     */
+    static ColumnQueryTemplate of(ColumnQuery query) throws NullPointerException, IllegalArgumentException {
+        return DefaultColumnQueryTemplate.of(query);
+    }
+
+    /**
+     * @return the query with the placeholders
+     */
+    ColumnQuery getQuery();
+
+    /**
+     * @return the parameters of the template, the positional ones by index and the named ones in the order that
+     * they first show up
+     */
+    List<Parameter> getParameters();
+
+    /**
+     * @return the fingerprint of the query with the placeholders
+     * @throws IllegalArgumentException when a value of the query has a type that does not have a fingerprint
+     * @see org.jnosql.diana.api.column.ColumnFingerprints#of(ColumnQuery)
+     */
+    Fingerprint getFingerprint() throws IllegalArgumentException;
+
+    /**
+     * Creates the query replacing the positional parameters by the values
+     *
+     * @param values the values, the first one to the parameter zero and so on
+     * @return the query
+     * @throws NullPointerException     when there is a null value
+     * @throws IllegalArgumentException when the number of values is not the number of parameters, or the value of
+     *                                  an IN is not an {@link Iterable}
+     * @throws IllegalStateException    when the template has named parameters
+     */
+    ColumnQuery bind(Object... values) throws NullPointerException, IllegalArgumentException, IllegalStateException;
+
+    /**
+     * Creates the query replacing the named parameters by the values
+     *
+     * @param values the values by parameter name
+     * @return the query
+     * @throws NullPointerException     when either values or a value is null
+     * @throws IllegalArgumentException when a parameter has no value, there is a value to an unknown parameter,
+     *                                  or the value of an IN is not an {@link Iterable}
+     * @throws IllegalStateException    when the template has positional parameters
+     */
+    ColumnQuery bind(Map<String, ?> values) throws NullPointerException, IllegalArgumentException,
+            IllegalStateException;
+
+    /**
+     * Returns the object that a driver prepared to this template, e.g. a native prepared statement, preparing it
+     * at the first call
+     *
+     * @param key     the key of the driver, e.g. its session
+     * @param prepare the function that prepares the object
+     * @param <T>     the prepared type
+     * @return the prepared object
+     * @throws NullPointerException when either key or prepare is null
+     */
+    <T> T prepared(Object key, Function<ColumnQueryTemplate, T> prepare) throws NullPointerException;
+}
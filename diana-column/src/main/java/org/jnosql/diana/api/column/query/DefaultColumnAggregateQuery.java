@@ -0,0 +1,143 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.column.query;
+
+
+import org.jnosql.diana.api.aggregation.Aggregate;
+import org.jnosql.diana.api.column.ColumnAggregateQuery;
+import org.jnosql.diana.api.column.ColumnCondition;
+import org.jnosql.diana.api.column.ColumnQuery;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Optional.ofNullable;
+
+/**
+ * The default implementation of column aggregate query.
+ */
+class DefaultColumnAggregateQuery implements ColumnAggregateQuery {
+
+    /**
+     * The column selected when the aggregation reads no column and has no condition
+     */
+    static final String KEY = "_id";
+
+    private final String columnFamily;
+
+    private final ColumnCondition condition;
+
+    private final List<String> groupBy;
+
+    private final List<Aggregate> aggregates;
+
+    DefaultColumnAggregateQuery(String columnFamily, ColumnCondition condition, List<String> groupBy,
+                                List<Aggregate> aggregates) {
+        this.columnFamily = columnFamily;
+        this.condition = ofNullable(condition).map(ReadOnlyColumnCondition::new).orElse(null);
+        this.groupBy = groupBy;
+        this.aggregates = aggregates;
+    }
+
+    @Override
+    public String getColumnFamily() {
+        return columnFamily;
+    }
+
+    @Override
+    public Optional<ColumnCondition> getCondition() {
+        return ofNullable(condition);
+    }
+
+    @Override
+    public List<String> getGroupBy() {
+        return unmodifiableList(groupBy);
+    }
+
+    @Override
+    public List<Aggregate> getAggregates() {
+        return unmodifiableList(aggregates);
+    }
+
+    @Override
+    public ColumnQuery toQuery() {
+        Set<String> columns = new LinkedHashSet<>(groupBy);
+        for (Aggregate aggregate : aggregates) {
+            aggregate.getField().ifPresent(columns::add);
+        }
+        if (columns.isEmpty()) {
+            columns.add(condition == null ? KEY : firstName(condition));
+        }
+        return new DefaultColumnQuery(0L, 0L, columnFamily, new ArrayList<>(columns), emptyList(), condition);
+    }
+
+    /**
+     * Returns the name of the first column of a condition, so a count selects a column the condition reads
+     */
+    private static String firstName(ColumnCondition condition) {
+        Object value = condition.getColumn().get();
+        switch (condition.getCondition()) {
+            case AND:
+            case OR:
+                Iterator<?> conditions = ((Iterable<?>) value).iterator();
+                return conditions.hasNext() ? firstName(ColumnCondition.class.cast(conditions.next())) : KEY;
+            case NOT:
+                return firstName(ColumnCondition.class.cast(value));
+            default:
+                return condition.getColumn().getName();
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DefaultColumnAggregateQuery)) {
+            return false;
+        }
+        DefaultColumnAggregateQuery that = (DefaultColumnAggregateQuery) o;
+        return Objects.equals(columnFamily, that.columnFamily) &&
+                Objects.equals(condition, that.condition) &&
+                Objects.equals(groupBy, that.groupBy) &&
+                Objects.equals(aggregates, that.aggregates);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(columnFamily, condition, groupBy, aggregates);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DefaultColumnAggregateQuery{");
+        sb.append("columnFamily='").append(columnFamily).append('\'');
+        sb.append(", condition=").append(condition);
+        sb.append(", groupBy=").append(groupBy);
+        sb.append(", aggregates=").append(aggregates);
+        sb.append('}');
+        return sb.toString();
+    }
+}
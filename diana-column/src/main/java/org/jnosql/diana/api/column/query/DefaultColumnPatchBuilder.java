@@ -0,0 +1,90 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.column.query;
+
+
+import org.jnosql.diana.api.PatchOperation;
+import org.jnosql.diana.api.column.ColumnCondition;
+import org.jnosql.diana.api.column.ColumnPatchQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The default implementation of the patch in the column
+ */
+class DefaultColumnPatchBuilder implements ColumnPatch {
+
+    private final String columnFamily;
+
+    private final List<PatchOperation> operations = new ArrayList<>();
+
+    DefaultColumnPatchBuilder(String columnFamily) {
+        this.columnFamily = columnFamily;
+    }
+
+    @Override
+    public ColumnPatch set(String name, Object value) throws NullPointerException {
+        operations.add(PatchOperation.set(name, value));
+        return this;
+    }
+
+    @Override
+    public ColumnPatch unset(String name) throws NullPointerException {
+        operations.add(PatchOperation.unset(name));
+        return this;
+    }
+
+    @Override
+    public ColumnPatch increment(String name, Number value) throws NullPointerException {
+        operations.add(PatchOperation.increment(name, value));
+        return this;
+    }
+
+    @Override
+    public ColumnPatch append(String name, Object value) throws NullPointerException {
+        operations.add(PatchOperation.append(name, value));
+        return this;
+    }
+
+    @Override
+    public ColumnPatch remove(String name, Object value) throws NullPointerException {
+        operations.add(PatchOperation.remove(name, value));
+        return this;
+    }
+
+    @Override
+    public ColumnPatchQuery where(ColumnCondition condition) throws NullPointerException, IllegalStateException {
+        requireNonNull(condition, "condition is required");
+        return create(condition);
+    }
+
+    @Override
+    public ColumnPatchQuery build() throws IllegalStateException {
+        return create(null);
+    }
+
+    private ColumnPatchQuery create(ColumnCondition condition) {
+        if (operations.isEmpty()) {
+            throw new IllegalStateException("The patch requires at least one operation");
+        }
+        return new DefaultColumnPatchQuery(columnFamily, condition, new ArrayList<>(operations));
+    }
+}
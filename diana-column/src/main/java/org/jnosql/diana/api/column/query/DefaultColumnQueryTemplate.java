@@ -0,0 +1,382 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.column.query;
+
+import org.jnosql.diana.api.Condition;
+import org.jnosql.diana.api.Fingerprint;
+import org.jnosql.diana.api.Parameter;
+import org.jnosql.diana.api.Sort;
+import org.jnosql.diana.api.column.Column;
+import org.jnosql.diana.api.column.ColumnCondition;
+import org.jnosql.diana.api.column.ColumnFingerprints;
+import org.jnosql.diana.api.column.ColumnQuery;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The default implementation of {@link ColumnQueryTemplate}
+ */
+final class DefaultColumnQueryTemplate implements ColumnQueryTemplate {
+
+    private static final Map<Condition, Function<Column, ColumnCondition>> CONDITIONS = new EnumMap<>(Condition.class);
+
+    static {
+        CONDITIONS.put(Condition.EQUALS, ColumnCondition::eq);
+        CONDITIONS.put(Condition.GREATER_THAN, ColumnCondition::gt);
+        CONDITIONS.put(Condition.GREATER_EQUALS_THAN, ColumnCondition::gte);
+        CONDITIONS.put(Condition.LESSER_THAN, ColumnCondition::lt);
+        CONDITIONS.put(Condition.LESSER_EQUALS_THAN, ColumnCondition::lte);
+        CONDITIONS.put(Condition.IN, ColumnCondition::in);
+        CONDITIONS.put(Condition.LIKE, ColumnCondition::like);
+        CONDITIONS.put(Condition.BETWEEN, ColumnCondition::between);
+    }
+
+    private final ColumnQuery query;
+
+    private final List<String> columns;
+
+    private final List<Sort> sorts;
+
+    private final Node condition;
+
+    private final List<Parameter> parameters;
+
+    private final boolean named;
+
+    private volatile Fingerprint fingerprint;
+
+    private final ConcurrentMap<Object, Object> prepared = new ConcurrentHashMap<>();
+
+    private DefaultColumnQueryTemplate(ColumnQuery query, Node condition, List<Parameter> parameters, boolean named) {
+        this.query = query;
+        this.columns = new ArrayList<>(query.getColumns());
+        this.sorts = new ArrayList<>(query.getSorts());
+        this.condition = condition;
+        this.parameters = Collections.unmodifiableList(parameters);
+        this.named = named;
+    }
+
+    static DefaultColumnQueryTemplate of(ColumnQuery query) {
+        requireNonNull(query, "query is required");
+        Compiler compiler = new Compiler();
+        Node condition = query.getCondition().map(compiler::compile).orElse(null);
+        return new DefaultColumnQueryTemplate(query, condition, compiler.parameters(),
+                Boolean.TRUE.equals(compiler.named));
+    }
+
+    @Override
+    public ColumnQuery getQuery() {
+        return query;
+    }
+
+    @Override
+    public List<Parameter> getParameters() {
+        return parameters;
+    }
+
+    @Override
+    public Fingerprint getFingerprint() {
+        Fingerprint current = fingerprint;
+        if (current == null) {
+            current = ColumnFingerprints.of(query);
+            fingerprint = current;
+        }
+        return current;
+    }
+
+    @Override
+    public ColumnQuery bind(Object... values) {
+        requireNonNull(values, "values is required");
+        if (named) {
+            throw new IllegalStateException("The template has named parameters: " + parameters);
+        }
+        if (values.length != parameters.size()) {
+            throw new IllegalArgumentException(String.format("The template has %d parameters instead of %d",
+                    parameters.size(), values.length));
+        }
+        for (int index = 0; index < values.length; index++) {
+            requireNonNull(values[index], "the value of the parameter ?" + index + " is required");
+        }
+        return build(values);
+    }
+
+    @Override
+    public ColumnQuery bind(Map<String, ?> values) {
+        requireNonNull(values, "values is required");
+        if (!named && !parameters.isEmpty()) {
+            throw new IllegalStateException("The template has positional parameters: " + parameters);
+        }
+        if (values.size() != parameters.size()) {
+            for (String name : values.keySet()) {
+                if (!parameters.contains(Parameter.of(name))) {
+                    throw new IllegalArgumentException("The template has no parameter " + name);
+                }
+            }
+        }
+        Object[] slots = new Object[parameters.size()];
+        for (int slot = 0; slot < slots.length; slot++) {
+            String name = parameters.get(slot).getName();
+            Object value = values.get(name);
+            if (value == null) {
+                if (values.containsKey(name)) {
+                    throw new NullPointerException("the value of the parameter :" + name + " is required");
+                }
+                throw new IllegalArgumentException("The parameter :" + name + " has no value");
+            }
+            slots[slot] = value;
+        }
+        return build(slots);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T prepared(Object key, Function<ColumnQueryTemplate, T> prepare) {
+        requireNonNull(key, "key is required");
+        requireNonNull(prepare, "prepare is required");
+        return (T) prepared.computeIfAbsent(key, k -> prepare.apply(this));
+    }
+
+    private ColumnQuery build(Object[] values) {
+        ColumnCondition bound = condition == null ? null : condition.bind(values);
+        return new DefaultColumnQuery(query.getMaxResults(), query.getFirstResult(), query.getColumnFamily(),
+                columns, sorts, bound);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DefaultColumnQueryTemplate{");
+        sb.append("query=").append(query);
+        sb.append(", parameters=").append(parameters);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * A compiled condition
+     */
+    private interface Node {
+
+        ColumnCondition bind(Object[] values);
+    }
+
+    /**
+     * A condition without parameters, it is the same to every execution
+     */
+    private static final class Constant implements Node {
+
+        private final ColumnCondition condition;
+
+        private Constant(ColumnCondition condition) {
+            this.condition = condition;
+        }
+
+        @Override
+        public ColumnCondition bind(Object[] values) {
+            return condition;
+        }
+    }
+
+    private static final class Composite implements Node {
+
+        private final boolean and;
+
+        private final Node[] conditions;
+
+        private Composite(boolean and, Node[] conditions) {
+            this.and = and;
+            this.conditions = conditions;
+        }
+
+        @Override
+        public ColumnCondition bind(Object[] values) {
+            ColumnCondition[] bound = new ColumnCondition[conditions.length];
+            for (int index = 0; index < bound.length; index++) {
+                bound[index] = conditions[index].bind(values);
+            }
+            return and ? ColumnCondition.and(bound) : ColumnCondition.or(bound);
+        }
+    }
+
+    private static final class Negation implements Node {
+
+        private final Node condition;
+
+        private Negation(Node condition) {
+            this.condition = condition;
+        }
+
+        @Override
+        public ColumnCondition bind(Object[] values) {
+            return condition.bind(values).negate();
+        }
+    }
+
+    /**
+     * A condition whose value is either a parameter, when elements is null, or a list with parameters
+     */
+    private static final class Leaf implements Node {
+
+        private final Condition type;
+
+        private final Function<Column, ColumnCondition> factory;
+
+        private final String name;
+
+        private final int slot;
+
+        private final Object[] elements;
+
+        private Leaf(Condition type, String name, int slot, Object[] elements) {
+            this.type = type;
+            this.factory = CONDITIONS.get(type);
+            this.name = name;
+            this.slot = slot;
+            this.elements = elements;
+        }
+
+        @Override
+        public ColumnCondition bind(Object[] values) {
+            Object value;
+            if (elements == null) {
+                value = values[slot];
+                if (Condition.IN.equals(type) && !(value instanceof Iterable)) {
+                    throw new IllegalArgumentException("The value of an IN must be an Iterable, column: " + name);
+                }
+            } else {
+                List<Object> list = new ArrayList<>(elements.length);
+                for (Object element : elements) {
+                    list.add(element instanceof Slot ? values[((Slot) element).slot] : element);
+                }
+                value = list;
+            }
+            return factory.apply(Column.of(name, value));
+        }
+    }
+
+    /**
+     * The position of a parameter within the value of a condition
+     */
+    private static final class Slot {
+
+        private final int slot;
+
+        private Slot(int slot) {
+            this.slot = slot;
+        }
+    }
+
+    private static final class Compiler {
+
+        private final Map<Parameter, Integer> slots = new LinkedHashMap<>();
+
+        private Boolean named;
+
+        private Node compile(ColumnCondition condition) {
+            Condition type = condition.getCondition();
+            Column column = condition.getColumn();
+            switch (type) {
+                case AND:
+                case OR:
+                    List<Node> nodes = new ArrayList<>();
+                    flatten(type, column, nodes);
+                    if (nodes.stream().allMatch(Constant.class::isInstance)) {
+                        return new Constant(condition);
+                    }
+                    return new Composite(Condition.AND.equals(type), nodes.toArray(new Node[nodes.size()]));
+                case NOT:
+                    Node negated = compile(ColumnCondition.class.cast(column.get()));
+                    return negated instanceof Constant ? new Constant(condition) : new Negation(negated);
+                default:
+                    return leaf(condition, type, column);
+            }
+        }
+
+        private void flatten(Condition type, Column column, List<Node> nodes) {
+            for (Object value : Iterable.class.cast(column.get())) {
+                ColumnCondition condition = ColumnCondition.class.cast(value);
+                if (type.equals(condition.getCondition())) {
+                    flatten(type, condition.getColumn(), nodes);
+                } else {
+                    nodes.add(compile(condition));
+                }
+            }
+        }
+
+        private Node leaf(ColumnCondition condition, Condition type, Column column) {
+            Object value = column.get();
+            if (value instanceof Parameter) {
+                return new Leaf(type, column.getName(), slot(Parameter.class.cast(value)), null);
+            }
+            if (value instanceof Iterable) {
+                List<Object> elements = new ArrayList<>();
+                boolean parameters = false;
+                for (Object element : Iterable.class.cast(value)) {
+                    if (element instanceof Parameter) {
+                        elements.add(new Slot(slot(Parameter.class.cast(element))));
+                        parameters = true;
+                    } else {
+                        elements.add(element);
+                    }
+                }
+                if (parameters) {
+                    return new Leaf(type, column.getName(), -1, elements.toArray());
+                }
+            }
+            return new Constant(condition);
+        }
+
+        private int slot(Parameter parameter) {
+            if (named == null) {
+                named = parameter.isNamed();
+            } else if (named != parameter.isNamed()) {
+                throw new IllegalArgumentException("A template cannot mix named and positional parameters: "
+                        + parameter);
+            }
+            if (parameter.isNamed()) {
+                return slots.computeIfAbsent(parameter, p -> slots.size());
+            }
+            slots.putIfAbsent(parameter, parameter.getIndex());
+            return parameter.getIndex();
+        }
+
+        private List<Parameter> parameters() {
+            if (Boolean.FALSE.equals(named)) {
+                TreeSet<Integer> indexes = new TreeSet<>(slots.values());
+                if (indexes.last() != indexes.size() - 1) {
+                    throw new IllegalArgumentException("The positional parameters must start from zero and have "
+                            + "no gaps: " + indexes);
+                }
+                List<Parameter> parameters = new ArrayList<>();
+                indexes.forEach(index -> parameters.add(Parameter.of(index)));
+                return parameters;
+            }
+            return new ArrayList<>(slots.keySet());
+        }
+    }
+}
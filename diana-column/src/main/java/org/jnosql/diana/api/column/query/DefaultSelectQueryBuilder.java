@@ -17,13 +17,19 @@
 package org.jnosql.diana.api.column.query;
 
 
+import org.jnosql.diana.api.Continuation;
 import org.jnosql.diana.api.Sort;
+import org.jnosql.diana.api.aggregation.Aggregate;
 import org.jnosql.diana.api.column.Column;
+import org.jnosql.diana.api.column.ColumnAggregateQuery;
 import org.jnosql.diana.api.column.ColumnCondition;
+import org.jnosql.diana.api.column.ColumnEntity;
 import org.jnosql.diana.api.column.ColumnQuery;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static java.util.Arrays.asList;
 import static java.util.Objects.nonNull;
@@ -33,7 +39,7 @@ import static java.util.Objects.requireNonNull;
  * The default implementation of the Select in the column
  */
 class DefaultSelectQueryBuilder implements ColumnSelect, ColumnFrom, ColumnWhere, ColumnLimit, ColumnStart,
-        ColumnOrder, ColumnWhereName, ColumnNameCondition, ColumnNotCondition {
+        ColumnOrder, ColumnWhereName, ColumnNameCondition, ColumnNotCondition, ColumnGroupBy {
 
     private String columnFamily;
 
@@ -47,12 +53,16 @@ class DefaultSelectQueryBuilder implements ColumnSelect, ColumnFrom, ColumnWhere
 
     private final List<String> columns;
 
+    private final List<String> groupBy = new ArrayList<>();
+
     private String name;
 
     private boolean negate;
 
     private boolean and;
 
+    private boolean after;
+
     DefaultSelectQueryBuilder(List<String> columns) {
         this.columns = columns;
     }
@@ -94,10 +104,70 @@ class DefaultSelectQueryBuilder implements ColumnSelect, ColumnFrom, ColumnWhere
     @Override
     public ColumnOrder orderBy(Sort sort) throws NullPointerException {
         requireNonNull(sort, "sort is required");
+        if (after) {
+            throw new IllegalStateException("The sorts must be defined before the after");
+        }
         this.sorts.add(sort);
         return this;
     }
 
+    @Override
+    public ColumnOrder after(ColumnEntity entity) throws NullPointerException, IllegalArgumentException {
+        requireNonNull(entity, "entity is required");
+        if (sorts.isEmpty()) {
+            throw new IllegalStateException("The after requires at least one sort");
+        }
+        return after(values(sorts, entity));
+    }
+
+    @Override
+    public ColumnOrder after(Continuation continuation) throws NullPointerException, IllegalArgumentException {
+        requireNonNull(continuation, "continuation is required");
+        if (!sorts.equals(continuation.getSorts())) {
+            throw new IllegalArgumentException(String.format("The continuation was created to the sorts %s "
+                    + "instead of %s", continuation.getSorts(), sorts));
+        }
+        return after(continuation.getValues());
+    }
+
+    /**
+     * Appends the keyset condition: (s0 > v0) or (s0 = v0 and s1 > v1) and so on, where a descending sort uses
+     * lesser than
+     */
+    private ColumnOrder after(List<Object> values) {
+        if (after) {
+            throw new IllegalStateException("The query already has an after");
+        }
+        List<ColumnCondition> branches = new ArrayList<>(sorts.size());
+        for (int index = 0; index < sorts.size(); index++) {
+            List<ColumnCondition> conditions = new ArrayList<>(index + 1);
+            for (int previous = 0; previous < index; previous++) {
+                conditions.add(ColumnCondition.eq(Column.of(sorts.get(previous).getName(), values.get(previous))));
+            }
+            Sort sort = sorts.get(index);
+            Column column = Column.of(sort.getName(), values.get(index));
+            conditions.add(Sort.SortType.DESC.equals(sort.getType()) ? ColumnCondition.lt(column)
+                    : ColumnCondition.gt(column));
+            branches.add(conditions.size() == 1 ? conditions.get(0)
+                    : ColumnCondition.and(conditions.toArray(new ColumnCondition[conditions.size()])));
+        }
+        ColumnCondition keyset = branches.size() == 1 ? branches.get(0)
+                : ColumnCondition.or(branches.toArray(new ColumnCondition[branches.size()]));
+        this.condition = condition == null ? keyset : condition.and(keyset);
+        this.after = true;
+        return this;
+    }
+
+    static List<Object> values(List<Sort> sorts, ColumnEntity entity) {
+        List<Object> values = new ArrayList<>(sorts.size());
+        for (Sort sort : sorts) {
+            Column column = entity.find(sort.getName()).orElseThrow(() ->
+                    new IllegalArgumentException("The entity has no column to the sort: " + sort.getName()));
+            values.add(column.get());
+        }
+        return values;
+    }
+
     @Override
     public ColumnWhere and(ColumnCondition condition) throws NullPointerException {
         requireNonNull(condition, "condition is required");
@@ -190,7 +260,7 @@ class DefaultSelectQueryBuilder implements ColumnSelect, ColumnFrom, ColumnWhere
     public <T> ColumnWhere in(Iterable<T> values) throws NullPointerException {
         requireNonNull(values, "values is required");
         ColumnCondition newCondition = ColumnCondition.in(Column.of(name, values));
-        return this;
+        return appendCondition(newCondition);
     }
 
 
@@ -199,6 +269,40 @@ class DefaultSelectQueryBuilder implements ColumnSelect, ColumnFrom, ColumnWhere
         return new DefaultColumnQuery(limit, start, columnFamily, columns, sorts, condition);
     }
 
+    @Override
+    public ColumnGroupBy groupBy(String... names) throws NullPointerException, IllegalArgumentException {
+        requireNonNull(names, "names is required");
+        if (names.length == 0) {
+            throw new IllegalArgumentException("At least one name is required to the group by");
+        }
+        for (String name : names) {
+            groupBy.add(requireNonNull(name, "name is required"));
+        }
+        return this;
+    }
+
+    @Override
+    public ColumnAggregateQuery aggregate(Aggregate... aggregates) throws NullPointerException,
+            IllegalArgumentException, IllegalStateException {
+        requireNonNull(aggregates, "aggregates is required");
+        if (!columns.isEmpty()) {
+            throw new IllegalStateException("An aggregation does not have columns, use the group by instead: "
+                    + columns);
+        }
+        if (aggregates.length == 0) {
+            throw new IllegalArgumentException("At least one aggregate is required");
+        }
+        Set<String> aliases = new HashSet<>();
+        for (Aggregate aggregate : aggregates) {
+            requireNonNull(aggregate, "aggregate is required");
+            if (!aliases.add(aggregate.getAlias())) {
+                throw new IllegalArgumentException("There are two aggregates with the alias " + aggregate.getAlias());
+            }
+        }
+        return new DefaultColumnAggregateQuery(columnFamily, condition, new ArrayList<>(groupBy),
+                new ArrayList<>(asList(aggregates)));
+    }
+
     private ColumnWhere appendCondition(ColumnCondition newCondition) {
         if (negate) {
             newCondition = newCondition.negate();
@@ -65,12 +65,13 @@ class ReadOnlyColumnCondition implements ColumnCondition {
             return false;
         }
         ColumnCondition that = (ColumnCondition) o;
-        return Objects.equals(condition, that);
+        return Objects.equals(condition.getColumn(), that.getColumn()) &&
+                condition.getCondition() == that.getCondition();
     }
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(condition);
+        return Objects.hash(condition.getColumn(), condition.getCondition());
     }
 
     @Override
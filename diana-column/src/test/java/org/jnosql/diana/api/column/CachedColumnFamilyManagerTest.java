@@ -0,0 +1,286 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.column;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.jnosql.diana.api.column.ColumnCondition.eq;
+import static org.jnosql.diana.api.column.ColumnCondition.gt;
+import static org.jnosql.diana.api.column.ColumnCondition.in;
+import static org.jnosql.diana.api.column.query.ColumnQueryBuilder.delete;
+import static org.jnosql.diana.api.column.query.ColumnQueryBuilder.select;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class CachedColumnFamilyManagerTest {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenManagerIsNull() {
+        CachedColumnFamilyManager.of(null, 1024, TTL);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenColumnFamilyTtlIsNegative() {
+        CachedColumnFamilyManager.of(new CountingManager(), 1024, TTL,
+                Collections.singletonMap("person", Duration.ofSeconds(-1)));
+    }
+
+    @Test
+    public void shouldCacheTheSameQuery() {
+        CountingManager manager = new CountingManager();
+        CachedColumnFamilyManager cached = CachedColumnFamilyManager.of(manager, 1024 * 1024, TTL);
+        ColumnQuery query = select().from("person").where(eq(Column.of("name", "Ada"))).build();
+
+        assertEquals(manager.entities, cached.select(query));
+        assertEquals(manager.entities, cached.select(query));
+        assertEquals(1, manager.selects.get());
+        assertEquals(1L, cached.getStats().getHitCount());
+    }
+
+    @Test
+    public void shouldShareTheResultOfEquivalentQueries() {
+        CountingManager manager = new CountingManager();
+        CachedColumnFamilyManager cached = CachedColumnFamilyManager.of(manager, 1024 * 1024, TTL);
+        cached.select(select().from("person").where(eq(Column.of("name", "Ada")))
+                .and(in(Column.of("age", Arrays.asList(10, 20)))).build());
+        cached.select(select().from("person").where(in(Column.of("age", Arrays.asList(20, 10))))
+                .and(eq(Column.of("name", "Ada"))).build());
+        assertEquals(1, manager.selects.get());
+
+        cached.select(select().from("person").where(eq(Column.of("name", "Poliana"))).build());
+        cached.select(select().from("animal").where(eq(Column.of("name", "Ada"))).build());
+        assertEquals(3, manager.selects.get());
+    }
+
+    @Test
+    public void shouldNotShareTheResultOfDifferentDates() {
+        CountingManager manager = new CountingManager();
+        CachedColumnFamilyManager cached = CachedColumnFamilyManager.of(manager, 1024 * 1024, TTL);
+        cached.select(select().from("person").where(eq(Column.of("birthday", new Date(1_700_000_000_000L)))).build());
+        cached.select(select().from("person").where(eq(Column.of("birthday", new Date(1_700_000_000_500L)))).build());
+        assertEquals(2, manager.selects.get());
+    }
+
+    @Test
+    public void shouldNotCacheAQueryWithoutAStableFingerprint() {
+        CountingManager manager = new CountingManager();
+        CachedColumnFamilyManager cached = CachedColumnFamilyManager.of(manager, 1024 * 1024, TTL);
+        ColumnQuery query = select().from("person").where(eq(Column.of("owner", new Object()))).build();
+        assertEquals(manager.entities, cached.select(query));
+        assertEquals(manager.entities, cached.select(query));
+        assertEquals(2, manager.selects.get());
+    }
+
+    @Test
+    public void shouldReturnCopies() {
+        CountingManager manager = new CountingManager();
+        CachedColumnFamilyManager cached = CachedColumnFamilyManager.of(manager, 1024 * 1024, TTL);
+        ColumnQuery query = select().from("person").build();
+        cached.select(query);
+        cached.select(query).get(0).add(Column.of("changed", true));
+
+        ColumnEntity entity = cached.select(query).get(0);
+        assertEquals(manager.entities.get(0), entity);
+        assertNotSame(cached.select(query).get(0), entity);
+    }
+
+    @Test
+    public void shouldInvalidateTheColumnFamilyOnWrite() {
+        CountingManager manager = new CountingManager();
+        CachedColumnFamilyManager cached = CachedColumnFamilyManager.of(manager, 1024 * 1024, TTL);
+        ColumnQuery person = select().from("person").build();
+        ColumnQuery animal = select().from("animal").build();
+        cached.select(person);
+        cached.select(animal);
+
+        cached.insert(ColumnEntity.of("person"));
+        cached.select(person);
+        cached.select(animal);
+        assertEquals(3, manager.selects.get());
+
+        cached.update(ColumnEntity.of("animal"));
+        cached.select(person);
+        cached.select(animal);
+        assertEquals(4, manager.selects.get());
+
+        cached.delete(delete().from("person").where(gt(Column.of("age", 10))).build());
+        cached.select(person);
+        assertEquals(5, manager.selects.get());
+
+        cached.insert(Arrays.asList(ColumnEntity.of("person"), ColumnEntity.of("animal")), TTL);
+        cached.select(person);
+        cached.select(animal);
+        assertEquals(7, manager.selects.get());
+    }
+
+    @Test
+    public void shouldInvalidateOnTheWriteOfAOneShotIterable() {
+        CountingManager manager = new CountingManager();
+        CachedColumnFamilyManager cached = CachedColumnFamilyManager.of(manager, 1024 * 1024, TTL);
+        ColumnQuery person = select().from("person").build();
+        cached.select(person);
+
+        List<ColumnEntity> entities = Collections.singletonList(ColumnEntity.of("person"));
+        AtomicBoolean read = new AtomicBoolean();
+        cached.insert(() -> {
+            if (read.getAndSet(true)) {
+                throw new IllegalStateException("The entities were already read");
+            }
+            return entities.iterator();
+        });
+        cached.select(person);
+        assertEquals(2, manager.selects.get());
+    }
+
+    @Test
+    public void shouldUseTheTtlOfTheColumnFamily() throws InterruptedException {
+        CountingManager manager = new CountingManager();
+        CachedColumnFamilyManager cached = CachedColumnFamilyManager.of(manager, 1024 * 1024, TTL,
+                Collections.singletonMap("metrics", Duration.ofMillis(20)));
+        ColumnQuery metrics = select().from("metrics").build();
+        ColumnQuery person = select().from("person").build();
+        cached.select(metrics);
+        cached.select(person);
+        TimeUnit.MILLISECONDS.sleep(50);
+
+        cached.select(metrics);
+        cached.select(person);
+        assertEquals(3, manager.selects.get());
+    }
+
+    @Test
+    public void shouldBoundTheCacheBySize() {
+        CountingManager manager = new CountingManager();
+        CachedColumnFamilyManager cached = CachedColumnFamilyManager.of(manager, 1024, TTL);
+        for (int index = 0; index < 100; index++) {
+            cached.select(select().from("person").where(eq(Column.of("id", index))).build());
+        }
+        assertTrue(cached.getStats().getEvictionCount() > 0);
+    }
+
+    @Test
+    public void shouldCoalesceConcurrentQueries() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        CountingManager manager = new CountingManager() {
+            @Override
+            public List<ColumnEntity> select(ColumnQuery query) {
+                started.incrementAndGet();
+                try {
+                    latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.select(query);
+            }
+        };
+        CachedColumnFamilyManager cached = CachedColumnFamilyManager.of(manager, 1024 * 1024, TTL);
+        ColumnQuery query = select().from("person").build();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<List<ColumnEntity>> first = executor.submit(() -> cached.select(query));
+            while (manager.started.get() == 0) {
+                Thread.yield();
+            }
+            Future<List<ColumnEntity>> second = executor.submit(() -> cached.select(query));
+            Future<List<ColumnEntity>> third = executor.submit(() -> cached.select(query));
+            TimeUnit.MILLISECONDS.sleep(50);
+            latch.countDown();
+
+            assertEquals(manager.entities, first.get(5, TimeUnit.SECONDS));
+            assertEquals(manager.entities, second.get(5, TimeUnit.SECONDS));
+            assertEquals(manager.entities, third.get(5, TimeUnit.SECONDS));
+            assertEquals(1, manager.selects.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotCacheAnError() {
+        CountingManager manager = new CountingManager() {
+            @Override
+            public List<ColumnEntity> select(ColumnQuery query) {
+                super.select(query);
+                throw new IllegalStateException("unavailable");
+            }
+        };
+        CachedColumnFamilyManager cached = CachedColumnFamilyManager.of(manager, 1024 * 1024, TTL);
+        ColumnQuery query = select().from("person").build();
+        try {
+            cached.select(query);
+        } catch (IllegalStateException e) {
+            assertEquals(0L, cached.getStats().getHitCount());
+        }
+        cached.select(query);
+    }
+
+    private static class CountingManager implements ColumnFamilyManager {
+
+        final AtomicInteger started = new AtomicInteger();
+
+        final AtomicInteger selects = new AtomicInteger();
+
+        final List<ColumnEntity> entities = Collections.singletonList(
+                ColumnEntity.of("person", Arrays.asList(Column.of("name", "Ada"), Column.of("age", 10))));
+
+        @Override
+        public ColumnEntity insert(ColumnEntity entity) {
+            return entity;
+        }
+
+        @Override
+        public ColumnEntity update(ColumnEntity entity) {
+            return entity;
+        }
+
+        @Override
+        public ColumnEntity insert(ColumnEntity entity, Duration ttl) {
+            return entity;
+        }
+
+        @Override
+        public void delete(ColumnDeleteQuery query) {
+        }
+
+        @Override
+        public List<ColumnEntity> select(ColumnQuery query) {
+            selects.incrementAndGet();
+            return entities;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
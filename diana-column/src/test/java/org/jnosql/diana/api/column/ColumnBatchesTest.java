@@ -0,0 +1,254 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+
+package org.jnosql.diana.api.column;
+
+import org.jnosql.diana.api.ExecuteAsyncQueryException;
+import org.jnosql.diana.api.batch.BatchPolicy;
+import org.jnosql.diana.api.batch.BatchWriteException;
+import org.jnosql.diana.api.batch.Batcher;
+import org.jnosql.diana.api.batch.BulkExecutor;
+import org.jnosql.diana.api.batch.BulkResult;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ColumnBatchesTest {
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenManagerIsNull() {
+        ColumnBatches.of(null, BatchPolicy.of(10));
+    }
+
+    @Test
+    public void shouldInsertInBatchesGroupedByColumnFamily() {
+        BatchManager manager = new BatchManager();
+        ColumnFamilyManager batchManager = ColumnBatches.of(manager, BatchPolicy.of(2));
+        List<ColumnEntity> entities = Arrays.asList(entity("person", 1), entity("animal", 2),
+                entity("person", 3), entity("person", 4));
+        Iterable<ColumnEntity> result = batchManager.insert(entities);
+
+        assertEquals(entities, result);
+        assertEquals(3, manager.batches.size());
+        assertEquals(Arrays.asList("person", "animal", "person"), manager.columnFamilies);
+        assertEquals(Arrays.asList(entities.get(0), entities.get(2)), manager.batches.get(0));
+        assertEquals(Collections.singletonList(entities.get(3)), manager.batches.get(2));
+    }
+
+    @Test
+    public void shouldUpdateInBatches() {
+        BatchManager manager = new BatchManager();
+        ColumnFamilyManager batchManager = ColumnBatches.of(manager, BatchPolicy.of(10));
+        batchManager.update(Arrays.asList(entity("person", 1), entity("person", 2)));
+        assertEquals(1, manager.batches.size());
+        assertEquals(2, manager.batches.get(0).size());
+    }
+
+    @Test
+    public void shouldReportTheEntitiesThatFailed() {
+        BatchManager manager = new BatchManager();
+        ColumnFamilyManager batchManager = ColumnBatches.of(manager, ColumnBatchWriter.of(manager),
+                BatchPolicy.of(10));
+        ColumnEntity error = entity("error", 2);
+        try {
+            batchManager.insert(Arrays.asList(entity("person", 1), error));
+            fail("It should fail");
+        } catch (BatchWriteException exception) {
+            assertEquals(1, exception.getFailures().size());
+            assertEquals(error, exception.getFailures().get(0).getItem());
+        }
+        assertEquals(1, manager.inserted.size());
+    }
+
+    @Test
+    public void shouldSaveWhenTheBatcherIsFlushed() {
+        BatchManager manager = new BatchManager();
+        List<Object> failures = new ArrayList<>();
+        Batcher<String, ColumnEntity> inserter = ColumnBatches.inserter(manager, BatchPolicy.of(10),
+                failures::add, null);
+        inserter.add(entity("person", 1));
+        assertEquals(0, manager.batches.size());
+        inserter.flush();
+        assertEquals(1, manager.batches.size());
+        assertEquals(0, failures.size());
+    }
+
+    @Test
+    public void shouldInsertAsynchronouslyWithBoundedInFlight() throws InterruptedException {
+        BatchManager manager = new BatchManager();
+        ColumnFamilyManagerAsync managerAsync = ColumnFamilyManagerAsync.of(manager);
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<BulkResult<ColumnEntity>> result = new AtomicReference<>();
+        ColumnBatches.insert(managerAsync, Arrays.asList(entity("person", 1), entity("error", 2),
+                entity("person", 3)), BulkExecutor.of(2), r -> {
+            result.set(r);
+            latch.countDown();
+        });
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        managerAsync.close();
+        assertEquals(2L, result.get().getSucceeded());
+        assertEquals(1, result.get().getFailures().size());
+    }
+
+    @Test
+    public void shouldReportTheFailuresOfAnyAsyncManager() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<BulkResult<ColumnEntity>> result = new AtomicReference<>();
+        ColumnBatches.insert(new RejectingManagerAsync(), Arrays.asList(entity("person", 1), entity("error", 2)),
+                BulkExecutor.of(2), r -> {
+                    result.set(r);
+                    latch.countDown();
+                });
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(1L, result.get().getSucceeded());
+        assertEquals(1, result.get().getFailures().size());
+    }
+
+    private static ColumnEntity entity(String columnFamily, int id) {
+        ColumnEntity entity = ColumnEntity.of(columnFamily);
+        entity.add("id", id);
+        return entity;
+    }
+
+    /**
+     * An asynchronous manager that rejects the entities named error when they are submitted
+     */
+    private static class RejectingManagerAsync implements ColumnFamilyManagerAsync {
+
+        @Override
+        public void insert(ColumnEntity entity) {
+            insert(entity, e -> {
+            });
+        }
+
+        @Override
+        public void insert(ColumnEntity entity, Duration ttl) {
+            insert(entity);
+        }
+
+        @Override
+        public void insert(ColumnEntity entity, Consumer<ColumnEntity> callBack) {
+            if ("error".equals(entity.getName())) {
+                throw new ExecuteAsyncQueryException("rejected");
+            }
+            callBack.accept(entity);
+        }
+
+        @Override
+        public void insert(ColumnEntity entity, Duration ttl, Consumer<ColumnEntity> callBack) {
+            insert(entity, callBack);
+        }
+
+        @Override
+        public void update(ColumnEntity entity) {
+            insert(entity);
+        }
+
+        @Override
+        public void update(ColumnEntity entity, Consumer<ColumnEntity> callBack) {
+            insert(entity, callBack);
+        }
+
+        @Override
+        public void delete(ColumnDeleteQuery query) {
+        }
+
+        @Override
+        public void delete(ColumnDeleteQuery query, Consumer<Void> callBack) {
+            callBack.accept(null);
+        }
+
+        @Override
+        public void select(ColumnQuery query, Consumer<List<ColumnEntity>> callBack) {
+            callBack.accept(Collections.emptyList());
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static class BatchManager implements ColumnFamilyManager, ColumnBatchWriter {
+
+        private final List<String> columnFamilies = new ArrayList<>();
+
+        private final List<List<ColumnEntity>> batches = new ArrayList<>();
+
+        private final List<ColumnEntity> inserted = new ArrayList<>();
+
+        @Override
+        public void insert(String columnFamily, List<ColumnEntity> entities) {
+            columnFamilies.add(columnFamily);
+            batches.add(new ArrayList<>(entities));
+        }
+
+        @Override
+        public void insert(String columnFamily, List<ColumnEntity> entities, Duration ttl) {
+            insert(columnFamily, entities);
+        }
+
+        @Override
+        public void update(String columnFamily, List<ColumnEntity> entities) {
+            insert(columnFamily, entities);
+        }
+
+        @Override
+        public ColumnEntity insert(ColumnEntity entity) {
+            if ("error".equals(entity.getName())) {
+                throw new IllegalStateException("error");
+            }
+            inserted.add(entity);
+            return entity;
+        }
+
+        @Override
+        public ColumnEntity update(ColumnEntity entity) {
+            return insert(entity);
+        }
+
+        @Override
+        public ColumnEntity insert(ColumnEntity entity, Duration ttl) {
+            return insert(entity);
+        }
+
+        @Override
+        public void delete(ColumnDeleteQuery query) {
+        }
+
+        @Override
+        public List<ColumnEntity> select(ColumnQuery query) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
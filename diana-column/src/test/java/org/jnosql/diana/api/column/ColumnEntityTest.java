@@ -21,9 +21,12 @@ import org.jnosql.diana.api.Value;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
@@ -309,4 +312,73 @@ public class ColumnEntityTest {
         assertTrue(columnFamily.isEmpty());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldWalkEachNameAndValue() {
+        ColumnEntity entity = ColumnEntity.of("entity", asList(Column.of("name", "Ada"), Column.of("age", 10)));
+        Map<String, Object> result = new HashMap<>();
+        entity.forEach((name, value) -> result.put(name, value.get()));
+        assertEquals(entity.toMap(), result);
+    }
+
+    @Test
+    public void shouldReturnLiveViews() {
+        ColumnEntity entity = ColumnEntity.of("entity");
+        Set<String> names = entity.getColumnNames();
+        Collection<Value> values = entity.getValues();
+        List<Column> columns = entity.getColumns();
+        Map<String, Object> map = entity.toMap();
+        entity.add("name", "Ada");
+        entity.add("age", 10);
+
+        assertThat(names, containsInAnyOrder("name", "age"));
+        assertThat(values, containsInAnyOrder(Value.of("Ada"), Value.of(10)));
+        assertThat(columns, containsInAnyOrder(Column.of("name", "Ada"), Column.of("age", 10)));
+        assertEquals(10, map.get("age"));
+        entity.remove("name");
+        assertEquals(1, names.size());
+        assertEquals(Column.of("age", 10), columns.get(0));
+        assertFalse(map.containsKey("name"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldReturnErrorWhenViewIsChanged() {
+        ColumnEntity entity = ColumnEntity.of("entity");
+        entity.add("name", "Ada");
+        entity.getColumns().remove(0);
+    }
+
+    @Test
+    public void shouldNotChangeTheCopyWhenTheEntityIsChanged() {
+        ColumnEntity entity = ColumnEntity.of("entity", asList(Column.of("name", "Ada"), Column.of("age", 10)));
+        ColumnEntity copy = entity.copy();
+        entity.add("name", "Grace");
+        entity.remove("age");
+        assertEquals("Ada", copy.find("name").get().get());
+        assertEquals(10, copy.find("age").get().get());
+
+        ColumnEntity second = copy.copy();
+        second.clear();
+        assertEquals(2, copy.size());
+        assertTrue(second.isEmpty());
+    }
+
+    @Test
+    public void shouldBeEqualsRegardlessTheOrder() {
+        ColumnEntity first = ColumnEntity.of("entity", asList(Column.of("name", "Ada"), Column.of("age", 10)));
+        ColumnEntity second = ColumnEntity.of("entity", asList(Column.of("age", 10), Column.of("name", "Ada")));
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+
+        second.add("age", 11);
+        assertFalse(first.equals(second));
+        second.add("age", 10);
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+
+        second.add("city", "London");
+        second.remove("city");
+        assertEquals(first.hashCode(), second.hashCode());
+        first.clear();
+        assertEquals(ColumnEntity.of("entity").hashCode(), first.hashCode());
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+
+package org.jnosql.diana.api.column;
+
+import org.jnosql.diana.api.Sort;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ColumnFamilyManagerAsyncBuilderTest {
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenManagerIsNull() {
+        ColumnFamilyManagerAsync.builder(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenConcurrencyIsInvalid() {
+        ColumnFamilyManagerAsync.builder(new RecordManager()).maxConcurrency(0);
+    }
+
+    @Test
+    public void shouldInsertAsync() throws InterruptedException {
+        RecordManager manager = new RecordManager();
+        ColumnFamilyManagerAsync managerAsync = ColumnFamilyManagerAsync.of(manager);
+        ColumnEntity entity = ColumnEntity.of("person");
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<ColumnEntity> result = new AtomicReference<>();
+        managerAsync.insert(entity, e -> {
+            result.set(e);
+            latch.countDown();
+        });
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(entity, result.get());
+        assertEquals(Collections.singletonList(entity), manager.inserted);
+        managerAsync.close();
+        assertTrue(manager.closed);
+    }
+
+    @Test
+    public void shouldSelectAsync() throws InterruptedException {
+        RecordManager manager = new RecordManager();
+        ColumnFamilyManagerAsync managerAsync = ColumnFamilyManagerAsync.of(manager);
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<List<ColumnEntity>> result = new AtomicReference<>();
+        managerAsync.select(new EmptyQuery(), entities -> {
+            result.set(entities);
+            latch.countDown();
+        });
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(result.get().isEmpty());
+        managerAsync.close();
+    }
+
+    @Test
+    public void shouldRunCallbackOnCallbackExecutor() throws InterruptedException {
+        ExecutorService callbackExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "callback"));
+        ColumnFamilyManagerAsync managerAsync = ColumnFamilyManagerAsync.builder(new RecordManager())
+                .callbackExecutor(callbackExecutor).build();
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<String> thread = new AtomicReference<>();
+        managerAsync.update(ColumnEntity.of("person"), e -> {
+            thread.set(Thread.currentThread().getName());
+            latch.countDown();
+        });
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals("callback", thread.get());
+        managerAsync.close();
+        callbackExecutor.shutdown();
+    }
+
+    @Test
+    public void shouldLimitConcurrency() throws InterruptedException {
+        RecordManager manager = new RecordManager();
+        manager.delay = 5;
+        ExecutorService executor = Executors.newCachedThreadPool();
+        ColumnFamilyManagerAsync managerAsync = ColumnFamilyManagerAsync.builder(manager)
+                .executor(executor).maxConcurrency(2).build();
+        CountDownLatch latch = new CountDownLatch(20);
+        for (int index = 0; index < 20; index++) {
+            managerAsync.insert(ColumnEntity.of("person"), e -> latch.countDown());
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(manager.maxRunning.get() <= 2);
+        managerAsync.close();
+        assertFalse(executor.isShutdown());
+        executor.shutdown();
+    }
+
+    @Test
+    public void shouldSendTheFailureToTheDefaultErrorCallback() throws InterruptedException {
+        RecordManager manager = new RecordManager();
+        manager.failure = new IllegalStateException("insert failed");
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        ColumnFamilyManagerAsync managerAsync = ColumnFamilyManagerAsync.builder(manager).onError(e -> {
+            error.set(e);
+            latch.countDown();
+        }).build();
+        managerAsync.insert(ColumnEntity.of("person"));
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(manager.failure, error.get());
+        managerAsync.close();
+    }
+
+    @Test
+    public void shouldSendTheFailureToTheUncaughtExceptionHandler() throws InterruptedException {
+        RecordManager manager = new RecordManager();
+        manager.failure = new IllegalStateException("insert failed");
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r);
+            thread.setUncaughtExceptionHandler((t, e) -> {
+                error.set(e);
+                latch.countDown();
+            });
+            return thread;
+        });
+        ColumnFamilyManagerAsync managerAsync = ColumnFamilyManagerAsync.builder(manager).executor(executor).build();
+        AtomicBoolean called = new AtomicBoolean();
+        managerAsync.insert(ColumnEntity.of("person"), e -> called.set(true));
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(manager.failure, error.get());
+        assertFalse(called.get());
+        managerAsync.close();
+        executor.shutdown();
+    }
+
+    private static class EmptyQuery implements ColumnQuery {
+
+        @Override
+        public long getMaxResults() {
+            return 0;
+        }
+
+        @Override
+        public long getFirstResult() {
+            return 0;
+        }
+
+        @Override
+        public String getColumnFamily() {
+            return "person";
+        }
+
+        @Override
+        public Optional<ColumnCondition> getCondition() {
+            return Optional.empty();
+        }
+
+        @Override
+        public List<String> getColumns() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<Sort> getSorts() {
+            return Collections.emptyList();
+        }
+    }
+
+    private static class RecordManager implements ColumnFamilyManager {
+
+        private final List<ColumnEntity> inserted = Collections.synchronizedList(new ArrayList<>());
+
+        private final AtomicInteger running = new AtomicInteger();
+
+        private final AtomicInteger maxRunning = new AtomicInteger();
+
+        private volatile long delay;
+
+        private volatile boolean closed;
+
+        private volatile RuntimeException failure;
+
+        @Override
+        public ColumnEntity insert(ColumnEntity entity) {
+            if (failure != null) {
+                throw failure;
+            }
+            int current = running.incrementAndGet();
+            maxRunning.accumulateAndGet(current, Math::max);
+            try {
+                if (delay > 0) {
+                    Thread.sleep(delay);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            inserted.add(entity);
+            return entity;
+        }
+
+        @Override
+        public ColumnEntity update(ColumnEntity entity) {
+            return entity;
+        }
+
+        @Override
+        public ColumnEntity insert(ColumnEntity entity, Duration ttl) {
+            return insert(entity);
+        }
+
+        @Override
+        public void delete(ColumnDeleteQuery query) {
+        }
+
+        @Override
+        public List<ColumnEntity> select(ColumnQuery query) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.column;
+
+import org.jnosql.diana.api.Sort;
+import org.jnosql.diana.api.Value;
+import org.jnosql.diana.api.aggregation.Aggregate;
+import org.jnosql.diana.api.aggregation.AggregateGroup;
+import org.jnosql.diana.api.aggregation.AggregateResult;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.jnosql.diana.api.column.query.ColumnQueryBuilder.patch;
+import static org.jnosql.diana.api.column.query.ColumnQueryBuilder.select;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ColumnFamilyManagerTest {
+
+    @Test
+    public void shouldAggregateTheSelect() {
+        List<ColumnQuery> queries = new ArrayList<>();
+        ColumnFamilyManager manager = manager(queries);
+        AggregateResult result = manager.aggregate(select().from("person").where("age").gt(10).groupBy("city")
+                .aggregate(Aggregate.sum("age")));
+        assertEquals(Arrays.asList("city", "age"), queries.get(0).getColumns());
+        assertEquals(2, result.size());
+        assertEquals(Value.of(77L), result.getGroups().get(0).find("sum(age)").get());
+        assertEquals(Value.of(25L), result.getGroups().get(1).find("sum(age)").get());
+    }
+
+    @Test
+    public void shouldCountTheSelect() {
+        List<ColumnQuery> queries = new ArrayList<>();
+        ColumnFamilyManager manager = manager(queries);
+        assertEquals(3L, manager.count(select().from("person").where("age").gt(10).orderBy(Sort.of("age",
+                Sort.SortType.ASC)).start(1).limit(1).build()));
+        ColumnQuery query = queries.get(0);
+        assertEquals(ColumnCondition.gt(Column.of("age", 10)), query.getCondition().get());
+        assertEquals(Collections.singletonList("age"), query.getColumns());
+        assertEquals(0L, query.getFirstResult());
+        assertEquals(0L, query.getMaxResults());
+        assertTrue(query.getSorts().isEmpty());
+    }
+
+    @Test
+    public void shouldCountWithoutConditionSelectingTheKey() {
+        List<ColumnQuery> queries = new ArrayList<>();
+        assertEquals(3L, manager(queries).count(select().from("person").build()));
+        assertEquals(Collections.singletonList("_id"), queries.get(0).getColumns());
+    }
+
+    @Test
+    public void shouldCountAsync() throws InterruptedException {
+        List<ColumnQuery> queries = new ArrayList<>();
+        ColumnFamilyManagerAsync async = ColumnFamilyManagerAsync.of(manager(queries));
+        try {
+            CountDownLatch latch = new CountDownLatch(1);
+            AtomicLong count = new AtomicLong();
+            async.count(select().from("person").build(), c -> {
+                count.set(c);
+                latch.countDown();
+            });
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(3L, count.get());
+            assertEquals(Collections.singletonList("_id"), queries.get(0).getColumns());
+        } finally {
+            async.close();
+        }
+    }
+
+    @Test
+    public void shouldCountAsyncWithTheAggregation() {
+        AtomicLong count = new AtomicLong();
+        new AggregatingManagerAsync().count(select().from("person").build(), count::set);
+        assertEquals(7L, count.get());
+    }
+
+    @Test
+    public void shouldPatchTheSelect() {
+        List<ColumnQuery> queries = new ArrayList<>();
+        List<ColumnEntity> updated = new ArrayList<>();
+        ColumnFamilyManager manager = manager(queries, updated);
+        assertEquals(3L, manager.patch(patch("person").increment("age", 1).unset("city")
+                .where(ColumnCondition.gt(Column.of("age", 10)))));
+        assertEquals(ColumnCondition.gt(Column.of("age", 10)), queries.get(0).getCondition().get());
+        assertTrue(queries.get(0).getColumns().isEmpty());
+        assertEquals(3, updated.size());
+        assertEquals(Value.of(37L), updated.get(0).find("age").get().getValue());
+        assertFalse(updated.get(0).find("city").isPresent());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldNotSupportConditionalWritesByDefault() {
+        manager(new ArrayList<>()).updateIf(ColumnEntity.of("person"), ColumnCondition.eq(Column.of("version", 1)));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenConditionIsNullByDefault() {
+        manager(new ArrayList<>()).deleteIf(ColumnEntity.of("person"), null);
+    }
+
+    /**
+     * An asynchronous manager that can just aggregate
+     */
+    private static class AggregatingManagerAsync implements ColumnFamilyManagerAsync {
+
+        @Override
+        public void aggregate(ColumnAggregateQuery query, Consumer<AggregateResult> callBack) {
+            callBack.accept(AggregateResult.of(Collections.singletonList(AggregateGroup.of(Collections.emptyMap(),
+                    Collections.singletonMap("count", 7L)))));
+        }
+
+        @Override
+        public void insert(ColumnEntity entity) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void insert(ColumnEntity entity, Duration ttl) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void insert(ColumnEntity entity, Consumer<ColumnEntity> callBack) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void insert(ColumnEntity entity, Duration ttl, Consumer<ColumnEntity> callBack) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void update(ColumnEntity entity) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void update(ColumnEntity entity, Consumer<ColumnEntity> callBack) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void delete(ColumnDeleteQuery query) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void delete(ColumnDeleteQuery query, Consumer<Void> callBack) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void select(ColumnQuery query, Consumer<List<ColumnEntity>> callBack) {
+            throw new UnsupportedOperationException("The entities should not be selected to count");
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static ColumnFamilyManager manager(List<ColumnQuery> queries) {
+        return manager(queries, new ArrayList<>());
+    }
+
+    private static ColumnFamilyManager manager(List<ColumnQuery> queries, List<ColumnEntity> updated) {
+        return new ColumnFamilyManager() {
+            @Override
+            public ColumnEntity insert(ColumnEntity entity) {
+                return entity;
+            }
+
+            @Override
+            public ColumnEntity update(ColumnEntity entity) {
+                updated.add(entity);
+                return entity;
+            }
+
+            @Override
+            public ColumnEntity insert(ColumnEntity entity, Duration ttl) {
+                return entity;
+            }
+
+            @Override
+            public void delete(ColumnDeleteQuery query) {
+            }
+
+            @Override
+            public List<ColumnEntity> select(ColumnQuery query) {
+                queries.add(query);
+                return Arrays.asList(ColumnEntity.of("person", Arrays.asList(Column.of("city", "London"),
+                        Column.of("age", 36))), ColumnEntity.of("person", Arrays.asList(Column.of("city", "London"),
+                        Column.of("age", 41))), ColumnEntity.of("person", Arrays.asList(Column.of("age", 25))));
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
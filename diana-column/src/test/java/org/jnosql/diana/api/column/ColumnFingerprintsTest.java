@@ -0,0 +1,97 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.column;
+
+import org.jnosql.diana.api.Sort;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.jnosql.diana.api.column.ColumnCondition.eq;
+import static org.jnosql.diana.api.column.ColumnCondition.gt;
+import static org.jnosql.diana.api.column.ColumnCondition.in;
+import static org.jnosql.diana.api.column.query.ColumnQueryBuilder.delete;
+import static org.jnosql.diana.api.column.query.ColumnQueryBuilder.select;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class ColumnFingerprintsTest {
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenQueryIsNull() {
+        ColumnFingerprints.of((ColumnQuery) null);
+    }
+
+    @Test
+    public void shouldIgnoreTheOrderOfConditionsAndValues() {
+        ColumnQuery first = select("name", "age").from("person").where(eq(Column.of("name", "Ada")))
+                .and(in(Column.of("age", Arrays.asList(10, 20)))).build();
+        ColumnQuery second = select("age", "name").from("person").where(in(Column.of("age", Arrays.asList(20L, 10L))))
+                .and(eq(Column.of("name", "Ada"))).build();
+        assertEquals(ColumnFingerprints.of(first), ColumnFingerprints.of(second));
+        assertEquals(ColumnFingerprints.shape(first), ColumnFingerprints.shape(second));
+    }
+
+    @Test
+    public void shouldDifferByValue() {
+        ColumnQuery first = select().from("person").where(eq(Column.of("name", "Ada"))).build();
+        ColumnQuery second = select().from("person").where(eq(Column.of("name", "Poliana"))).build();
+        assertNotEquals(ColumnFingerprints.of(first), ColumnFingerprints.of(second));
+        assertEquals(ColumnFingerprints.shape(first), ColumnFingerprints.shape(second));
+    }
+
+    @Test
+    public void shouldDifferByStructure() {
+        ColumnQuery query = select().from("person").where(eq(Column.of("name", "Ada"))).build();
+        ColumnQuery other = select().from("person").where(gt(Column.of("name", "Ada"))).build();
+        ColumnQuery negated = select().from("person").where(eq(Column.of("name", "Ada")).negate()).build();
+        ColumnQuery sorted = select().from("person").where(eq(Column.of("name", "Ada")))
+                .orderBy(Sort.of("age", Sort.SortType.ASC)).build();
+        ColumnQuery family = select().from("animal").where(eq(Column.of("name", "Ada"))).build();
+        for (ColumnQuery different : Arrays.asList(other, negated, sorted, family)) {
+            assertNotEquals(ColumnFingerprints.of(query), ColumnFingerprints.of(different));
+            assertNotEquals(ColumnFingerprints.shape(query), ColumnFingerprints.shape(different));
+        }
+    }
+
+    @Test
+    public void shouldIgnoreTheLimitsInTheShape() {
+        ColumnQuery first = select().from("person").start(10).limit(20).build();
+        ColumnQuery second = select().from("person").start(30).limit(40).build();
+        assertNotEquals(ColumnFingerprints.of(first), ColumnFingerprints.of(second));
+        assertEquals(ColumnFingerprints.shape(first), ColumnFingerprints.shape(second));
+        assertNotEquals(ColumnFingerprints.shape(first), ColumnFingerprints.shape(select().from("person").build()));
+    }
+
+    @Test
+    public void shouldBeStable() {
+        ColumnQuery query = select().from("person").where(eq(Column.of("name", "Ada"))).build();
+        assertEquals(ColumnFingerprints.of(query).toString(), ColumnFingerprints.of(query).toString());
+        assertEquals(32, ColumnFingerprints.of(query).toString().length());
+    }
+
+    @Test
+    public void shouldFingerprintDeleteQuery() {
+        ColumnDeleteQuery first = delete().from("person").where(eq(Column.of("name", "Ada"))).build();
+        ColumnDeleteQuery second = delete().from("person").where(eq(Column.of("name", "Poliana"))).build();
+        assertNotEquals(ColumnFingerprints.of(first), ColumnFingerprints.of(second));
+        assertEquals(ColumnFingerprints.shape(first), ColumnFingerprints.shape(second));
+        assertNotEquals(ColumnFingerprints.of(first),
+                ColumnFingerprints.of(select().from("person").where(eq(Column.of("name", "Ada"))).build()));
+    }
+}
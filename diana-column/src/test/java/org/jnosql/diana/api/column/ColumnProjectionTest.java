@@ -0,0 +1,138 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.column;
+
+import org.jnosql.diana.api.Value;
+import org.jnosql.diana.api.column.query.ColumnQueryBuilder;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ColumnProjectionTest {
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenColumnsIsNull() {
+        ColumnProjection.of((List<String>) null);
+    }
+
+    @Test
+    public void shouldReturnEveryColumnWhenEmpty() {
+        ColumnProjection projection = ColumnProjection.of(ColumnQueryBuilder.select().from("person").build());
+        assertTrue(projection.isAll());
+        assertTrue(projection.contains("name"));
+        ColumnEntity entity = person();
+        ColumnEntity result = projection.apply(entity);
+        assertEquals(entity, result);
+        result.remove("name");
+        assertTrue(entity.contains("name"));
+    }
+
+    @Test
+    public void shouldIgnoreRepeatedColumns() {
+        ColumnProjection projection = ColumnProjection.of(Arrays.asList("name", "age", "name"));
+        assertEquals(Arrays.asList("name", "age"), projection.getColumns());
+        assertEquals(ColumnProjection.of(Arrays.asList("age", "name")), projection);
+        assertFalse(projection.contains("city"));
+    }
+
+    @Test
+    public void shouldApply() {
+        ColumnProjection projection = ColumnProjection.of(ColumnQueryBuilder.select("name", "phone").from("person")
+                .build());
+        ColumnEntity result = projection.apply(person());
+        assertEquals(Collections.singletonList(Column.of("name", "Ada")), result.getColumns());
+        result.add("city", "Paris");
+        assertEquals(2, result.size());
+    }
+
+    @Test
+    public void shouldReadOnlyTheRequestedColumns() {
+        List<String> read = new ArrayList<>();
+        ColumnEntity row = person();
+        Function<String, Object> reader = name -> {
+            read.add(name);
+            return row.find(name).map(Column::getValue).orElse(null);
+        };
+        ColumnEntity entity = ColumnProjection.of(Arrays.asList("name", "age", "phone")).lazy("person", reader);
+        assertTrue(read.isEmpty());
+        assertEquals(Value.of("Ada"), entity.find("name").get().getValue());
+        assertFalse(entity.find("city").isPresent());
+        entity.find("name");
+        assertEquals(Collections.singletonList("name"), read);
+
+        assertEquals(2, entity.size());
+        assertEquals(Arrays.asList("name", "age", "phone"), read);
+        ColumnEntity copy = entity.copy();
+        copy.add("city", "London");
+        assertEquals(3, copy.size());
+        assertEquals(ColumnEntity.of("person", Arrays.asList(Column.of("name", "Ada"), Column.of("age", 36))),
+                ColumnProjection.of(Arrays.asList("name", "age")).apply(copy));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldReturnErrorWhenLazyEntityIsChanged() {
+        ColumnProjection.of(Collections.singletonList("name")).lazy("person", name -> "Ada").add("age", 10);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldReturnErrorWhenLazyEntityHasEveryColumn() {
+        ColumnProjection.of(Collections.emptyList()).lazy("person", name -> null);
+    }
+
+    @Test
+    public void shouldReturnSameProjectionWhenEveryColumn() {
+        assertSame(ColumnProjection.of(Collections.emptyList()), ColumnProjection.of(new ArrayList<>()));
+    }
+
+    @Test
+    public void shouldSerializeALazyEntityWithItsValues() throws IOException, ClassNotFoundException {
+        ColumnEntity row = person();
+        ColumnEntity entity = ColumnProjection.of(Arrays.asList("name", "age")).lazy("person",
+                name -> row.find(name).map(Column::getValue).orElse(null));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(entity);
+        }
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(entity.copy(), input.readObject());
+        }
+    }
+
+    private static ColumnEntity person() {
+        ColumnEntity entity = ColumnEntity.of("person");
+        entity.add("_id", 1);
+        entity.add("name", "Ada");
+        entity.add("age", 36);
+        entity.add("city", "London");
+        return entity;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.column;
+
+import org.jnosql.diana.api.Sizes;
+import org.jnosql.diana.api.Value;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DefaultColumnEntityFootprintTest {
+
+    private static final int ROWS = 10_000;
+
+    private static final int FIELDS = 10;
+
+    private static final String[] NAMES = new String[FIELDS];
+
+    static {
+        for (int index = 0; index < FIELDS; index++) {
+            NAMES[index] = "field" + index;
+        }
+    }
+
+    @Test
+    public void shouldAllocateLessThanAMapOfColumns() {
+        com.sun.management.ThreadMXBean threadBean = threadBean();
+
+        IntFunction<Object> compact = row -> {
+            ColumnEntity entity = ColumnEntity.of("footprint");
+            for (int index = 0; index < FIELDS; index++) {
+                entity.add(NAMES[index], row);
+            }
+            return entity;
+        };
+        IntFunction<Object> map = row -> {
+            Map<String, Column> columns = new HashMap<>();
+            for (int index = 0; index < FIELDS; index++) {
+                columns.put(NAMES[index], Column.of(NAMES[index], Value.of(row)));
+            }
+            return columns;
+        };
+        allocated(threadBean, compact);
+        allocated(threadBean, map);
+
+        long compactBytes = allocated(threadBean, compact);
+        long mapBytes = allocated(threadBean, map);
+        assertTrue("compact: " + compactBytes + " map: " + mapBytes, compactBytes * 2 < mapBytes);
+    }
+
+    @Test
+    public void shouldCopyWithoutCopyingTheValues() {
+        com.sun.management.ThreadMXBean threadBean = threadBean();
+        ColumnEntity entity = ColumnEntity.of("footprint");
+        for (int index = 0; index < FIELDS; index++) {
+            entity.add(NAMES[index], index);
+        }
+        IntFunction<Object> copy = row -> entity.copy();
+        allocated(threadBean, copy);
+
+        long copyBytes = allocated(threadBean, copy);
+        long valuesBytes = (long) ROWS * (Sizes.OBJECT_HEADER + FIELDS * Sizes.REFERENCE);
+        assertTrue("copy: " + copyBytes, copyBytes < valuesBytes);
+    }
+
+    @Test
+    public void shouldSizeTheValuesToTheColumnsOfTheEntity() {
+        com.sun.management.ThreadMXBean threadBean = threadBean();
+        int names = 2_000;
+        ColumnEntity wide = ColumnEntity.of("wide_footprint");
+        ColumnSchema schema = ColumnSchema.of();
+        for (int index = 0; index < names; index++) {
+            wide.add("column" + index, index);
+            schema.add("column" + index);
+        }
+        Value value = Value.of("value");
+        String last = "column" + (names - 1);
+        IntFunction<Object> family = row -> {
+            ColumnEntity entity = ColumnEntity.of("wide_footprint");
+            entity.add("column1", value);
+            return entity;
+        };
+        IntFunction<Object> shared = row -> {
+            ColumnEntity entity = schema.newEntity("wide_footprint");
+            entity.add(last, value);
+            return entity;
+        };
+        allocated(threadBean, family);
+        allocated(threadBean, shared);
+
+        long limit = (long) ROWS * names * Sizes.REFERENCE / 10;
+        long familyBytes = allocated(threadBean, family);
+        long sharedBytes = allocated(threadBean, shared);
+        assertTrue("family: " + familyBytes, familyBytes < limit);
+        assertTrue("shared: " + sharedBytes, sharedBytes < limit);
+    }
+
+    @Test
+    public void shouldKeepTheColumnsWhenIsLarge() {
+        ColumnEntity entity = ColumnEntity.of("large");
+        for (int index = 0; index < 100; index++) {
+            entity.add("column" + index, index);
+        }
+        entity.add("column50", "replaced");
+        assertEquals(100, entity.size());
+        assertEquals("replaced", entity.find("column50").get().get());
+        assertTrue(entity.remove("column10"));
+        assertFalse(entity.contains("column10"));
+        assertEquals(99, entity.find("column99").get().get());
+        assertEquals(99, entity.getColumnNames().size());
+    }
+
+    @Test
+    public void shouldNotChangeAnEntityWhenAnotherOneFollowsADifferentOrder() {
+        ColumnEntity first = ColumnEntity.of("order");
+        first.add("a", 1);
+        first.add("b", 2);
+        ColumnEntity second = ColumnEntity.of("order");
+        second.add("b", 3);
+        second.add("a", 4);
+        second.remove("b");
+        assertEquals(1, first.find("a").get().get());
+        assertEquals(2, first.find("b").get().get());
+        assertEquals(4, second.find("a").get().get());
+        assertFalse(second.contains("b"));
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+        return threadBean;
+    }
+
+    private static long allocated(com.sun.management.ThreadMXBean bean, IntFunction<Object> factory) {
+        List<Object> rows = new ArrayList<>(ROWS);
+        long threadId = Thread.currentThread().getId();
+        long before = bean.getThreadAllocatedBytes(threadId);
+        for (int row = 0; row < ROWS; row++) {
+            rows.add(factory.apply(row));
+        }
+        long after = bean.getThreadAllocatedBytes(threadId);
+        assertEquals(ROWS, rows.size());
+        return after - before;
+    }
+}
@@ -17,13 +17,18 @@
 package org.jnosql.diana.api.column.query;
 
 import org.jnosql.diana.api.Sort;
+import org.jnosql.diana.api.column.Column;
+import org.jnosql.diana.api.column.ColumnCondition;
 import org.jnosql.diana.api.column.ColumnQuery;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.util.List;
 
+import static org.jnosql.diana.api.column.ColumnCondition.eq;
 import static org.jnosql.diana.api.column.query.ColumnQueryBuilder.select;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 
@@ -52,4 +57,22 @@ public class DefaultColumnQueryTest {
         assertTrue(sorts.isEmpty());
         sorts.clear();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldBeEqualsToTheSameQuery() {
+        ColumnQuery first = select().from("person").where(eq(Column.of("name", "Ada"))).build();
+        ColumnQuery second = select().from("person").where(eq(Column.of("name", "Ada"))).build();
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(first, select().from("person").where(eq(Column.of("name", "Poliana"))).build());
+    }
+
+    @Test
+    public void shouldConditionBeEqualsToTheBuiltCondition() {
+        ColumnCondition condition = eq(Column.of("name", "Ada"));
+        ColumnCondition readOnly = select().from("person").where(condition).build().getCondition().get();
+        assertEquals(condition, readOnly);
+        assertEquals(readOnly, condition);
+        assertEquals(condition.hashCode(), readOnly.hashCode());
+    }
+}
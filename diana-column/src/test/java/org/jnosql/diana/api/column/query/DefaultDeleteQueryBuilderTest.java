@@ -26,6 +26,7 @@ import org.jnosql.diana.api.column.ColumnDeleteQuery;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static org.hamcrest.Matchers.containsInAnyOrder;
@@ -235,6 +236,22 @@ public class DefaultDeleteQueryBuilderTest {
         }), Matchers.contains(10, 20));
     }
 
+    @Test
+    public void shouldSelectWhereNameIn() {
+        String columnFamily = "columnFamily";
+        ColumnDeleteQuery query = delete().from(columnFamily).where("name").in(Arrays.asList(10, 20)).build();
+        ColumnCondition condition = query.getCondition().get();
+
+        Column column = condition.getColumn();
+
+        assertTrue(query.getColumns().isEmpty());
+        assertEquals(columnFamily, query.getColumnFamily());
+        assertEquals(Condition.IN, condition.getCondition());
+        assertEquals("name", column.getName());
+        Assert.assertThat(column.get(new TypeReference<List<Number>>() {
+        }), Matchers.contains(10, 20));
+    }
+
     @Test
     public void shouldSelectWhereNameNot() {
         String columnFamily = "columnFamily";
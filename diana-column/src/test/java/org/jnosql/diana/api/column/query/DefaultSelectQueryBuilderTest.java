@@ -18,14 +18,19 @@ package org.jnosql.diana.api.column.query;
 
 import org.hamcrest.Matchers;
 import org.jnosql.diana.api.Condition;
+import org.jnosql.diana.api.Continuation;
 import org.jnosql.diana.api.Sort;
 import org.jnosql.diana.api.TypeReference;
+import org.jnosql.diana.api.aggregation.Aggregate;
 import org.jnosql.diana.api.column.Column;
+import org.jnosql.diana.api.column.ColumnAggregateQuery;
 import org.jnosql.diana.api.column.ColumnCondition;
+import org.jnosql.diana.api.column.ColumnEntity;
 import org.jnosql.diana.api.column.ColumnQuery;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static org.hamcrest.Matchers.contains;
@@ -271,6 +276,21 @@ public class DefaultSelectQueryBuilderTest {
         Assert.assertThat(column.get(new TypeReference<List<Number>>() {}), Matchers.contains(10, 20));
     }
 
+    @Test
+    public void shouldSelectWhereNameIn() {
+        String columnFamily = "columnFamily";
+        ColumnQuery query = select().from(columnFamily).where("name").in(Arrays.asList(10, 20)).build();
+        ColumnCondition condition = query.getCondition().get();
+
+        Column column = condition.getColumn();
+
+        assertTrue(query.getColumns().isEmpty());
+        assertEquals(columnFamily, query.getColumnFamily());
+        assertEquals(Condition.IN, condition.getCondition());
+        assertEquals("name", column.getName());
+        Assert.assertThat(column.get(new TypeReference<List<Number>>() {}), Matchers.contains(10, 20));
+    }
+
     @Test
     public void shouldSelectWhereNameNot() {
         String columnFamily = "columnFamily";
@@ -387,4 +407,91 @@ public class DefaultSelectQueryBuilderTest {
                 ColumnCondition.gt(Column.of("age", 10))));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldSelectAfterEntity() {
+        ColumnEntity last = ColumnEntity.of("person", Arrays.asList(Column.of("age", 10), Column.of("id", 3L)));
+        ColumnQuery query = select().from("person").where(ColumnCondition.eq(Column.of("active", true)))
+                .orderBy(Sort.of("age", Sort.SortType.DESC)).orderBy(Sort.of("id", ASC)).after(last).limit(10).build();
+
+        ColumnCondition expected = ColumnCondition.eq(Column.of("active", true)).and(ColumnCondition.or(
+                ColumnCondition.lt(Column.of("age", 10)),
+                ColumnCondition.and(ColumnCondition.eq(Column.of("age", 10)), ColumnCondition.gt(Column.of("id", 3L)))));
+        assertEquals(expected, query.getCondition().get());
+        assertEquals(10L, query.getMaxResults());
+        assertEquals(0L, query.getFirstResult());
+    }
+
+    @Test
+    public void shouldSelectAfterContinuation() {
+        ColumnQuery query = select().from("person").orderBy(Sort.of("age", ASC)).limit(10).build();
+        ColumnEntity last = ColumnEntity.of("person", Arrays.asList(Column.of("name", "Ada"), Column.of("age", 10)));
+        Continuation continuation = Continuation.parse(ColumnQueryBuilder.continuation(query, last).toToken());
+
+        ColumnQuery next = select().from("person").orderBy(Sort.of("age", ASC)).after(continuation).limit(10).build();
+        assertEquals(ColumnCondition.gt(Column.of("age", 10)), next.getCondition().get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenContinuationHasOtherSorts() {
+        Continuation continuation = Continuation.of(Arrays.asList(Sort.of("age", ASC)), Arrays.asList(10));
+        select().from("person").orderBy(Sort.of("name", ASC)).after(continuation);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenEntityHasNoSortValue() {
+        select().from("person").orderBy(Sort.of("age", ASC)).after(ColumnEntity.of("person"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldReturnErrorWhenSortAfterAfter() {
+        ColumnEntity last = ColumnEntity.of("person", Arrays.asList(Column.of("age", 10)));
+        select().from("person").orderBy(Sort.of("age", ASC)).after(last).orderBy(Sort.of("name", ASC));
+    }
+
+    @Test
+    public void shouldSelectAggregate() {
+        ColumnAggregateQuery query = select().from("person").where("age").gt(10).groupBy("city", "country")
+                .aggregate(Aggregate.count(), Aggregate.avg("age").as("average"));
+        assertEquals("person", query.getColumnFamily());
+        assertEquals(gt(Column.of("age", 10)), query.getCondition().get());
+        assertEquals(Arrays.asList("city", "country"), query.getGroupBy());
+        assertEquals(Arrays.asList(Aggregate.count(), Aggregate.avg("age").as("average")), query.getAggregates());
+
+        ColumnQuery select = query.toQuery();
+        assertEquals(Arrays.asList("city", "country", "age"), select.getColumns());
+        assertEquals(query.getCondition(), select.getCondition());
+    }
+
+    @Test
+    public void shouldSelectOneColumnToCount() {
+        ColumnQuery query = select().from("person").where(eq(Column.of("name", "Ada")).and(gt(Column.of("age", 10)))
+                .negate()).build();
+        assertEquals(Arrays.asList("name"), ColumnQueryBuilder.count(query).toQuery().getColumns());
+        query = select().from("person").build();
+        assertEquals(Arrays.asList("_id"), ColumnQueryBuilder.count(query).toQuery().getColumns());
+    }
+
+    @Test
+    public void shouldSelectAggregateWithoutGroupBy() {
+        ColumnAggregateQuery query = select().from("person").aggregate(Aggregate.sum("age"));
+        assertFalse(query.getCondition().isPresent());
+        assertTrue(query.getGroupBy().isEmpty());
+        assertEquals(select().from("person").aggregate(Aggregate.sum("age")), query);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldReturnErrorWhenAggregateHasColumns() {
+        select("name").from("person").aggregate(Aggregate.count());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenAggregatesHaveSameAlias() {
+        select().from("person").aggregate(Aggregate.count(), Aggregate.sum("age").as("count"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenGroupByIsEmpty() {
+        select().from("person").groupBy();
+    }
+
+}
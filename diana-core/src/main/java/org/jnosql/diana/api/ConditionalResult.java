@@ -0,0 +1,107 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The result of a conditional write, e.g. an insert if absent or a compare-and-set. When the write is applied it
+ * has the written value, otherwise it has the current value that failed the condition, so the caller can decide
+ * what to do next without reading it again.
+ *
+ * @param <T> the value type
+ */
+public final class ConditionalResult<T> {
+
+    private final boolean applied;
+
+    private final T value;
+
+    private ConditionalResult(boolean applied, T value) {
+        this.applied = applied;
+        this.value = value;
+    }
+
+    /**
+     * Creates the result of a write that was applied
+     *
+     * @param value the written value
+     * @param <T>   the value type
+     * @return a {@link ConditionalResult} instance
+     * @throws NullPointerException when value is null
+     */
+    public static <T> ConditionalResult<T> applied(T value) throws NullPointerException {
+        return new ConditionalResult<>(true, requireNonNull(value, "value is required"));
+    }
+
+    /**
+     * Creates the result of a write that was not applied
+     *
+     * @param current the current value, null when there is not any
+     * @param <T>     the value type
+     * @return a {@link ConditionalResult} instance
+     */
+    public static <T> ConditionalResult<T> rejected(T current) {
+        return new ConditionalResult<>(false, current);
+    }
+
+    /**
+     * @return true when the condition was met and the value was written
+     */
+    public boolean isApplied() {
+        return applied;
+    }
+
+    /**
+     * The written value when applied, otherwise the current value
+     *
+     * @return the value or {@link Optional#empty()} when the write was not applied because there is not any value
+     */
+    public Optional<T> getValue() {
+        return Optional.ofNullable(value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ConditionalResult<?> that = (ConditionalResult<?>) o;
+        return applied == that.applied && Objects.equals(value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(applied, value);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ConditionalResult{");
+        sb.append("applied=").append(applied);
+        sb.append(", value=").append(value);
+        sb.append('}');
+        return sb.toString();
+    }
+}
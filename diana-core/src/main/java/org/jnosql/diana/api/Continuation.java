@@ -0,0 +1,349 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The position of a keyset pagination: the sorts of a query and the values of the last entity of a page, so the
+ * next page selects the entities after them instead of skipping the previous pages.
+ * <p>It might be sent to a client as an opaque, URL-safe token with {@link Continuation#toToken()} and read back
+ * with {@link Continuation#parse(String)}. The token does not use the Java serialization, so the values are
+ * limited to texts, numbers, booleans, characters, {@link Date} and the java.time dates and times. An enum is
+ * kept as its name.</p>
+ */
+public final class Continuation {
+
+    private static final byte VERSION = 1;
+
+    private static final byte STRING = 1;
+    private static final byte BOOLEAN = 2;
+    private static final byte CHARACTER = 3;
+    private static final byte BYTE = 4;
+    private static final byte SHORT = 5;
+    private static final byte INTEGER = 6;
+    private static final byte LONG = 7;
+    private static final byte FLOAT = 8;
+    private static final byte DOUBLE = 9;
+    private static final byte BIG_INTEGER = 10;
+    private static final byte BIG_DECIMAL = 11;
+    private static final byte DATE = 12;
+    private static final byte INSTANT = 13;
+    private static final byte LOCAL_DATE = 14;
+    private static final byte LOCAL_DATE_TIME = 15;
+    private static final byte LOCAL_TIME = 16;
+    private static final byte ZONED_DATE_TIME = 17;
+    private static final byte OFFSET_DATE_TIME = 18;
+
+    private final List<Sort> sorts;
+
+    private final List<Object> values;
+
+    private Continuation(List<Sort> sorts, List<Object> values) {
+        this.sorts = sorts;
+        this.values = values;
+    }
+
+    /**
+     * Creates a {@link Continuation}
+     *
+     * @param sorts  the sorts of the query
+     * @param values the values of the last entity, one to each sort
+     * @return a {@link Continuation} instance
+     * @throws NullPointerException     when there is a null parameter or element
+     * @throws IllegalArgumentException when there is either no sort, a value to each sort or a value of a type
+     *                                  that is not supported
+     */
+    public static Continuation of(List<Sort> sorts, List<?> values) throws NullPointerException,
+            IllegalArgumentException {
+        requireNonNull(sorts, "sorts is required");
+        requireNonNull(values, "values is required");
+        if (sorts.isEmpty()) {
+            throw new IllegalArgumentException("The keyset pagination requires at least one sort");
+        }
+        if (sorts.size() != values.size()) {
+            throw new IllegalArgumentException(String.format("There are %d sorts and %d values", sorts.size(),
+                    values.size()));
+        }
+        List<Object> normalized = new ArrayList<>(values.size());
+        for (Object value : values) {
+            normalized.add(normalize(requireNonNull(value, "value is required")));
+        }
+        sorts.forEach(s -> requireNonNull(s, "sort is required"));
+        return new Continuation(Collections.unmodifiableList(new ArrayList<>(sorts)),
+                Collections.unmodifiableList(normalized));
+    }
+
+    /**
+     * Reads a token created by {@link Continuation#toToken()}
+     *
+     * @param token the token
+     * @return the {@link Continuation}
+     * @throws NullPointerException     when token is null
+     * @throws IllegalArgumentException when the token is not valid
+     */
+    public static Continuation parse(String token) throws NullPointerException, IllegalArgumentException {
+        requireNonNull(token, "token is required");
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(
+                Base64.getUrlDecoder().decode(token)))) {
+            if (input.readByte() != VERSION) {
+                throw new IllegalArgumentException("The continuation token has an unknown version");
+            }
+            int size = input.readUnsignedShort();
+            List<Sort> sorts = new ArrayList<>(size);
+            List<Object> values = new ArrayList<>(size);
+            for (int index = 0; index < size; index++) {
+                String name = readString(input);
+                sorts.add(Sort.of(name, input.readBoolean() ? Sort.SortType.DESC : Sort.SortType.ASC));
+                values.add(read(input));
+            }
+            if (input.read() >= 0) {
+                throw new IllegalArgumentException("The continuation token is not valid");
+            }
+            return of(sorts, values);
+        } catch (IOException | DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("The continuation token is not valid", e);
+        }
+    }
+
+    /**
+     * @return the sorts of the query
+     */
+    public List<Sort> getSorts() {
+        return sorts;
+    }
+
+    /**
+     * @return the values of the last entity, one to each sort
+     */
+    public List<Object> getValues() {
+        return values;
+    }
+
+    /**
+     * @return the continuation as an opaque and URL-safe token
+     */
+    public String toToken() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeByte(VERSION);
+            output.writeShort(sorts.size());
+            for (int index = 0; index < sorts.size(); index++) {
+                Sort sort = sorts.get(index);
+                writeString(output, sort.getName());
+                output.writeBoolean(Sort.SortType.DESC.equals(sort.getType()));
+                write(output, values.get(index));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("The continuation token cannot be created", e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    private static Object normalize(Object value) {
+        if (value instanceof Value) {
+            return normalize(Value.class.cast(value).get());
+        }
+        if (value instanceof Enum) {
+            return Enum.class.cast(value).name();
+        }
+        if (value instanceof CharSequence && !(value instanceof String)) {
+            return value.toString();
+        }
+        if (value instanceof String || value instanceof Boolean || value instanceof Character
+                || value instanceof Byte || value instanceof Short || value instanceof Integer
+                || value instanceof Long || value instanceof Float || value instanceof Double
+                || value instanceof BigInteger || value instanceof BigDecimal || value instanceof Date
+                || value instanceof Instant || value instanceof LocalDate || value instanceof LocalDateTime
+                || value instanceof LocalTime || value instanceof ZonedDateTime || value instanceof OffsetDateTime) {
+            return value;
+        }
+        throw new IllegalArgumentException("The continuation does not support the type: "
+                + value.getClass().getName());
+    }
+
+    private static void write(DataOutputStream output, Object value) throws IOException {
+        if (value instanceof String) {
+            output.writeByte(STRING);
+            writeString(output, (String) value);
+        } else if (value instanceof Boolean) {
+            output.writeByte(BOOLEAN);
+            output.writeBoolean((Boolean) value);
+        } else if (value instanceof Character) {
+            output.writeByte(CHARACTER);
+            output.writeChar((Character) value);
+        } else if (value instanceof Byte) {
+            output.writeByte(BYTE);
+            output.writeByte((Byte) value);
+        } else if (value instanceof Short) {
+            output.writeByte(SHORT);
+            output.writeShort((Short) value);
+        } else if (value instanceof Integer) {
+            output.writeByte(INTEGER);
+            output.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            output.writeByte(LONG);
+            output.writeLong((Long) value);
+        } else if (value instanceof Float) {
+            output.writeByte(FLOAT);
+            output.writeFloat((Float) value);
+        } else if (value instanceof Double) {
+            output.writeByte(DOUBLE);
+            output.writeDouble((Double) value);
+        } else if (value instanceof Date) {
+            output.writeByte(DATE);
+            output.writeLong(((Date) value).getTime());
+        } else {
+            output.writeByte(textTag(value));
+            writeString(output, value.toString());
+        }
+    }
+
+    private static byte textTag(Object value) {
+        if (value instanceof BigInteger) {
+            return BIG_INTEGER;
+        }
+        if (value instanceof BigDecimal) {
+            return BIG_DECIMAL;
+        }
+        if (value instanceof Instant) {
+            return INSTANT;
+        }
+        if (value instanceof LocalDate) {
+            return LOCAL_DATE;
+        }
+        if (value instanceof LocalDateTime) {
+            return LOCAL_DATE_TIME;
+        }
+        if (value instanceof LocalTime) {
+            return LOCAL_TIME;
+        }
+        if (value instanceof ZonedDateTime) {
+            return ZONED_DATE_TIME;
+        }
+        return OFFSET_DATE_TIME;
+    }
+
+    private static Object read(DataInputStream input) throws IOException {
+        byte tag = input.readByte();
+        switch (tag) {
+            case STRING:
+                return readString(input);
+            case BOOLEAN:
+                return input.readBoolean();
+            case CHARACTER:
+                return input.readChar();
+            case BYTE:
+                return input.readByte();
+            case SHORT:
+                return input.readShort();
+            case INTEGER:
+                return input.readInt();
+            case LONG:
+                return input.readLong();
+            case FLOAT:
+                return input.readFloat();
+            case DOUBLE:
+                return input.readDouble();
+            case BIG_INTEGER:
+                return new BigInteger(readString(input));
+            case BIG_DECIMAL:
+                return new BigDecimal(readString(input));
+            case DATE:
+                return new Date(input.readLong());
+            case INSTANT:
+                return Instant.parse(readString(input));
+            case LOCAL_DATE:
+                return LocalDate.parse(readString(input));
+            case LOCAL_DATE_TIME:
+                return LocalDateTime.parse(readString(input));
+            case LOCAL_TIME:
+                return LocalTime.parse(readString(input));
+            case ZONED_DATE_TIME:
+                return ZonedDateTime.parse(readString(input));
+            case OFFSET_DATE_TIME:
+                return OffsetDateTime.parse(readString(input));
+            default:
+                throw new IllegalArgumentException("The continuation token is not valid");
+        }
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0 || length > input.available()) {
+            throw new IllegalArgumentException("The continuation token is not valid");
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Continuation)) {
+            return false;
+        }
+        Continuation that = (Continuation) o;
+        return Objects.equals(sorts, that.sorts) && Objects.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sorts, values);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("Continuation{");
+        sb.append("sorts=").append(sorts);
+        sb.append(", values=").append(values);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api;
+
+import java.io.Serializable;
+
+/**
+ * A 128-bit fingerprint, e.g. of a query, created by {@link FingerprintHasher}. It is stable across JVMs, so it
+ * can be used as a cache key, to deduplicate or to aggregate metrics.
+ *
+ * @see Fingerprint#hasher()
+ */
+public final class Fingerprint implements Comparable<Fingerprint>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long high;
+
+    private final long low;
+
+    private Fingerprint(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    /**
+     * Creates a {@link Fingerprint}
+     *
+     * @param high the most significant 64 bits
+     * @param low  the least significant 64 bits
+     * @return a {@link Fingerprint} instance
+     */
+    public static Fingerprint of(long high, long low) {
+        return new Fingerprint(high, low);
+    }
+
+    /**
+     * Creates a new {@link FingerprintHasher}
+     *
+     * @return a new {@link FingerprintHasher} instance
+     */
+    public static FingerprintHasher hasher() {
+        return new FingerprintHasher();
+    }
+
+    /**
+     * @return the most significant 64 bits
+     */
+    public long getHigh() {
+        return high;
+    }
+
+    /**
+     * @return the least significant 64 bits
+     */
+    public long getLow() {
+        return low;
+    }
+
+    @Override
+    public int compareTo(Fingerprint other) {
+        int compare = Long.compareUnsigned(high, other.high);
+        return compare == 0 ? Long.compareUnsigned(low, other.low) : compare;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Fingerprint)) {
+            return false;
+        }
+        Fingerprint that = (Fingerprint) o;
+        return high == that.high && low == that.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) low;
+    }
+
+    /**
+     * @return the fingerprint as 32 hexadecimal digits
+     */
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+}
@@ -0,0 +1,355 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Creates a {@link Fingerprint} from a sequence of values with the 128-bit MurmurHash3, so the fingerprint of the
+ * same sequence is the same in every JVM. A hasher is not thread-safe.
+ * <p>{@link FingerprintHasher#putValue(Object)} normalizes the values: the numbers with the same value have the same
+ * fingerprint regardless of their type, and so do an enum, its name and a {@link CharSequence} with the same
+ * characters.</p>
+ * <p>A value whose type does not have a stable representation is not supported, so two different values never
+ * share a fingerprint because of a lossy {@link Object#toString()}.</p>
+ *
+ * @see Fingerprint#hasher()
+ */
+public final class FingerprintHasher {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+
+    private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    private static final byte NULL = 0;
+
+    private static final byte LONG = 1;
+
+    private static final byte DOUBLE = 2;
+
+    private static final byte DECIMAL = 3;
+
+    private static final byte STRING = 4;
+
+    private static final byte BOOLEAN = 5;
+
+    private static final byte ENTRY = 6;
+
+    private static final byte MAP = 7;
+
+    private static final byte LIST = 8;
+
+    private static final byte ARRAY = 9;
+
+    private static final byte DATE = 10;
+
+    private static final byte CALENDAR = 11;
+
+    private static final byte TIME = 12;
+
+    private static final byte PARAMETER = 13;
+
+    private static final byte IDENTIFIER = 14;
+
+    private long h1;
+
+    private long h2;
+
+    private long k1;
+
+    private long k2;
+
+    private int position;
+
+    private long length;
+
+    FingerprintHasher() {
+    }
+
+    /**
+     * Adds a byte
+     *
+     * @param value the value
+     * @return this instance
+     */
+    public FingerprintHasher putByte(byte value) {
+        long unsigned = value & 0xFFL;
+        if (position < 8) {
+            k1 |= unsigned << (position << 3);
+        } else {
+            k2 |= unsigned << ((position - 8) << 3);
+        }
+        length++;
+        if (++position == 16) {
+            mix();
+        }
+        return this;
+    }
+
+    /**
+     * Adds a boolean
+     *
+     * @param value the value
+     * @return this instance
+     */
+    public FingerprintHasher putBoolean(boolean value) {
+        return putByte(value ? (byte) 1 : (byte) 0);
+    }
+
+    /**
+     * Adds an int
+     *
+     * @param value the value
+     * @return this instance
+     */
+    public FingerprintHasher putInt(int value) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            putByte((byte) (value >>> shift));
+        }
+        return this;
+    }
+
+    /**
+     * Adds a long
+     *
+     * @param value the value
+     * @return this instance
+     */
+    public FingerprintHasher putLong(long value) {
+        for (int shift = 0; shift < 64; shift += 8) {
+            putByte((byte) (value >>> shift));
+        }
+        return this;
+    }
+
+    /**
+     * Adds a String as its UTF-8 bytes, prefixed by their length
+     *
+     * @param value the value
+     * @return this instance
+     * @throws NullPointerException when value is null
+     */
+    public FingerprintHasher putString(String value) throws NullPointerException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putInt(bytes.length);
+        for (byte b : bytes) {
+            putByte(b);
+        }
+        return this;
+    }
+
+    /**
+     * Adds a fingerprint
+     *
+     * @param fingerprint the fingerprint
+     * @return this instance
+     * @throws NullPointerException when fingerprint is null
+     */
+    public FingerprintHasher putFingerprint(Fingerprint fingerprint) throws NullPointerException {
+        return putLong(fingerprint.getHigh()).putLong(fingerprint.getLow());
+    }
+
+    /**
+     * Adds fingerprints regardless of their order, e.g. of the conditions of an AND
+     *
+     * @param fingerprints the fingerprints
+     * @return this instance
+     * @throws NullPointerException when fingerprints is null
+     */
+    public FingerprintHasher putUnordered(Collection<Fingerprint> fingerprints) throws NullPointerException {
+        List<Fingerprint> sorted = new ArrayList<>(fingerprints);
+        Collections.sort(sorted);
+        putInt(sorted.size());
+        sorted.forEach(this::putFingerprint);
+        return this;
+    }
+
+    /**
+     * Adds a value, it might be null, a {@link Value}, a number, a {@link CharSequence}, a {@link Character}, an
+     * enum, a boolean, a {@link Date} or a {@link Calendar} by their instant, a {@code java.time} value by its ISO
+     * representation, a {@link UUID}, a {@link Parameter}, a {@link Map.Entry}, a {@link Map}, whose entries are
+     * added regardless of their order, or an {@link Iterable} or an array of them. The other types are not
+     * supported, since their {@link Object#toString()} might be neither unique nor the same in every JVM.
+     *
+     * @param value the value
+     * @return this instance
+     * @throws IllegalArgumentException when the type of the value, or of an element, is not supported
+     */
+    public FingerprintHasher putValue(Object value) throws IllegalArgumentException {
+        if (value instanceof Value) {
+            return putValue(Value.class.cast(value).get());
+        }
+        if (value == null) {
+            return putByte(NULL);
+        }
+        if (value instanceof Number) {
+            return putNumber(Number.class.cast(value));
+        }
+        if (value instanceof CharSequence || value instanceof Character) {
+            return putByte(STRING).putString(value.toString());
+        }
+        if (value instanceof Enum) {
+            return putByte(STRING).putString(Enum.class.cast(value).name());
+        }
+        if (value instanceof Boolean) {
+            return putByte(BOOLEAN).putBoolean((Boolean) value);
+        }
+        if (value instanceof Map.Entry) {
+            Map.Entry<?, ?> entry = Map.Entry.class.cast(value);
+            return putByte(ENTRY).putValue(entry.getKey()).putValue(entry.getValue());
+        }
+        if (value instanceof Map) {
+            List<Fingerprint> entries = new ArrayList<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                entries.add(Fingerprint.hasher().putValue(entry).hash());
+            }
+            return putByte(MAP).putUnordered(entries);
+        }
+        if (value instanceof Iterable) {
+            putByte(LIST);
+            int size = 0;
+            for (Object element : Iterable.class.cast(value)) {
+                putValue(element);
+                size++;
+            }
+            return putInt(size);
+        }
+        if (value.getClass().isArray()) {
+            putByte(ARRAY);
+            int length = Array.getLength(value);
+            for (int index = 0; index < length; index++) {
+                putValue(Array.get(value, index));
+            }
+            return putInt(length);
+        }
+        if (value instanceof Date) {
+            putByte(DATE).putString(value.getClass().getName()).putLong(Date.class.cast(value).getTime());
+            return value instanceof Timestamp ? putInt(Timestamp.class.cast(value).getNanos()) : this;
+        }
+        if (value instanceof Calendar) {
+            Calendar calendar = Calendar.class.cast(value);
+            return putByte(CALENDAR).putString(value.getClass().getName()).putLong(calendar.getTimeInMillis())
+                    .putString(calendar.getTimeZone().getID());
+        }
+        if (value.getClass().getName().startsWith("java.time.")) {
+            return putByte(TIME).putString(value.getClass().getName()).putString(value.toString());
+        }
+        if (value instanceof UUID) {
+            UUID uuid = UUID.class.cast(value);
+            return putByte(IDENTIFIER).putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+        }
+        if (value instanceof Parameter) {
+            Parameter parameter = Parameter.class.cast(value);
+            putByte(PARAMETER).putBoolean(parameter.isNamed());
+            return parameter.isNamed() ? putString(parameter.getName()) : putInt(parameter.getIndex());
+        }
+        throw new IllegalArgumentException("The type does not have a stable fingerprint: " + value.getClass()
+                .getName());
+    }
+
+    private FingerprintHasher putNumber(Number number) {
+        if (number instanceof BigDecimal || number instanceof BigInteger) {
+            BigDecimal decimal = number instanceof BigDecimal ? ((BigDecimal) number).stripTrailingZeros()
+                    : new BigDecimal((BigInteger) number);
+            if (decimal.scale() <= 0 && decimal.compareTo(LONG_MIN) >= 0 && decimal.compareTo(LONG_MAX) <= 0) {
+                return putByte(LONG).putLong(decimal.longValue());
+            }
+            return putByte(DECIMAL).putString(decimal.toPlainString());
+        }
+        if (number instanceof Double || number instanceof Float) {
+            double real = number.doubleValue();
+            if (real == (long) real && real != 0x1p63) {
+                return putByte(LONG).putLong((long) real);
+            }
+            return putByte(DOUBLE).putLong(Double.doubleToLongBits(real));
+        }
+        return putByte(LONG).putLong(number.longValue());
+    }
+
+    /**
+     * Creates the fingerprint of the values added so far, the hasher might keep being used
+     *
+     * @return the {@link Fingerprint}
+     */
+    public Fingerprint hash() {
+        long h1 = this.h1;
+        long h2 = this.h2;
+        if (position > 8) {
+            long k2 = this.k2 * C2;
+            k2 = Long.rotateLeft(k2, 33) * C1;
+            h2 ^= k2;
+        }
+        if (position > 0) {
+            long k1 = this.k1 * C1;
+            k1 = Long.rotateLeft(k1, 31) * C2;
+            h1 ^= k1;
+        }
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        return Fingerprint.of(h1, h2);
+    }
+
+    private void mix() {
+        long k1 = this.k1 * C1;
+        k1 = Long.rotateLeft(k1, 31) * C2;
+        h1 ^= k1;
+        h1 = Long.rotateLeft(h1, 27) + h2;
+        h1 = h1 * 5 + 0x52dce729;
+
+        long k2 = this.k2 * C2;
+        k2 = Long.rotateLeft(k2, 33) * C1;
+        h2 ^= k2;
+        h2 = Long.rotateLeft(h2, 31) + h1;
+        h2 = h2 * 5 + 0x38495ab5;
+
+        this.k1 = 0;
+        this.k2 = 0;
+        position = 0;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
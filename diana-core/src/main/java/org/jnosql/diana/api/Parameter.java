@@ -0,0 +1,123 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api;
+
+import java.util.Objects;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A placeholder of a value in a query template, it is either named, e.g. {@code Parameter.of("name")}, or
+ * positional, e.g. {@code Parameter.of(0)}. The template replaces it by the value bound to each execution.
+ *
+ * <pre>
+ * ColumnQuery query = select().from("person").where(eq(Column.of("name", Parameter.of("name")))).build();
+ * </pre>
+ */
+public final class Parameter {
+
+    private final String name;
+
+    private final int index;
+
+    private Parameter(String name, int index) {
+        this.name = name;
+        this.index = index;
+    }
+
+    /**
+     * Creates a named parameter
+     *
+     * @param name the parameter name
+     * @return a {@link Parameter} instance
+     * @throws NullPointerException     when name is null
+     * @throws IllegalArgumentException when name is blank
+     */
+    public static Parameter of(String name) throws NullPointerException, IllegalArgumentException {
+        requireNonNull(name, "name is required");
+        if (name.trim().isEmpty()) {
+            throw new IllegalArgumentException("The parameter name cannot be blank");
+        }
+        return new Parameter(name, -1);
+    }
+
+    /**
+     * Creates a positional parameter
+     *
+     * @param index the parameter index, starting from zero
+     * @return a {@link Parameter} instance
+     * @throws IllegalArgumentException when index is negative
+     */
+    public static Parameter of(int index) throws IllegalArgumentException {
+        if (index < 0) {
+            throw new IllegalArgumentException("The parameter index cannot be negative: " + index);
+        }
+        return new Parameter(null, index);
+    }
+
+    /**
+     * @return true when the parameter is named, false when it is positional
+     */
+    public boolean isNamed() {
+        return name != null;
+    }
+
+    /**
+     * @return the parameter name
+     * @throws IllegalStateException when the parameter is positional
+     */
+    public String getName() throws IllegalStateException {
+        if (name == null) {
+            throw new IllegalStateException("The parameter is positional: " + this);
+        }
+        return name;
+    }
+
+    /**
+     * @return the parameter index
+     * @throws IllegalStateException when the parameter is named
+     */
+    public int getIndex() throws IllegalStateException {
+        if (name != null) {
+            throw new IllegalStateException("The parameter is named: " + this);
+        }
+        return index;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Parameter)) {
+            return false;
+        }
+        Parameter that = (Parameter) o;
+        return index == that.index && Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, index);
+    }
+
+    @Override
+    public String toString() {
+        return name == null ? "?" + index : ":" + name;
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An operation of a partial update, it changes a single field of an entity, so a driver can translate it to the
+ * native partial update of the database instead of replacing the whole entity.
+ *
+ * @see PatchOperation#set(String, Object)
+ * @see PatchOperation#apply(Object)
+ */
+public final class PatchOperation {
+
+    private final Type type;
+
+    private final String name;
+
+    private final Object value;
+
+    private PatchOperation(Type type, String name, Object value) {
+        this.type = type;
+        this.name = name;
+        this.value = value;
+    }
+
+    /**
+     * Sets the value of a field
+     *
+     * @param name  the field name
+     * @param value the value
+     * @return a {@link PatchOperation} instance
+     * @throws NullPointerException when either name or value is null
+     */
+    public static PatchOperation set(String name, Object value) throws NullPointerException {
+        requireNonNull(value, "value is required");
+        return new PatchOperation(Type.SET, requireNonNull(name, "name is required"), value);
+    }
+
+    /**
+     * Removes a field
+     *
+     * @param name the field name
+     * @return a {@link PatchOperation} instance
+     * @throws NullPointerException when name is null
+     */
+    public static PatchOperation unset(String name) throws NullPointerException {
+        return new PatchOperation(Type.UNSET, requireNonNull(name, "name is required"), null);
+    }
+
+    /**
+     * Adds a number to a field, a field that does not exist is set with the number
+     *
+     * @param name  the field name
+     * @param value the number to add, it might be negative
+     * @return a {@link PatchOperation} instance
+     * @throws NullPointerException when either name or value is null
+     */
+    public static PatchOperation increment(String name, Number value) throws NullPointerException {
+        requireNonNull(value, "value is required");
+        return new PatchOperation(Type.INCREMENT, requireNonNull(name, "name is required"), value);
+    }
+
+    /**
+     * Appends an element to the list of a field, a field that does not exist is set with a list of the element
+     *
+     * @param name  the field name
+     * @param value the element
+     * @return a {@link PatchOperation} instance
+     * @throws NullPointerException when either name or value is null
+     */
+    public static PatchOperation append(String name, Object value) throws NullPointerException {
+        requireNonNull(value, "value is required");
+        return new PatchOperation(Type.APPEND, requireNonNull(name, "name is required"), value);
+    }
+
+    /**
+     * Removes every occurrence of an element from the list of a field
+     *
+     * @param name  the field name
+     * @param value the element
+     * @return a {@link PatchOperation} instance
+     * @throws NullPointerException when either name or value is null
+     */
+    public static PatchOperation remove(String name, Object value) throws NullPointerException {
+        requireNonNull(value, "value is required");
+        return new PatchOperation(Type.REMOVE, requireNonNull(name, "name is required"), value);
+    }
+
+    /**
+     * @return the operator
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return the field name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the value of the operation, empty to {@link Type#UNSET}
+     */
+    public Optional<Object> getValue() {
+        return Optional.ofNullable(value);
+    }
+
+    /**
+     * Applies the operation to the current value of the field. Numbers are added exactly: two integral numbers
+     * result in a {@link Long}, or a {@link BigDecimal} when the sum does not fit in a long, exact numbers in a
+     * {@link BigDecimal} and any other number in a {@link Double}. Lists are copied, the current value is not changed.
+     *
+     * @param current the current value, either a raw object or a {@link Value}, null when the field does not exist
+     * @return the new value, null when the field must be removed
+     * @throws IllegalArgumentException when the current value can not be incremented, i.e. it is not a number, or
+     *                                  it can not be appended or removed from, i.e. it is not an {@link Iterable}
+     */
+    public Object apply(Object current) throws IllegalArgumentException {
+        Object raw = unwrap(current);
+        switch (type) {
+            case SET:
+                return value;
+            case UNSET:
+                return null;
+            case INCREMENT:
+                if (raw == null) {
+                    return value;
+                }
+                if (!(raw instanceof Number)) {
+                    throw new IllegalArgumentException(String.format("The field %s is not a number, value: %s",
+                            name, raw));
+                }
+                return add((Number) raw, (Number) value);
+            case APPEND:
+                List<Object> appended = toList(raw);
+                appended.add(value);
+                return appended;
+            case REMOVE:
+                if (raw == null) {
+                    return null;
+                }
+                List<Object> elements = toList(raw);
+                elements.removeIf(element -> equals(element, value));
+                return elements;
+            default:
+                throw new UnsupportedOperationException("The operation is not supported: " + type);
+        }
+    }
+
+    private List<Object> toList(Object raw) {
+        List<Object> elements = new ArrayList<>();
+        if (raw == null) {
+            return elements;
+        }
+        if (!(raw instanceof Iterable)) {
+            throw new IllegalArgumentException(String.format("The field %s is not a list, value: %s", name, raw));
+        }
+        ((Iterable<?>) raw).forEach(elements::add);
+        return elements;
+    }
+
+    private static boolean equals(Object element, Object value) {
+        Object left = unwrap(element);
+        Object right = unwrap(value);
+        if (left instanceof Number && right instanceof Number) {
+            return Sorts.order().compare(left, right) == 0;
+        }
+        return Objects.equals(left, right);
+    }
+
+    private static Number add(Number left, Number right) {
+        if (isIntegral(left) && isIntegral(right)) {
+            try {
+                return Math.addExact(left.longValue(), right.longValue());
+            } catch (ArithmeticException exception) {
+                return BigDecimal.valueOf(left.longValue()).add(BigDecimal.valueOf(right.longValue()));
+            }
+        }
+        if (isExact(left) && isExact(right)) {
+            return toBigDecimal(left).add(toBigDecimal(right));
+        }
+        return left.doubleValue() + right.doubleValue();
+    }
+
+    private static boolean isIntegral(Number number) {
+        return number instanceof Long || number instanceof Integer || number instanceof Short
+                || number instanceof Byte || number instanceof AtomicLong || number instanceof AtomicInteger;
+    }
+
+    private static boolean isExact(Number number) {
+        return isIntegral(number) || number instanceof BigInteger || number instanceof BigDecimal;
+    }
+
+    private static BigDecimal toBigDecimal(Number number) {
+        if (number instanceof BigDecimal) {
+            return (BigDecimal) number;
+        }
+        if (number instanceof BigInteger) {
+            return new BigDecimal((BigInteger) number);
+        }
+        return BigDecimal.valueOf(number.longValue());
+    }
+
+    private static Object unwrap(Object value) {
+        Object raw = value;
+        while (raw instanceof Value) {
+            raw = ((Value) raw).get();
+        }
+        return raw;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PatchOperation that = (PatchOperation) o;
+        return type == that.type
+                && Objects.equals(name, that.name)
+                && Objects.equals(value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, name, value);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("PatchOperation{");
+        sb.append("type=").append(type);
+        sb.append(", name='").append(name).append('\'');
+        sb.append(", value=").append(value);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * The operators of a partial update
+     */
+    public enum Type {
+        SET, UNSET, INCREMENT, APPEND, REMOVE
+    }
+}
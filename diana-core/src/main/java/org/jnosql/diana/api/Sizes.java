@@ -0,0 +1,117 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+
+package org.jnosql.diana.api;
+
+import java.time.temporal.Temporal;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+
+/**
+ * Utilitarian class to estimate, in bytes, how much memory an information takes.
+ * The estimate follows a 64-bit JVM with compressed references and it is meant to bound batches and caches,
+ * so it is cheap rather than exact.
+ */
+public final class Sizes {
+
+    /**
+     * The estimated header of an object
+     */
+    public static final long OBJECT_HEADER = 16L;
+
+    /**
+     * The estimated size of a reference
+     */
+    public static final long REFERENCE = 4L;
+
+    private static final long ARRAY_HEADER = 16L;
+
+    private static final ToLongFunction<Object> UNKNOWN = o -> OBJECT_HEADER;
+
+    private Sizes() {
+    }
+
+    /**
+     * Estimates the size of an information, the unknown types are estimated as an empty object.
+     *
+     * @param value the information, when it is null returns zero
+     * @return the estimated size in bytes
+     */
+    public static long estimate(Object value) {
+        return estimate(value, UNKNOWN);
+    }
+
+    /**
+     * Estimates the size of an information, when the type is not known the fallback is used.
+     * The fallback is used to the elements of {@link Iterable}, {@link Map} and arrays as well.
+     *
+     * @param value    the information, when it is null returns zero
+     * @param fallback the estimate to unknown types
+     * @return the estimated size in bytes
+     * @throws NullPointerException when fallback is null
+     */
+    public static long estimate(Object value, ToLongFunction<Object> fallback) throws NullPointerException {
+        if (value == null) {
+            return 0L;
+        }
+        if (value instanceof Value) {
+            return OBJECT_HEADER + estimate(Value.class.cast(value).get(), fallback);
+        }
+        if (value instanceof CharSequence) {
+            return OBJECT_HEADER + ARRAY_HEADER + 2L * CharSequence.class.cast(value).length();
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character
+                || value instanceof Enum) {
+            return OBJECT_HEADER + 8L;
+        }
+        if (value instanceof Temporal || value instanceof Date || value instanceof Calendar) {
+            return OBJECT_HEADER + 16L;
+        }
+        if (value instanceof byte[]) {
+            return ARRAY_HEADER + byte[].class.cast(value).length;
+        }
+        if (value instanceof Object[]) {
+            long size = ARRAY_HEADER;
+            for (Object element : Object[].class.cast(value)) {
+                size += REFERENCE + estimate(element, fallback);
+            }
+            return size;
+        }
+        if (value instanceof Iterable) {
+            long size = OBJECT_HEADER + ARRAY_HEADER;
+            for (Object element : Iterable.class.cast(value)) {
+                size += REFERENCE + estimate(element, fallback);
+            }
+            return size;
+        }
+        if (value instanceof Map) {
+            long size = OBJECT_HEADER + ARRAY_HEADER;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                size += OBJECT_HEADER + estimate(entry.getKey(), fallback) + estimate(entry.getValue(), fallback);
+            }
+            return size;
+        }
+        if (value instanceof Optional) {
+            return OBJECT_HEADER + estimate(((Optional<?>) value).orElse(null), fallback);
+        }
+        return fallback.applyAsLong(value);
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Compiles {@link Sort} lists into {@link Comparator} instances, to be used by drivers and in memory engines that
+ * sort the entities themselves, e.g. with {@link TopK}.
+ * The field accessors and the sort types are resolved once, when the comparator is created, and the way two values
+ * are compared is resolved once per class instead of once per comparison.
+ *
+ * @see Sorts#comparator(List, Function)
+ * @see Sorts#order()
+ */
+public final class Sorts {
+
+    private static final Comparator<Object> ORDER = Sorts::compare;
+
+    private static final ClassValue<Kind> KINDS = new ClassValue<Kind>() {
+        @Override
+        protected Kind computeValue(Class<?> type) {
+            return Kind.of(type);
+        }
+    };
+
+    private Sorts() {
+    }
+
+    /**
+     * A total order over every value: numbers first, ordered by value, so {@code 10}, {@code 10L} and
+     * {@code 10.0} are equal, then the other comparable values grouped by class and finally the non comparable ones
+     * grouped by class name and null at the end. {@link Value} instances are compared by the raw object they hold.
+     *
+     * @return the order
+     */
+    public static Comparator<Object> order() {
+        return ORDER;
+    }
+
+    /**
+     * Creates a comparator from the sorts using {@link Sorts#order()} to compare the values.
+     *
+     * @param sorts    the sorts, the first one has the highest precedence
+     * @param accessor creates, from a field name, the function that reads the field value from an element,
+     *                 the function returns null when the element does not have that field
+     * @param <T>      the element type
+     * @return the comparator
+     * @throws NullPointerException     when any parameter is null
+     * @throws IllegalArgumentException when sorts is empty
+     * @see Sorts#comparator(List, Function, Comparator)
+     */
+    public static <T> Comparator<T> comparator(List<Sort> sorts, Function<String, Function<T, ?>> accessor)
+            throws NullPointerException, IllegalArgumentException {
+        return comparator(sorts, accessor, ORDER);
+    }
+
+    /**
+     * Creates a comparator from the sorts. The elements without a field, i.e. the accessor returns null, are always
+     * placed after the elements that have it, for both {@link Sort.SortType#ASC} and {@link Sort.SortType#DESC}.
+     *
+     * @param sorts    the sorts, the first one has the highest precedence
+     * @param accessor creates, from a field name, the function that reads the field value from an element,
+     *                 the function returns null when the element does not have that field
+     * @param order    the order of the non null values
+     * @param <T>      the element type
+     * @return the comparator
+     * @throws NullPointerException     when any parameter is null
+     * @throws IllegalArgumentException when sorts is empty
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Comparator<T> comparator(List<Sort> sorts, Function<String, Function<T, ?>> accessor,
+                                               Comparator<Object> order)
+            throws NullPointerException, IllegalArgumentException {
+        requireNonNull(sorts, "sorts is required");
+        requireNonNull(accessor, "accessor is required");
+        requireNonNull(order, "order is required");
+        if (sorts.isEmpty()) {
+            throw new IllegalArgumentException("At least one sort is required");
+        }
+        @SuppressWarnings("unchecked")
+        Function<T, ?>[] fields = (Function<T, ?>[]) new Function<?, ?>[sorts.size()];
+        boolean[] descending = new boolean[sorts.size()];
+        for (int index = 0; index < fields.length; index++) {
+            Sort sort = requireNonNull(sorts.get(index), "sort is required");
+            fields[index] = requireNonNull(accessor.apply(sort.getName()), "accessor is required");
+            descending[index] = Sort.SortType.DESC.equals(sort.getType());
+        }
+        return (left, right) -> {
+            for (int index = 0; index < fields.length; index++) {
+                Object value = fields[index].apply(left);
+                Object other = fields[index].apply(right);
+                int compare;
+                if (value == null || other == null) {
+                    compare = value == null ? (other == null ? 0 : 1) : -1;
+                } else {
+                    compare = descending[index] ? order.compare(other, value) : order.compare(value, other);
+                }
+                if (compare != 0) {
+                    return compare;
+                }
+            }
+            return 0;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Object value, Object other) {
+        Object left = unwrap(value);
+        Object right = unwrap(other);
+        if (left == right) {
+            return 0;
+        }
+        if (left == null || right == null) {
+            return left == null ? 1 : -1;
+        }
+        Kind leftKind = KINDS.get(left.getClass());
+        Kind rightKind = KINDS.get(right.getClass());
+        int group = Integer.compare(leftKind.group, rightKind.group);
+        if (group != 0) {
+            return group;
+        }
+        if (leftKind.group == Kind.INTEGRAL.group) {
+            return compareNumbers((Number) left, leftKind, (Number) right, rightKind);
+        }
+        if (leftKind == Kind.COMPARABLE && left.getClass().equals(right.getClass())) {
+            return ((Comparable<Object>) left).compareTo(right);
+        }
+        return left.getClass().getName().compareTo(right.getClass().getName());
+    }
+
+    private static int compareNumbers(Number left, Kind leftKind, Number right, Kind rightKind) {
+        if (leftKind == Kind.INTEGRAL && rightKind == Kind.INTEGRAL) {
+            return Long.compare(left.longValue(), right.longValue());
+        }
+        if (leftKind != Kind.REAL && rightKind != Kind.REAL) {
+            return toBigDecimal(left).compareTo(toBigDecimal(right));
+        }
+        return Double.compare(left.doubleValue(), right.doubleValue());
+    }
+
+    private static BigDecimal toBigDecimal(Number number) {
+        if (number instanceof BigDecimal) {
+            return (BigDecimal) number;
+        }
+        if (number instanceof BigInteger) {
+            return new BigDecimal((BigInteger) number);
+        }
+        return BigDecimal.valueOf(number.longValue());
+    }
+
+    private static Object unwrap(Object value) {
+        Object raw = value;
+        while (raw instanceof Value) {
+            raw = ((Value) raw).get();
+        }
+        return raw;
+    }
+
+    private enum Kind {
+        INTEGRAL(0), EXACT(0), REAL(0), COMPARABLE(1), OTHER(2);
+
+        private final int group;
+
+        Kind(int group) {
+            this.group = group;
+        }
+
+        static Kind of(Class<?> type) {
+            if (Long.class.equals(type) || Integer.class.equals(type) || Short.class.equals(type)
+                    || Byte.class.equals(type) || AtomicLong.class.equals(type) || AtomicInteger.class.equals(type)) {
+                return INTEGRAL;
+            }
+            if (BigInteger.class.isAssignableFrom(type) || BigDecimal.class.isAssignableFrom(type)) {
+                return EXACT;
+            }
+            if (Number.class.isAssignableFrom(type)) {
+                return REAL;
+            }
+            return Comparable.class.isAssignableFrom(type) ? COMPARABLE : OTHER;
+        }
+    }
+}
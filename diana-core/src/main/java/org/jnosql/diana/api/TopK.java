@@ -0,0 +1,183 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.stream.Collector;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A bounded top-K selection, it keeps the first K elements of a comparator seen so far in a heap, so selecting the
+ * first K of N elements costs O(N log K) time and O(K) memory instead of sorting all of them.
+ * The selection is stable: elements that compare as equal keep the order in which they were accepted, so the result
+ * is the same as sorting everything and then taking the first K. This class is not thread-safe.
+ *
+ * @param <T> the element type
+ * @see TopK#of(int, Comparator)
+ * @see TopK#collector(int, Comparator)
+ * @see Sorts
+ */
+public final class TopK<T> implements Consumer<T> {
+
+    private final int size;
+
+    private final Comparator<? super T> comparator;
+
+    private final PriorityQueue<Ranked<T>> heap;
+
+    private long sequence;
+
+    private TopK(int size, Comparator<? super T> comparator) {
+        this.size = size;
+        this.comparator = comparator;
+        this.heap = new PriorityQueue<>(Math.max(1, Math.min(size, 1024)), this::compareReversed);
+    }
+
+    /**
+     * Creates a {@link TopK}
+     *
+     * @param size       the maximum number of elements to keep
+     * @param comparator the order, the first elements of this order are kept
+     * @param <T>        the element type
+     * @return a {@link TopK} instance
+     * @throws NullPointerException     when comparator is null
+     * @throws IllegalArgumentException when size is negative
+     */
+    public static <T> TopK<T> of(int size, Comparator<? super T> comparator)
+            throws NullPointerException, IllegalArgumentException {
+        requireNonNull(comparator, "comparator is required");
+        if (size < 0) {
+            throw new IllegalArgumentException("The size must be positive, size: " + size);
+        }
+        return new TopK<>(size, comparator);
+    }
+
+    /**
+     * Returns a {@link Collector} that selects the first elements of a stream using a {@link TopK}
+     *
+     * @param size       the maximum number of elements to keep
+     * @param comparator the order, the first elements of this order are kept
+     * @param <T>        the element type
+     * @return the collector, its result is sorted by the comparator
+     * @throws NullPointerException     when comparator is null
+     * @throws IllegalArgumentException when size is negative
+     */
+    public static <T> Collector<T, ?, List<T>> collector(int size, Comparator<? super T> comparator)
+            throws NullPointerException, IllegalArgumentException {
+        of(size, comparator);
+        return Collector.of(() -> new TopK<T>(size, comparator), TopK::accept, TopK::merge, TopK::toList);
+    }
+
+    /**
+     * Offers an element, it's kept when there is room or when it comes before the last element kept
+     *
+     * @param element the element
+     */
+    @Override
+    public void accept(T element) {
+        if (size == 0) {
+            return;
+        }
+        if (heap.size() < size) {
+            heap.add(new Ranked<>(element, sequence++));
+            return;
+        }
+        Ranked<T> last = heap.peek();
+        if (comparator.compare(element, last.element) < 0) {
+            heap.poll();
+            heap.add(new Ranked<>(element, sequence++));
+        } else {
+            sequence++;
+        }
+    }
+
+    /**
+     * @return the maximum number of elements kept
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the number of elements accepted, kept or not
+     */
+    public long getCount() {
+        return sequence;
+    }
+
+    /**
+     * Returns the elements kept, sorted by the comparator
+     *
+     * @return the elements kept
+     */
+    public List<T> toList() {
+        List<Ranked<T>> ranked = new ArrayList<>(heap);
+        ranked.sort(this::compare);
+        List<T> elements = new ArrayList<>(ranked.size());
+        for (Ranked<T> element : ranked) {
+            elements.add(element.element);
+        }
+        return elements;
+    }
+
+    private TopK<T> merge(TopK<T> other) {
+        List<Ranked<T>> ranked = new ArrayList<>(other.heap);
+        ranked.sort(other::compare);
+        for (Ranked<T> element : ranked) {
+            accept(element.element);
+        }
+        sequence += other.sequence - ranked.size();
+        return this;
+    }
+
+    private int compare(Ranked<T> left, Ranked<T> right) {
+        int compare = comparator.compare(left.element, right.element);
+        return compare == 0 ? Long.compare(left.sequence, right.sequence) : compare;
+    }
+
+    private int compareReversed(Ranked<T> left, Ranked<T> right) {
+        return compare(right, left);
+    }
+
+    private static final class Ranked<T> {
+
+        private final T element;
+
+        private final long sequence;
+
+        private Ranked(T element, long sequence) {
+            this.element = element;
+            this.sequence = sequence;
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("TopK{");
+        sb.append("size=").append(size);
+        sb.append(", count=").append(sequence);
+        sb.append(", kept=").append(heap.size());
+        sb.append('}');
+        return sb.toString();
+    }
+}
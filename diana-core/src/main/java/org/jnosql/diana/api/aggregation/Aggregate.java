@@ -0,0 +1,194 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.aggregation;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An aggregate function of a query, its result is identified by the alias, that by default is the function and the
+ * field, e.g. {@code sum(age)}, or {@code count} to {@link Aggregate#count()}.
+ * The aggregates skip the entities that do not have the field, {@link Type#SUM} and {@link Type#AVG} also skip the
+ * values that are not numbers and return no value when there is not any number.
+ *
+ * @see Aggregate#count()
+ * @see Aggregate#as(String)
+ */
+public final class Aggregate {
+
+    private final Type type;
+
+    private final String field;
+
+    private final String alias;
+
+    private Aggregate(Type type, String field, String alias) {
+        this.type = type;
+        this.field = field;
+        this.alias = alias;
+    }
+
+    /**
+     * Counts the entities
+     *
+     * @return an {@link Aggregate} instance
+     */
+    public static Aggregate count() {
+        return new Aggregate(Type.COUNT, null, "count");
+    }
+
+    /**
+     * Counts the entities that have the field
+     *
+     * @param field the field
+     * @return an {@link Aggregate} instance
+     * @throws NullPointerException when field is null
+     */
+    public static Aggregate count(String field) throws NullPointerException {
+        return of(Type.COUNT, field);
+    }
+
+    /**
+     * Sums the numbers of the field, the result is a {@link Long} when every number is integral, a
+     * {@link java.math.BigDecimal} when there is either a {@link java.math.BigDecimal} or a
+     * {@link java.math.BigInteger} or a sum that does not fit in a long, otherwise a {@link Double}
+     *
+     * @param field the field
+     * @return an {@link Aggregate} instance
+     * @throws NullPointerException when field is null
+     */
+    public static Aggregate sum(String field) throws NullPointerException {
+        return of(Type.SUM, field);
+    }
+
+    /**
+     * The lowest value of the field
+     *
+     * @param field the field
+     * @return an {@link Aggregate} instance
+     * @throws NullPointerException when field is null
+     * @see org.jnosql.diana.api.Sorts#order()
+     */
+    public static Aggregate min(String field) throws NullPointerException {
+        return of(Type.MIN, field);
+    }
+
+    /**
+     * The highest value of the field
+     *
+     * @param field the field
+     * @return an {@link Aggregate} instance
+     * @throws NullPointerException when field is null
+     * @see org.jnosql.diana.api.Sorts#order()
+     */
+    public static Aggregate max(String field) throws NullPointerException {
+        return of(Type.MAX, field);
+    }
+
+    /**
+     * The average, as a {@link Double}, of the numbers of the field
+     *
+     * @param field the field
+     * @return an {@link Aggregate} instance
+     * @throws NullPointerException when field is null
+     */
+    public static Aggregate avg(String field) throws NullPointerException {
+        return of(Type.AVG, field);
+    }
+
+    private static Aggregate of(Type type, String field) {
+        requireNonNull(field, "field is required");
+        return new Aggregate(type, field, type.name().toLowerCase(Locale.ENGLISH) + '(' + field + ')');
+    }
+
+    /**
+     * Creates a copy of this aggregate with another alias
+     *
+     * @param alias the alias
+     * @return a new {@link Aggregate} instance
+     * @throws NullPointerException     when alias is null
+     * @throws IllegalArgumentException when alias is blank
+     */
+    public Aggregate as(String alias) throws NullPointerException, IllegalArgumentException {
+        requireNonNull(alias, "alias is required");
+        if (alias.trim().isEmpty()) {
+            throw new IllegalArgumentException("The alias must not be blank");
+        }
+        return new Aggregate(type, field, alias);
+    }
+
+    /**
+     * @return the function
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return the field, empty to {@link Aggregate#count()}
+     */
+    public Optional<String> getField() {
+        return Optional.ofNullable(field);
+    }
+
+    /**
+     * @return the name of the result
+     */
+    public String getAlias() {
+        return alias;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Aggregate aggregate = (Aggregate) o;
+        return type == aggregate.type
+                && Objects.equals(field, aggregate.field)
+                && Objects.equals(alias, aggregate.alias);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, field, alias);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("Aggregate{");
+        sb.append("type=").append(type);
+        sb.append(", field='").append(field).append('\'');
+        sb.append(", alias='").append(alias).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * The aggregate functions
+     */
+    public enum Type {
+        COUNT, SUM, MIN, MAX, AVG
+    }
+}
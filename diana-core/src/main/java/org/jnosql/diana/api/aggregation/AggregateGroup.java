@@ -0,0 +1,138 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.aggregation;
+
+import org.jnosql.diana.api.Value;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A group of an {@link AggregateResult}: the values of the group by fields, the key, and the values of the
+ * aggregates by alias. The fields without value, e.g. the entities of the group do not have a group by field or a
+ * sum without numbers, are absent. The values are kept as they are, no entity is created.
+ *
+ * @see AggregateGroup#of(Map, Map)
+ */
+public final class AggregateGroup {
+
+    private final Map<String, Value> key;
+
+    private final Map<String, Value> values;
+
+    private AggregateGroup(Map<String, Value> key, Map<String, Value> values) {
+        this.key = key;
+        this.values = values;
+    }
+
+    /**
+     * Creates an {@link AggregateGroup}, e.g. a driver creates it from the result of the database
+     *
+     * @param key    the values of the group by fields, the null values are ignored
+     * @param values the values of the aggregates by alias, the null values are ignored
+     * @return an {@link AggregateGroup} instance
+     * @throws NullPointerException when either key or values is null
+     */
+    public static AggregateGroup of(Map<String, ?> key, Map<String, ?> values) throws NullPointerException {
+        requireNonNull(key, "key is required");
+        requireNonNull(values, "values is required");
+        return new AggregateGroup(toValues(key), toValues(values));
+    }
+
+    private static Map<String, Value> toValues(Map<String, ?> values) {
+        Map<String, Value> converted = new LinkedHashMap<>(values.size() * 2);
+        values.forEach((name, value) -> {
+            requireNonNull(name, "name is required");
+            if (value != null) {
+                converted.put(name, value instanceof Value ? (Value) value : Value.of(value));
+            }
+        });
+        return Collections.unmodifiableMap(converted);
+    }
+
+    /**
+     * @return the values of the group by fields, empty when the aggregation does not have a group by
+     */
+    public Map<String, Value> getKey() {
+        return key;
+    }
+
+    /**
+     * @return the values of the aggregates by alias
+     */
+    public Map<String, Value> getValues() {
+        return values;
+    }
+
+    /**
+     * Finds a value by the alias of an aggregate or, otherwise, by the name of a group by field
+     *
+     * @param name the alias or the field name
+     * @return the value or {@link Optional#empty()}
+     * @throws NullPointerException when name is null
+     */
+    public Optional<Value> find(String name) throws NullPointerException {
+        requireNonNull(name, "name is required");
+        Value value = values.get(name);
+        return Optional.ofNullable(value == null ? key.get(name) : value);
+    }
+
+    /**
+     * Converts the group to a map with the group by fields and the aggregates, the value is the
+     * {@link Value#get()}
+     *
+     * @return a map instance
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>((key.size() + values.size()) * 2);
+        key.forEach((name, value) -> map.put(name, value.get()));
+        values.forEach((name, value) -> map.put(name, value.get()));
+        return map;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        AggregateGroup that = (AggregateGroup) o;
+        return Objects.equals(key, that.key) && Objects.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(key, values);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AggregateGroup{");
+        sb.append("key=").append(key);
+        sb.append(", values=").append(values);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.aggregation;
+
+import org.jnosql.diana.api.NonUniqueResultException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The result of an aggregation query, a group to each distinct key of the group by fields. An aggregation without
+ * group by has exactly one group, even when no entity matches the condition, so a count returns zero.
+ *
+ * @see AggregateGroup
+ * @see Aggregator
+ */
+public final class AggregateResult implements Iterable<AggregateGroup> {
+
+    private final List<AggregateGroup> groups;
+
+    private AggregateResult(List<AggregateGroup> groups) {
+        this.groups = groups;
+    }
+
+    /**
+     * Creates an {@link AggregateResult}
+     *
+     * @param groups the groups
+     * @return an {@link AggregateResult} instance
+     * @throws NullPointerException when groups or any group is null
+     */
+    public static AggregateResult of(List<AggregateGroup> groups) throws NullPointerException {
+        requireNonNull(groups, "groups is required");
+        List<AggregateGroup> copy = new ArrayList<>(groups.size());
+        for (AggregateGroup group : groups) {
+            copy.add(requireNonNull(group, "group is required"));
+        }
+        return new AggregateResult(Collections.unmodifiableList(copy));
+    }
+
+    /**
+     * @return the groups
+     */
+    public List<AggregateGroup> getGroups() {
+        return groups;
+    }
+
+    /**
+     * Returns the group of an aggregation without group by
+     *
+     * @return the group or {@link Optional#empty()} when there is not any group
+     * @throws NonUniqueResultException when there is more than one group
+     */
+    public Optional<AggregateGroup> singleResult() throws NonUniqueResultException {
+        if (groups.isEmpty()) {
+            return Optional.empty();
+        }
+        if (groups.size() == 1) {
+            return Optional.of(groups.get(0));
+        }
+        throw new NonUniqueResultException("The aggregation returns more than one group, groups: " + groups.size());
+    }
+
+    /**
+     * @return the number of groups
+     */
+    public int size() {
+        return groups.size();
+    }
+
+    /**
+     * @return true when there is not any group
+     */
+    public boolean isEmpty() {
+        return groups.isEmpty();
+    }
+
+    @Override
+    public Iterator<AggregateGroup> iterator() {
+        return groups.iterator();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Objects.equals(groups, ((AggregateResult) o).groups);
+    }
+
+    @Override
+    public int hashCode() {
+        return groups.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AggregateResult{");
+        sb.append("groups=").append(groups);
+        sb.append('}');
+        return sb.toString();
+    }
+}
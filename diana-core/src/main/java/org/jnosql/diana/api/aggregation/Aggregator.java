@@ -0,0 +1,361 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.aggregation;
+
+import org.jnosql.diana.api.Sorts;
+import org.jnosql.diana.api.Value;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Computes the aggregates from a stream of entities, one at a time, it keeps just the accumulators of each group, so
+ * its own memory does not depend on the number of entities. It's the fallback of the databases that can not
+ * aggregate, where the entities of the select are still held in a list, and the way in memory engines do it.
+ * The group by values are compared as in a hash index: numbers by value, so {@code 10} and {@code 10L} are the same
+ * group, and the key of the group has the first value found. The groups keep the order in which they were found.
+ * This class is not thread-safe.
+ *
+ * @param <T> the entity type
+ * @see Aggregator#of(List, List, Function)
+ */
+public final class Aggregator<T> implements Consumer<T> {
+
+    private static final Object PRESENT = Boolean.TRUE;
+
+    private final List<String> groupBy;
+
+    private final List<Aggregate> aggregates;
+
+    private final Function<T, ?>[] keys;
+
+    private final Function<T, ?>[] fields;
+
+    private final Map<List<Object>, Group> groups = new LinkedHashMap<>();
+
+    private final Group single;
+
+    private long count;
+
+    @SuppressWarnings("unchecked")
+    private Aggregator(List<String> groupBy, List<Aggregate> aggregates, Function<String, Function<T, ?>> accessor) {
+        this.groupBy = groupBy;
+        this.aggregates = aggregates;
+        this.keys = (Function<T, ?>[]) new Function<?, ?>[groupBy.size()];
+        for (int index = 0; index < keys.length; index++) {
+            keys[index] = requireNonNull(accessor.apply(groupBy.get(index)), "accessor is required");
+        }
+        this.fields = (Function<T, ?>[]) new Function<?, ?>[aggregates.size()];
+        for (int index = 0; index < fields.length; index++) {
+            String field = aggregates.get(index).getField().orElse(null);
+            fields[index] = field == null ? e -> PRESENT : requireNonNull(accessor.apply(field), "accessor is required");
+        }
+        this.single = groupBy.isEmpty() ? new Group(new Object[0]) : null;
+    }
+
+    /**
+     * Creates an {@link Aggregator}
+     *
+     * @param groupBy    the group by fields, it might be empty
+     * @param aggregates the aggregates
+     * @param accessor   creates, from a field name, the function that reads the field value from an entity,
+     *                   either a raw object or a {@link Value}, the function returns null when the entity does
+     *                   not have that field
+     * @param <T>        the entity type
+     * @return an {@link Aggregator} instance
+     * @throws NullPointerException     when any parameter is null
+     * @throws IllegalArgumentException when there is not any aggregate or two aggregates have the same alias
+     */
+    public static <T> Aggregator<T> of(List<String> groupBy, List<Aggregate> aggregates,
+                                       Function<String, Function<T, ?>> accessor)
+            throws NullPointerException, IllegalArgumentException {
+        requireNonNull(groupBy, "groupBy is required");
+        requireNonNull(aggregates, "aggregates is required");
+        requireNonNull(accessor, "accessor is required");
+        if (aggregates.isEmpty()) {
+            throw new IllegalArgumentException("At least one aggregate is required");
+        }
+        Set<String> aliases = new HashSet<>();
+        for (Aggregate aggregate : aggregates) {
+            requireNonNull(aggregate, "aggregate is required");
+            if (!aliases.add(aggregate.getAlias())) {
+                throw new IllegalArgumentException("There are two aggregates with the alias " + aggregate.getAlias());
+            }
+        }
+        groupBy.forEach(name -> requireNonNull(name, "name is required"));
+        return new Aggregator<>(new ArrayList<>(groupBy), new ArrayList<>(aggregates), accessor);
+    }
+
+    @Override
+    public void accept(T entity) {
+        requireNonNull(entity, "entity is required");
+        count++;
+        Group group = single;
+        if (group == null) {
+            Object[] values = new Object[keys.length];
+            Object[] normalized = new Object[keys.length];
+            for (int index = 0; index < keys.length; index++) {
+                values[index] = unwrap(keys[index].apply(entity));
+                normalized[index] = normalize(values[index]);
+            }
+            group = groups.computeIfAbsent(Arrays.asList(normalized), k -> new Group(values));
+        }
+        for (int index = 0; index < fields.length; index++) {
+            Object value = unwrap(fields[index].apply(entity));
+            if (value != null) {
+                group.accumulators[index].accept(value);
+            }
+        }
+    }
+
+    /**
+     * @return the number of entities accepted
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the result of the entities accepted so far
+     *
+     * @return the result
+     */
+    public AggregateResult getResult() {
+        if (single != null) {
+            return AggregateResult.of(Collections.singletonList(single.toGroup()));
+        }
+        List<AggregateGroup> result = new ArrayList<>(groups.size());
+        for (Group group : groups.values()) {
+            result.add(group.toGroup());
+        }
+        return AggregateResult.of(result);
+    }
+
+    private static Object unwrap(Object value) {
+        Object raw = value;
+        while (raw instanceof Value) {
+            raw = ((Value) raw).get();
+        }
+        return raw;
+    }
+
+    /**
+     * Numbers are normalized to either {@link Long} or {@link Double} so equal numbers are the same key
+     */
+    private static Object normalize(Object value) {
+        if (!(value instanceof Number)) {
+            return value;
+        }
+        Number number = (Number) value;
+        if (isIntegral(number)) {
+            return number.longValue();
+        }
+        if (number instanceof BigInteger) {
+            BigInteger integer = (BigInteger) number;
+            return integer.bitLength() < Long.SIZE ? (Object) integer.longValue() : (Object) integer.doubleValue();
+        }
+        if (number instanceof BigDecimal) {
+            BigDecimal decimal = ((BigDecimal) number).stripTrailingZeros();
+            if (decimal.scale() <= 0 && decimal.precision() - decimal.scale() < 19) {
+                return decimal.longValue();
+            }
+            return decimal.doubleValue();
+        }
+        double real = number.doubleValue();
+        if (real == Math.rint(real) && real >= Long.MIN_VALUE && real < Long.MAX_VALUE) {
+            return (long) real;
+        }
+        return real;
+    }
+
+    private static boolean isIntegral(Number number) {
+        return number instanceof Long || number instanceof Integer || number instanceof Short
+                || number instanceof Byte || number instanceof AtomicLong || number instanceof AtomicInteger;
+    }
+
+    private final class Group {
+
+        private final Object[] key;
+
+        private final Accumulator[] accumulators;
+
+        private Group(Object[] key) {
+            this.key = key;
+            this.accumulators = new Accumulator[aggregates.size()];
+            for (int index = 0; index < accumulators.length; index++) {
+                accumulators[index] = Accumulator.of(aggregates.get(index).getType());
+            }
+        }
+
+        private AggregateGroup toGroup() {
+            Map<String, Object> names = new LinkedHashMap<>(key.length * 2);
+            for (int index = 0; index < key.length; index++) {
+                names.put(groupBy.get(index), key[index]);
+            }
+            Map<String, Object> values = new LinkedHashMap<>(accumulators.length * 2);
+            for (int index = 0; index < accumulators.length; index++) {
+                values.put(aggregates.get(index).getAlias(), accumulators[index].get());
+            }
+            return AggregateGroup.of(names, values);
+        }
+    }
+
+    /**
+     * Accumulates the non null values of a field
+     */
+    private abstract static class Accumulator {
+
+        abstract void accept(Object value);
+
+        abstract Object get();
+
+        static Accumulator of(Aggregate.Type type) {
+            switch (type) {
+                case COUNT:
+                    return new Count();
+                case SUM:
+                    return new Sum();
+                case AVG:
+                    return new Average();
+                case MIN:
+                    return new Extreme(-1);
+                case MAX:
+                    return new Extreme(1);
+                default:
+                    throw new UnsupportedOperationException("The aggregate is not supported: " + type);
+            }
+        }
+    }
+
+    private static final class Count extends Accumulator {
+
+        private long count;
+
+        @Override
+        void accept(Object value) {
+            count++;
+        }
+
+        @Override
+        Object get() {
+            return count;
+        }
+    }
+
+    private static class Sum extends Accumulator {
+
+        private long count;
+
+        private long integral;
+
+        private BigDecimal exact;
+
+        private double real;
+
+        private boolean hasReal;
+
+        @Override
+        void accept(Object value) {
+            if (!(value instanceof Number)) {
+                return;
+            }
+            count++;
+            Number number = (Number) value;
+            if (isIntegral(number)) {
+                long add = number.longValue();
+                if (exact == null) {
+                    try {
+                        integral = Math.addExact(integral, add);
+                        return;
+                    } catch (ArithmeticException exception) {
+                        exact = BigDecimal.valueOf(integral);
+                    }
+                }
+                exact = exact.add(BigDecimal.valueOf(add));
+            } else if (number instanceof BigDecimal || number instanceof BigInteger) {
+                BigDecimal add = number instanceof BigDecimal ? (BigDecimal) number
+                        : new BigDecimal((BigInteger) number);
+                exact = exact == null ? BigDecimal.valueOf(integral).add(add) : exact.add(add);
+            } else {
+                real += number.doubleValue();
+                hasReal = true;
+            }
+        }
+
+        @Override
+        Object get() {
+            if (count == 0) {
+                return null;
+            }
+            if (hasReal) {
+                return real + (exact == null ? integral : exact.doubleValue());
+            }
+            return exact == null ? (Object) integral : exact;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+
+    private static final class Average extends Sum {
+
+        @Override
+        Object get() {
+            Object sum = super.get();
+            return sum == null ? null : ((Number) sum).doubleValue() / getCount();
+        }
+    }
+
+    private static final class Extreme extends Accumulator {
+
+        private final int signal;
+
+        private Object value;
+
+        private Extreme(int signal) {
+            this.signal = signal;
+        }
+
+        @Override
+        void accept(Object value) {
+            if (this.value == null || Integer.signum(Sorts.order().compare(value, this.value)) == signal) {
+                this.value = value;
+            }
+        }
+
+        @Override
+        Object get() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+
+package org.jnosql.diana.api.batch;
+
+import java.util.Objects;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An element that could not be written in a batch and the reason.
+ *
+ * @param <T> the element type
+ */
+public final class BatchFailure<T> {
+
+    private final T item;
+
+    private final Throwable cause;
+
+    private BatchFailure(T item, Throwable cause) {
+        this.item = item;
+        this.cause = cause;
+    }
+
+    /**
+     * Creates a {@link BatchFailure} instance
+     *
+     * @param item  the element that failed
+     * @param cause the reason
+     * @param <T>   the element type
+     * @return a {@link BatchFailure} instance
+     * @throws NullPointerException when either item or cause are null
+     */
+    public static <T> BatchFailure<T> of(T item, Throwable cause) throws NullPointerException {
+        requireNonNull(item, "item is required");
+        requireNonNull(cause, "cause is required");
+        return new BatchFailure<>(item, cause);
+    }
+
+    public T getItem() {
+        return item;
+    }
+
+    public Throwable getCause() {
+        return cause;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BatchFailure)) {
+            return false;
+        }
+        BatchFailure<?> that = (BatchFailure<?>) o;
+        return Objects.equals(item, that.item) &&
+                Objects.equals(cause, that.cause);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(item, cause);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("BatchFailure{");
+        sb.append("item=").append(item);
+        sb.append(", cause=").append(cause);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+
+package org.jnosql.diana.api.batch;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The thresholds that close a batch, a batch is written when either it reaches the maximum number of
+ * elements, the maximum size in bytes, or the linger time since its first element.
+ *
+ * @see Batcher
+ */
+public final class BatchPolicy {
+
+    private final int maxCount;
+
+    private final long maxBytes;
+
+    private final Duration linger;
+
+    private BatchPolicy(int maxCount, long maxBytes, Duration linger) {
+        this.maxCount = maxCount;
+        this.maxBytes = maxBytes;
+        this.linger = linger;
+    }
+
+    /**
+     * Creates a policy bounded just by the number of elements
+     *
+     * @param maxCount the maximum number of elements in a batch
+     * @return a {@link BatchPolicy} instance
+     * @throws IllegalArgumentException when maxCount is either zero or negative
+     */
+    public static BatchPolicy of(int maxCount) throws IllegalArgumentException {
+        return of(maxCount, Long.MAX_VALUE, Duration.ZERO);
+    }
+
+    /**
+     * Creates a policy
+     *
+     * @param maxCount the maximum number of elements in a batch
+     * @param maxBytes the maximum estimated size, in bytes, of a batch
+     * @param linger   the maximum time that an element waits for a batch to be filled,
+     *                 {@link Duration#ZERO} means it waits until the batch is full or is flushed
+     * @return a {@link BatchPolicy} instance
+     * @throws NullPointerException     when linger is null
+     * @throws IllegalArgumentException when either maxCount or maxBytes are either zero or negative or when
+     *                                  linger is negative
+     */
+    public static BatchPolicy of(int maxCount, long maxBytes, Duration linger) throws NullPointerException,
+            IllegalArgumentException {
+        requireNonNull(linger, "linger is required");
+        if (maxCount <= 0) {
+            throw new IllegalArgumentException("maxCount must be greater than zero");
+        }
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be greater than zero");
+        }
+        if (linger.isNegative()) {
+            throw new IllegalArgumentException("linger cannot be negative");
+        }
+        return new BatchPolicy(maxCount, maxBytes, linger);
+    }
+
+    public int getMaxCount() {
+        return maxCount;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public Duration getLinger() {
+        return linger;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BatchPolicy)) {
+            return false;
+        }
+        BatchPolicy that = (BatchPolicy) o;
+        return maxCount == that.maxCount &&
+                maxBytes == that.maxBytes &&
+                Objects.equals(linger, that.linger);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxCount, maxBytes, linger);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("BatchPolicy{");
+        sb.append("maxCount=").append(maxCount);
+        sb.append(", maxBytes=").append(maxBytes);
+        sb.append(", linger=").append(linger);
+        sb.append('}');
+        return sb.toString();
+    }
+}
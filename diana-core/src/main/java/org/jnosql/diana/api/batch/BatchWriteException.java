@@ -0,0 +1,60 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+
+package org.jnosql.diana.api.batch;
+
+import org.jnosql.diana.api.JNoSQLException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Thrown when some elements of a batch could not be written, the elements that are not in
+ * {@link BatchWriteException#getFailures()} were written.
+ */
+public class BatchWriteException extends JNoSQLException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<BatchFailure<?>> failures;
+
+    /**
+     * Constructs a new exception with the elements that failed
+     *
+     * @param message  the message
+     * @param failures the elements that failed
+     * @throws NullPointerException when failures is null
+     */
+    public BatchWriteException(String message, List<? extends BatchFailure<?>> failures) throws NullPointerException {
+        super(message);
+        this.failures = Collections.unmodifiableList(new ArrayList<>(requireNonNull(failures,
+                "failures is required")));
+    }
+
+    /**
+     * The elements that failed and the reason
+     *
+     * @return the failures
+     */
+    public List<BatchFailure<?>> getFailures() {
+        return failures;
+    }
+}
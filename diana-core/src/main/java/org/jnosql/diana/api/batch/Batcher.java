@@ -0,0 +1,239 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+
+package org.jnosql.diana.api.batch;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Groups elements by a key, e.g. the column family or the document collection, into batches bounded by
+ * the {@link BatchPolicy}. A batch is handed to the writer when it is full, when its linger time elapses,
+ * or when either {@link Batcher#flush()} or {@link Batcher#close()} is called.
+ * The writer runs on the thread that closed the batch, the thread that calls {@link Batcher#add(Object)}
+ * or the scheduler thread to the linger.
+ * The writer might throw {@link BatchWriteException} to report the elements that failed, any other exception
+ * means the whole batch failed. Either way, every element that failed is reported to the failure listener.
+ * This class is thread-safe.
+ *
+ * @param <K> the key type
+ * @param <T> the element type
+ */
+public final class Batcher<K, T> implements AutoCloseable {
+
+    private final BatchPolicy policy;
+
+    private final Function<T, K> classifier;
+
+    private final ToLongFunction<T> weigher;
+
+    private final BiConsumer<K, List<T>> writer;
+
+    private final Consumer<BatchFailure<T>> failureListener;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Map<K, Batch<T>> batches = new LinkedHashMap<>();
+
+    private boolean closed;
+
+    /**
+     * Creates a batcher without linger, so a batch is written just when it is full or flushed.
+     *
+     * @param policy          the thresholds
+     * @param classifier      the function that returns the key of an element
+     * @param weigher         the function that estimates the size of an element in bytes
+     * @param writer          the writer of a batch
+     * @param failureListener the listener to the elements that failed
+     * @throws NullPointerException when there is a null parameter
+     */
+    public Batcher(BatchPolicy policy, Function<T, K> classifier, ToLongFunction<T> weigher,
+                   BiConsumer<K, List<T>> writer, Consumer<BatchFailure<T>> failureListener)
+            throws NullPointerException {
+        this(policy, classifier, weigher, writer, failureListener, null);
+    }
+
+    /**
+     * Creates a batcher that uses the scheduler to write the batches whose linger time elapsed.
+     *
+     * @param policy          the thresholds
+     * @param classifier      the function that returns the key of an element
+     * @param weigher         the function that estimates the size of an element in bytes
+     * @param writer          the writer of a batch
+     * @param failureListener the listener to the elements that failed
+     * @param scheduler       the scheduler to linger, when it is null the linger is ignored
+     * @throws NullPointerException when there is a null parameter but scheduler
+     */
+    public Batcher(BatchPolicy policy, Function<T, K> classifier, ToLongFunction<T> weigher,
+                   BiConsumer<K, List<T>> writer, Consumer<BatchFailure<T>> failureListener,
+                   ScheduledExecutorService scheduler) throws NullPointerException {
+        this.policy = requireNonNull(policy, "policy is required");
+        this.classifier = requireNonNull(classifier, "classifier is required");
+        this.weigher = requireNonNull(weigher, "weigher is required");
+        this.writer = requireNonNull(writer, "writer is required");
+        this.failureListener = requireNonNull(failureListener, "failureListener is required");
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Appends an element to the batch of its key, when the batch reaches a threshold it is written
+     * on the current thread.
+     *
+     * @param item the element
+     * @throws NullPointerException  when item is null
+     * @throws IllegalStateException when the batcher is closed
+     */
+    public void add(T item) throws NullPointerException, IllegalStateException {
+        requireNonNull(item, "item is required");
+        K key = classifier.apply(item);
+        long weight = weigher.applyAsLong(item);
+        List<T> overflow = null;
+        List<T> full = null;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("The batcher is closed");
+            }
+            Batch<T> batch = batches.get(key);
+            if (batch != null && batch.bytes + weight > policy.getMaxBytes()) {
+                overflow = detach(key, batch);
+                batch = null;
+            }
+            if (batch == null) {
+                batch = new Batch<>();
+                batches.put(key, batch);
+                linger(key, batch);
+            }
+            batch.add(item, weight);
+            if (batch.items.size() >= policy.getMaxCount() || batch.bytes >= policy.getMaxBytes()) {
+                full = detach(key, batch);
+            }
+        }
+        write(key, overflow);
+        write(key, full);
+    }
+
+    /**
+     * Writes all the pending batches on the current thread
+     */
+    public void flush() {
+        for (Map.Entry<K, List<T>> entry : drain(false).entrySet()) {
+            write(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Writes all the pending batches and does not accept new elements
+     */
+    @Override
+    public void close() {
+        for (Map.Entry<K, List<T>> entry : drain(true).entrySet()) {
+            write(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private synchronized Map<K, List<T>> drain(boolean close) {
+        this.closed = this.closed || close;
+        Map<K, List<T>> pending = new LinkedHashMap<>();
+        for (Map.Entry<K, Batch<T>> entry : batches.entrySet()) {
+            entry.getValue().cancel();
+            pending.put(entry.getKey(), entry.getValue().items);
+        }
+        batches.clear();
+        return pending;
+    }
+
+    private void linger(K key, Batch<T> batch) {
+        if (scheduler == null || policy.getLinger().isZero()) {
+            return;
+        }
+        batch.task = scheduler.schedule(() -> expire(key, batch), policy.getLinger().toNanos(),
+                TimeUnit.NANOSECONDS);
+    }
+
+    private void expire(K key, Batch<T> batch) {
+        List<T> items;
+        synchronized (this) {
+            if (batches.get(key) != batch) {
+                return;
+            }
+            items = detach(key, batch);
+        }
+        write(key, items);
+    }
+
+    private List<T> detach(K key, Batch<T> batch) {
+        batches.remove(key);
+        batch.cancel();
+        return batch.items;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void write(K key, List<T> items) {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+        try {
+            writer.accept(key, items);
+        } catch (BatchWriteException exception) {
+            exception.getFailures().forEach(f -> failureListener.accept((BatchFailure<T>) f));
+        } catch (RuntimeException exception) {
+            items.forEach(item -> failureListener.accept(BatchFailure.of(item, exception)));
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        final StringBuilder sb = new StringBuilder("Batcher{");
+        sb.append("policy=").append(policy);
+        sb.append(", pending=").append(batches.keySet());
+        sb.append(", closed=").append(closed);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    private static final class Batch<T> {
+
+        private final List<T> items = new ArrayList<>();
+
+        private long bytes;
+
+        private ScheduledFuture<?> task;
+
+        private void add(T item, long weight) {
+            items.add(item);
+            bytes += weight;
+        }
+
+        private void cancel() {
+            if (task != null) {
+                task.cancel(false);
+            }
+        }
+    }
+}
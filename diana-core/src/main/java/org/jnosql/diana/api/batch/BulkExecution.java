@@ -0,0 +1,180 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+
+package org.jnosql.diana.api.batch;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * A single run of {@link BulkExecutor}. The permits are an {@link AtomicInteger}, and the reading of the
+ * iterator is serialized by a work-in-progress counter, so a completion that happens within
+ * {@link BulkOperation#execute(Object, Runnable, Consumer)} does not recurse.
+ */
+final class BulkExecution<T> {
+
+    private final Iterator<T> iterator;
+
+    private final BulkOperation<T> operation;
+
+    private final Consumer<BulkResult<T>> callback;
+
+    private final Duration timeout;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicInteger permits;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger wip = new AtomicInteger();
+
+    private final AtomicLong succeeded = new AtomicLong();
+
+    private final Queue<BatchFailure<T>> failures = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean completed = new AtomicBoolean();
+
+    private volatile boolean exhausted;
+
+    private volatile Throwable error;
+
+    BulkExecution(Iterator<T> iterator, BulkOperation<T> operation, Consumer<BulkResult<T>> callback,
+                  int maxInFlight, Duration timeout, ScheduledExecutorService scheduler) {
+        this.iterator = iterator;
+        this.operation = operation;
+        this.callback = callback;
+        this.timeout = timeout;
+        this.scheduler = scheduler;
+        this.permits = new AtomicInteger(maxInFlight);
+    }
+
+    void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            while (!exhausted && tryAcquire()) {
+                T item = next();
+                if (item == null) {
+                    permits.incrementAndGet();
+                    break;
+                }
+                inFlight.incrementAndGet();
+                submit(item);
+            }
+            if (exhausted && inFlight.get() == 0 && completed.compareAndSet(false, true)) {
+                callback.accept(BulkResult.of(succeeded.get(), new ArrayList<>(failures), error));
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private T next() {
+        try {
+            if (iterator.hasNext()) {
+                T item = iterator.next();
+                if (item != null) {
+                    return item;
+                }
+                error = new NullPointerException("The elements cannot have null");
+            }
+        } catch (RuntimeException exception) {
+            error = exception;
+        }
+        exhausted = true;
+        return null;
+    }
+
+    private boolean tryAcquire() {
+        for (; ; ) {
+            int available = permits.get();
+            if (available == 0) {
+                return false;
+            }
+            if (permits.compareAndSet(available, available - 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void submit(T item) {
+        Operation current = new Operation(item);
+        if (scheduler != null) {
+            current.timeout = scheduler.schedule(() -> current.fail(new TimeoutException("The operation took more than "
+                    + timeout)), timeout.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        try {
+            operation.execute(item, current::succeed, current::fail);
+        } catch (RuntimeException exception) {
+            current.fail(exception);
+        }
+    }
+
+    private class Operation {
+
+        private final T item;
+
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private volatile ScheduledFuture<?> timeout;
+
+        Operation(T item) {
+            this.item = item;
+        }
+
+        void succeed() {
+            if (done.compareAndSet(false, true)) {
+                succeeded.incrementAndGet();
+                release();
+            }
+        }
+
+        void fail(Throwable cause) {
+            if (cause == null) {
+                cause = new NullPointerException("The operation failed without a cause");
+            }
+            if (done.compareAndSet(false, true)) {
+                failures.add(BatchFailure.of(item, cause));
+                release();
+            }
+        }
+
+        private void release() {
+            ScheduledFuture<?> future = timeout;
+            if (future != null) {
+                future.cancel(false);
+            }
+            inFlight.decrementAndGet();
+            permits.incrementAndGet();
+            drain();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+
+package org.jnosql.diana.api.batch;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Runs an asynchronous operation to each element of an {@link Iterable} keeping at most a number of
+ * operations in flight. The elements are read from the {@link Iterable} only when there is room in the window,
+ * so a large or lazy source is never queued up in the driver. No thread waits for a permit: the next element is
+ * read either by the caller or by the thread that completes an operation.
+ * This class is thread-safe and might be shared among bulk executions, each execution has its own window.
+ *
+ * <pre>
+ * BulkExecutor executor = BulkExecutor.of(64);
+ * executor.execute(entities, (e, done, failure) -&gt; manager.insert(e, s -&gt; done.run()), result -&gt; ...);
+ * </pre>
+ */
+public final class BulkExecutor {
+
+    private final int maxInFlight;
+
+    private final Duration timeout;
+
+    private final ScheduledExecutorService scheduler;
+
+    private BulkExecutor(int maxInFlight, Duration timeout, ScheduledExecutorService scheduler) {
+        this.maxInFlight = maxInFlight;
+        this.timeout = timeout;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Creates a {@link BulkExecutor} without a timeout, so an operation that never completes holds its permit
+     *
+     * @param maxInFlight the maximum number of operations in flight
+     * @return a {@link BulkExecutor} instance
+     * @throws IllegalArgumentException when maxInFlight is either zero or negative
+     */
+    public static BulkExecutor of(int maxInFlight) throws IllegalArgumentException {
+        checkMaxInFlight(maxInFlight);
+        return new BulkExecutor(maxInFlight, Duration.ZERO, null);
+    }
+
+    /**
+     * Creates a {@link BulkExecutor} where an operation not completed within the timeout is reported as failed
+     * with {@link java.util.concurrent.TimeoutException} and its permit is released
+     *
+     * @param maxInFlight the maximum number of operations in flight
+     * @param timeout     the maximum time to each operation
+     * @param scheduler   the scheduler to the timeouts
+     * @return a {@link BulkExecutor} instance
+     * @throws NullPointerException     when either timeout or scheduler are null
+     * @throws IllegalArgumentException when maxInFlight is either zero or negative or timeout is either zero
+     *                                  or negative
+     */
+    public static BulkExecutor of(int maxInFlight, Duration timeout, ScheduledExecutorService scheduler)
+            throws NullPointerException, IllegalArgumentException {
+        checkMaxInFlight(maxInFlight);
+        requireNonNull(timeout, "timeout is required");
+        requireNonNull(scheduler, "scheduler is required");
+        if (timeout.isZero() || timeout.isNegative()) {
+            throw new IllegalArgumentException("timeout must be greater than zero");
+        }
+        return new BulkExecutor(maxInFlight, timeout, scheduler);
+    }
+
+    /**
+     * Runs the operation to each element, this method returns as soon as the window is full or the elements
+     * are over, the callback is called once, by the thread that finishes the last operation.
+     *
+     * @param items     the elements
+     * @param operation the operation
+     * @param callback  the callback to the outcome
+     * @param <T>       the element type
+     * @throws NullPointerException when there is a null parameter
+     */
+    public <T> void execute(Iterable<T> items, BulkOperation<T> operation, Consumer<BulkResult<T>> callback)
+            throws NullPointerException {
+        requireNonNull(items, "items is required");
+        requireNonNull(operation, "operation is required");
+        requireNonNull(callback, "callback is required");
+        Iterator<T> iterator = items.iterator();
+        new BulkExecution<>(iterator, operation, callback, maxInFlight, timeout, scheduler).drain();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    private static void checkMaxInFlight(int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be greater than zero");
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("BulkExecutor{");
+        sb.append("maxInFlight=").append(maxInFlight);
+        sb.append(", timeout=").append(timeout);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+
+package org.jnosql.diana.api.batch;
+
+import java.util.function.Consumer;
+
+/**
+ * An asynchronous operation run by {@link BulkExecutor} to each element.
+ * The operation must call either the completion once the element is written or the failure when it is not,
+ * an exception thrown by the operation also means that element failed.
+ *
+ * @param <T> the element type
+ */
+@FunctionalInterface
+public interface BulkOperation<T> {
+
+    /**
+     * Starts the operation to the element
+     *
+     * @param item       the element
+     * @param completion the action to be called when the element is written
+     * @param failure    the action to be called when the element is not written
+     */
+    void execute(T item, Runnable completion, Consumer<Throwable> failure);
+}
@@ -0,0 +1,90 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+
+package org.jnosql.diana.api.batch;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The outcome of a bulk execution of {@link BulkExecutor}
+ *
+ * @param <T> the element type
+ */
+public final class BulkResult<T> {
+
+    private final long succeeded;
+
+    private final List<BatchFailure<T>> failures;
+
+    private final Throwable error;
+
+    private BulkResult(long succeeded, List<BatchFailure<T>> failures, Throwable error) {
+        this.succeeded = succeeded;
+        this.failures = failures;
+        this.error = error;
+    }
+
+    static <T> BulkResult<T> of(long succeeded, List<BatchFailure<T>> failures, Throwable error) {
+        requireNonNull(failures, "failures is required");
+        return new BulkResult<>(succeeded, Collections.unmodifiableList(failures), error);
+    }
+
+    /**
+     * @return the number of elements written
+     */
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    /**
+     * @return the elements that failed
+     */
+    public List<BatchFailure<T>> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Returns the error that stopped the iteration of the elements, so the elements that remain were not read
+     *
+     * @return the error or {@link Optional#empty()} when all elements were read
+     */
+    public Optional<Throwable> getError() {
+        return Optional.ofNullable(error);
+    }
+
+    /**
+     * @return true when all elements were read and written
+     */
+    public boolean isSuccess() {
+        return failures.isEmpty() && error == null;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("BulkResult{");
+        sb.append("succeeded=").append(succeeded);
+        sb.append(", failures=").append(failures.size());
+        sb.append(", error=").append(error);
+        sb.append('}');
+        return sb.toString();
+    }
+}
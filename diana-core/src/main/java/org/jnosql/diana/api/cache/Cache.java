@@ -0,0 +1,116 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * A bounded, thread-safe, local cache. The entries are admitted and evicted with W-TinyLFU: a new entry stays
+ * in a small LRU window and then it competes to enter the main space against the entry that would be evicted,
+ * the one used more often, by the estimate of a frequency sketch, wins. So a scan of keys used once does not
+ * flush the popular ones, as it happens in a plain LRU.
+ *
+ * <pre>
+ * Cache&lt;String, Value&gt; cache = Cache.&lt;String, Value&gt;builder().maximumSize(10_000).build();
+ * </pre>
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ * @see CacheBuilder
+ */
+public interface Cache<K, V> {
+
+    /**
+     * Creates a {@link CacheBuilder}
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     * @return a new {@link CacheBuilder} instance
+     */
+    static <K, V> CacheBuilder<K, V> builder() {
+        return new CacheBuilder<>();
+    }
+
+    /**
+     * Returns the value of the key, it is a hit when it is found and a miss otherwise
+     *
+     * @param key the key
+     * @return the value or {@link Optional#empty()} when either it is not found or it is expired
+     * @throws NullPointerException when key is null
+     */
+    Optional<V> get(K key) throws NullPointerException;
+
+    /**
+     * Associates the value to the key with the default time to live, if any
+     *
+     * @param key   the key
+     * @param value the value
+     * @throws NullPointerException when either key or value is null
+     */
+    void put(K key, V value) throws NullPointerException;
+
+    /**
+     * Associates the value to the key with a time to live, the entry expires at the earliest of this time to live
+     * and the default one
+     *
+     * @param key   the key
+     * @param value the value
+     * @param ttl   the time to live
+     * @throws NullPointerException when there is a null parameter
+     */
+    void put(K key, V value, Duration ttl) throws NullPointerException;
+
+    /**
+     * Associates the value to the key when the key is not in the cache
+     *
+     * @param key   the key
+     * @param value the value
+     * @return true when the value was put
+     * @throws NullPointerException when either key or value is null
+     */
+    boolean putIfAbsent(K key, V value) throws NullPointerException;
+
+    /**
+     * Removes the key
+     *
+     * @param key the key
+     * @throws NullPointerException when key is null
+     */
+    void remove(K key) throws NullPointerException;
+
+    /**
+     * Removes every entry
+     */
+    void clear();
+
+    /**
+     * @return the number of entries, the expired ones that were not removed yet included
+     */
+    long size();
+
+    /**
+     * @return the sum of the weights of the entries
+     */
+    long weight();
+
+    /**
+     * @return a snapshot of the statistics
+     */
+    CacheStats getStats();
+}
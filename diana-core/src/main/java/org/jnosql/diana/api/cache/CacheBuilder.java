@@ -0,0 +1,133 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.cache;
+
+import org.jnosql.diana.api.expiration.ExpirationScheduler;
+
+import java.time.Duration;
+import java.util.function.ToLongBiFunction;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The {@link Cache} builder, the cache must be bounded either by {@link CacheBuilder#maximumSize(long)} or by
+ * {@link CacheBuilder#maximumWeight(long, ToLongBiFunction)}.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public final class CacheBuilder<K, V> {
+
+    private long maximum = -1L;
+
+    private ToLongBiFunction<? super K, ? super V> weigher;
+
+    private Duration expireAfterWrite;
+
+    private ExpirationScheduler scheduler;
+
+    CacheBuilder() {
+    }
+
+    /**
+     * Bounds the cache by number of entries
+     *
+     * @param maximumSize the maximum number of entries
+     * @return this builder
+     * @throws IllegalArgumentException when maximumSize is either zero or negative
+     * @throws IllegalStateException    when the maximum was already defined
+     */
+    public CacheBuilder<K, V> maximumSize(long maximumSize) throws IllegalArgumentException, IllegalStateException {
+        checkMaximum(maximumSize);
+        this.maximum = maximumSize;
+        this.weigher = (k, v) -> 1L;
+        return this;
+    }
+
+    /**
+     * Bounds the cache by the sum of the weights of the entries, such as the estimated size in bytes from
+     * {@link org.jnosql.diana.api.Sizes}
+     *
+     * @param maximumWeight the maximum weight
+     * @param weigher       the weight of an entry, it must not be negative
+     * @return this builder
+     * @throws NullPointerException     when weigher is null
+     * @throws IllegalArgumentException when maximumWeight is either zero or negative
+     * @throws IllegalStateException    when the maximum was already defined
+     */
+    public CacheBuilder<K, V> maximumWeight(long maximumWeight, ToLongBiFunction<? super K, ? super V> weigher)
+            throws NullPointerException, IllegalArgumentException, IllegalStateException {
+        requireNonNull(weigher, "weigher is required");
+        checkMaximum(maximumWeight);
+        this.maximum = maximumWeight;
+        this.weigher = weigher;
+        return this;
+    }
+
+    /**
+     * Defines the default time to live of every entry
+     *
+     * @param ttl the time to live
+     * @return this builder
+     * @throws NullPointerException     when ttl is null
+     * @throws IllegalArgumentException when ttl is either zero or negative
+     */
+    public CacheBuilder<K, V> expireAfterWrite(Duration ttl) throws NullPointerException, IllegalArgumentException {
+        requireNonNull(ttl, "ttl is required");
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be greater than zero");
+        }
+        this.expireAfterWrite = ttl;
+        return this;
+    }
+
+    /**
+     * Defines the scheduler that removes the entries when they expire, without it the expired entries are
+     * removed when they are read or evicted
+     *
+     * @param scheduler the scheduler
+     * @return this builder
+     * @throws NullPointerException when scheduler is null
+     */
+    public CacheBuilder<K, V> scheduler(ExpirationScheduler scheduler) throws NullPointerException {
+        this.scheduler = requireNonNull(scheduler, "scheduler is required");
+        return this;
+    }
+
+    /**
+     * Creates the {@link Cache}
+     *
+     * @return a new {@link Cache} instance
+     * @throws IllegalStateException when neither the maximum size nor the maximum weight was defined
+     */
+    public Cache<K, V> build() throws IllegalStateException {
+        if (maximum < 0) {
+            throw new IllegalStateException("The cache requires either maximumSize or maximumWeight");
+        }
+        return new TinyLfuCache<>(maximum, weigher, expireAfterWrite, scheduler);
+    }
+
+    private void checkMaximum(long maximum) {
+        if (maximum <= 0) {
+            throw new IllegalArgumentException("The maximum must be greater than zero");
+        }
+        if (this.maximum >= 0) {
+            throw new IllegalStateException("The maximum was already defined: " + this.maximum);
+        }
+    }
+}
@@ -0,0 +1,424 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.cache;
+
+import org.jnosql.diana.api.expiration.Expiration;
+import org.jnosql.diana.api.expiration.ExpirationScheduler;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongBiFunction;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The W-TinyLFU {@link Cache}. The entries live in a {@link ConcurrentHashMap}, so the reads never block, and the
+ * eviction policy keeps three LRU lists:
+ * <ul>
+ * <li>window: 1% of the maximum, where the new entries arrive</li>
+ * <li>probation: the entries admitted from the window that were not used again</li>
+ * <li>protected: 80% of the main space, the entries used again while in probation</li>
+ * </ul>
+ * When the cache is over its maximum the oldest entry of the window competes against the oldest entry in
+ * probation, and the {@link FrequencySketch} decides which one is evicted.
+ * <p>The writes change the map and the lists under a lock. A read just reorders the lists when the lock is free,
+ * under contention the reordering is skipped, which costs a bit of hit rate but never blocks a reader.</p>
+ */
+final class TinyLfuCache<K, V> implements Cache<K, V> {
+
+    private static final int WINDOW = 0;
+
+    private static final int PROBATION = 1;
+
+    private static final int PROTECTED = 2;
+
+    private static final int DEAD = 3;
+
+    private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final long maximum;
+
+    private final long windowMaximum;
+
+    private final long protectedMaximum;
+
+    private final ToLongBiFunction<? super K, ? super V> weigher;
+
+    private final Duration expireAfterWrite;
+
+    private final ExpirationScheduler scheduler;
+
+    private final FrequencySketch sketch;
+
+    private final NodeList<K, V> window = new NodeList<>();
+
+    private final NodeList<K, V> probation = new NodeList<>();
+
+    private final NodeList<K, V> protectedList = new NodeList<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder evictionWeight = new LongAdder();
+
+    private final LongAdder expirations = new LongAdder();
+
+    private long windowWeight;
+
+    private long protectedWeight;
+
+    private volatile long totalWeight;
+
+    TinyLfuCache(long maximum, ToLongBiFunction<? super K, ? super V> weigher, Duration expireAfterWrite,
+                 ExpirationScheduler scheduler) {
+        this.maximum = maximum;
+        this.windowMaximum = Math.max(1L, maximum / 100L);
+        this.protectedMaximum = (long) ((maximum - windowMaximum) * 0.8);
+        this.weigher = weigher;
+        this.expireAfterWrite = expireAfterWrite;
+        this.scheduler = scheduler;
+        this.sketch = new FrequencySketch(maximum);
+    }
+
+    @Override
+    public Optional<V> get(K key) throws NullPointerException {
+        requireNonNull(key, "key is required");
+        Node<K, V> node = data.get(key);
+        if (node == null || node.isExpired(System.nanoTime())) {
+            misses.increment();
+            if (node != null) {
+                expire(node);
+            }
+            if (lock.tryLock()) {
+                try {
+                    sketch.increment(key.hashCode());
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return Optional.empty();
+        }
+        hits.increment();
+        if (lock.tryLock()) {
+            try {
+                sketch.increment(key.hashCode());
+                onAccess(node);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return Optional.of(node.value);
+    }
+
+    @Override
+    public void put(K key, V value) throws NullPointerException {
+        requireNonNull(key, "key is required");
+        requireNonNull(value, "value is required");
+        put(key, value, expireAfterWrite, false);
+    }
+
+    @Override
+    public void put(K key, V value, Duration ttl) throws NullPointerException {
+        requireNonNull(key, "key is required");
+        requireNonNull(value, "value is required");
+        requireNonNull(ttl, "ttl is required");
+        Duration effective = expireAfterWrite == null || ttl.compareTo(expireAfterWrite) < 0 ? ttl : expireAfterWrite;
+        put(key, value, effective, false);
+    }
+
+    @Override
+    public boolean putIfAbsent(K key, V value) throws NullPointerException {
+        requireNonNull(key, "key is required");
+        requireNonNull(value, "value is required");
+        return put(key, value, expireAfterWrite, true);
+    }
+
+    @Override
+    public void remove(K key) throws NullPointerException {
+        requireNonNull(key, "key is required");
+        lock.lock();
+        try {
+            Node<K, V> node = data.remove(key);
+            if (node != null) {
+                unlink(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            for (Node<K, V> node : data.values()) {
+                unlink(node);
+            }
+            data.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long size() {
+        return data.size();
+    }
+
+    @Override
+    public long weight() {
+        return totalWeight;
+    }
+
+    @Override
+    public CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), evictionWeight.sum(), expirations.sum());
+    }
+
+    private boolean put(K key, V value, Duration ttl, boolean onlyIfAbsent) {
+        long weight = weigher.applyAsLong(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("The weight cannot be negative: " + weight);
+        }
+        long now = System.nanoTime();
+        Node<K, V> node = new Node<>(key, value, weight, ttl == null ? 0L : deadline(now, ttl));
+        lock.lock();
+        try {
+            Node<K, V> old = data.get(key);
+            if (onlyIfAbsent && old != null && !old.isExpired(now)) {
+                return false;
+            }
+            data.put(key, node);
+            if (old != null) {
+                unlink(old);
+            }
+            sketch.increment(key.hashCode());
+            if (weight > maximum) {
+                data.remove(key, node);
+                node.queue = DEAD;
+                evictions.increment();
+                evictionWeight.add(weight);
+                return true;
+            }
+            node.queue = WINDOW;
+            window.addLast(node);
+            windowWeight += weight;
+            totalWeight += weight;
+            evict();
+            if (ttl != null && scheduler != null && node.queue != DEAD) {
+                node.expiration = scheduler.schedule(ttl, () -> expire(node));
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onAccess(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW:
+                window.moveToLast(node);
+                break;
+            case PROBATION:
+                probation.remove(node);
+                node.queue = PROTECTED;
+                protectedList.addLast(node);
+                protectedWeight += node.weight;
+                while (protectedWeight > protectedMaximum) {
+                    Node<K, V> demoted = protectedList.first();
+                    protectedList.remove(demoted);
+                    protectedWeight -= demoted.weight;
+                    demoted.queue = PROBATION;
+                    probation.addLast(demoted);
+                }
+                break;
+            case PROTECTED:
+                protectedList.moveToLast(node);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void evict() {
+        int candidates = 0;
+        while (windowWeight > windowMaximum && window.first() != null) {
+            Node<K, V> node = window.first();
+            window.remove(node);
+            windowWeight -= node.weight;
+            node.queue = PROBATION;
+            probation.addLast(node);
+            candidates++;
+        }
+        while (totalWeight > maximum) {
+            Node<K, V> victim = probation.first();
+            if (victim == null) {
+                victim = protectedList.first();
+            }
+            if (victim == null) {
+                victim = window.first();
+            }
+            Node<K, V> candidate = candidates > 0 ? probation.last() : null;
+            if (candidate == null) {
+                evict(victim);
+            } else if (candidate == victim) {
+                evict(victim);
+                candidates--;
+            } else if (sketch.frequency(candidate.key.hashCode()) > sketch.frequency(victim.key.hashCode())) {
+                evict(victim);
+            } else {
+                evict(candidate);
+                candidates--;
+            }
+        }
+    }
+
+    private void evict(Node<K, V> node) {
+        data.remove(node.key, node);
+        unlink(node);
+        evictions.increment();
+        evictionWeight.add(node.weight);
+    }
+
+    private void expire(Node<K, V> node) {
+        lock.lock();
+        try {
+            if (data.remove(node.key, node)) {
+                unlink(node);
+                expirations.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void unlink(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW:
+                window.remove(node);
+                windowWeight -= node.weight;
+                break;
+            case PROBATION:
+                probation.remove(node);
+                break;
+            case PROTECTED:
+                protectedList.remove(node);
+                protectedWeight -= node.weight;
+                break;
+            default:
+                return;
+        }
+        node.queue = DEAD;
+        totalWeight -= node.weight;
+        if (node.expiration != null) {
+            node.expiration.cancel();
+        }
+    }
+
+    private static long deadline(long now, Duration ttl) {
+        long nanos = ttl.getSeconds() >= Long.MAX_VALUE / 2_000_000_000L ? Long.MAX_VALUE >> 1 : ttl.toNanos();
+        long deadline = now + nanos;
+        return deadline == 0L ? 1L : deadline;
+    }
+
+    private static final class Node<K, V> {
+
+        private final K key;
+
+        private final V value;
+
+        private final long weight;
+
+        private final long expiresAt;
+
+        private Expiration expiration;
+
+        private int queue;
+
+        private Node<K, V> prev;
+
+        private Node<K, V> next;
+
+        Node(K key, V value, long weight, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAt != 0L && now - expiresAt >= 0;
+        }
+    }
+
+    private static final class NodeList<K, V> {
+
+        private Node<K, V> head;
+
+        private Node<K, V> tail;
+
+        Node<K, V> first() {
+            return head;
+        }
+
+        Node<K, V> last() {
+            return tail;
+        }
+
+        void addLast(Node<K, V> node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            if (tail != node) {
+                remove(node);
+                addLast(node);
+            }
+        }
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.expiration;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The hierarchical timing wheel behind {@link ExpirationScheduler}. It has {@link #LEVELS} wheels of
+ * {@link #SLOTS} slots, a slot of the level {@code n} spans {@code SLOTS^n} ticks, so six levels of 64 slots cover
+ * 2^36 ticks, beyond that the entries wait in the last level and are placed again on each of its turns.
+ * <p>The wheel is changed by the sweep thread alone: {@link #schedule(Duration, Runnable)} and
+ * {@link Expiration#cancel()} enqueue the node, and the sweep links or unlinks it, both in constant time, before
+ * advancing the ticks. When a level wraps the next slot of the level above is cascaded into the lower levels,
+ * so each entry is moved at most once per level.</p>
+ */
+final class DefaultExpirationScheduler implements ExpirationScheduler {
+
+    static final int BITS = 6;
+
+    static final int SLOTS = 1 << BITS;
+
+    static final int LEVELS = 6;
+
+    private static final int MASK = SLOTS - 1;
+
+    private static final long MAX_TTL = Long.MAX_VALUE >> 1;
+
+    private static final AtomicIntegerFieldUpdater<Node> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(Node.class, "state");
+
+    private final Duration tick;
+
+    private final long tickNanos;
+
+    private final LongSupplier clock;
+
+    private final long start;
+
+    private final Node[][] wheels = new Node[LEVELS][SLOTS];
+
+    private final Queue<Node> changes = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder size = new LongAdder();
+
+    private final ScheduledExecutorService executor;
+
+    private final boolean ownExecutor;
+
+    private final ScheduledFuture<?> sweeps;
+
+    private long currentTick;
+
+    private volatile boolean closed;
+
+    DefaultExpirationScheduler(Duration tick, LongSupplier clock, ScheduledExecutorService executor,
+                               boolean ownExecutor) {
+        this.tick = tick;
+        this.tickNanos = tick.toNanos();
+        this.clock = clock;
+        this.start = clock.getAsLong();
+        this.executor = executor;
+        this.ownExecutor = ownExecutor;
+        if (executor == null) {
+            this.sweeps = null;
+        } else {
+            this.sweeps = executor.scheduleAtFixedRate(this::sweep, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    static ExpirationScheduler of(Duration tick, ScheduledExecutorService executor) {
+        if (tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("The tick must be positive: " + tick);
+        }
+        if (executor != null) {
+            return new DefaultExpirationScheduler(tick, System::nanoTime, executor, false);
+        }
+        ScheduledExecutorService own = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "diana-expiration");
+            thread.setDaemon(true);
+            return thread;
+        });
+        return new DefaultExpirationScheduler(tick, System::nanoTime, own, true);
+    }
+
+    @Override
+    public Expiration schedule(Duration ttl, Runnable listener) throws NullPointerException, IllegalStateException {
+        requireNonNull(ttl, "ttl is required");
+        requireNonNull(listener, "listener is required");
+        if (closed) {
+            throw new IllegalStateException("The expiration scheduler is closed");
+        }
+        Node node = new Node(clock.getAsLong() + nanos(ttl), listener);
+        size.increment();
+        changes.offer(node);
+        return node;
+    }
+
+    @Override
+    public Duration getTick() {
+        return tick;
+    }
+
+    @Override
+    public long size() {
+        return size.sum();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (sweeps != null) {
+            sweeps.cancel(false);
+        }
+        if (ownExecutor) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Applies the pending changes and expires every tick up to now, it is called on each tick by the executor.
+     */
+    synchronized void sweep() {
+        if (closed) {
+            return;
+        }
+        long now = clock.getAsLong();
+        long nowTick = (now - start) / tickNanos;
+        for (Node node = changes.poll(); node != null; node = changes.poll()) {
+            if (!node.placed) {
+                node.placed = true;
+                if (node.state == Node.SCHEDULED) {
+                    place(node);
+                }
+            } else if (node.level >= 0) {
+                unlink(node);
+            }
+        }
+        while (currentTick <= nowTick) {
+            cascade();
+            int slot = (int) (currentTick & MASK);
+            Node head = wheels[0][slot];
+            wheels[0][slot] = null;
+            currentTick++;
+            for (Node node = head; node != null; ) {
+                Node next = node.next;
+                node.detach();
+                expire(node);
+                node = next;
+            }
+        }
+    }
+
+    private void cascade() {
+        if (currentTick == 0) {
+            return;
+        }
+        int level = 0;
+        while (level + 1 < LEVELS && (currentTick & ((1L << (BITS * (level + 1))) - 1)) == 0) {
+            level++;
+        }
+        for (; level > 0; level--) {
+            int slot = (int) ((currentTick >>> (BITS * level)) & MASK);
+            Node head = wheels[level][slot];
+            wheels[level][slot] = null;
+            for (Node node = head; node != null; ) {
+                Node next = node.next;
+                node.detach();
+                place(node);
+                node = next;
+            }
+        }
+    }
+
+    private void place(Node node) {
+        long expireTick = expireTick(node.deadline);
+        long delta = expireTick - currentTick;
+        if (delta < 0) {
+            expire(node);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (BITS * (level + 1))) {
+                link(node, level, (int) ((expireTick >>> (BITS * level)) & MASK));
+                return;
+            }
+        }
+        int top = LEVELS - 1;
+        long lastTick = currentTick + (1L << (BITS * LEVELS)) - 1;
+        link(node, top, (int) ((lastTick >>> (BITS * top)) & MASK));
+    }
+
+    private long expireTick(long deadline) {
+        long elapsed = deadline - start;
+        if (elapsed <= 0) {
+            return 0L;
+        }
+        return (elapsed + tickNanos - 1) / tickNanos;
+    }
+
+    private void link(Node node, int level, int slot) {
+        Node head = wheels[level][slot];
+        node.level = level;
+        node.slot = slot;
+        node.prev = null;
+        node.next = head;
+        if (head != null) {
+            head.prev = node;
+        }
+        wheels[level][slot] = node;
+    }
+
+    private void unlink(Node node) {
+        if (node.prev == null) {
+            wheels[node.level][node.slot] = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.detach();
+    }
+
+    private void expire(Node node) {
+        if (STATE.compareAndSet(node, Node.SCHEDULED, Node.EXPIRED)) {
+            size.decrement();
+            try {
+                node.listener.run();
+            } catch (RuntimeException exception) {
+                //the listener must not stop the sweep of the other entries
+            }
+        }
+    }
+
+    private static long nanos(Duration ttl) {
+        if (ttl.isNegative()) {
+            return 0L;
+        }
+        if (ttl.getSeconds() >= MAX_TTL / 1_000_000_000L) {
+            return MAX_TTL;
+        }
+        return ttl.toNanos();
+    }
+
+    final class Node implements Expiration {
+
+        static final int SCHEDULED = 0;
+
+        static final int CANCELLED = 1;
+
+        static final int EXPIRED = 2;
+
+        private final long deadline;
+
+        private final Runnable listener;
+
+        volatile int state;
+
+        private boolean placed;
+
+        private int level = -1;
+
+        private int slot;
+
+        private Node prev;
+
+        private Node next;
+
+        Node(long deadline, Runnable listener) {
+            this.deadline = deadline;
+            this.listener = listener;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (STATE.compareAndSet(this, SCHEDULED, CANCELLED)) {
+                size.decrement();
+                changes.offer(this);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean isExpired() {
+            int current = state;
+            return current == EXPIRED || (current == SCHEDULED && clock.getAsLong() - deadline >= 0);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        void detach() {
+            level = -1;
+            prev = null;
+            next = null;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("Expiration{");
+            sb.append("deadline=").append(deadline);
+            sb.append(", state=").append(state);
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+}
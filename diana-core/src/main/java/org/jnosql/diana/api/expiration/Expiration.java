@@ -0,0 +1,46 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.expiration;
+
+/**
+ * The handle of an entry scheduled in an {@link ExpirationScheduler}. Besides canceling the expiration, it answers
+ * whether the deadline was already reached, so a reader might skip an expired entry before the scheduler
+ * sweeps it.
+ */
+public interface Expiration {
+
+    /**
+     * Cancels the expiration, so its listener will not be called, an entry that either is replaced or removed
+     * should cancel its expiration to release it from the scheduler.
+     *
+     * @return true when it was canceled, false when it had either expired or been canceled already
+     */
+    boolean cancel();
+
+    /**
+     * Checks whether the deadline was reached, even if the scheduler did not sweep it yet
+     *
+     * @return true when it is expired and it was not canceled
+     */
+    boolean isExpired();
+
+    /**
+     * @return true when it was canceled
+     */
+    boolean isCancelled();
+}
@@ -0,0 +1,110 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.expiration;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Expires entries with a time to live, it is meant to the engines and the cache layers that keep entries in memory.
+ * The implementation is a hierarchical timing wheel, so both scheduling and canceling are O(1) regardless of how many
+ * entries are scheduled: the callers just enqueue the change, and a single thread applies them and calls, once per
+ * tick, the listeners of every entry that expired in that tick. The deadline is never anticipated, but a listener
+ * might be called up to a tick later, so the readers should also check {@link Expiration#isExpired()}.
+ *
+ * <pre>
+ * ExpirationScheduler scheduler = ExpirationScheduler.of();
+ * Expiration expiration = scheduler.schedule(Duration.ofMinutes(5), () -&gt; map.remove(key, entry));
+ * </pre>
+ */
+public interface ExpirationScheduler extends AutoCloseable {
+
+    /**
+     * The default tick, 10 milliseconds
+     */
+    Duration DEFAULT_TICK = Duration.ofMillis(10L);
+
+    /**
+     * Creates a {@link ExpirationScheduler} with the {@link ExpirationScheduler#DEFAULT_TICK} and its own daemon
+     * thread
+     *
+     * @return a {@link ExpirationScheduler} instance
+     */
+    static ExpirationScheduler of() {
+        return of(DEFAULT_TICK);
+    }
+
+    /**
+     * Creates a {@link ExpirationScheduler} with its own daemon thread
+     *
+     * @param tick the precision of the expiration and the period between sweeps
+     * @return a {@link ExpirationScheduler} instance
+     * @throws NullPointerException     when tick is null
+     * @throws IllegalArgumentException when tick is either zero or negative
+     */
+    static ExpirationScheduler of(Duration tick) throws NullPointerException, IllegalArgumentException {
+        requireNonNull(tick, "tick is required");
+        return DefaultExpirationScheduler.of(tick, null);
+    }
+
+    /**
+     * Creates a {@link ExpirationScheduler} that sweeps on an executor, the executor is not shut down when the
+     * scheduler is closed
+     *
+     * @param tick     the precision of the expiration and the period between sweeps
+     * @param executor the executor to the sweeps
+     * @return a {@link ExpirationScheduler} instance
+     * @throws NullPointerException     when either tick or executor is null
+     * @throws IllegalArgumentException when tick is either zero or negative
+     */
+    static ExpirationScheduler of(Duration tick, ScheduledExecutorService executor) throws NullPointerException,
+            IllegalArgumentException {
+        requireNonNull(tick, "tick is required");
+        requireNonNull(executor, "executor is required");
+        return DefaultExpirationScheduler.of(tick, executor);
+    }
+
+    /**
+     * Schedules a listener to be called when the time to live elapses. The listener runs on the sweep thread,
+     * so it should be short, and an exception thrown by it is ignored.
+     *
+     * @param ttl      the time to live
+     * @param listener the listener to the expiration
+     * @return the {@link Expiration} handle
+     * @throws NullPointerException  when either ttl or listener is null
+     * @throws IllegalStateException when the scheduler is closed
+     */
+    Expiration schedule(Duration ttl, Runnable listener) throws NullPointerException, IllegalStateException;
+
+    /**
+     * @return the precision of the expiration
+     */
+    Duration getTick();
+
+    /**
+     * @return the number of expirations neither expired nor canceled yet
+     */
+    long size();
+
+    /**
+     * Stops the sweeps, the pending listeners will not be called.
+     */
+    void close();
+}
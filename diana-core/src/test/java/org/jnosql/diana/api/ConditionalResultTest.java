@@ -0,0 +1,53 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ConditionalResultTest {
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenAppliedValueIsNull() {
+        ConditionalResult.applied(null);
+    }
+
+    @Test
+    public void shouldCreateApplied() {
+        ConditionalResult<String> result = ConditionalResult.applied("Ada");
+        assertTrue(result.isApplied());
+        assertEquals("Ada", result.getValue().get());
+    }
+
+    @Test
+    public void shouldCreateRejected() {
+        ConditionalResult<String> result = ConditionalResult.rejected("Bob");
+        assertFalse(result.isApplied());
+        assertEquals("Bob", result.getValue().get());
+        assertFalse(ConditionalResult.rejected(null).getValue().isPresent());
+    }
+
+    @Test
+    public void shouldBeEquals() {
+        assertEquals(ConditionalResult.applied("Ada"), ConditionalResult.applied("Ada"));
+        assertFalse(ConditionalResult.applied("Ada").equals(ConditionalResult.rejected("Ada")));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.jnosql.diana.api.Sort.SortType.ASC;
+import static org.jnosql.diana.api.Sort.SortType.DESC;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ContinuationTest {
+
+    private final List<Sort> sorts = Arrays.asList(Sort.of("name", ASC), Sort.of("age", DESC));
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenThereIsNoSort() {
+        Continuation.of(Collections.emptyList(), Collections.emptyList());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenValuesDoNotMatchSorts() {
+        Continuation.of(sorts, Collections.singletonList("Ada"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenTypeIsNotSupported() {
+        Continuation.of(Collections.singletonList(Sort.of("tags", ASC)),
+                Collections.singletonList(Collections.singletonList("java")));
+    }
+
+    @Test
+    public void shouldParseToken() {
+        Continuation continuation = Continuation.of(sorts, Arrays.asList("Ada", 10));
+        String token = continuation.toToken();
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+        Continuation parsed = Continuation.parse(token);
+        assertEquals(continuation, parsed);
+        assertEquals(sorts, parsed.getSorts());
+        assertEquals(Arrays.asList("Ada", 10), parsed.getValues());
+    }
+
+    @Test
+    public void shouldKeepTheTypes() {
+        List<Object> values = Arrays.asList("Ada", 10L, 1.5D, true, 'a', (short) 2, (byte) 3, 2.5F,
+                new BigDecimal("10.50"), new Date(1000L), LocalDate.of(2017, 1, 1),
+                ZonedDateTime.parse("2017-01-01T10:00:00Z"));
+        List<Sort> sorts = Collections.nCopies(values.size(), Sort.of("field", ASC));
+        assertEquals(values, Continuation.parse(Continuation.of(sorts, values).toToken()).getValues());
+    }
+
+    @Test
+    public void shouldKeepEnumAsName() {
+        Continuation continuation = Continuation.of(Collections.singletonList(Sort.of("type", ASC)),
+                Collections.singletonList(DESC));
+        assertEquals(Collections.singletonList("DESC"), Continuation.parse(continuation.toToken()).getValues());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenTokenIsNotValid() {
+        Continuation.parse("not a token");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenTokenIsTruncated() {
+        String token = Continuation.of(sorts, Arrays.asList("Ada", 10)).toToken();
+        Continuation.parse(token.substring(0, token.length() - 4));
+    }
+}
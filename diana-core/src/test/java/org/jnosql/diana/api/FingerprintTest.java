@@ -0,0 +1,170 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class FingerprintTest {
+
+    @Test
+    public void shouldHashAsMurmur3() {
+        assertEquals(Fingerprint.of(0L, 0L), Fingerprint.hasher().hash());
+
+        FingerprintHasher hasher = Fingerprint.hasher();
+        for (byte b : "The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8)) {
+            hasher.putByte(b);
+        }
+        Fingerprint fingerprint = hasher.hash();
+        assertEquals(0xe34bbc7bbc071b6cL, fingerprint.getHigh());
+        assertEquals(0x7a433ca9c49a9347L, fingerprint.getLow());
+        assertEquals("e34bbc7bbc071b6c7a433ca9c49a9347", fingerprint.toString());
+    }
+
+    @Test
+    public void shouldKeepHashingAfterHash() {
+        FingerprintHasher hasher = Fingerprint.hasher().putString("name");
+        Fingerprint first = hasher.hash();
+        assertEquals(first, hasher.hash());
+        assertNotEquals(first, hasher.putString("Ada").hash());
+        assertEquals(Fingerprint.hasher().putString("name").putString("Ada").hash(), hasher.hash());
+    }
+
+    @Test
+    public void shouldNormalizeNumbers() {
+        Fingerprint expected = Fingerprint.hasher().putValue(10L).hash();
+        assertEquals(expected, Fingerprint.hasher().putValue(10).hash());
+        assertEquals(expected, Fingerprint.hasher().putValue((short) 10).hash());
+        assertEquals(expected, Fingerprint.hasher().putValue(10D).hash());
+        assertEquals(expected, Fingerprint.hasher().putValue(new BigDecimal("10.00")).hash());
+        assertEquals(Fingerprint.hasher().putValue(1.5F).hash(), Fingerprint.hasher().putValue(1.5D).hash());
+        assertNotEquals(expected, Fingerprint.hasher().putValue(10.5D).hash());
+        assertNotEquals(expected, Fingerprint.hasher().putValue("10").hash());
+    }
+
+    @Test
+    public void shouldNormalizeTexts() {
+        Fingerprint expected = Fingerprint.hasher().putValue("ASC").hash();
+        assertEquals(expected, Fingerprint.hasher().putValue(Sort.SortType.ASC).hash());
+        assertEquals(expected, Fingerprint.hasher().putValue(new StringBuilder("ASC")).hash());
+        assertEquals(expected, Fingerprint.hasher().putValue(Value.of("ASC")).hash());
+    }
+
+    @Test
+    public void shouldHashDatesByTheirInstant() {
+        assertNotEquals(Fingerprint.hasher().putValue(new Date(1_700_000_000_000L)).hash(),
+                Fingerprint.hasher().putValue(new Date(1_700_000_000_500L)).hash());
+        assertEquals(Fingerprint.hasher().putValue(new Date(1_700_000_000_500L)).hash(),
+                Fingerprint.hasher().putValue(new Date(1_700_000_000_500L)).hash());
+        Timestamp first = new Timestamp(1_700_000_000_000L);
+        Timestamp second = new Timestamp(1_700_000_000_000L);
+        second.setNanos(1);
+        assertNotEquals(Fingerprint.hasher().putValue(first).hash(), Fingerprint.hasher().putValue(second).hash());
+    }
+
+    @Test
+    public void shouldHashCalendarsWithTheirTimeZone() {
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        utc.setTimeInMillis(1_700_000_000_000L);
+        Calendar tokyo = Calendar.getInstance(TimeZone.getTimeZone("Asia/Tokyo"));
+        tokyo.setTimeInMillis(1_700_000_000_000L);
+        Calendar other = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        other.setTimeInMillis(1_700_000_000_000L);
+        assertEquals(Fingerprint.hasher().putValue(utc).hash(), Fingerprint.hasher().putValue(other).hash());
+        assertNotEquals(Fingerprint.hasher().putValue(utc).hash(), Fingerprint.hasher().putValue(tokyo).hash());
+    }
+
+    @Test
+    public void shouldHashTemporalsByTheirIsoValue() {
+        assertNotEquals(Fingerprint.hasher().putValue(Instant.ofEpochMilli(1_700_000_000_000L)).hash(),
+                Fingerprint.hasher().putValue(Instant.ofEpochMilli(1_700_000_000_001L)).hash());
+        assertEquals(Fingerprint.hasher().putValue(LocalDate.of(2017, 1, 10)).hash(),
+                Fingerprint.hasher().putValue(LocalDate.parse("2017-01-10")).hash());
+        assertNotEquals(Fingerprint.hasher().putValue(LocalDate.of(2017, 1, 10)).hash(),
+                Fingerprint.hasher().putValue("2017-01-10").hash());
+    }
+
+    @Test
+    public void shouldHashArraysByTheirElements() {
+        assertEquals(Fingerprint.hasher().putValue(new int[]{1, 2}).hash(),
+                Fingerprint.hasher().putValue(new long[]{1L, 2L}).hash());
+        assertEquals(Fingerprint.hasher().putValue(new String[]{"a", "b"}).hash(),
+                Fingerprint.hasher().putValue(new String[]{"a", "b"}).hash());
+        assertNotEquals(Fingerprint.hasher().putValue(new String[]{"a", "b"}).hash(),
+                Fingerprint.hasher().putValue(new String[]{"b", "a"}).hash());
+    }
+
+    @Test
+    public void shouldHashParametersAndIdentifiers() {
+        UUID id = UUID.randomUUID();
+        assertEquals(Fingerprint.hasher().putValue(id).hash(),
+                Fingerprint.hasher().putValue(UUID.fromString(id.toString())).hash());
+        assertNotEquals(Fingerprint.hasher().putValue(Parameter.of(0)).hash(),
+                Fingerprint.hasher().putValue(Parameter.of("0")).hash());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenTheTypeIsNotSupported() {
+        Fingerprint.hasher().putValue(Arrays.asList("a", new Object()));
+    }
+
+    @Test
+    public void shouldHashMapsRegardlessOfTheOrder() {
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("name", "Ada");
+        first.put("age", 10);
+        Map<String, Object> second = new HashMap<>();
+        second.put("age", 10L);
+        second.put("name", "Ada");
+        assertEquals(Fingerprint.hasher().putValue(first).hash(), Fingerprint.hasher().putValue(second).hash());
+    }
+
+    @Test
+    public void shouldHashListsInOrder() {
+        assertNotEquals(Fingerprint.hasher().putValue(Arrays.asList(1, 2)).hash(),
+                Fingerprint.hasher().putValue(Arrays.asList(2, 1)).hash());
+        assertNotEquals(Fingerprint.hasher().putValue(Arrays.asList(1, 2)).putValue(3).hash(),
+                Fingerprint.hasher().putValue(Arrays.asList(1, 2, 3)).hash());
+    }
+
+    @Test
+    public void shouldHashUnorderedFingerprints() {
+        Fingerprint a = Fingerprint.hasher().putString("a").hash();
+        Fingerprint b = Fingerprint.hasher().putString("b").hash();
+        assertEquals(Fingerprint.hasher().putUnordered(Arrays.asList(a, b)).hash(),
+                Fingerprint.hasher().putUnordered(Arrays.asList(b, a)).hash());
+        assertNotEquals(Fingerprint.hasher().putUnordered(Arrays.asList(a, b)).hash(),
+                Fingerprint.hasher().putUnordered(Arrays.asList(a, a)).hash());
+    }
+}
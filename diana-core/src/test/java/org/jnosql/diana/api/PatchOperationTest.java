@@ -0,0 +1,113 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class PatchOperationTest {
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenNameIsNull() {
+        PatchOperation.set(null, 10);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenValueIsNull() {
+        PatchOperation.append("phones", null);
+    }
+
+    @Test
+    public void shouldSet() {
+        PatchOperation operation = PatchOperation.set("name", "Ada");
+        assertEquals(PatchOperation.Type.SET, operation.getType());
+        assertEquals("name", operation.getName());
+        assertEquals("Ada", operation.getValue().get());
+        assertEquals("Ada", operation.apply("Poliana"));
+        assertEquals("Ada", operation.apply(null));
+    }
+
+    @Test
+    public void shouldUnset() {
+        PatchOperation operation = PatchOperation.unset("name");
+        assertFalse(operation.getValue().isPresent());
+        assertNull(operation.apply("Ada"));
+    }
+
+    @Test
+    public void shouldIncrement() {
+        assertEquals(11L, PatchOperation.increment("age", 1).apply(10));
+        assertEquals(11L, PatchOperation.increment("age", 1).apply(Value.of(10L)));
+        assertEquals(5, PatchOperation.increment("age", 5).apply(null));
+        assertEquals(new BigDecimal("10.5"), PatchOperation.increment("age", new BigDecimal("0.5")).apply(10));
+        assertEquals(10.5, PatchOperation.increment("age", 0.5).apply(10));
+    }
+
+    @Test
+    public void shouldIncrementWithoutOverflow() {
+        assertEquals(BigDecimal.valueOf(Long.MAX_VALUE).add(BigDecimal.ONE),
+                PatchOperation.increment("age", 1).apply(Long.MAX_VALUE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenIncrementsAValueThatIsNotANumber() {
+        PatchOperation.increment("age", 1).apply("ten");
+    }
+
+    @Test
+    public void shouldAppend() {
+        assertEquals(Arrays.asList("a", "b"), PatchOperation.append("tags", "b").apply(Collections.singletonList("a")));
+        assertEquals(Collections.singletonList("a"), PatchOperation.append("tags", "a").apply(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenAppendsToAValueThatIsNotAList() {
+        PatchOperation.append("tags", "b").apply("a");
+    }
+
+    @Test
+    public void shouldRemoveEveryOccurrence() {
+        assertEquals(Collections.singletonList("b"), PatchOperation.remove("tags", "a")
+                .apply(Arrays.asList("a", "b", "a")));
+        assertEquals(Collections.singletonList(2), PatchOperation.remove("numbers", 1L)
+                .apply(Arrays.asList(1, 2)));
+        assertNull(PatchOperation.remove("tags", "a").apply(null));
+    }
+
+    @Test
+    public void shouldNotChangeTheCurrentList() {
+        List<Object> tags = Arrays.asList("a", "b");
+        PatchOperation.remove("tags", "a").apply(tags);
+        assertEquals(Arrays.asList("a", "b"), tags);
+    }
+
+    @Test
+    public void shouldBeEquals() {
+        assertEquals(PatchOperation.increment("age", 1), PatchOperation.increment("age", 1));
+        assertEquals(PatchOperation.unset("age").hashCode(), PatchOperation.unset("age").hashCode());
+        assertFalse(PatchOperation.set("age", 1).equals(PatchOperation.append("age", 1)));
+    }
+}
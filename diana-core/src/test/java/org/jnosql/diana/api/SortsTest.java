@@ -0,0 +1,96 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.jnosql.diana.api.Sort.SortType.ASC;
+import static org.jnosql.diana.api.Sort.SortType.DESC;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SortsTest {
+
+    private static final Function<String, Function<Map<String, Object>, ?>> ACCESSOR = name -> map -> map.get(name);
+
+    @Test
+    public void shouldCompareNumbersByValue() {
+        Comparator<Object> order = Sorts.order();
+        assertEquals(0, order.compare(10, 10L));
+        assertEquals(0, order.compare(10L, new BigDecimal("10.00")));
+        assertTrue(order.compare(9, 9.5D) < 0);
+        assertTrue(order.compare(new BigDecimal("0.1"), 0.2F) < 0);
+        assertTrue(order.compare(Long.MAX_VALUE - 1, Long.MAX_VALUE) < 0);
+        assertEquals(0, order.compare(Value.of(10), 10L));
+    }
+
+    @Test
+    public void shouldGroupValues() {
+        Comparator<Object> order = Sorts.order();
+        assertTrue(order.compare(100, "a") < 0);
+        assertTrue(order.compare("a", "b") < 0);
+        assertTrue(order.compare("a", new Object()) < 0);
+        assertTrue(order.compare(new Object(), null) < 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenSortsIsEmpty() {
+        Sorts.comparator(Collections.emptyList(), ACCESSOR);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenAccessorIsNull() {
+        Sorts.comparator(Collections.singletonList(Sort.of("name", ASC)), null);
+    }
+
+    @Test
+    public void shouldSortBySorts() {
+        List<Map<String, Object>> people = new ArrayList<>(Arrays.asList(person("Ada", 36), person("Bob", 25),
+                person("Carla", 36L), person("Dan", null)));
+        people.sort(Sorts.comparator(Arrays.asList(Sort.of("age", DESC), Sort.of("name", ASC)), ACCESSOR));
+        assertEquals(Arrays.asList("Ada", "Carla", "Bob", "Dan"), names(people));
+
+        people.sort(Sorts.comparator(Collections.singletonList(Sort.of("age", ASC)), ACCESSOR));
+        assertEquals(Arrays.asList("Bob", "Ada", "Carla", "Dan"), names(people));
+    }
+
+    private static Map<String, Object> person(String name, Number age) {
+        Map<String, Object> person = new HashMap<>();
+        person.put("name", name);
+        if (age != null) {
+            person.put("age", age);
+        }
+        return person;
+    }
+
+    private static List<Object> names(List<Map<String, Object>> people) {
+        List<Object> names = new ArrayList<>();
+        people.forEach(p -> names.add(p.get("name")));
+        return names;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TopKTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenSizeIsNegative() {
+        TopK.of(-1, Comparator.naturalOrder());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenComparatorIsNull() {
+        TopK.of(10, null);
+    }
+
+    @Test
+    public void shouldKeepTheFirstElements() {
+        List<Integer> numbers = new Random(42).ints(10_000, 0, 1_000).boxed().collect(Collectors.toList());
+        TopK<Integer> topK = TopK.of(100, Comparator.naturalOrder());
+        numbers.forEach(topK);
+        List<Integer> expected = numbers.stream().sorted().limit(100).collect(Collectors.toList());
+        assertEquals(expected, topK.toList());
+        assertEquals(10_000L, topK.getCount());
+        assertEquals(100, topK.getSize());
+    }
+
+    @Test
+    public void shouldKeepEverythingWhenThereIsRoom() {
+        TopK<Integer> topK = TopK.of(10, Comparator.reverseOrder());
+        IntStream.range(0, 3).boxed().forEach(topK);
+        assertEquals(Arrays.asList(2, 1, 0), topK.toList());
+        assertTrue(TopK.of(0, Comparator.<Integer>naturalOrder()).toList().isEmpty());
+    }
+
+    @Test
+    public void shouldBeStable() {
+        List<String> words = new ArrayList<>();
+        for (int index = 0; index < 1_000; index++) {
+            words.add((char) ('a' + index % 5) + String.valueOf(index));
+        }
+        Collections.shuffle(words, new Random(7));
+        Comparator<String> firstLetter = Comparator.comparing(w -> w.charAt(0));
+        List<String> expected = words.stream().sorted(firstLetter).limit(250).collect(Collectors.toList());
+        assertEquals(expected, words.stream().collect(TopK.collector(250, firstLetter)));
+        assertEquals(expected, words.parallelStream().collect(TopK.collector(250, firstLetter)));
+    }
+}
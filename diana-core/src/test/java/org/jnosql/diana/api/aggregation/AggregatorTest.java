@@ -0,0 +1,148 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.aggregation;
+
+import org.jnosql.diana.api.NonUniqueResultException;
+import org.jnosql.diana.api.Value;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AggregatorTest {
+
+    private static final Function<String, Function<Map<String, Object>, ?>> ACCESSOR = name -> map -> map.get(name);
+
+    @Test
+    public void shouldCreateAlias() {
+        assertEquals("count", Aggregate.count().getAlias());
+        assertEquals("sum(age)", Aggregate.sum("age").getAlias());
+        assertEquals("total", Aggregate.sum("age").as("total").getAlias());
+        assertEquals(Aggregate.Type.SUM, Aggregate.sum("age").as("total").getType());
+        assertFalse(Aggregate.count().getField().isPresent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenAliasIsBlank() {
+        Aggregate.count().as(" ");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenThereIsNoAggregate() {
+        Aggregator.of(Collections.emptyList(), Collections.emptyList(), ACCESSOR);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenAliasIsRepeated() {
+        Aggregator.of(Collections.emptyList(), Arrays.asList(Aggregate.count("age"), Aggregate.sum("age")
+                .as("count(age)")), ACCESSOR);
+    }
+
+    @Test
+    public void shouldAggregate() {
+        Aggregator<Map<String, Object>> aggregator = Aggregator.of(Collections.emptyList(),
+                Arrays.asList(Aggregate.count(), Aggregate.count("age"), Aggregate.sum("age"), Aggregate.avg("age"),
+                        Aggregate.min("name"), Aggregate.max("age")), ACCESSOR);
+        aggregator.accept(person("Bob", "Paris", 25));
+        aggregator.accept(person("Ada", "London", Value.of(36L)));
+        aggregator.accept(person("Carla", "London", null));
+        aggregator.accept(person("Dan", null, "unknown"));
+
+        AggregateGroup group = aggregator.getResult().singleResult().get();
+        assertEquals(4L, aggregator.getCount());
+        assertTrue(group.getKey().isEmpty());
+        assertEquals(Value.of(4L), group.find("count").get());
+        assertEquals(Value.of(3L), group.find("count(age)").get());
+        assertEquals(Value.of(61L), group.find("sum(age)").get());
+        assertEquals(Value.of(30.5D), group.find("avg(age)").get());
+        assertEquals(Value.of("Ada"), group.find("min(name)").get());
+        assertEquals(Value.of("unknown"), group.find("max(age)").get());
+    }
+
+    @Test
+    public void shouldReturnSingleGroupWhenEmpty() {
+        Aggregator<Map<String, Object>> aggregator = Aggregator.of(Collections.emptyList(),
+                Arrays.asList(Aggregate.count(), Aggregate.sum("age")), ACCESSOR);
+        AggregateGroup group = aggregator.getResult().singleResult().get();
+        assertEquals(Value.of(0L), group.find("count").get());
+        assertFalse(group.find("sum(age)").isPresent());
+
+        aggregator = Aggregator.of(Collections.singletonList("city"), Collections.singletonList(Aggregate.count()),
+                ACCESSOR);
+        assertTrue(aggregator.getResult().isEmpty());
+    }
+
+    @Test
+    public void shouldKeepSumExact() {
+        Aggregator<Map<String, Object>> aggregator = Aggregator.of(Collections.emptyList(),
+                Collections.singletonList(Aggregate.sum("age")), ACCESSOR);
+        aggregator.accept(person("Ada", null, Long.MAX_VALUE));
+        aggregator.accept(person("Bob", null, 1));
+        assertEquals(new BigDecimal(Long.MAX_VALUE).add(BigDecimal.ONE),
+                aggregator.getResult().singleResult().get().find("sum(age)").get().get());
+
+        aggregator.accept(person("Carla", null, 0.5D));
+        assertEquals(Double.class, aggregator.getResult().singleResult().get().find("sum(age)").get().get()
+                .getClass());
+    }
+
+    @Test
+    public void shouldGroupBy() {
+        Aggregator<Map<String, Object>> aggregator = Aggregator.of(Arrays.asList("city", "age"),
+                Collections.singletonList(Aggregate.count()), ACCESSOR);
+        aggregator.accept(person("Ada", "London", 10));
+        aggregator.accept(person("Bob", "Paris", 10));
+        aggregator.accept(person("Carla", "London", 10L));
+        aggregator.accept(person("Dan", "London", new BigDecimal("10.0")));
+        aggregator.accept(person("Eve", null, null));
+
+        List<AggregateGroup> groups = aggregator.getResult().getGroups();
+        assertEquals(3, groups.size());
+        Map<String, Object> london = new HashMap<>();
+        london.put("city", "London");
+        london.put("age", 10);
+        assertEquals(AggregateGroup.of(london, Collections.singletonMap("count", 3L)), groups.get(0));
+        assertEquals(Value.of("Paris"), groups.get(1).find("city").get());
+        assertTrue(groups.get(2).getKey().isEmpty());
+        assertEquals(Value.of(1L), groups.get(2).find("count").get());
+    }
+
+    @Test(expected = NonUniqueResultException.class)
+    public void shouldReturnErrorWhenSingleResultHasManyGroups() {
+        AggregateResult.of(Arrays.asList(AggregateGroup.of(Collections.singletonMap("city", "London"),
+                Collections.singletonMap("count", 1L)), AggregateGroup.of(Collections.singletonMap("city", "Paris"),
+                Collections.singletonMap("count", 1L)))).singleResult();
+    }
+
+    private static Map<String, Object> person(String name, String city, Object age) {
+        Map<String, Object> person = new HashMap<>();
+        person.put("name", name);
+        person.put("city", city);
+        person.put("age", age);
+        return person;
+    }
+}
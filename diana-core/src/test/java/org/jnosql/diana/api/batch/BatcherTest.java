@@ -0,0 +1,125 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+
+package org.jnosql.diana.api.batch;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class BatcherTest {
+
+    private final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+
+    private final List<BatchFailure<String>> failures = Collections.synchronizedList(new ArrayList<>());
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenPolicyIsInvalid() {
+        BatchPolicy.of(0);
+    }
+
+    @Test
+    public void shouldWriteWhenCountIsReached() {
+        Batcher<Character, String> batcher = new Batcher<>(BatchPolicy.of(2), s -> s.charAt(0), s -> 1L,
+                (k, batch) -> batches.add(new ArrayList<>(batch)), failures::add);
+        batcher.add("a1");
+        batcher.add("b1");
+        batcher.add("a2");
+        assertEquals(1, batches.size());
+        assertThat(batches.get(0), contains("a1", "a2"));
+        batcher.close();
+        assertEquals(2, batches.size());
+        assertThat(batches.get(1), contains("b1"));
+    }
+
+    @Test
+    public void shouldWriteWhenBytesAreReached() {
+        Batcher<String, String> batcher = new Batcher<>(BatchPolicy.of(100, 10, Duration.ZERO), s -> "key",
+                s -> (long) s.length(), (k, batch) -> batches.add(new ArrayList<>(batch)), failures::add);
+        batcher.add("12345");
+        batcher.add("1234");
+        batcher.add("123");
+        assertEquals(1, batches.size());
+        assertThat(batches.get(0), contains("12345", "1234"));
+        batcher.flush();
+        assertThat(batches.get(1), contains("123"));
+    }
+
+    @Test
+    public void shouldWriteWhenLingerElapses() throws InterruptedException {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        CountDownLatch latch = new CountDownLatch(1);
+        Batcher<String, String> batcher = new Batcher<>(BatchPolicy.of(100, 100, Duration.ofMillis(10)),
+                s -> "key", s -> 1L, (k, batch) -> {
+            batches.add(new ArrayList<>(batch));
+            latch.countDown();
+        }, failures::add, scheduler);
+        batcher.add("a");
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertThat(batches.get(0), contains("a"));
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void shouldReportEachItemWhenTheBatchFails() {
+        Batcher<String, String> batcher = new Batcher<>(BatchPolicy.of(10), s -> "key", s -> 1L,
+                (k, batch) -> {
+                    throw new IllegalStateException("error");
+                }, failures::add);
+        batcher.add("a");
+        batcher.add("b");
+        batcher.close();
+        assertEquals(2, failures.size());
+        assertEquals("a", failures.get(0).getItem());
+        assertEquals(IllegalStateException.class, failures.get(0).getCause().getClass());
+    }
+
+    @Test
+    public void shouldReportJustTheItemsThatFailed() {
+        Batcher<String, String> batcher = new Batcher<>(BatchPolicy.of(10), s -> "key", s -> 1L,
+                (k, batch) -> {
+                    throw new BatchWriteException("error", Collections.singletonList(
+                            BatchFailure.of("b", new IllegalStateException())));
+                }, failures::add);
+        batcher.add("a");
+        batcher.add("b");
+        batcher.flush();
+        assertEquals(1, failures.size());
+        assertEquals("b", failures.get(0).getItem());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldReturnErrorWhenIsClosed() {
+        Batcher<String, String> batcher = new Batcher<>(BatchPolicy.of(10), s -> "key", s -> 1L,
+                (k, batch) -> batches.add(batch), failures::add);
+        batcher.close();
+        batcher.add("a");
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+
+package org.jnosql.diana.api.batch;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BulkExecutorTest {
+
+    private final AtomicReference<BulkResult<Integer>> result = new AtomicReference<>();
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenMaxInFlightIsInvalid() {
+        BulkExecutor.of(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenTimeoutIsInvalid() {
+        BulkExecutor.of(1, Duration.ZERO, Executors.newSingleThreadScheduledExecutor());
+    }
+
+    @Test
+    public void shouldExecuteWhenCompletionIsSynchronous() {
+        List<Integer> items = range(10_000);
+        List<Integer> written = new ArrayList<>();
+        BulkExecutor.of(4).execute(items, (i, done, failure) -> {
+            written.add(i);
+            done.run();
+        }, result::set);
+        assertEquals(items, written);
+        assertEquals(10_000L, result.get().getSucceeded());
+        assertTrue(result.get().isSuccess());
+    }
+
+    @Test
+    public void shouldNotReadMoreThanTheWindow() {
+        List<Runnable> pending = new ArrayList<>();
+        AtomicInteger read = new AtomicInteger();
+        Iterable<Integer> items = () -> new CountingIterator(range(10).iterator(), read);
+        BulkExecutor.of(3).execute(items, (i, done, failure) -> pending.add(done), result::set);
+
+        assertEquals(3, read.get());
+        assertEquals(3, pending.size());
+        pending.remove(0).run();
+        assertEquals(4, read.get());
+        assertNull(result.get());
+        while (!pending.isEmpty()) {
+            pending.remove(0).run();
+        }
+        assertEquals(10, read.get());
+        assertEquals(10L, result.get().getSucceeded());
+    }
+
+    @Test
+    public void shouldBoundInFlightWhenCompletionIsAsynchronous() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger max = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1);
+        BulkExecutor.of(5).execute(range(1_000), (i, done, failure) -> {
+            max.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            executor.execute(() -> {
+                inFlight.decrementAndGet();
+                done.run();
+            });
+        }, r -> {
+            result.set(r);
+            latch.countDown();
+        });
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertEquals(1_000L, result.get().getSucceeded());
+        assertTrue(max.get() <= 5);
+    }
+
+    @Test
+    public void shouldAggregateFailures() {
+        BulkExecutor.of(2).execute(range(10), (i, done, failure) -> {
+            if (i % 2 == 0) {
+                throw new IllegalStateException("error");
+            }
+            done.run();
+        }, result::set);
+        assertFalse(result.get().isSuccess());
+        assertEquals(5L, result.get().getSucceeded());
+        assertEquals(Arrays.asList(0, 2, 4, 6, 8), result.get().getFailures().stream()
+                .map(BatchFailure::getItem).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldAggregateAsynchronousFailures() {
+        BulkExecutor.of(2).execute(range(4), (i, done, failure) -> failure.accept(new IllegalStateException()),
+                result::set);
+        assertEquals(0L, result.get().getSucceeded());
+        assertEquals(4, result.get().getFailures().size());
+    }
+
+    @Test
+    public void shouldFailWhenTimeoutElapses() throws InterruptedException {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        BulkExecutor.of(2, Duration.ofMillis(10), scheduler).execute(range(3), (i, done, failure) -> {
+        }, result::set);
+        for (int index = 0; index < 500 && result.get() == null; index++) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        scheduler.shutdown();
+        assertEquals(3, result.get().getFailures().size());
+        assertEquals(TimeoutException.class, result.get().getFailures().get(0).getCause().getClass());
+    }
+
+    @Test
+    public void shouldStopWhenIteratorFails() {
+        Iterable<Integer> items = () -> new Iterator<Integer>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                if (index == 2) {
+                    throw new IllegalStateException("error");
+                }
+                return index++;
+            }
+        };
+        BulkExecutor.of(5).execute(items, (i, done, failure) -> done.run(), result::set);
+        assertEquals(2L, result.get().getSucceeded());
+        assertEquals(IllegalStateException.class, result.get().getError().get().getClass());
+    }
+
+    @Test
+    public void shouldCallCallbackWhenIsEmpty() {
+        BulkExecutor.of(5).execute(Collections.<Integer>emptyList(), (i, done, failure) -> done.run(), result::set);
+        assertEquals(0L, result.get().getSucceeded());
+        assertTrue(result.get().isSuccess());
+    }
+
+    private static List<Integer> range(int size) {
+        return IntStream.range(0, size).boxed().collect(Collectors.toList());
+    }
+
+    private static class CountingIterator implements Iterator<Integer> {
+
+        private final Iterator<Integer> iterator;
+
+        private final AtomicInteger read;
+
+        CountingIterator(Iterator<Integer> iterator, AtomicInteger read) {
+            this.iterator = iterator;
+            this.read = read;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public Integer next() {
+            read.incrementAndGet();
+            return iterator.next();
+        }
+    }
+}
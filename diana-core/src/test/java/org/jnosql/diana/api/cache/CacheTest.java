@@ -0,0 +1,145 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.cache;
+
+import org.jnosql.diana.api.expiration.ExpirationScheduler;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CacheTest {
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldReturnErrorWhenUnbounded() {
+        Cache.builder().build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenMaximumIsZero() {
+        Cache.builder().maximumSize(0L);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldReturnErrorWhenMaximumIsDefinedTwice() {
+        Cache.builder().maximumSize(10L).maximumWeight(10L, (k, v) -> 1L);
+    }
+
+    @Test
+    public void shouldPutAndGet() {
+        Cache<String, String> cache = Cache.<String, String>builder().maximumSize(10L).build();
+        cache.put("ada", "Ada Lovelace");
+        assertEquals("Ada Lovelace", cache.get("ada").get());
+        assertFalse(cache.get("bob").isPresent());
+        assertFalse(cache.putIfAbsent("ada", "other"));
+        assertTrue(cache.putIfAbsent("bob", "Bob"));
+        cache.remove("ada");
+        assertFalse(cache.get("ada").isPresent());
+        assertEquals(1L, cache.size());
+        cache.clear();
+        assertEquals(0L, cache.size());
+        assertEquals(0L, cache.weight());
+
+        CacheStats stats = cache.getStats();
+        assertEquals(1L, stats.getHitCount());
+        assertEquals(2L, stats.getMissCount());
+        assertEquals(1.0 / 3.0, stats.getHitRate(), 0.0001);
+    }
+
+    @Test
+    public void shouldBoundBySize() {
+        Cache<Integer, Integer> cache = Cache.<Integer, Integer>builder().maximumSize(100L).build();
+        for (int index = 0; index < 1_000; index++) {
+            cache.put(index, index);
+        }
+        assertEquals(100L, cache.size());
+        assertEquals(900L, cache.getStats().getEvictionCount());
+    }
+
+    @Test
+    public void shouldBoundByWeight() {
+        Cache<Integer, String> cache = Cache.<Integer, String>builder()
+                .maximumWeight(1_000L, (k, v) -> v.length()).build();
+        for (int index = 0; index < 100; index++) {
+            cache.put(index, "0123456789012345678901234567890123456789");
+        }
+        assertTrue(cache.weight() <= 1_000L);
+        assertEquals(cache.size() * 40L, cache.weight());
+        long evicted = cache.getStats().getEvictionWeight();
+        assertEquals(100L * 40L - cache.weight(), evicted);
+        cache.put(-1, new String(new char[2_000]));
+        assertFalse(cache.get(-1).isPresent());
+        assertEquals(evicted + 2_000L, cache.getStats().getEvictionWeight());
+    }
+
+    @Test
+    public void shouldKeepPopularKeysDuringScan() {
+        Cache<Integer, Integer> cache = Cache.<Integer, Integer>builder().maximumSize(100L).build();
+        for (int round = 0; round < 10; round++) {
+            for (int hot = 0; hot < 50; hot++) {
+                if (!cache.get(hot).isPresent()) {
+                    cache.put(hot, hot);
+                }
+            }
+        }
+        for (int scan = 1_000; scan < 11_000; scan++) {
+            cache.put(scan, scan);
+        }
+        int found = 0;
+        for (int hot = 0; hot < 50; hot++) {
+            if (cache.get(hot).isPresent()) {
+                found++;
+            }
+        }
+        assertTrue("hot keys kept " + found, found >= 45);
+    }
+
+    @Test
+    public void shouldExpire() throws InterruptedException {
+        Cache<String, String> cache = Cache.<String, String>builder().maximumSize(10L)
+                .expireAfterWrite(Duration.ofHours(1L)).build();
+        cache.put("short", "value", Duration.ofMillis(10L));
+        cache.put("long", "value", Duration.ofDays(1L));
+        TimeUnit.MILLISECONDS.sleep(30L);
+        assertFalse(cache.get("short").isPresent());
+        assertTrue(cache.get("long").isPresent());
+        assertEquals(1L, cache.getStats().getExpirationCount());
+    }
+
+    @Test
+    public void shouldExpireWithScheduler() throws InterruptedException {
+        ExpirationScheduler scheduler = ExpirationScheduler.of(Duration.ofMillis(1L));
+        try {
+            Cache<String, String> cache = Cache.<String, String>builder().maximumSize(10L)
+                    .scheduler(scheduler).build();
+            cache.put("short", "value", Duration.ofMillis(10L));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+            while (cache.getStats().getExpirationCount() == 0 && System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(5L);
+            }
+            assertEquals(0L, cache.size());
+            assertEquals(1L, cache.getStats().getExpirationCount());
+        } finally {
+            scheduler.close();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.expiration;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ExpirationSchedulerTest {
+
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(10L);
+
+    private final AtomicLong clock = new AtomicLong(1_000L);
+
+    private final DefaultExpirationScheduler scheduler = new DefaultExpirationScheduler(Duration.ofNanos(TICK),
+            clock::get, null, false);
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenTickIsZero() {
+        ExpirationScheduler.of(Duration.ZERO);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenListenerIsNull() {
+        scheduler.schedule(Duration.ofSeconds(1L), null);
+    }
+
+    @Test
+    public void shouldNeverExpireBeforeTheDeadline() {
+        long[] ttls = {0L, 1L, TICK, 5 * TICK + 1, 63 * TICK, 64 * TICK, 100 * TICK, 4_095 * TICK, 4_097 * TICK,
+                300_000 * TICK, 20_000_000 * TICK};
+        long origin = clock.get();
+        long[] fired = new long[ttls.length];
+        for (int index = 0; index < ttls.length; index++) {
+            int position = index;
+            scheduler.schedule(Duration.ofNanos(ttls[index]), () -> fired[position] = clock.get());
+        }
+        assertEquals(ttls.length, scheduler.size());
+        advance(20_000_002L);
+        for (int index = 0; index < ttls.length; index++) {
+            long elapsed = fired[index] - origin;
+            assertTrue("ttl " + ttls[index] + " fired at " + elapsed, elapsed >= ttls[index]);
+            assertTrue("ttl " + ttls[index] + " fired at " + elapsed, elapsed < ttls[index] + 2 * TICK);
+        }
+        assertEquals(0L, scheduler.size());
+    }
+
+    @Test
+    public void shouldExpireManyEntries() {
+        Random random = new Random(42L);
+        int count = 100_000;
+        long[] ttls = new long[count];
+        long[] fired = new long[count];
+        long origin = clock.get();
+        for (int index = 0; index < count; index++) {
+            ttls[index] = (long) (random.nextDouble() * 10_000 * TICK);
+            int position = index;
+            scheduler.schedule(Duration.ofNanos(ttls[index]), () -> fired[position] = clock.get());
+        }
+        advance(10_002L);
+        for (int index = 0; index < count; index++) {
+            long elapsed = fired[index] - origin;
+            assertTrue(elapsed >= ttls[index] && elapsed < ttls[index] + 2 * TICK);
+        }
+    }
+
+    @Test
+    public void shouldCancel() {
+        AtomicInteger calls = new AtomicInteger();
+        Expiration before = scheduler.schedule(Duration.ofNanos(5 * TICK), calls::incrementAndGet);
+        Expiration linked = scheduler.schedule(Duration.ofNanos(500 * TICK), calls::incrementAndGet);
+        Expiration expired = scheduler.schedule(Duration.ofNanos(TICK), calls::incrementAndGet);
+        assertTrue(before.cancel());
+        assertFalse(before.cancel());
+        advance(2L);
+        assertTrue(linked.cancel());
+        assertTrue(linked.isCancelled());
+        assertFalse(expired.cancel());
+        advance(1_000L);
+        assertEquals(1, calls.get());
+        assertFalse(linked.isExpired());
+        assertEquals(0L, scheduler.size());
+    }
+
+    @Test
+    public void shouldBeExpiredBeforeTheSweep() {
+        Expiration expiration = scheduler.schedule(Duration.ofNanos(TICK / 2), () -> {
+        });
+        assertFalse(expiration.isExpired());
+        clock.addAndGet(TICK / 2);
+        assertTrue(expiration.isExpired());
+    }
+
+    @Test
+    public void shouldIgnoreListenerErrors() {
+        List<String> calls = new ArrayList<>();
+        scheduler.schedule(Duration.ofNanos(TICK), () -> {
+            throw new IllegalStateException("listener error");
+        });
+        scheduler.schedule(Duration.ofNanos(TICK), () -> calls.add("called"));
+        advance(3L);
+        assertEquals(1, calls.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldReturnErrorWhenClosed() {
+        scheduler.close();
+        scheduler.schedule(Duration.ofSeconds(1L), () -> {
+        });
+    }
+
+    @Test
+    public void shouldSweepOnItsOwnThread() throws InterruptedException {
+        ExpirationScheduler real = ExpirationScheduler.of(Duration.ofMillis(1L));
+        try {
+            CountDownLatch latch = new CountDownLatch(1);
+            real.schedule(Duration.ofMillis(5L), latch::countDown);
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } finally {
+            real.close();
+        }
+    }
+
+    private void advance(long ticks) {
+        for (long index = 0; index < ticks; index++) {
+            clock.addAndGet(TICK);
+            scheduler.sweep();
+        }
+    }
+}
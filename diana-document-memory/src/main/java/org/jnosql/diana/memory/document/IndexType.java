@@ -0,0 +1,37 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.memory.document;
+
+/**
+ * The kind of secondary index that {@link MemoryDocumentCollectionManager} keeps for a field.
+ *
+ * @see MemoryDocumentCollectionManager#createIndex(String, String, IndexType)
+ */
+public enum IndexType {
+
+    /**
+     * An index by value that answers {@link org.jnosql.diana.api.Condition#EQUALS} and
+     * {@link org.jnosql.diana.api.Condition#IN} conditions.
+     */
+    HASH,
+    /**
+     * An ordered index that answers the equality conditions, the comparisons and
+     * {@link org.jnosql.diana.api.Condition#BETWEEN}.
+     */
+    RANGE
+}
@@ -0,0 +1,429 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.memory.document;
+
+
+import org.jnosql.diana.api.Condition;
+import org.jnosql.diana.api.ConditionalResult;
+import org.jnosql.diana.api.Sort;
+import org.jnosql.diana.api.Sorts;
+import org.jnosql.diana.api.TopK;
+import org.jnosql.diana.api.aggregation.AggregateResult;
+import org.jnosql.diana.api.aggregation.Aggregator;
+import org.jnosql.diana.api.document.Document;
+import org.jnosql.diana.api.document.DocumentAggregateQuery;
+import org.jnosql.diana.api.document.DocumentCondition;
+import org.jnosql.diana.api.document.DocumentDeleteQuery;
+import org.jnosql.diana.api.document.DocumentEntity;
+import org.jnosql.diana.api.document.DocumentPatchQuery;
+import org.jnosql.diana.api.document.DocumentProjection;
+import org.jnosql.diana.api.document.DocumentQuery;
+import org.jnosql.diana.api.expiration.Expiration;
+import org.jnosql.diana.api.expiration.ExpirationScheduler;
+
+import java.time.Duration;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The entities of a document collection, keyed by the value of the key document, and its secondary indexes.
+ * Every write to a key runs inside {@link ConcurrentMap#compute(Object, java.util.function.BiFunction)}, so the
+ * writes to the same key are serialized and the indexes are changed together with the entity.
+ * The expired entities are removed by the {@link ExpirationScheduler} and skipped by the reads that come before it.
+ */
+final class MemoryCollection {
+
+    private final String name;
+
+    private final String key;
+
+    private final ConcurrentMap<Object, MemoryEntry> entries = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, MemoryIndex> indexes = new ConcurrentHashMap<>();
+
+    private final Supplier<ExpirationScheduler> scheduler;
+
+    MemoryCollection(String name, String key, Supplier<ExpirationScheduler> scheduler) {
+        this.name = name;
+        this.key = key;
+        this.scheduler = scheduler;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    DocumentEntity insert(DocumentEntity entity, Duration ttl) {
+        Object id = id(entity);
+        Object entityKey = id;
+        Expiration expiration = ttl == null ? null : scheduler.get().schedule(ttl, () -> expire(entityKey));
+        DocumentEntity stored = entity.copy();
+        entries.compute(id, (k, old) -> {
+            if (old != null) {
+                unindex(k, old.getEntity());
+                old.cancel();
+            }
+            index(k, stored);
+            return new MemoryEntry(stored, expiration);
+        });
+        return entity;
+    }
+
+    DocumentEntity update(DocumentEntity entity) {
+        Object id = requiredId(entity, "update");
+        DocumentEntity stored = entity.copy();
+        entries.compute(id, (k, old) -> {
+            Expiration expiration = null;
+            if (old != null) {
+                unindex(k, old.getEntity());
+                expiration = old.isExpired() ? null : old.getExpiration();
+            }
+            index(k, stored);
+            return new MemoryEntry(stored, expiration);
+        });
+        return entity;
+    }
+
+    ConditionalResult<DocumentEntity> insertIfAbsent(DocumentEntity entity) {
+        Object id = id(entity);
+        DocumentEntity stored = entity.copy();
+        AtomicReference<ConditionalResult<DocumentEntity>> result = new AtomicReference<>();
+        entries.compute(id, (k, old) -> {
+            if (old != null && !old.isExpired()) {
+                result.set(ConditionalResult.rejected(old.getEntity().copy()));
+                return old;
+            }
+            if (old != null) {
+                unindex(k, old.getEntity());
+                old.cancel();
+            }
+            index(k, stored);
+            result.set(ConditionalResult.applied(entity));
+            return new MemoryEntry(stored, null);
+        });
+        return result.get();
+    }
+
+    ConditionalResult<DocumentEntity> updateIf(DocumentEntity entity, DocumentCondition condition) {
+        Object id = requiredId(entity, "update");
+        Predicate<DocumentEntity> predicate = MemoryConditions.compile(condition);
+        DocumentEntity stored = entity.copy();
+        AtomicReference<ConditionalResult<DocumentEntity>> result = new AtomicReference<>(
+                ConditionalResult.rejected(null));
+        entries.computeIfPresent(id, (k, old) -> {
+            if (old.isExpired()) {
+                unindex(k, old.getEntity());
+                old.cancel();
+                return null;
+            }
+            if (!predicate.test(old.getEntity())) {
+                result.set(ConditionalResult.rejected(old.getEntity().copy()));
+                return old;
+            }
+            unindex(k, old.getEntity());
+            index(k, stored);
+            result.set(ConditionalResult.applied(entity));
+            return new MemoryEntry(stored, old.getExpiration());
+        });
+        return result.get();
+    }
+
+    ConditionalResult<DocumentEntity> deleteIf(DocumentEntity entity, DocumentCondition condition) {
+        Object id = requiredId(entity, "delete");
+        Predicate<DocumentEntity> predicate = MemoryConditions.compile(condition);
+        AtomicReference<ConditionalResult<DocumentEntity>> result = new AtomicReference<>(
+                ConditionalResult.rejected(null));
+        entries.computeIfPresent(id, (k, old) -> {
+            boolean expired = old.isExpired();
+            if (!expired && !predicate.test(old.getEntity())) {
+                result.set(ConditionalResult.rejected(old.getEntity().copy()));
+                return old;
+            }
+            unindex(k, old.getEntity());
+            old.cancel();
+            if (!expired) {
+                result.set(ConditionalResult.applied(old.getEntity().copy()));
+            }
+            return null;
+        });
+        return result.get();
+    }
+
+    List<DocumentEntity> select(DocumentQuery query) {
+        Optional<DocumentCondition> condition = query.getCondition();
+        Stream<DocumentEntity> entities = find(condition);
+        List<Sort> sorts = query.getSorts();
+        if (!sorts.isEmpty()) {
+            Comparator<DocumentEntity> comparator = Sorts.comparator(sorts, MemoryFields::accessor, MemoryValues.ORDER);
+            long size = query.getMaxResults() > 0 ? query.getFirstResult() + query.getMaxResults() : -1L;
+            if (size > 0 && size <= Integer.MAX_VALUE) {
+                entities = entities.collect(TopK.collector((int) size, comparator)).stream();
+            } else {
+                entities = entities.sorted(comparator);
+            }
+        }
+        if (query.getFirstResult() > 0) {
+            entities = entities.skip(query.getFirstResult());
+        }
+        if (query.getMaxResults() > 0) {
+            entities = entities.limit(query.getMaxResults());
+        }
+        DocumentProjection projection = DocumentProjection.of(query);
+        return entities.map(projection::apply).collect(Collectors.toList());
+    }
+
+    long count(DocumentQuery query) {
+        return find(query.getCondition()).count();
+    }
+
+    AggregateResult aggregate(DocumentAggregateQuery query) {
+        Aggregator<DocumentEntity> aggregator = aggregator(query);
+        find(query.getCondition()).forEach(aggregator);
+        return aggregator.getResult();
+    }
+
+    /**
+     * The aggregator reads the stored entities, no copy is created
+     */
+    static Aggregator<DocumentEntity> aggregator(DocumentAggregateQuery query) {
+        return Aggregator.of(query.getGroupBy(), query.getAggregates(), MemoryFields::accessor);
+    }
+
+    void delete(DocumentDeleteQuery query) {
+        Optional<DocumentCondition> condition = query.getCondition();
+        Predicate<DocumentEntity> predicate = condition.map(MemoryConditions::compile).orElse(e -> true);
+        List<String> documents = query.getDocuments().stream().filter(d -> !key.equals(d))
+                .collect(Collectors.toList());
+        boolean removeEntity = query.getDocuments().isEmpty();
+        for (Object id : keys(condition)) {
+            entries.computeIfPresent(id, (k, entry) -> {
+                DocumentEntity entity = entry.getEntity();
+                if (!predicate.test(entity)) {
+                    return entry;
+                }
+                unindex(k, entity);
+                if (removeEntity || entry.isExpired()) {
+                    entry.cancel();
+                    return null;
+                }
+                DocumentEntity changed = entity.copy();
+                documents.forEach(changed::remove);
+                index(k, changed);
+                return new MemoryEntry(changed, entry.getExpiration());
+            });
+        }
+    }
+
+    long patch(DocumentPatchQuery query) {
+        query.getOperations().stream().filter(o -> key.equals(o.getName())).findFirst().ifPresent(o -> {
+            throw new IllegalArgumentException("The document " + key + " can not be patched, operation: " + o);
+        });
+        Optional<DocumentCondition> condition = query.getCondition();
+        Predicate<DocumentEntity> predicate = condition.map(MemoryConditions::compile).orElse(e -> true);
+        AtomicLong count = new AtomicLong();
+        for (Object id : keys(condition)) {
+            entries.computeIfPresent(id, (k, entry) -> {
+                DocumentEntity entity = entry.getEntity();
+                if (entry.isExpired()) {
+                    unindex(k, entity);
+                    entry.cancel();
+                    return null;
+                }
+                if (!predicate.test(entity)) {
+                    return entry;
+                }
+                DocumentEntity changed = query.apply(entity.copy());
+                unindex(k, entity);
+                index(k, changed);
+                count.incrementAndGet();
+                return new MemoryEntry(changed, entry.getExpiration());
+            });
+        }
+        return count.get();
+    }
+
+    void createIndex(String document, IndexType type) {
+        MemoryIndex index = new MemoryIndex(document, type);
+        indexes.put(document, index);
+        entries.keySet().forEach(id -> entries.computeIfPresent(id, (k, entry) -> {
+            index.add(k, entry.getEntity());
+            return entry;
+        }));
+    }
+
+    /**
+     * @return the number of entities stored, the expired ones that were not removed yet included
+     */
+    int size() {
+        return entries.size();
+    }
+
+    boolean dropIndex(String document) {
+        return indexes.remove(document) != null;
+    }
+
+    /**
+     * Whether the condition is answered by the secondary indexes instead of a scan of the whole collection.
+     *
+     * @param condition the condition
+     * @return true when it uses an index
+     */
+    boolean isIndexed(DocumentCondition condition) {
+        return candidates(condition) != null;
+    }
+
+    private Stream<DocumentEntity> find(Optional<DocumentCondition> condition) {
+        Predicate<DocumentEntity> predicate = condition.map(MemoryConditions::compile).orElse(e -> true);
+        Set<Object> candidates = condition.map(this::candidates).orElse(null);
+        Stream<Map.Entry<Object, MemoryEntry>> stream;
+        if (candidates == null) {
+            stream = entries.entrySet().stream();
+        } else {
+            stream = candidates.stream().<Map.Entry<Object, MemoryEntry>>map(id -> {
+                MemoryEntry entry = entries.get(id);
+                return entry == null ? null : new SimpleImmutableEntry<>(id, entry);
+            }).filter(Objects::nonNull);
+        }
+        return stream.map(e -> alive(e.getKey(), e.getValue())).filter(Objects::nonNull).filter(predicate);
+    }
+
+    private Collection<Object> keys(Optional<DocumentCondition> condition) {
+        Set<Object> candidates = condition.map(this::candidates).orElse(null);
+        return candidates == null ? entries.keySet() : candidates;
+    }
+
+    private Object id(DocumentEntity entity) {
+        Object id = MemoryValues.key(entity.find(key).map(Document::get).orElse(null));
+        if (id == null) {
+            id = UUID.randomUUID().toString();
+            entity.add(Document.of(key, id));
+        }
+        return id;
+    }
+
+    private Object requiredId(DocumentEntity entity, String operation) {
+        return MemoryValues.key(entity.find(key).map(Document::get)
+                .orElseThrow(() -> new IllegalArgumentException("To " + operation + " an entity the document " + key
+                        + " is required, entity: " + entity)));
+    }
+
+    private DocumentEntity alive(Object id, MemoryEntry entry) {
+        if (!entry.isExpired()) {
+            return entry.getEntity();
+        }
+        entries.computeIfPresent(id, (k, current) -> {
+            if (current != entry) {
+                return current;
+            }
+            unindex(k, current.getEntity());
+            return null;
+        });
+        return null;
+    }
+
+    private void expire(Object id) {
+        entries.computeIfPresent(id, (k, entry) -> {
+            if (!entry.isExpired()) {
+                return entry;
+            }
+            unindex(k, entry.getEntity());
+            return null;
+        });
+    }
+
+    /**
+     * Returns the keys that might satisfy the condition using the secondary indexes.
+     *
+     * @param condition the condition
+     * @return the candidate keys or null when the condition needs a scan of the whole collection
+     */
+    private Set<Object> candidates(DocumentCondition condition) {
+        Document document = condition.getDocument();
+        Condition type = condition.getCondition();
+        MemoryIndex index = indexes.get(document.getName());
+        switch (type) {
+            case EQUALS:
+                return index == null ? null : index.equalTo(document.get());
+            case IN:
+                return index == null ? null : index.in(MemoryConditions.values(document));
+            case GREATER_THAN:
+                return index == null ? null : index.range(document.get(), false, null, false);
+            case GREATER_EQUALS_THAN:
+                return index == null ? null : index.range(document.get(), true, null, false);
+            case LESSER_THAN:
+                return index == null ? null : index.range(null, false, document.get(), false);
+            case LESSER_EQUALS_THAN:
+                return index == null ? null : index.range(null, false, document.get(), true);
+            case BETWEEN:
+                if (index == null) {
+                    return null;
+                }
+                List<Object> values = MemoryConditions.values(document);
+                return index.range(values.get(0), true, values.get(1), true);
+            case AND:
+                Set<Object> smallest = null;
+                for (DocumentCondition child : MemoryConditions.conditions(document)) {
+                    Set<Object> keys = candidates(child);
+                    if (keys != null && (smallest == null || keys.size() < smallest.size())) {
+                        smallest = keys;
+                    }
+                }
+                return smallest;
+            case OR:
+                Set<Object> union = new HashSet<>();
+                for (DocumentCondition child : MemoryConditions.conditions(document)) {
+                    Set<Object> keys = candidates(child);
+                    if (keys == null) {
+                        return null;
+                    }
+                    union.addAll(keys);
+                }
+                return union;
+            default:
+                return null;
+        }
+    }
+
+    private void index(Object id, DocumentEntity entity) {
+        for (MemoryIndex index : indexes.values()) {
+            index.add(id, entity);
+        }
+    }
+
+    private void unindex(Object id, DocumentEntity entity) {
+        for (MemoryIndex index : indexes.values()) {
+            index.remove(id, entity);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.memory.document;
+
+
+import org.jnosql.diana.api.Condition;
+import org.jnosql.diana.api.document.Document;
+import org.jnosql.diana.api.document.DocumentCondition;
+import org.jnosql.diana.api.document.DocumentEntity;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Compiles a {@link DocumentCondition} tree into a {@link Predicate}, so the field accessors, the like patterns
+ * and the in sets are built once per query instead of once per entity.
+ */
+final class MemoryConditions {
+
+    private MemoryConditions() {
+    }
+
+    /**
+     * Compiles the condition
+     *
+     * @param condition the condition
+     * @return the predicate that matches the entities that satisfy the condition
+     * @throws NullPointerException     when condition is null
+     * @throws IllegalArgumentException when the condition is malformed
+     */
+    static Predicate<DocumentEntity> compile(DocumentCondition condition) throws NullPointerException,
+            IllegalArgumentException {
+        requireNonNull(condition, "condition is required");
+        Document document = condition.getDocument();
+        Condition type = condition.getCondition();
+        switch (type) {
+            case EQUALS:
+                return equalsTo(document);
+            case GREATER_THAN:
+                return compareTo(document, c -> c > 0);
+            case GREATER_EQUALS_THAN:
+                return compareTo(document, c -> c >= 0);
+            case LESSER_THAN:
+                return compareTo(document, c -> c < 0);
+            case LESSER_EQUALS_THAN:
+                return compareTo(document, c -> c <= 0);
+            case IN:
+                return in(document);
+            case LIKE:
+                return like(document);
+            case BETWEEN:
+                return between(document);
+            case AND:
+                return conditions(document).stream().map(MemoryConditions::compile)
+                        .reduce(Predicate::and).orElse(e -> true);
+            case OR:
+                return conditions(document).stream().map(MemoryConditions::compile)
+                        .reduce(Predicate::or).orElse(e -> false);
+            case NOT:
+                return compile(DocumentCondition.class.cast(MemoryValues.unwrap(document.get()))).negate();
+            default:
+                throw new UnsupportedOperationException("The memory engine does not support the condition: " + type);
+        }
+    }
+
+    /**
+     * Returns the conditions aggregated by an {@link Condition#AND} or {@link Condition#OR} condition.
+     *
+     * @param document the document of the condition
+     * @return the conditions
+     */
+    static List<DocumentCondition> conditions(Document document) {
+        List<DocumentCondition> conditions = new ArrayList<>();
+        for (Object value : iterable(document)) {
+            conditions.add(DocumentCondition.class.cast(MemoryValues.unwrap(value)));
+        }
+        return conditions;
+    }
+
+    /**
+     * Returns the elements of an {@link Condition#IN} or {@link Condition#BETWEEN} condition.
+     *
+     * @param document the document of the condition
+     * @return the elements
+     */
+    static List<Object> values(Document document) {
+        List<Object> values = new ArrayList<>();
+        for (Object value : iterable(document)) {
+            values.add(MemoryValues.unwrap(value));
+        }
+        return values;
+    }
+
+    private static Iterable<?> iterable(Document document) {
+        Object value = MemoryValues.unwrap(document.get());
+        if (value instanceof Iterable) {
+            return (Iterable<?>) value;
+        }
+        throw new IllegalArgumentException("The document " + document.getName() + " must have an Iterable value");
+    }
+
+    private static Predicate<DocumentEntity> equalsTo(Document document) {
+        Function<DocumentEntity, Object> field = MemoryFields.accessor(document.getName());
+        Object expected = MemoryValues.unwrap(document.get());
+        return e -> MemoryValues.equals(field.apply(e), expected);
+    }
+
+    private static Predicate<DocumentEntity> compareTo(Document document, IntPredicate result) {
+        Function<DocumentEntity, Object> field = MemoryFields.accessor(document.getName());
+        Object expected = MemoryValues.unwrap(document.get());
+        return e -> {
+            Object value = field.apply(e);
+            return MemoryValues.isComparable(value, expected) && result.test(MemoryValues.compare(value, expected));
+        };
+    }
+
+    private static Predicate<DocumentEntity> in(Document document) {
+        Function<DocumentEntity, Object> field = MemoryFields.accessor(document.getName());
+        Set<Object> keys = new HashSet<>();
+        for (Object value : values(document)) {
+            keys.add(MemoryValues.key(value));
+        }
+        return e -> {
+            Object value = field.apply(e);
+            return value != null && keys.contains(MemoryValues.key(value));
+        };
+    }
+
+    private static Predicate<DocumentEntity> like(Document document) {
+        Function<DocumentEntity, Object> field = MemoryFields.accessor(document.getName());
+        Pattern pattern = pattern(String.valueOf(MemoryValues.unwrap(document.get())));
+        return e -> {
+            Object value = field.apply(e);
+            return value instanceof CharSequence && pattern.matcher((CharSequence) value).matches();
+        };
+    }
+
+    private static Predicate<DocumentEntity> between(Document document) {
+        Function<DocumentEntity, Object> field = MemoryFields.accessor(document.getName());
+        List<Object> values = values(document);
+        if (values.size() != 2) {
+            throw new IllegalArgumentException("The between condition must have two elements: " + document);
+        }
+        Object from = values.get(0);
+        Object to = values.get(1);
+        return e -> {
+            Object value = field.apply(e);
+            return MemoryValues.isComparable(value, from) && MemoryValues.isComparable(value, to)
+                    && MemoryValues.compare(value, from) >= 0 && MemoryValues.compare(value, to) <= 0;
+        };
+    }
+
+    /**
+     * Converts a SQL like expression, where {@code %} matches any sequence and {@code _} matches a single
+     * character, into a regular expression.
+     *
+     * @param like the like expression
+     * @return the pattern
+     */
+    static Pattern pattern(String like) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (char character : like.toCharArray()) {
+            if (character == '%' || character == '_') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(character == '%' ? ".*" : ".");
+            } else {
+                literal.append(character);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+}
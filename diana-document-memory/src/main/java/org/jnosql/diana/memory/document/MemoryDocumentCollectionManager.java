@@ -0,0 +1,228 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.memory.document;
+
+
+import org.jnosql.diana.api.ConditionalResult;
+import org.jnosql.diana.api.aggregation.AggregateResult;
+import org.jnosql.diana.api.document.DocumentAggregateQuery;
+import org.jnosql.diana.api.document.DocumentCollectionManager;
+import org.jnosql.diana.api.document.DocumentCondition;
+import org.jnosql.diana.api.document.DocumentDeleteQuery;
+import org.jnosql.diana.api.document.DocumentEntity;
+import org.jnosql.diana.api.document.DocumentPatchQuery;
+import org.jnosql.diana.api.document.DocumentQuery;
+import org.jnosql.diana.api.expiration.ExpirationScheduler;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The in-memory {@link DocumentCollectionManager}. It keeps the entities of a database in the heap, keyed by the key
+ * document, by default {@code _id}, which is generated as a random UUID when an inserted entity does not have it.
+ * <p>It supports every {@link org.jnosql.diana.api.Condition}, the sorts, the pagination and the projection of the
+ * {@link DocumentQuery}; the documents of a condition might be paths to nested documents such as
+ * {@code address.city}. The queries scan the whole collection unless the condition can use a secondary index created
+ * with {@link MemoryDocumentCollectionManager#createIndex(String, String, IndexType)}.</p>
+ * <p>The entities are copied on the way in and on the way out, so changing an inserted or a returned entity does not
+ * change the stored one. The managers of the same database share the same data, closing a manager does not discard
+ * them, just closing the {@link MemoryDocumentCollectionManagerFactory} does.</p>
+ */
+public final class MemoryDocumentCollectionManager implements DocumentCollectionManager {
+
+    private final String key;
+
+    private final ConcurrentMap<String, MemoryCollection> collections;
+
+    private final Supplier<ExpirationScheduler> scheduler;
+
+    MemoryDocumentCollectionManager(String key, ConcurrentMap<String, MemoryCollection> collections,
+                                    Supplier<ExpirationScheduler> scheduler) {
+        this.key = key;
+        this.collections = collections;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public DocumentEntity insert(DocumentEntity entity) throws NullPointerException {
+        requireNonNull(entity, "entity is required");
+        return collection(entity.getName()).insert(entity, null);
+    }
+
+    @Override
+    public DocumentEntity insert(DocumentEntity entity, Duration ttl) throws NullPointerException {
+        requireNonNull(entity, "entity is required");
+        requireNonNull(ttl, "ttl is required");
+        return collection(entity.getName()).insert(entity, ttl);
+    }
+
+    /**
+     * Replaces the stored entity that has the same key, the entity keeps the time to live of the stored one.
+     *
+     * @param entity entity to be updated
+     * @return the entity updated
+     * @throws NullPointerException     when entity is null
+     * @throws IllegalArgumentException when the entity does not have the key document
+     */
+    @Override
+    public DocumentEntity update(DocumentEntity entity) throws NullPointerException, IllegalArgumentException {
+        requireNonNull(entity, "entity is required");
+        return collection(entity.getName()).update(entity);
+    }
+
+    @Override
+    public ConditionalResult<DocumentEntity> insertIfAbsent(DocumentEntity entity) throws NullPointerException {
+        requireNonNull(entity, "entity is required");
+        return collection(entity.getName()).insertIfAbsent(entity);
+    }
+
+    /**
+     * Replaces the stored entity that has the same key when it matches the condition, the entity keeps the time to
+     * live of the stored one.
+     *
+     * @param entity    entity to be updated
+     * @param condition the condition that the current entity must match
+     * @return the result with either the entity updated or the current entity
+     * @throws NullPointerException     when either entity or condition is null
+     * @throws IllegalArgumentException when the entity does not have the key document
+     */
+    @Override
+    public ConditionalResult<DocumentEntity> updateIf(DocumentEntity entity, DocumentCondition condition)
+            throws NullPointerException, IllegalArgumentException {
+        requireNonNull(entity, "entity is required");
+        requireNonNull(condition, "condition is required");
+        MemoryCollection collection = collections.get(entity.getName());
+        return collection == null ? ConditionalResult.rejected(null) : collection.updateIf(entity, condition);
+    }
+
+    /**
+     * Deletes the stored entity that has the key of the entity when it matches the condition.
+     *
+     * @param entity    an entity with the key of the entity to be deleted
+     * @param condition the condition that the current entity must match
+     * @return the result with either the entity deleted or the current entity
+     * @throws NullPointerException     when either entity or condition is null
+     * @throws IllegalArgumentException when the entity does not have the key document
+     */
+    @Override
+    public ConditionalResult<DocumentEntity> deleteIf(DocumentEntity entity, DocumentCondition condition)
+            throws NullPointerException, IllegalArgumentException {
+        requireNonNull(entity, "entity is required");
+        requireNonNull(condition, "condition is required");
+        MemoryCollection collection = collections.get(entity.getName());
+        return collection == null ? ConditionalResult.rejected(null) : collection.deleteIf(entity, condition);
+    }
+
+    /**
+     * Deletes the entities that match the query, when the query has documents just these documents are removed
+     * from the entities instead, but the key document.
+     *
+     * @param query query to delete an entity
+     * @throws NullPointerException when query is null
+     */
+    @Override
+    public void delete(DocumentDeleteQuery query) throws NullPointerException {
+        requireNonNull(query, "query is required");
+        MemoryCollection collection = collections.get(query.getDocumentCollection());
+        if (collection != null) {
+            collection.delete(query);
+        }
+    }
+
+    @Override
+    public List<DocumentEntity> select(DocumentQuery query) throws NullPointerException {
+        requireNonNull(query, "query is required");
+        MemoryCollection collection = collections.get(query.getDocumentCollection());
+        if (collection == null) {
+            return Collections.emptyList();
+        }
+        return collection.select(query);
+    }
+
+    @Override
+    public long count(DocumentQuery query) throws NullPointerException {
+        requireNonNull(query, "query is required");
+        MemoryCollection collection = collections.get(query.getDocumentCollection());
+        return collection == null ? 0L : collection.count(query);
+    }
+
+    @Override
+    public AggregateResult aggregate(DocumentAggregateQuery query) throws NullPointerException {
+        requireNonNull(query, "query is required");
+        MemoryCollection collection = collections.get(query.getDocumentCollection());
+        if (collection == null) {
+            return MemoryCollection.aggregator(query).getResult();
+        }
+        return collection.aggregate(query);
+    }
+
+    /**
+     * Patches the entities in place, each entity is changed atomically together with the indexes, the operations to
+     * the key document are not allowed
+     */
+    @Override
+    public long patch(DocumentPatchQuery query) throws NullPointerException, IllegalArgumentException {
+        requireNonNull(query, "query is required");
+        MemoryCollection collection = collections.get(query.getDocumentCollection());
+        return collection == null ? 0L : collection.patch(query);
+    }
+
+    /**
+     * Creates, or replaces, a secondary index to a document of a collection, the index is built from the entities
+     * already stored and is shared by every manager of the database.
+     *
+     * @param collection the collection name
+     * @param document   the document name or path
+     * @param type       the index type
+     * @throws NullPointerException when there is a null parameter
+     */
+    public void createIndex(String collection, String document, IndexType type) throws NullPointerException {
+        requireNonNull(collection, "collection is required");
+        requireNonNull(document, "document is required");
+        requireNonNull(type, "type is required");
+        collection(collection).createIndex(document, type);
+    }
+
+    /**
+     * Drops the secondary index of a document of a collection
+     *
+     * @param collection the collection name
+     * @param document   the document name or path
+     * @return true if there was an index
+     * @throws NullPointerException when there is a null parameter
+     */
+    public boolean dropIndex(String collection, String document) throws NullPointerException {
+        requireNonNull(collection, "collection is required");
+        requireNonNull(document, "document is required");
+        MemoryCollection memoryCollection = collections.get(collection);
+        return memoryCollection != null && memoryCollection.dropIndex(document);
+    }
+
+    MemoryCollection collection(String name) {
+        return collections.computeIfAbsent(name, n -> new MemoryCollection(n, key, scheduler));
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.memory.document;
+
+
+import org.jnosql.diana.api.document.DocumentCollectionManagerAsync;
+import org.jnosql.diana.api.document.DocumentCollectionManagerAsyncFactory;
+import org.jnosql.diana.api.document.DocumentCollectionManagerFactory;
+import org.jnosql.diana.api.expiration.ExpirationScheduler;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The {@link MemoryDocumentCollectionManager} factory, it holds the data of every database, so the managers of the
+ * same database name share the same entities until this factory is closed.
+ * The {@link DocumentCollectionManagerAsync} runs the {@link MemoryDocumentCollectionManager} through
+ * {@link DocumentCollectionManagerAsync#of(org.jnosql.diana.api.document.DocumentCollectionManager)}.
+ * The entities inserted with time to live are removed by an {@link ExpirationScheduler}, started by the first of them.
+ */
+public class MemoryDocumentCollectionManagerFactory implements
+        DocumentCollectionManagerFactory<MemoryDocumentCollectionManager>,
+        DocumentCollectionManagerAsyncFactory<DocumentCollectionManagerAsync> {
+
+    private final String key;
+
+    private final ConcurrentMap<String, ConcurrentMap<String, MemoryCollection>> databases = new ConcurrentHashMap<>();
+
+    private volatile ExpirationScheduler scheduler;
+
+    MemoryDocumentCollectionManagerFactory(String key) {
+        this.key = key;
+    }
+
+    @Override
+    public MemoryDocumentCollectionManager get(String database) throws NullPointerException {
+        requireNonNull(database, "database is required");
+        return new MemoryDocumentCollectionManager(key, databases.computeIfAbsent(database,
+                d -> new ConcurrentHashMap<>()), this::getScheduler);
+    }
+
+    @Override
+    public DocumentCollectionManagerAsync getAsync(String database) throws NullPointerException {
+        return DocumentCollectionManagerAsync.of(get(database));
+    }
+
+    /**
+     * Discards the data of every database and stops the expiration of the entities with time to live
+     */
+    @Override
+    public synchronized void close() {
+        databases.clear();
+        if (scheduler != null) {
+            scheduler.close();
+            scheduler = null;
+        }
+    }
+
+    private ExpirationScheduler getScheduler() {
+        ExpirationScheduler current = scheduler;
+        if (current == null) {
+            synchronized (this) {
+                current = scheduler;
+                if (current == null) {
+                    current = ExpirationScheduler.of();
+                    scheduler = current;
+                }
+            }
+        }
+        return current;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.memory.document;
+
+
+import org.jnosql.diana.api.Settings;
+import org.jnosql.diana.api.document.UnaryDocumentConfiguration;
+
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The configuration of the in-memory document engine, a reference implementation of the document API to
+ * tests and prototypes. The settings are:
+ * <ul>
+ * <li>{@link MemoryDocumentConfiguration#KEY}: the name of the document that is the entity key,
+ * by default {@link MemoryDocumentConfiguration#DEFAULT_KEY}</li>
+ * </ul>
+ */
+public class MemoryDocumentConfiguration implements UnaryDocumentConfiguration<MemoryDocumentCollectionManagerFactory> {
+
+    /**
+     * The setting to the name of the key document
+     */
+    public static final String KEY = "memory.document.key";
+
+    /**
+     * The default name of the key document
+     */
+    public static final String DEFAULT_KEY = "_id";
+
+    @Override
+    public MemoryDocumentCollectionManagerFactory get() {
+        return new MemoryDocumentCollectionManagerFactory(DEFAULT_KEY);
+    }
+
+    @Override
+    public MemoryDocumentCollectionManagerFactory get(Settings settings) throws NullPointerException {
+        requireNonNull(settings, "settings is required");
+        String key = Optional.ofNullable(settings.get(KEY)).map(Object::toString).orElse(DEFAULT_KEY);
+        return new MemoryDocumentCollectionManagerFactory(key);
+    }
+
+    @Override
+    public MemoryDocumentCollectionManagerFactory getAsync() {
+        return get();
+    }
+
+    @Override
+    public MemoryDocumentCollectionManagerFactory getAsync(Settings settings) throws NullPointerException {
+        return get(settings);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.memory.document;
+
+
+import org.jnosql.diana.api.document.DocumentEntity;
+import org.jnosql.diana.api.expiration.Expiration;
+
+/**
+ * A stored entity with its expiration, the entity is a private copy that is never changed after it is stored.
+ */
+final class MemoryEntry {
+
+    private final DocumentEntity entity;
+
+    private final Expiration expiration;
+
+    MemoryEntry(DocumentEntity entity, Expiration expiration) {
+        this.entity = entity;
+        this.expiration = expiration;
+    }
+
+    DocumentEntity getEntity() {
+        return entity;
+    }
+
+    /**
+     * @return the expiration or null when the entity does not expire
+     */
+    Expiration getExpiration() {
+        return expiration;
+    }
+
+    boolean isExpired() {
+        return expiration != null && expiration.isExpired();
+    }
+
+    void cancel() {
+        if (expiration != null) {
+            expiration.cancel();
+        }
+    }
+}
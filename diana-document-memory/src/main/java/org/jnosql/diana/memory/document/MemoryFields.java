@@ -0,0 +1,69 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.memory.document;
+
+
+import org.jnosql.diana.api.Value;
+import org.jnosql.diana.api.document.Document;
+import org.jnosql.diana.api.document.DocumentEntity;
+import org.jnosql.diana.api.document.DocumentPath;
+
+import java.util.function.Function;
+
+/**
+ * Reads the raw value of a field from a {@link DocumentEntity}, either by its name or by a {@link DocumentPath}.
+ */
+final class MemoryFields {
+
+    private MemoryFields() {
+    }
+
+    /**
+     * Creates the accessor to a field, names that are valid paths such as {@code address.city} or
+     * {@code phones[0]} are resolved through the nested documents when the entity has no top level field with that name.
+     * The other names, such as {@code a..b}, are just top level fields.
+     *
+     * @param name the field name or path
+     * @return the accessor, it returns null when the entity does not have that field
+     */
+    static Function<DocumentEntity, Object> accessor(String name) {
+        DocumentPath path = path(name);
+        if (path != null) {
+            return entity -> {
+                Object value = entity.find(name).map(Document::getValue).map(Value::get).orElse(null);
+                if (value == null) {
+                    value = path.get(entity).map(Value::get).orElse(null);
+                }
+                return MemoryValues.unwrap(value);
+            };
+        }
+        return entity -> entity.find(name).map(Document::getValue).map(Value::get).map(MemoryValues::unwrap)
+                .orElse(null);
+    }
+
+    private static DocumentPath path(String name) {
+        if (!DocumentPath.isPath(name)) {
+            return null;
+        }
+        try {
+            return DocumentPath.of(name);
+        } catch (IllegalArgumentException exception) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.memory.document;
+
+
+import org.jnosql.diana.api.document.DocumentEntity;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+/**
+ * A secondary index from the value of a field to the keys of the entities that have it. The index is only changed
+ * while the entity key is locked by the collection, so the key sets of one value are always consistent with the
+ * stored entities. Entities without the field are not indexed.
+ */
+final class MemoryIndex {
+
+    private final String name;
+
+    private final IndexType type;
+
+    private final Function<DocumentEntity, Object> field;
+
+    private final ConcurrentMap<Object, Set<Object>> values;
+
+    MemoryIndex(String name, IndexType type) {
+        this.name = name;
+        this.type = type;
+        this.field = MemoryFields.accessor(name);
+        if (IndexType.RANGE.equals(type)) {
+            this.values = new ConcurrentSkipListMap<>(MemoryValues.ORDER);
+        } else {
+            this.values = new ConcurrentHashMap<>();
+        }
+    }
+
+    String getName() {
+        return name;
+    }
+
+    IndexType getType() {
+        return type;
+    }
+
+    void add(Object key, DocumentEntity entity) {
+        Object value = field.apply(entity);
+        if (value == null) {
+            return;
+        }
+        values.compute(MemoryValues.key(value), (v, keys) -> {
+            Set<Object> result = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+            result.add(key);
+            return result;
+        });
+    }
+
+    void remove(Object key, DocumentEntity entity) {
+        Object value = field.apply(entity);
+        if (value == null) {
+            return;
+        }
+        values.computeIfPresent(MemoryValues.key(value), (v, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    /**
+     * Returns the keys of the entities whose field is equals to the value
+     *
+     * @param value the value
+     * @return the keys, it might have keys that no longer match, so the caller must check the entities again
+     */
+    Set<Object> equalTo(Object value) {
+        if (value == null) {
+            return Collections.emptySet();
+        }
+        Set<Object> keys = values.get(MemoryValues.key(value));
+        return keys == null ? Collections.emptySet() : new HashSet<>(keys);
+    }
+
+    /**
+     * Returns the keys of the entities whose field is equals to one of the values
+     *
+     * @param elements the values
+     * @return the keys
+     */
+    Set<Object> in(Iterable<Object> elements) {
+        Set<Object> keys = new HashSet<>();
+        for (Object element : elements) {
+            keys.addAll(equalTo(element));
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the keys of the entities whose field is in the range, a null bound means an open range.
+     * This method works just on {@link IndexType#RANGE} indexes.
+     *
+     * @param from          the lower bound
+     * @param fromInclusive whether the lower bound is in the range
+     * @param to            the upper bound
+     * @param toInclusive   whether the upper bound is in the range
+     * @return the keys or null when this index is not ordered
+     */
+    Set<Object> range(Object from, boolean fromInclusive, Object to, boolean toInclusive) {
+        if (!IndexType.RANGE.equals(type)) {
+            return null;
+        }
+        NavigableMap<Object, Set<Object>> range = (NavigableMap<Object, Set<Object>>) values;
+        Object bound = from == null ? to : from;
+        if (bound == null) {
+            return null;
+        }
+        if (from != null && to != null) {
+            if (MemoryValues.compare(from, to) > 0) {
+                return Collections.emptySet();
+            }
+            range = range.subMap(MemoryValues.key(from), fromInclusive, MemoryValues.key(to), toInclusive);
+        } else if (from != null) {
+            range = range.tailMap(MemoryValues.key(from), fromInclusive);
+        } else {
+            range = range.headMap(MemoryValues.key(to), toInclusive);
+        }
+        Set<Object> keys = new HashSet<>();
+        boolean found = false;
+        for (Map.Entry<Object, Set<Object>> entry : range.entrySet()) {
+            if (MemoryValues.isComparable(entry.getKey(), bound)) {
+                found = true;
+                keys.addAll(entry.getValue());
+            } else if (found) {
+                break;
+            }
+        }
+        return keys;
+    }
+}
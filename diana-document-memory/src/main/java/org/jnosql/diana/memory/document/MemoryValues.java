@@ -0,0 +1,131 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.memory.document;
+
+
+import org.jnosql.diana.api.Sorts;
+import org.jnosql.diana.api.Value;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Equality, ordering and index key normalization for the raw values kept by the memory engine.
+ * Numbers are compared by value, so {@code 10}, {@code 10L} and {@code 10.0} are the same key.
+ */
+final class MemoryValues {
+
+    /**
+     * A total order over every value: numbers first, ordered numerically, then the other comparable values grouped by
+     * class and finally the non comparable ones grouped by class name.
+     */
+    static final Comparator<Object> ORDER = Sorts.order();
+
+    private MemoryValues() {
+    }
+
+    /**
+     * Unwraps {@link Value} instances to the raw object they hold.
+     *
+     * @param value the value
+     * @return the raw value
+     */
+    static Object unwrap(Object value) {
+        Object raw = value;
+        while (raw instanceof Value) {
+            raw = ((Value) raw).get();
+        }
+        return raw;
+    }
+
+    /**
+     * Returns the key used to store the value in a hash index, numbers are normalized to either
+     * {@link Long} or {@link Double}.
+     *
+     * @param value the value
+     * @return the key
+     */
+    static Object key(Object value) {
+        Object raw = unwrap(value);
+        if (!(raw instanceof Number)) {
+            return raw;
+        }
+        Number number = (Number) raw;
+        if (isIntegral(number)) {
+            return number.longValue();
+        }
+        if (number instanceof BigInteger) {
+            BigInteger integer = (BigInteger) number;
+            return integer.bitLength() < Long.SIZE ? (Object) integer.longValue() : (Object) integer.doubleValue();
+        }
+        if (number instanceof BigDecimal) {
+            BigDecimal decimal = ((BigDecimal) number).stripTrailingZeros();
+            if (decimal.scale() <= 0 && decimal.precision() - decimal.scale() < 19) {
+                return decimal.longValue();
+            }
+            return decimal.doubleValue();
+        }
+        double real = number.doubleValue();
+        if (real == Math.rint(real) && real >= Long.MIN_VALUE && real < Long.MAX_VALUE) {
+            return (long) real;
+        }
+        return real;
+    }
+
+    static boolean equals(Object value, Object expected) {
+        Object left = unwrap(value);
+        Object right = unwrap(expected);
+        if (left instanceof Number && right instanceof Number) {
+            return compare(left, right) == 0;
+        }
+        return Objects.equals(left, right);
+    }
+
+    /**
+     * Whether both values may be compared with {@link #compare(Object, Object)} in a meaningful way, i.e. they are both
+     * numbers or both comparable instances of the same class.
+     *
+     * @param value    the value
+     * @param expected the value to compare with
+     * @return true when both values are comparable
+     */
+    static boolean isComparable(Object value, Object expected) {
+        Object left = unwrap(value);
+        Object right = unwrap(expected);
+        if (left == null || right == null) {
+            return false;
+        }
+        if (left instanceof Number && right instanceof Number) {
+            return true;
+        }
+        return left instanceof Comparable && left.getClass().equals(right.getClass());
+    }
+
+    static int compare(Object value, Object expected) {
+        return Sorts.order().compare(value, expected);
+    }
+
+    private static boolean isIntegral(Number number) {
+        return number instanceof Long || number instanceof Integer || number instanceof Short
+                || number instanceof Byte || number instanceof AtomicLong || number instanceof AtomicInteger;
+    }
+}
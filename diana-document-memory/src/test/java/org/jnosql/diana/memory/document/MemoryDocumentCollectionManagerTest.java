@@ -0,0 +1,494 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.memory.document;
+
+import org.jnosql.diana.api.ConditionalResult;
+import org.jnosql.diana.api.Continuation;
+import org.jnosql.diana.api.Settings;
+import org.jnosql.diana.api.Sort;
+import org.jnosql.diana.api.Value;
+import org.jnosql.diana.api.aggregation.Aggregate;
+import org.jnosql.diana.api.aggregation.AggregateGroup;
+import org.jnosql.diana.api.aggregation.AggregateResult;
+import org.jnosql.diana.api.document.Document;
+import org.jnosql.diana.api.document.DocumentCollectionManagerAsync;
+import org.jnosql.diana.api.document.DocumentCondition;
+import org.jnosql.diana.api.document.DocumentEntity;
+import org.jnosql.diana.api.document.DocumentQuery;
+import org.jnosql.diana.api.document.query.DocumentOrder;
+import org.jnosql.diana.api.document.query.DocumentQueryBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.jnosql.diana.api.document.query.DocumentQueryBuilder.delete;
+import static org.jnosql.diana.api.document.query.DocumentQueryBuilder.patch;
+import static org.jnosql.diana.api.document.query.DocumentQueryBuilder.select;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class MemoryDocumentCollectionManagerTest {
+
+    private MemoryDocumentCollectionManagerFactory factory;
+
+    private MemoryDocumentCollectionManager manager;
+
+    @Before
+    public void setUp() {
+        factory = new MemoryDocumentConfiguration().get();
+        manager = factory.get("database");
+        manager.insert(person("1", "Ada", 36, "London"));
+        manager.insert(person("2", "Bob", 25, "Paris"));
+        manager.insert(person("3", "Carla", 41L, "London"));
+        DocumentEntity dan = DocumentEntity.of("person");
+        dan.add("_id", "4");
+        dan.add("name", "Dan");
+        manager.insert(dan);
+    }
+
+    @After
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenEntityIsNull() {
+        manager.insert((DocumentEntity) null);
+    }
+
+    @Test
+    public void shouldGenerateKey() {
+        DocumentEntity entity = DocumentEntity.of("person");
+        entity.add("name", "Eve");
+        manager.insert(entity);
+        String id = entity.find("_id").get().get(String.class);
+        assertNotNull(id);
+        assertEquals(ids("Eve"), names(manager.select(select().from("person").where("_id").eq(id).build())));
+    }
+
+    @Test
+    public void shouldUseKeyFromSettings() {
+        Settings settings = Settings.of(Collections.singletonMap(MemoryDocumentConfiguration.KEY, "code"));
+        MemoryDocumentCollectionManager other = new MemoryDocumentConfiguration().get(settings).get("database");
+        DocumentEntity entity = DocumentEntity.of("person");
+        entity.add("name", "Eve");
+        other.insert(entity);
+        assertTrue(entity.find("code").isPresent());
+        assertFalse(entity.find("_id").isPresent());
+    }
+
+    @Test
+    public void shouldCopyEntities() {
+        DocumentEntity entity = person("5", "Eve", 20, "Rome");
+        manager.insert(entity);
+        entity.add("name", "Changed");
+        DocumentEntity result = manager.singleResult(select().from("person").where("_id").eq("5").build()).get();
+        assertEquals("Eve", result.find("name").get().get());
+        result.add("name", "Changed");
+        result = manager.singleResult(select().from("person").where("_id").eq("5").build()).get();
+        assertEquals("Eve", result.find("name").get().get());
+    }
+
+    @Test
+    public void shouldReplaceOnInsertAndUpdate() {
+        manager.insert(person("1", "Ada Lovelace", 36, "London"));
+        manager.update(person("2", "Bob Smith", 26, "Paris"));
+        assertEquals(ids("Ada Lovelace", "Bob Smith", "Carla", "Dan"), names(manager.select(select()
+                .from("person").build())));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenUpdateWithoutKey() {
+        manager.update(DocumentEntity.of("person", Collections.singletonList(Document.of("name", "Eve"))));
+    }
+
+    @Test
+    public void shouldSelectEveryCondition() {
+        assertQueries();
+    }
+
+    @Test
+    public void shouldUseIndexes() {
+        manager.createIndex("person", "city", IndexType.HASH);
+        manager.createIndex("person", "age", IndexType.RANGE);
+        MemoryCollection collection = manager.collection("person");
+        assertTrue(collection.isIndexed(DocumentCondition.eq(Document.of("city", "London"))));
+        assertTrue(collection.isIndexed(DocumentCondition.gt(Document.of("age", 30))));
+        assertTrue(collection.isIndexed(DocumentCondition.eq(Document.of("city", "London"))
+                .and(DocumentCondition.like(Document.of("name", "A%")))));
+        assertFalse(collection.isIndexed(DocumentCondition.eq(Document.of("city", "London"))
+                .or(DocumentCondition.like(Document.of("name", "A%")))));
+        assertFalse(collection.isIndexed(DocumentCondition.eq(Document.of("name", "Ada"))));
+        assertQueries();
+    }
+
+    @Test
+    public void shouldKeepIndexesUpdated() {
+        manager.createIndex("person", "city", IndexType.HASH);
+        manager.update(person("1", "Ada", 36, "Paris"));
+        manager.delete(delete().from("person").where("_id").eq("2").build());
+        assertEquals(ids("Ada"), names(manager.select(select().from("person").where("city").eq("Paris").build())));
+        assertEquals(ids("Carla"), names(manager.select(select().from("person").where("city").eq("London")
+                .build())));
+        assertTrue(manager.dropIndex("person", "city"));
+        assertFalse(manager.dropIndex("person", "city"));
+    }
+
+    @Test
+    public void shouldSelectByPath() {
+        DocumentEntity entity = person("5", "Eve", 20, "Rome");
+        entity.add("address", Collections.singletonList(Document.of("zip", "00100")));
+        manager.insert(entity);
+        manager.createIndex("person", "address.zip", IndexType.HASH);
+        assertEquals(ids("Eve"), names(manager.select(select().from("person").where("address.zip").eq("00100")
+                .build())));
+    }
+
+    @Test
+    public void shouldSelectByANameThatIsNotAValidPath() {
+        DocumentEntity entity = person("5", "Eve", 20, "Rome");
+        entity.add("a..b", "value");
+        manager.insert(entity);
+        assertEquals(ids("Eve"), names(manager.select(select().from("person").where("a..b").eq("value").build())));
+        manager.createIndex("person", "a..b", IndexType.HASH);
+        assertEquals(ids("Eve"), names(manager.select(select().from("person").where("a..b").eq("value").build())));
+    }
+
+    @Test
+    public void shouldSortAndPaginate() {
+        DocumentQuery query = select().from("person").orderBy(Sort.of("age", Sort.SortType.DESC))
+                .start(1).limit(2).build();
+        assertEquals(asList("Ada", "Bob"), manager.select(query).stream()
+                .map(e -> e.find("name").get().get(String.class)).collect(Collectors.toList()));
+
+        query = select().from("person").orderBy(Sort.of("city", Sort.SortType.ASC))
+                .orderBy(Sort.of("name", Sort.SortType.DESC)).build();
+        assertEquals(asList("Carla", "Ada", "Bob", "Dan"), manager.select(query).stream()
+                .map(e -> e.find("name").get().get(String.class)).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldPlaceMissingValuesLastWhenLimited() {
+        DocumentQuery query = select().from("person").orderBy(Sort.of("age", Sort.SortType.ASC)).limit(10).build();
+        assertEquals(asList("Bob", "Ada", "Carla", "Dan"), manager.select(query).stream()
+                .map(e -> e.find("name").get().get(String.class)).collect(Collectors.toList()));
+
+        query = select().from("person").orderBy(Sort.of("age", Sort.SortType.DESC)).start(2).limit(10).build();
+        assertEquals(asList("Bob", "Dan"), manager.select(query).stream()
+                .map(e -> e.find("name").get().get(String.class)).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldPaginateByKeyset() {
+        manager.createIndex("person", "age", IndexType.RANGE);
+        List<String> names = new ArrayList<>();
+        Continuation continuation = null;
+        for (int page = 0; page < 4; page++) {
+            DocumentOrder order = select().from("person").where("age").gte(0)
+                    .orderBy(Sort.of("age", Sort.SortType.ASC)).orderBy(Sort.of("_id", Sort.SortType.ASC));
+            if (continuation != null) {
+                order = order.after(continuation);
+            }
+            DocumentQuery query = order.limit(1).build();
+            List<DocumentEntity> entities = manager.select(query);
+            if (entities.isEmpty()) {
+                break;
+            }
+            names.add(entities.get(0).find("name").get().get(String.class));
+            continuation = DocumentQueryBuilder.continuation(query, entities.get(0));
+        }
+        assertEquals(asList("Bob", "Ada", "Carla"), names);
+    }
+
+    @Test
+    public void shouldProject() {
+        List<DocumentEntity> entities = manager.select(select("name").from("person").where("_id").eq("1").build());
+        assertEquals(1, entities.size());
+        assertEquals(Collections.singletonList(Document.of("name", "Ada")), entities.get(0).getDocuments());
+    }
+
+    @Test
+    public void shouldProjectOnlyTheDocumentsThatTheEntityHas() {
+        List<DocumentEntity> entities = manager.select(select("name", "city", "name").from("person")
+                .where("_id").eq("4").build());
+        assertEquals(1, entities.size());
+        assertEquals(Collections.singletonList(Document.of("name", "Dan")), entities.get(0).getDocuments());
+        assertFalse(entities.get(0).contains("_id"));
+    }
+
+    @Test
+    public void shouldCount() {
+        assertEquals(4L, manager.count(select().from("person").build()));
+        assertEquals(2L, manager.count(select().from("person").where("age").gt(30).limit(1).build()));
+        assertEquals(0L, manager.count(select().from("animal").build()));
+    }
+
+    @Test
+    public void shouldCountAsync() throws InterruptedException {
+        DocumentCollectionManagerAsync async = factory.getAsync("database");
+        try {
+            CountDownLatch latch = new CountDownLatch(1);
+            AtomicReference<Long> result = new AtomicReference<>();
+            async.count(select().from("person").where("city").eq("London").build(), count -> {
+                result.set(count);
+                latch.countDown();
+            });
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(Long.valueOf(2L), result.get());
+        } finally {
+            async.close();
+        }
+    }
+
+    @Test
+    public void shouldAggregate() {
+        AggregateGroup group = manager.aggregate(select().from("person").aggregate(Aggregate.count(),
+                Aggregate.count("age"), Aggregate.sum("age"), Aggregate.min("name"))).singleResult().get();
+        assertEquals(Value.of(4L), group.find("count").get());
+        assertEquals(Value.of(3L), group.find("count(age)").get());
+        assertEquals(Value.of(102L), group.find("sum(age)").get());
+        assertEquals(Value.of("Ada"), group.find("min(name)").get());
+
+        group = manager.aggregate(select().from("animal").aggregate(Aggregate.count())).singleResult().get();
+        assertEquals(Value.of(0L), group.find("count").get());
+    }
+
+    @Test
+    public void shouldAggregateByGroup() {
+        manager.createIndex("person", "age", IndexType.RANGE);
+        AggregateResult result = manager.aggregate(select().from("person").where("age").gt(20).groupBy("city")
+                .aggregate(Aggregate.count(), Aggregate.avg("age"), Aggregate.max("age")));
+        Map<Object, Map<String, Object>> groups = new HashMap<>();
+        result.forEach(g -> groups.put(g.find("city").map(Value::get).orElse(null), g.toMap()));
+        assertEquals(2, groups.size());
+        assertEquals(2L, groups.get("London").get("count"));
+        assertEquals(38.5D, groups.get("London").get("avg(age)"));
+        assertEquals(41L, groups.get("London").get("max(age)"));
+        assertEquals(25D, groups.get("Paris").get("avg(age)"));
+    }
+
+    @Test
+    public void shouldDelete() {
+        manager.delete(delete().from("person").where("city").eq("London").build());
+        assertEquals(ids("Bob", "Dan"), names(manager.select(select().from("person").build())));
+        manager.delete(delete().from("person").build());
+        assertTrue(manager.select(select().from("person").build()).isEmpty());
+    }
+
+    @Test
+    public void shouldDeleteDocuments() {
+        manager.delete(delete("city", "_id").from("person").where("name").eq("Ada").build());
+        DocumentEntity ada = manager.singleResult(select().from("person").where("_id").eq("1").build()).get();
+        assertFalse(ada.find("city").isPresent());
+        assertTrue(ada.find("age").isPresent());
+    }
+
+    @Test
+    public void shouldExpire() throws InterruptedException {
+        manager.createIndex("person", "city", IndexType.HASH);
+        manager.insert(person("5", "Eve", 20, "Rome"), Duration.ofMillis(10L));
+        manager.insert(person("6", "Fay", 21, "Rome"), Duration.ofHours(1L));
+        manager.update(person("6", "Fay", 22, "Rome"));
+        TimeUnit.MILLISECONDS.sleep(50L);
+        assertEquals(ids("Fay"), names(manager.select(select().from("person").where("city").eq("Rome").build())));
+        assertEquals(5, manager.select(select().from("person").build()).size());
+    }
+
+    @Test
+    public void shouldRemoveExpiredEntitiesWithoutReads() throws InterruptedException {
+        manager.createIndex("person", "city", IndexType.HASH);
+        manager.insert(person("5", "Eve", 20, "Rome"), Duration.ofMillis(20L));
+        manager.insert(person("6", "Fay", 21, "Rome"), Duration.ofMillis(20L));
+        manager.insert(person("6", "Fay", 21, "Rome"));
+        MemoryCollection collection = manager.collection("person");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+        while (collection.size() > 5 && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10L);
+        }
+        assertEquals(5, collection.size());
+        assertEquals(ids("Fay"), names(manager.select(select().from("person").where("city").eq("Rome").build())));
+    }
+
+    @Test
+    public void shouldShareDatabase() {
+        assertEquals(4, factory.get("database").select(select().from("person").build()).size());
+        assertTrue(factory.get("other").select(select().from("person").build()).isEmpty());
+    }
+
+    @Test
+    public void shouldRunAsync() throws InterruptedException {
+        DocumentCollectionManagerAsync async = factory.getAsync("database");
+        try {
+            CountDownLatch latch = new CountDownLatch(1);
+            AtomicReference<List<DocumentEntity>> result = new AtomicReference<>();
+            async.insert(person("5", "Eve", 20, "Rome"), e -> async.select(select().from("person")
+                    .where("city").eq("Rome").build(), entities -> {
+                result.set(entities);
+                latch.countDown();
+            }));
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(ids("Eve"), names(result.get()));
+        } finally {
+            async.close();
+        }
+    }
+
+    private void assertQueries() {
+        assertQuery(ids("Ada", "Carla"), select().from("person").where("city").eq("London").build());
+        assertQuery(ids("Ada"), select().from("person").where("age").eq(36L).build());
+        assertQuery(ids("Carla"), select().from("person").where("age").eq(41).build());
+        assertQuery(ids("Carla"), select().from("person").where("age").gt(36).build());
+        assertQuery(ids("Ada", "Carla"), select().from("person").where("age").gte(36).build());
+        assertQuery(ids("Bob"), select().from("person").where("age").lt(36).build());
+        assertQuery(ids("Ada", "Bob"), select().from("person").where("age").lte(36.0).build());
+        assertQuery(ids("Ada", "Bob"), select().from("person").where("age").between(25, 36).build());
+        assertQuery(ids("Bob"), select().from("person").where("city").in(asList("Paris", "Rome")).build());
+        assertQuery(ids("Ada", "Carla"), select().from("person").where("name").like("%a").build());
+        assertQuery(ids("Bob"), select().from("person").where("name").like("_ob").build());
+        assertQuery(ids("Ada"), select().from("person").where("city").eq("London").and("age").lt(40).build());
+        assertQuery(ids("Bob", "Carla"), select().from("person").where("city").eq("Paris").or("age").gt(40)
+                .build());
+        assertQuery(ids("Bob", "Dan"), select().from("person").where("city").not().eq("London").build());
+        assertQuery(ids(), select().from("person").where("city").eq("Berlin").build());
+        assertQuery(ids(), select().from("animal").build());
+    }
+
+    private void assertQuery(Set<String> expected, DocumentQuery query) {
+        assertEquals(query.toString(), expected, names(manager.select(query)));
+    }
+
+    @Test
+    public void shouldPatchByKey() {
+        assertEquals(1L, manager.patch(patch("person").increment("age", 1).append("phones", "123")
+                .where(DocumentCondition.eq(Document.of("_id", "1")))));
+        DocumentEntity ada = manager.singleResult(select().from("person").where("_id").eq("1").build()).get();
+        assertEquals(37L, ada.find("age").get().get());
+        assertEquals(Collections.singletonList("123"), ada.find("phones").get().get());
+        assertEquals("Ada", ada.find("name").get().get());
+    }
+
+    @Test
+    public void shouldPatchTheIndexes() {
+        manager.createIndex("person", "city", IndexType.HASH);
+        assertEquals(2L, manager.patch(patch("person").set("city", "Paris")
+                .where(DocumentCondition.eq(Document.of("city", "London")))));
+        assertEquals(ids("Ada", "Bob", "Carla"), names(manager.select(select().from("person").where("city")
+                .eq("Paris").build())));
+        assertTrue(manager.select(select().from("person").where("city").eq("London").build()).isEmpty());
+    }
+
+    @Test
+    public void shouldPatchEveryEntity() {
+        assertEquals(4L, manager.patch(patch("person").unset("city").build()));
+        assertEquals(0L, manager.count(select().from("person").where("city").eq("London").build()));
+        assertEquals(0L, manager.patch(patch("animal").unset("city").build()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenPatchesTheKey() {
+        manager.patch(patch("person").set("_id", "10").build());
+    }
+
+    @Test
+    public void shouldNotPatchWhenTheOperationFails() {
+        try {
+            manager.patch(patch("person").increment("name", 1).where(DocumentCondition.eq(Document.of("_id", "1"))));
+        } catch (IllegalArgumentException exception) {
+            assertEquals(ids("Ada"), names(manager.select(select().from("person").where("_id").eq("1").build())));
+            return;
+        }
+        throw new AssertionError("The increment of a text should fail");
+    }
+
+    @Test
+    public void shouldInsertIfAbsent() {
+        ConditionalResult<DocumentEntity> rejected = manager.insertIfAbsent(person("1", "Eve", 20, "Rome"));
+        assertFalse(rejected.isApplied());
+        assertEquals("Ada", rejected.getValue().get().find("name").get().get());
+        assertTrue(manager.insertIfAbsent(person("5", "Eve", 20, "Rome")).isApplied());
+        assertEquals(ids("Ada", "Bob", "Carla", "Dan", "Eve"), names(manager.select(select().from("person").build())));
+    }
+
+    @Test
+    public void shouldUpdateIf() {
+        manager.createIndex("person", "city", IndexType.HASH);
+        DocumentCondition london = DocumentCondition.eq(Document.of("city", "London"));
+        ConditionalResult<DocumentEntity> applied = manager.updateIf(person("1", "Ada", 37, "Rome"), london);
+        assertTrue(applied.isApplied());
+        ConditionalResult<DocumentEntity> rejected = manager.updateIf(person("1", "Ada", 38, "Paris"), london);
+        assertFalse(rejected.isApplied());
+        assertEquals("Rome", rejected.getValue().get().find("city").get().get());
+        assertEquals(ids("Ada"), names(manager.select(select().from("person").where("city").eq("Rome").build())));
+        assertFalse(manager.updateIf(person("9", "Eve", 20, "Rome"), london).getValue().isPresent());
+    }
+
+    @Test
+    public void shouldDeleteIf() {
+        DocumentEntity ada = DocumentEntity.of("person");
+        ada.add("_id", "1");
+        assertFalse(manager.deleteIf(ada, DocumentCondition.eq(Document.of("city", "Paris"))).isApplied());
+        ConditionalResult<DocumentEntity> applied = manager.deleteIf(ada, DocumentCondition.eq(Document.of("city",
+                "London")));
+        assertTrue(applied.isApplied());
+        assertEquals("Ada", applied.getValue().get().find("name").get().get());
+        assertEquals(3L, manager.count(select().from("person").build()));
+        assertFalse(manager.deleteIf(ada, DocumentCondition.eq(Document.of("city", "London"))).getValue()
+                .isPresent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenUpdateIfHasNoKey() {
+        DocumentEntity entity = DocumentEntity.of("person");
+        entity.add("name", "Eve");
+        manager.updateIf(entity, DocumentCondition.eq(Document.of("name", "Eve")));
+    }
+
+    private static DocumentEntity person(String id, String name, Number age, String city) {
+        DocumentEntity entity = DocumentEntity.of("person");
+        entity.add("_id", id);
+        entity.add("name", name);
+        entity.add("age", age);
+        entity.add("city", city);
+        return entity;
+    }
+
+    private static Set<String> ids(String... names) {
+        return new HashSet<>(Arrays.asList(names));
+    }
+
+    private static Set<String> names(List<DocumentEntity> entities) {
+        return entities.stream().map(e -> e.find("name").get().get(String.class)).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.memory.document;
+
+import org.jnosql.diana.api.Value;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MemoryValuesTest {
+
+    @Test
+    public void shouldCompareNumbersByValue() {
+        assertTrue(MemoryValues.equals(10, 10L));
+        assertTrue(MemoryValues.equals(10.0, Value.of(10)));
+        assertTrue(MemoryValues.equals(new BigDecimal("10.00"), BigInteger.TEN));
+        assertFalse(MemoryValues.equals(10, "10"));
+        assertTrue(MemoryValues.compare(9, 10.5) < 0);
+        assertTrue(MemoryValues.compare(Long.MAX_VALUE, Long.MAX_VALUE - 1) > 0);
+    }
+
+    @Test
+    public void shouldNormalizeKeys() {
+        assertEquals(10L, MemoryValues.key(10));
+        assertEquals(10L, MemoryValues.key(10.0F));
+        assertEquals(10L, MemoryValues.key(new BigDecimal("10.00")));
+        assertEquals(10.5, MemoryValues.key(10.5));
+        assertEquals("10", MemoryValues.key("10"));
+    }
+
+    @Test
+    public void shouldOrderNumbersBeforeOtherValues() {
+        assertTrue(MemoryValues.compare(100, "1") < 0);
+        assertTrue(MemoryValues.compare("a", "b") < 0);
+        assertFalse(MemoryValues.isComparable(1, "1"));
+        assertTrue(MemoryValues.isComparable(1, 2.5));
+    }
+
+    @Test
+    public void shouldConvertLikeToPattern() {
+        assertTrue(MemoryConditions.pattern("Ad%").matcher("Ada Lovelace").matches());
+        assertTrue(MemoryConditions.pattern("_da").matcher("Ada").matches());
+        assertFalse(MemoryConditions.pattern("_da").matcher("Adda").matches());
+        assertTrue(MemoryConditions.pattern("a.b%").matcher("a.b.c").matches());
+        assertFalse(MemoryConditions.pattern("a.b%").matcher("axb").matches());
+    }
+}
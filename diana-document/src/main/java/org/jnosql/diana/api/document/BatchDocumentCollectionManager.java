@@ -0,0 +1,163 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+
+package org.jnosql.diana.api.document;
+
+import org.jnosql.diana.api.ConditionalResult;
+import org.jnosql.diana.api.aggregation.AggregateResult;
+import org.jnosql.diana.api.batch.BatchFailure;
+import org.jnosql.diana.api.batch.BatchPolicy;
+import org.jnosql.diana.api.batch.BatchWriteException;
+import org.jnosql.diana.api.batch.Batcher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link DocumentCollectionManager} that saves and updates {@link Iterable} of entities in batches grouped by
+ * collection, the other operations are delegated.
+ *
+ * @see DocumentBatches#of(DocumentCollectionManager, DocumentBatchWriter, BatchPolicy)
+ */
+final class BatchDocumentCollectionManager implements DocumentCollectionManager {
+
+    private final DocumentCollectionManager manager;
+
+    private final DocumentBatchWriter writer;
+
+    private final BatchPolicy policy;
+
+    BatchDocumentCollectionManager(DocumentCollectionManager manager, DocumentBatchWriter writer, BatchPolicy policy) {
+        this.manager = requireNonNull(manager, "manager is required");
+        this.writer = requireNonNull(writer, "writer is required");
+        this.policy = requireNonNull(policy, "policy is required");
+    }
+
+    @Override
+    public DocumentEntity insert(DocumentEntity entity) throws NullPointerException {
+        return manager.insert(entity);
+    }
+
+    @Override
+    public DocumentEntity update(DocumentEntity entity) throws NullPointerException {
+        return manager.update(entity);
+    }
+
+    @Override
+    public Iterable<DocumentEntity> update(Iterable<DocumentEntity> entities) throws NullPointerException {
+        return batch(entities, writer::update);
+    }
+
+    @Override
+    public DocumentEntity insert(DocumentEntity entity, Duration ttl) throws NullPointerException,
+            UnsupportedOperationException {
+        return manager.insert(entity, ttl);
+    }
+
+    @Override
+    public Iterable<DocumentEntity> insert(Iterable<DocumentEntity> entities) throws NullPointerException {
+        return batch(entities, writer::insert);
+    }
+
+    @Override
+    public Iterable<DocumentEntity> insert(Iterable<DocumentEntity> entities, Duration ttl) throws NullPointerException,
+            UnsupportedOperationException {
+        requireNonNull(ttl, "ttl is required");
+        return batch(entities, (collection, batch) -> writer.insert(collection, batch, ttl));
+    }
+
+    @Override
+    public void delete(DocumentDeleteQuery query) throws NullPointerException {
+        manager.delete(query);
+    }
+
+    @Override
+    public List<DocumentEntity> select(DocumentQuery query) throws NullPointerException {
+        return manager.select(query);
+    }
+
+    @Override
+    public long count(DocumentQuery query) throws NullPointerException {
+        return manager.count(query);
+    }
+
+    @Override
+    public AggregateResult aggregate(DocumentAggregateQuery query) throws NullPointerException {
+        return manager.aggregate(query);
+    }
+
+    @Override
+    public long patch(DocumentPatchQuery query) throws NullPointerException {
+        return manager.patch(query);
+    }
+
+    @Override
+    public ConditionalResult<DocumentEntity> insertIfAbsent(DocumentEntity entity) throws NullPointerException,
+            UnsupportedOperationException {
+        return manager.insertIfAbsent(entity);
+    }
+
+    @Override
+    public ConditionalResult<DocumentEntity> updateIf(DocumentEntity entity, DocumentCondition condition)
+            throws NullPointerException, UnsupportedOperationException {
+        return manager.updateIf(entity, condition);
+    }
+
+    @Override
+    public ConditionalResult<DocumentEntity> deleteIf(DocumentEntity entity, DocumentCondition condition)
+            throws NullPointerException, UnsupportedOperationException {
+        return manager.deleteIf(entity, condition);
+    }
+
+    @Override
+    public void close() {
+        manager.close();
+    }
+
+    private Iterable<DocumentEntity> batch(Iterable<DocumentEntity> entities,
+                                         BiConsumer<String, List<DocumentEntity>> operation) {
+        requireNonNull(entities, "entities is required");
+        List<DocumentEntity> result = new ArrayList<>();
+        List<BatchFailure<DocumentEntity>> failures = new ArrayList<>();
+        try (Batcher<String, DocumentEntity> batcher = new Batcher<>(policy, DocumentEntity::getName,
+                DocumentEntitySizes::estimate, operation, failures::add)) {
+            for (DocumentEntity entity : entities) {
+                batcher.add(entity);
+                result.add(entity);
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new BatchWriteException(failures.size() + " entities failed", failures);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("BatchDocumentCollectionManager{");
+        sb.append("manager=").append(manager);
+        sb.append(", writer=").append(writer);
+        sb.append(", policy=").append(policy);
+        sb.append('}');
+        return sb.toString();
+    }
+}
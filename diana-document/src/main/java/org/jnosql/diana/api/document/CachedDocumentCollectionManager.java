@@ -0,0 +1,555 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.document;
+
+import org.jnosql.diana.api.Condition;
+import org.jnosql.diana.api.ConditionalResult;
+import org.jnosql.diana.api.Fingerprint;
+import org.jnosql.diana.api.Sizes;
+import org.jnosql.diana.api.aggregation.AggregateResult;
+import org.jnosql.diana.api.cache.Cache;
+import org.jnosql.diana.api.cache.CacheStats;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link DocumentCollectionManager} decorator that caches the result of
+ * {@link DocumentCollectionManager#select(DocumentQuery)} and {@link DocumentCollectionManager#singleResult(DocumentQuery)},
+ * so a query that runs again and again reaches the database once per time to live.
+ * <ul>
+ * <li>The result is cached by the query fingerprint, two queries that differ only in the order of the conditions
+ * of an AND, an OR or the values of an IN share the same result.</li>
+ * <li>A query with a value whose type does not have a stable fingerprint, see
+ * {@link org.jnosql.diana.api.FingerprintHasher#putValue(Object)}, is not cached.</li>
+ * <li>A write invalidates the cached results of its collection. When the collection has indexed documents, a query
+ * with an equals condition on one of them, at the top level or within an AND, is invalidated only by the writes of
+ * entities with the same value. An indexed document must never change after the insert, e.g. the key or the
+ * tenant, otherwise a write that changes it would not invalidate the queries of the previous value.</li>
+ * <li>A result loaded while a write happened is not cached.</li>
+ * <li>The cache is bounded by the estimated size, in bytes, of the cached entities.</li>
+ * <li>Concurrent identical queries are coalesced, just one of them reaches the database and the others wait for
+ * its result.</li>
+ * <li>The cached entities are shared with every caller, so they are read only: the methods that change them throw
+ * {@link UnsupportedOperationException} and {@link DocumentEntity#copy()} returns a mutable copy, that is the one
+ * to compare with the entities of the manager.</li>
+ * </ul>
+ *
+ * <pre>
+ * CachedDocumentCollectionManager cached = CachedDocumentCollectionManager.of(manager, 64 * 1024 * 1024,
+ *         Duration.ofSeconds(30), Collections.singletonMap("orders", Collections.singleton("customer")));
+ * </pre>
+ */
+public final class CachedDocumentCollectionManager implements DocumentCollectionManager {
+
+    private static final int STRIPES = 1024;
+
+    private final DocumentCollectionManager manager;
+
+    private final Cache<Fingerprint, Result> cache;
+
+    private final Map<String, Set<String>> indexes;
+
+    private final ConcurrentMap<String, Versions> versions = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Fingerprint, Flight> flights = new ConcurrentHashMap<>();
+
+    private CachedDocumentCollectionManager(DocumentCollectionManager manager, Cache<Fingerprint, Result> cache,
+                                            Map<String, Set<String>> indexes) {
+        this.manager = manager;
+        this.cache = cache;
+        this.indexes = indexes;
+    }
+
+    /**
+     * Creates a {@link CachedDocumentCollectionManager} that invalidates a whole collection on each write
+     *
+     * @param manager  the manager to be decorated
+     * @param maxBytes the maximum estimated size of the cached entities
+     * @param ttl      the time to live of the cached results
+     * @return a {@link CachedDocumentCollectionManager} instance
+     * @throws NullPointerException     when either manager or ttl is null
+     * @throws IllegalArgumentException when either maxBytes or ttl is either zero or negative
+     */
+    public static CachedDocumentCollectionManager of(DocumentCollectionManager manager, long maxBytes, Duration ttl)
+            throws NullPointerException, IllegalArgumentException {
+        return of(manager, maxBytes, ttl, Collections.emptyMap());
+    }
+
+    /**
+     * Creates a {@link CachedDocumentCollectionManager}
+     *
+     * @param manager  the manager to be decorated
+     * @param maxBytes the maximum estimated size of the cached entities
+     * @param ttl      the time to live of the cached results
+     * @param indexes  the indexed documents by collection, they must never change after the insert. A document
+     *                 might be a path, e.g. "address.city"
+     * @return a {@link CachedDocumentCollectionManager} instance
+     * @throws NullPointerException     when there is a null parameter
+     * @throws IllegalArgumentException when either maxBytes or ttl is either zero or negative
+     */
+    public static CachedDocumentCollectionManager of(DocumentCollectionManager manager, long maxBytes, Duration ttl,
+                                                     Map<String, Set<String>> indexes)
+            throws NullPointerException, IllegalArgumentException {
+        requireNonNull(manager, "manager is required");
+        requireNonNull(indexes, "indexes is required");
+        Map<String, Set<String>> copy = new HashMap<>();
+        indexes.forEach((collection, documents) -> {
+            requireNonNull(collection, "collection is required");
+            requireNonNull(documents, "documents is required");
+            Set<String> names = new LinkedHashSet<>();
+            documents.forEach(d -> names.add(requireNonNull(d, "document is required")));
+            copy.put(collection, Collections.unmodifiableSet(names));
+        });
+        Cache<Fingerprint, Result> cache = Cache.<Fingerprint, Result>builder()
+                .maximumWeight(maxBytes, (k, v) -> v.weight)
+                .expireAfterWrite(ttl).build();
+        return new CachedDocumentCollectionManager(manager, cache, copy);
+    }
+
+    @Override
+    public DocumentEntity insert(DocumentEntity entity) throws NullPointerException {
+        requireNonNull(entity, "entity is required");
+        try {
+            return manager.insert(entity);
+        } finally {
+            written(entity);
+        }
+    }
+
+    @Override
+    public DocumentEntity insert(DocumentEntity entity, Duration ttl) throws NullPointerException,
+            UnsupportedOperationException {
+        requireNonNull(entity, "entity is required");
+        requireNonNull(ttl, "ttl is required");
+        try {
+            return manager.insert(entity, ttl);
+        } finally {
+            written(entity);
+        }
+    }
+
+    @Override
+    public Iterable<DocumentEntity> insert(Iterable<DocumentEntity> entities) throws NullPointerException {
+        requireNonNull(entities, "entities is required");
+        List<DocumentEntity> list = toList(entities);
+        try {
+            return manager.insert(list);
+        } finally {
+            list.forEach(this::written);
+        }
+    }
+
+    @Override
+    public Iterable<DocumentEntity> insert(Iterable<DocumentEntity> entities, Duration ttl)
+            throws NullPointerException, UnsupportedOperationException {
+        requireNonNull(entities, "entities is required");
+        requireNonNull(ttl, "ttl is required");
+        List<DocumentEntity> list = toList(entities);
+        try {
+            return manager.insert(list, ttl);
+        } finally {
+            list.forEach(this::written);
+        }
+    }
+
+    @Override
+    public DocumentEntity update(DocumentEntity entity) throws NullPointerException {
+        requireNonNull(entity, "entity is required");
+        try {
+            return manager.update(entity);
+        } finally {
+            written(entity);
+        }
+    }
+
+    @Override
+    public Iterable<DocumentEntity> update(Iterable<DocumentEntity> entities) throws NullPointerException {
+        requireNonNull(entities, "entities is required");
+        List<DocumentEntity> list = toList(entities);
+        try {
+            return manager.update(list);
+        } finally {
+            list.forEach(this::written);
+        }
+    }
+
+    @Override
+    public void delete(DocumentDeleteQuery query) throws NullPointerException {
+        requireNonNull(query, "query is required");
+        try {
+            manager.delete(query);
+        } finally {
+            deleted(query);
+        }
+    }
+
+    @Override
+    public List<DocumentEntity> select(DocumentQuery query) throws NullPointerException {
+        requireNonNull(query, "query is required");
+        Fingerprint key = fingerprint(query);
+        if (key == null) {
+            return manager.select(query);
+        }
+        Scope scope = scope(query.getDocumentCollection(), query.getCondition());
+        Stamp stamp = scope.stamp();
+        Result cached = cache.get(key).orElse(null);
+        if (cached != null && cached.stamp.equals(stamp)) {
+            return cached.entities;
+        }
+
+        Flight flight = new Flight(stamp);
+        Flight running = flights.putIfAbsent(key, flight);
+        if (running != null) {
+            return running.stamp.equals(stamp) ? running.join() : manager.select(query);
+        }
+        try {
+            List<DocumentEntity> entities = manager.select(query);
+            Result result = new Result(stamp, entities);
+            if (scope.stamp().equals(stamp)) {
+                cache.put(key, result);
+            }
+            flight.future.complete(result.entities);
+            return entities;
+        } catch (RuntimeException | Error e) {
+            flight.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    /**
+     * Discards the cached results of a collection
+     *
+     * @param collection the collection
+     * @throws NullPointerException when collection is null
+     */
+    public void invalidate(String collection) throws NullPointerException {
+        requireNonNull(collection, "collection is required");
+        versions(collection).all.incrementAndGet();
+    }
+
+    /**
+     * @return a snapshot of the result cache statistics
+     */
+    public CacheStats getStats() {
+        return cache.getStats();
+    }
+
+    @Override
+    public long count(DocumentQuery query) throws NullPointerException {
+        return manager.count(query);
+    }
+
+    @Override
+    public AggregateResult aggregate(DocumentAggregateQuery query) throws NullPointerException {
+        return manager.aggregate(query);
+    }
+
+    @Override
+    public long patch(DocumentPatchQuery query) throws NullPointerException {
+        requireNonNull(query, "query is required");
+        try {
+            return manager.patch(query);
+        } finally {
+            invalidate(query.getDocumentCollection());
+        }
+    }
+
+    @Override
+    public ConditionalResult<DocumentEntity> insertIfAbsent(DocumentEntity entity) throws NullPointerException,
+            UnsupportedOperationException {
+        requireNonNull(entity, "entity is required");
+        try {
+            return manager.insertIfAbsent(entity);
+        } finally {
+            invalidate(entity.getName());
+        }
+    }
+
+    @Override
+    public ConditionalResult<DocumentEntity> updateIf(DocumentEntity entity, DocumentCondition condition)
+            throws NullPointerException, UnsupportedOperationException {
+        requireNonNull(entity, "entity is required");
+        try {
+            return manager.updateIf(entity, condition);
+        } finally {
+            invalidate(entity.getName());
+        }
+    }
+
+    @Override
+    public ConditionalResult<DocumentEntity> deleteIf(DocumentEntity entity, DocumentCondition condition)
+            throws NullPointerException, UnsupportedOperationException {
+        requireNonNull(entity, "entity is required");
+        try {
+            return manager.deleteIf(entity, condition);
+        } finally {
+            invalidate(entity.getName());
+        }
+    }
+
+    /**
+     * Closes the decorated manager and discards the cached results
+     */
+    @Override
+    public void close() {
+        cache.clear();
+        manager.close();
+    }
+
+    /**
+     * A query with a value that does not have a stable fingerprint is not cached, since it might share the key with
+     * another query
+     */
+    private static Fingerprint fingerprint(DocumentQuery query) {
+        try {
+            return DocumentFingerprints.of(query);
+        } catch (IllegalArgumentException exception) {
+            return null;
+        }
+    }
+
+    private void written(DocumentEntity entity) {
+        Versions versions = versions(entity.getName());
+        versions.unindexed.incrementAndGet(0);
+        versions.indexes.forEach((name, stripes) -> entity.find(name)
+                .ifPresent(d -> written(stripes, d.get())));
+    }
+
+    private static void written(AtomicLongArray stripes, Object value) {
+        stripes.incrementAndGet(stripe(value));
+        if (value instanceof Iterable) {
+            for (Object element : Iterable.class.cast(value)) {
+                stripes.incrementAndGet(stripe(element));
+            }
+        }
+    }
+
+    private void deleted(DocumentDeleteQuery query) {
+        Versions versions = versions(query.getDocumentCollection());
+        versions.unindexed.incrementAndGet(0);
+        if (query.getDocuments().stream().anyMatch(versions.indexes::containsKey)) {
+            versions.all.incrementAndGet();
+            return;
+        }
+        for (Map.Entry<String, AtomicLongArray> index : versions.indexes.entrySet()) {
+            Optional<DocumentCondition> condition = query.getCondition().flatMap(c -> indexed(c, index.getKey()));
+            if (condition.isPresent()) {
+                Object value = condition.get().getDocument().get();
+                if (Condition.IN.equals(condition.get().getCondition()) && value instanceof Iterable) {
+                    ((Iterable<?>) value).forEach(v -> written(index.getValue(), v));
+                } else {
+                    written(index.getValue(), value);
+                }
+                return;
+            }
+        }
+        versions.all.incrementAndGet();
+    }
+
+    private Scope scope(String collection, Optional<DocumentCondition> condition) {
+        Versions versions = versions(collection);
+        if (condition.isPresent()) {
+            for (Map.Entry<String, AtomicLongArray> index : versions.indexes.entrySet()) {
+                Optional<DocumentCondition> indexed = indexed(condition.get(), index.getKey())
+                        .filter(c -> Condition.EQUALS.equals(c.getCondition()));
+                if (indexed.isPresent()) {
+                    return new Scope(versions.all, index.getValue(), stripe(indexed.get().getDocument().get()));
+                }
+            }
+        }
+        return new Scope(versions.all, versions.unindexed, 0);
+    }
+
+    /**
+     * Finds an equals or an in condition of the document, either the condition itself or one of the conditions of
+     * an AND, that every entity selected by the condition must match
+     */
+    private static Optional<DocumentCondition> indexed(DocumentCondition condition, String name) {
+        Condition type = condition.getCondition();
+        if ((Condition.EQUALS.equals(type) || Condition.IN.equals(type))
+                && name.equals(condition.getDocument().getName())) {
+            return Optional.of(condition);
+        }
+        if (Condition.AND.equals(type)) {
+            for (Object value : Iterable.class.cast(condition.getDocument().get())) {
+                Optional<DocumentCondition> indexed = indexed(DocumentCondition.class.cast(value), name);
+                if (indexed.isPresent()) {
+                    return indexed;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Versions versions(String collection) {
+        return versions.computeIfAbsent(collection,
+                c -> new Versions(indexes.getOrDefault(c, Collections.emptySet())));
+    }
+
+    private static <T> List<T> toList(Iterable<T> elements) {
+        List<T> list = new ArrayList<>();
+        elements.forEach(list::add);
+        return list;
+    }
+
+    /**
+     * The stripe of a value, the numbers with the same value share the same stripe regardless of their type, and
+     * so do an enum and its name
+     */
+    private static int stripe(Object value) {
+        int hash;
+        if (value instanceof Number) {
+            Number number = Number.class.cast(value);
+            double real = number.doubleValue();
+            hash = real == number.longValue() ? Long.hashCode(number.longValue()) : Double.hashCode(real);
+        } else {
+            hash = String.valueOf(value).hashCode();
+        }
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private static final class Versions {
+
+        private final AtomicLong all = new AtomicLong();
+
+        private final AtomicLongArray unindexed = new AtomicLongArray(1);
+
+        private final Map<String, AtomicLongArray> indexes = new HashMap<>();
+
+        private Versions(Set<String> names) {
+            names.forEach(name -> indexes.put(name, new AtomicLongArray(STRIPES)));
+        }
+    }
+
+    /**
+     * The versions that invalidate a query: the version of the whole collection and the version of either the
+     * stripe of its indexed value or the queries without an indexed value
+     */
+    private static final class Scope {
+
+        private final AtomicLong all;
+
+        private final AtomicLongArray versions;
+
+        private final int index;
+
+        private Scope(AtomicLong all, AtomicLongArray versions, int index) {
+            this.all = all;
+            this.versions = versions;
+            this.index = index;
+        }
+
+        private Stamp stamp() {
+            return new Stamp(all.get(), versions.get(index));
+        }
+    }
+
+    private static final class Stamp {
+
+        private final long all;
+
+        private final long version;
+
+        private Stamp(long all, long version) {
+            this.all = all;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Stamp)) {
+                return false;
+            }
+            Stamp that = (Stamp) o;
+            return all == that.all && version == that.version;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(all) + Long.hashCode(version);
+        }
+    }
+
+    private static final class Result {
+
+        private final Stamp stamp;
+
+        private final List<DocumentEntity> entities;
+
+        private final long weight;
+
+        private Result(Stamp stamp, List<DocumentEntity> entities) {
+            this.stamp = stamp;
+            List<DocumentEntity> shared = new ArrayList<>(entities.size());
+            long weight = Sizes.OBJECT_HEADER + Sizes.REFERENCE;
+            for (DocumentEntity entity : entities) {
+                DocumentEntity copy = entity.copy();
+                shared.add(new ReadOnlyDocumentEntity(copy));
+                weight += Sizes.REFERENCE + Sizes.OBJECT_HEADER + DocumentEntitySizes.estimate(copy);
+            }
+            this.entities = Collections.unmodifiableList(shared);
+            this.weight = weight;
+        }
+    }
+
+    private static final class Flight {
+
+        private final Stamp stamp;
+
+        private final CompletableFuture<List<DocumentEntity>> future = new CompletableFuture<>();
+
+        private Flight(Stamp stamp) {
+            this.stamp = stamp;
+        }
+
+        private List<DocumentEntity> join() {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -17,166 +17,561 @@
 
 package org.jnosql.diana.api.document;
 
-
 import org.jnosql.diana.api.Value;
 
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.RandomAccess;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.BiConsumer;
 
-import static java.util.Collections.unmodifiableSet;
-import static java.util.Comparator.comparing;
 import static java.util.Objects.requireNonNull;
-import static java.util.Optional.ofNullable;
-import static java.util.stream.Collectors.collectingAndThen;
-import static java.util.stream.Collectors.toList;
 
 /**
- * A default implementation of {@link DocumentEntity}
+ * A default implementation of {@link DocumentEntity}. The names are in a {@link DocumentSchema} and this entity just
+ * keeps its values in the order of their slots, a {@link Document} is created when it is read. An entity created
+ * without a schema shares the schema of its collection, see {@link DocumentSchema#collection(String)}.
+ * The {@link #getDocuments()}, {@link #getDocumentNames()}, {@link #getValues()} and {@link #toMap()} return read-only
+ * live views instead of copies, and {@link #forEach(BiConsumer)} walks the documents without allocation.
+ * A {@link #copy()} shares the values with this entity, the first one that changes copies the values. When the
+ * entity has a schema of its own, the first one that adds a name copies the schema too. This class is not
+ * thread-safe, the copies of an entity might be taken concurrently but not while it changes.
+ * The entity keeps a fingerprint of its documents that is updated on each change, so {@link #hashCode()} does not walk
+ * the documents and {@link #equals(Object)} tells apart most of the different entities without comparing the values.
+ * As in a hash key, a value must not change its hash code while it is in the entity.
+ * When there is not a top-level document with the name, {@link #find(String)} reads it as a {@link DocumentPath}.
  */
 final class DefaultDocumentEntity implements DocumentEntity {
 
-    private final Map<String, Document> documents = new HashMap<>();
+    private static final int MIN_CAPACITY = 4;
+
+    private static final Value[] EMPTY = new Value[0];
 
     private final String name;
 
+    private DocumentSchema schema;
+
+    private boolean collectionSchema;
+
+    private boolean localSchema;
+
+    private volatile boolean sharedSchema;
+
+    /**
+     * The values in the order of their slots, just the first {@link #size} positions are in use
+     */
+    private Value[] values;
+
+    /**
+     * The slot of each position, it is null while each value is in the position of the same number as its slot
+     */
+    private int[] slots;
+
+    private volatile boolean sharedValues;
+
+    private int size;
+
+    private long fingerprint;
 
     DefaultDocumentEntity(String name) {
         this.name = requireNonNull(name, "name name is required");
+        this.schema = DocumentSchema.collection(name);
+        this.collectionSchema = true;
+        this.values = EMPTY;
     }
 
-    @Override
-    public String getName() {
-        return name;
+    DefaultDocumentEntity(String name, DocumentSchema schema) {
+        this.name = requireNonNull(name, "name name is required");
+        this.schema = requireNonNull(schema, "schema is required");
+        this.values = EMPTY;
     }
 
-    @Override
-    public boolean remove(String documentName) {
-        requireNonNull(documentName, "documentName is required");
-        return documents.remove(documentName) != null;
+    private DefaultDocumentEntity(DefaultDocumentEntity entity) {
+        this.name = entity.name;
+        this.schema = entity.schema;
+        this.collectionSchema = entity.collectionSchema;
+        this.localSchema = entity.localSchema;
+        this.sharedSchema = entity.localSchema;
+        this.values = entity.values;
+        this.slots = entity.slots;
+        this.sharedValues = true;
+        this.size = entity.size;
+        this.fingerprint = entity.fingerprint;
     }
 
     @Override
-    public List<Document> getDocuments() {
-        return documents.entrySet()
-                .stream()
-                .map(Map.Entry::getValue)
-                .collect(collectingAndThen(toList(), Collections::unmodifiableList));
+    public void addAll(Iterable<Document> documents) {
+        requireNonNull(documents, "documents are required");
+        documents.forEach(this::add);
     }
 
     @Override
     public void add(Document document) {
         requireNonNull(document, "Document is required");
-        documents.put(document.getName(), document);
+        put(document.getName(), document.getValue());
     }
 
     @Override
     public void add(String documentName, Object value) throws UnsupportedOperationException, NullPointerException {
         requireNonNull(documentName, "documentName is required");
         requireNonNull(value, "value is required");
-        this.add(Document.of(documentName, value));
+        put(documentName, Value.of(value));
     }
 
     @Override
     public void add(String documentName, Value value) throws UnsupportedOperationException, NullPointerException {
         requireNonNull(documentName, "documentName is required");
         requireNonNull(value, "value is required");
-        remove(documentName);
-        this.add(Document.of(documentName, value));
+        put(documentName, value);
     }
 
     @Override
-    public void addAll(Iterable<Document> documents) {
-        requireNonNull(documents, "documents are required");
-        documents.forEach(this::add);
+    public Map<String, Object> toMap() {
+        return new MapView();
     }
 
+    @Override
+    public List<Document> getDocuments() {
+        return new DocumentsView();
+    }
+
+    @Override
+    public void forEach(BiConsumer<String, Value> action) throws NullPointerException {
+        requireNonNull(action, "action is required");
+        for (int position = 0; position < size; position++) {
+            action.accept(nameAt(position), values[position]);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the schema that gives the slots to the names of this entity
+     */
+    DocumentSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public boolean remove(String documentName) {
+        requireNonNull(documentName, "documentName is required");
+        int position = positionOf(documentName);
+        if (position < 0) {
+            return false;
+        }
+        fingerprint -= fingerprint(documentName, values[position]);
+        writableValues();
+        int moved = size - position - 1;
+        if (slots == null && moved > 0) {
+            slots = positions(values.length);
+        }
+        System.arraycopy(values, position + 1, values, position, moved);
+        if (slots != null) {
+            System.arraycopy(slots, position + 1, slots, position, moved);
+        }
+        values[--size] = null;
+        return true;
+    }
+
+
     @Override
     public Optional<Document> find(String documentName) {
         requireNonNull(documentName, "documentName is required");
-        Document document = documents.get(documentName);
-        return ofNullable(document);
+        int position = positionOf(documentName);
+        if (position < 0) {
+            return findPath(documentName);
+        }
+        return Optional.of(Document.of(nameAt(position), values[position]));
+    }
+
+    /**
+     * Returns the value of a top-level document without creating a {@link Document}
+     *
+     * @return the value or null
+     */
+    Value getValue(String documentName) {
+        int position = positionOf(documentName);
+        return position < 0 ? null : values[position];
+    }
+
+    private Optional<Document> findPath(String documentName) {
+        if (!DocumentPath.isPath(documentName)) {
+            return Optional.empty();
+        }
+        DocumentPath path = DocumentPath.compile(documentName);
+        if (path == null) {
+            return Optional.empty();
+        }
+        return path.find(this);
     }
 
     @Override
     public int size() {
-        return documents.size();
+        return size;
     }
 
     @Override
     public boolean isEmpty() {
-        return documents.isEmpty();
+        return size == 0;
     }
 
     @Override
     public DocumentEntity copy() {
-        DefaultDocumentEntity entity = new DefaultDocumentEntity(this.name);
-        entity.documents.putAll(new HashMap<>(this.documents));
-        return entity;
-    }
-
-    @Override
-    public void clear() {
-        this.documents.clear();
+        this.sharedValues = true;
+        this.sharedSchema = localSchema;
+        return new DefaultDocumentEntity(this);
     }
 
     @Override
     public Set<String> getDocumentNames() {
-        return unmodifiableSet(documents.keySet());
+        return new NamesView();
     }
 
     @Override
     public Collection<Value> getValues() {
-        return documents.values().stream()
-                .map(Document::getValue)
-                .collect(toList());
+        return new ValuesView();
     }
 
     @Override
     public boolean contains(String documentName) {
         requireNonNull(documentName, "documentName is required");
-        return documents.containsKey(documentName);
+        return positionOf(documentName) >= 0;
     }
 
     @Override
-    public Map<String, Object> toMap() {
-        return documents.entrySet().stream()
-                .collect(collectingAndThen(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().get()),
-                        Collections::unmodifiableMap));
+    public void clear() {
+        if (sharedValues) {
+            values = EMPTY;
+            sharedValues = false;
+        } else {
+            Arrays.fill(values, 0, size, null);
+        }
+        slots = null;
+        size = 0;
+        fingerprint = 0L;
+    }
+
+    /**
+     * @return the position of the name when this entity has a value to it, otherwise -1
+     */
+    private int positionOf(String documentName) {
+        int slot = schema.getSlot(documentName);
+        if (slot < 0) {
+            return -1;
+        }
+        int position = positionOf(slot);
+        return position < 0 ? -1 : position;
     }
 
+    /**
+     * @return the position of the slot, or (-(insertion point) - 1) when this entity does not have a value to it
+     */
+    private int positionOf(int slot) {
+        if (slots == null) {
+            return slot < size ? slot : -(size + 1);
+        }
+        return Arrays.binarySearch(slots, 0, size, slot);
+    }
+
+    private String nameAt(int position) {
+        return schema.getName(slots == null ? position : slots[position]);
+    }
+
+    private void put(String documentName, Value value) {
+        int slot = schema.getSlot(documentName);
+        if (slot < 0) {
+            if (sharedSchema || (collectionSchema && schema.size() >= DocumentSchema.MAX_COLLECTION_NAMES)) {
+                detach();
+            }
+            slot = schema.add(documentName);
+        }
+        int position = positionOf(slot);
+        if (position >= 0) {
+            fingerprint -= fingerprint(documentName, values[position]);
+            writableValues()[position] = value;
+        } else {
+            insert(-position - 1, slot, value);
+        }
+        fingerprint += fingerprint(documentName, value);
+    }
+
+    private void insert(int position, int slot, Value value) {
+        if (size == values.length) {
+            int capacity = size + (size >> 1) + MIN_CAPACITY;
+            values = Arrays.copyOf(values, capacity);
+            slots = slots == null ? null : Arrays.copyOf(slots, capacity);
+            sharedValues = false;
+        } else {
+            writableValues();
+        }
+        if (slots == null && slot != size) {
+            slots = positions(values.length);
+        }
+        System.arraycopy(values, position, values, position + 1, size - position);
+        values[position] = value;
+        if (slots != null) {
+            System.arraycopy(slots, position, slots, position + 1, size - position);
+            slots[position] = slot;
+        }
+        size++;
+    }
+
+    /**
+     * @return the slots of the positions in use while each value is in the position of the same number as its slot
+     */
+    private int[] positions(int capacity) {
+        int[] positions = new int[capacity];
+        for (int position = 0; position < size; position++) {
+            positions[position] = position;
+        }
+        return positions;
+    }
+
+    /**
+     * Mixes the hash codes of a document into 64 bits, the fingerprint of the entity is the sum of its documents,
+     * so it does not depend on the order and it is updated on each change
+     */
+    private static long fingerprint(String documentName, Value value) {
+        long hash = ((long) documentName.hashCode() << 32) | (value.hashCode() & 0xFFFFFFFFL);
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * The values and slots arrays are shared with the copies until the first change, see {@link #copy()}
+     */
+    private Value[] writableValues() {
+        if (sharedValues) {
+            values = values.clone();
+            slots = slots == null ? null : slots.clone();
+            sharedValues = false;
+        }
+        return values;
+    }
+
+    /**
+     * Moves this entity to a schema with just its names, when the collection schema is full or when its own
+     * schema is shared with a copy
+     */
+    private void detach() {
+        DocumentSchema detached = DocumentSchema.local();
+        for (int position = 0; position < size; position++) {
+            detached.add(nameAt(position));
+        }
+        this.schema = detached;
+        this.collectionSchema = false;
+        this.localSchema = true;
+        this.sharedSchema = false;
+        this.slots = null;
+    }
 
     @Override
     public boolean equals(Object o) {
         if (this == o) {
             return true;
         }
-        if (!(o instanceof DocumentEntity)) {
+        if (o == null || getClass() != o.getClass()) {
             return false;
         }
-        DocumentEntity that = (DocumentEntity) o;
-        return Objects.equals(this.getDocuments().stream().sorted(comparing(Document::getName)).collect(toList()),
-                that.getDocuments().stream().sorted(comparing(Document::getName)).collect(toList())) &&
-                Objects.equals(name, that.getName());
+        DefaultDocumentEntity that = (DefaultDocumentEntity) o;
+        if (size != that.size || fingerprint != that.fingerprint || !Objects.equals(name, that.name)) {
+            return false;
+        }
+        for (int position = 0; position < size; position++) {
+            int other = that.schema == schema ? that.positionOf(slots == null ? position : slots[position])
+                    : that.positionOf(nameAt(position));
+            if (other < 0 || !values[position].equals(that.values[other])) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(documents, name);
+        return 31 * (int) (fingerprint ^ (fingerprint >>> 32)) + name.hashCode();
     }
 
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("DefaultDocumentEntity{");
-        sb.append("documents=").append(toMap());
+        sb.append("documents={");
+        forEach(new BiConsumer<String, Value>() {
+            private boolean first = true;
+
+            @Override
+            public void accept(String documentName, Value value) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                first = false;
+                sb.append(documentName).append('=').append(value.get());
+            }
+        });
+        sb.append('}');
         sb.append(", name='").append(name).append('\'');
         sb.append('}');
         return sb.toString();
     }
+
+    /**
+     * Iterates the positions in use
+     */
+    private abstract class PositionIterator<T> implements Iterator<T> {
+
+        private int position;
+
+        abstract T get(int position);
+
+        @Override
+        public boolean hasNext() {
+            return position < size;
+        }
+
+        @Override
+        public T next() {
+            if (position >= size) {
+                throw new NoSuchElementException();
+            }
+            return get(position++);
+        }
+    }
+
+    /**
+     * A read-only view of the document names
+     */
+    private class NamesView extends AbstractSet<String> {
+
+        @Override
+        public Iterator<String> iterator() {
+            return new PositionIterator<String>() {
+                @Override
+                String get(int position) {
+                    return nameAt(position);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof String && positionOf((String) o) >= 0;
+        }
+    }
+
+    /**
+     * A read-only view of the values
+     */
+    private class ValuesView extends AbstractCollection<Value> {
+
+        @Override
+        public Iterator<Value> iterator() {
+            return new PositionIterator<Value>() {
+                @Override
+                Value get(int position) {
+                    return values[position];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * A read-only view of the documents, a document is created when it is read
+     */
+    private class DocumentsView extends AbstractList<Document> implements RandomAccess {
+
+        @Override
+        public Document get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return Document.of(nameAt(index), values[index]);
+        }
+
+        @Override
+        public Iterator<Document> iterator() {
+            return new PositionIterator<Document>() {
+                @Override
+                Document get(int position) {
+                    return Document.of(nameAt(position), values[position]);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * A read-only view of the documents as a map from the name to {@link Value#get()}
+     */
+    private class MapView extends AbstractMap<String, Object> {
+
+        @Override
+        public Object get(Object key) {
+            if (!(key instanceof String)) {
+                return null;
+            }
+            int position = positionOf((String) key);
+            return position < 0 ? null : values[position].get();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && positionOf((String) key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<Entry<String, Object>>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new PositionIterator<Entry<String, Object>>() {
+                        @Override
+                        Entry<String, Object> get(int position) {
+                            return new SimpleImmutableEntry<>(nameAt(position), values[position].get());
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+    }
 }
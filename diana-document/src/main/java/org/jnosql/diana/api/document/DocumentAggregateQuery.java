@@ -0,0 +1,73 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.document;
+
+
+import org.jnosql.diana.api.aggregation.Aggregate;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Class that contains information to do an aggregation to {@link DocumentEntity}, e.g. count or sum, optionally grouped
+ * by documents
+ *
+ * @see DocumentCollectionManager#aggregate(DocumentAggregateQuery)
+ * @see Aggregate
+ */
+public interface DocumentAggregateQuery {
+
+    /**
+     * The document collection name
+     *
+     * @return the document collection name
+     */
+    String getDocumentCollection();
+
+    /**
+     * The conditions that contains in this {@link DocumentAggregateQuery}, when empty every entity is aggregated
+     *
+     * @return the conditions
+     */
+    Optional<DocumentCondition> getCondition();
+
+    /**
+     * The documents to group by, when empty the result has a single group
+     *
+     * @return the documents
+     */
+    List<String> getGroupBy();
+
+    /**
+     * The aggregates, there is at least one and their aliases are unique
+     *
+     * @return the aggregates
+     */
+    List<Aggregate> getAggregates();
+
+    /**
+     * The select of the entities of this aggregation, its documents are the group by documents and the aggregate
+     * documents, e.g. to a driver that can not aggregate. When the aggregation reads no document, e.g. a count, it
+     * selects just the first document of the condition, or the {@code _id} document when there is no condition, so the
+     * whole entities are not read, an entity without that document is still selected, see {@link DocumentProjection}
+     *
+     * @return the select query
+     * @see DocumentCollectionManager#aggregate(DocumentAggregateQuery)
+     */
+    DocumentQuery toQuery();
+}
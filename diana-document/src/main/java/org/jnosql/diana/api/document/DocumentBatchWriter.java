@@ -0,0 +1,81 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+
+package org.jnosql.diana.api.document;
+
+import org.jnosql.diana.api.batch.BatchWriteException;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The SPI to write a batch of {@link DocumentEntity} that belongs to the same collection in a few round trips.
+ * The NoSQL vendors that have a native batch might implement this interface, usually on the same class
+ * of the {@link DocumentCollectionManager}, the ones that don't have might use {@link DocumentBatchWriter#of(DocumentCollectionManager)}.
+ * When some entities fail, the implementation should throw {@link BatchWriteException} with just the failed ones,
+ * any other exception means that the whole batch failed.
+ *
+ * @see DocumentBatches
+ */
+public interface DocumentBatchWriter {
+
+    /**
+     * Creates a {@link DocumentBatchWriter} that saves each entity of a batch using the {@link DocumentCollectionManager},
+     * it reports each entity that failed on a {@link BatchWriteException}.
+     *
+     * @param manager the manager
+     * @return a {@link DocumentBatchWriter} instance
+     * @throws NullPointerException when manager is null
+     */
+    static DocumentBatchWriter of(DocumentCollectionManager manager) throws NullPointerException {
+        return new DocumentCollectionManagerBatchWriter(manager);
+    }
+
+    /**
+     * Saves a batch of entities
+     *
+     * @param collection the collection of all entities
+     * @param entities     the entities to be saved
+     * @throws BatchWriteException  when some entities failed
+     * @throws NullPointerException when either collection or entities are null
+     */
+    void insert(String collection, List<DocumentEntity> entities) throws BatchWriteException, NullPointerException;
+
+    /**
+     * Saves a batch of entities with time to live
+     *
+     * @param collection the collection of all entities
+     * @param entities     the entities to be saved
+     * @param ttl          the time to live
+     * @throws BatchWriteException           when some entities failed
+     * @throws NullPointerException          when either collection or entities or ttl are null
+     * @throws UnsupportedOperationException when the database does not support this feature
+     */
+    void insert(String collection, List<DocumentEntity> entities, Duration ttl) throws BatchWriteException,
+            NullPointerException, UnsupportedOperationException;
+
+    /**
+     * Updates a batch of entities
+     *
+     * @param collection the collection of all entities
+     * @param entities     the entities to be updated
+     * @throws BatchWriteException  when some entities failed
+     * @throws NullPointerException when either collection or entities are null
+     */
+    void update(String collection, List<DocumentEntity> entities) throws BatchWriteException, NullPointerException;
+}
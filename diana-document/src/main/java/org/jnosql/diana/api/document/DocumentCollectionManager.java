@@ -18,7 +18,11 @@
 package org.jnosql.diana.api.document;
 
 
+import org.jnosql.diana.api.ConditionalResult;
 import org.jnosql.diana.api.NonUniqueResultException;
+import org.jnosql.diana.api.aggregation.AggregateResult;
+import org.jnosql.diana.api.aggregation.Aggregator;
+import org.jnosql.diana.api.document.query.DocumentQueryBuilder;
 
 import java.time.Duration;
 import java.util.List;
@@ -150,6 +154,120 @@ public interface DocumentCollectionManager extends AutoCloseable {
         throw new NonUniqueResultException("The select returns more than one entity, select: " + query);
     }
 
+    /**
+     * Executes an aggregation. A driver whose database can aggregate overrides this method to push the aggregation
+     * down, so the entities are not moved over the wire, by default it selects
+     * {@link DocumentAggregateQuery#toQuery()}, just with the documents that the aggregation reads, and folds each
+     * entity of the result into an {@link Aggregator} as it iterates, so the aggregator just keeps a few accumulators
+     * to each group. The select returns a list, so unless the driver loads it lazily the memory still grows with the
+     * number of entities that match the condition.
+     *
+     * @param query the aggregation
+     * @return the result of the aggregation
+     * @throws NullPointerException when query is null
+     */
+    default AggregateResult aggregate(DocumentAggregateQuery query) throws NullPointerException {
+        Objects.requireNonNull(query, "query is required");
+        Aggregator<DocumentEntity> aggregator = Aggregator.of(query.getGroupBy(), query.getAggregates(),
+                name -> entity -> entity.find(name).map(Document::getValue).orElse(null));
+        select(query.toQuery()).forEach(aggregator);
+        return aggregator.getResult();
+    }
+
+    /**
+     * Counts the entities that match the condition of the query, e.g. the total of a paginated query, the first result,
+     * the max results, the sorts and the documents of the query are ignored. A driver whose database can count
+     * overrides this method, by default it runs the {@link DocumentQueryBuilder#count(DocumentQuery)} aggregation, see
+     * {@link #aggregate(DocumentAggregateQuery)}, that selects a single document of each entity.
+     *
+     * @param query the query
+     * @return the number of entities
+     * @throws NullPointerException when query is null
+     */
+    default long count(DocumentQuery query) throws NullPointerException {
+        Objects.requireNonNull(query, "query is required");
+        return aggregate(DocumentQueryBuilder.count(query)).singleResult().flatMap(g -> g.find("count"))
+                .map(v -> v.get(Long.class)).orElse(0L);
+    }
+
+    /**
+     * Changes just some documents of the entities that match the condition, see
+     * {@link DocumentQueryBuilder#patch(String)}. A driver whose database can do partial updates overrides this
+     * method, so just the operations are moved over the wire, by default it selects the entities, applies the
+     * operations with {@link DocumentPatchQuery#apply(DocumentEntity)} and updates them, one at a time, so it is not
+     * atomic
+     *
+     * @param query the patch
+     * @return the number of changed entities
+     * @throws NullPointerException     when query is null
+     * @throws IllegalArgumentException when an operation can not be applied to the value of a document
+     */
+    default long patch(DocumentPatchQuery query) throws NullPointerException, IllegalArgumentException {
+        Objects.requireNonNull(query, "query is required");
+        DocumentQuery select = query.getCondition()
+                .map(c -> DocumentQueryBuilder.select().from(query.getDocumentCollection()).where(c).build())
+                .orElseGet(() -> DocumentQueryBuilder.select().from(query.getDocumentCollection()).build());
+        long count = 0;
+        for (DocumentEntity entity : select(select)) {
+            update(query.apply(entity));
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Saves an entity when there is not any entity with the same key, e.g. to create a unique entity
+     * without reading it first. A driver whose database has lightweight transactions, or an equivalent atomic
+     * operation, overrides this method, by default it is not supported, since a read and a write are not atomic
+     *
+     * @param entity entity to be saved
+     * @return the result with either the entity saved or the current entity
+     * @throws NullPointerException          when entity is null
+     * @throws UnsupportedOperationException when the database does not support conditional writes
+     */
+    default ConditionalResult<DocumentEntity> insertIfAbsent(DocumentEntity entity) throws NullPointerException,
+            UnsupportedOperationException {
+        Objects.requireNonNull(entity, "entity is required");
+        throw new UnsupportedOperationException("The conditional insert is not supported");
+    }
+
+    /**
+     * Updates an entity when the current entity with the same key matches the condition, e.g. an
+     * optimistic lock with {@code DocumentCondition.eq(Document.of("version", 3))}. See
+     * {@link #insertIfAbsent(DocumentEntity)} about the drivers
+     *
+     * @param entity    entity to be updated
+     * @param condition the condition that the current entity must match
+     * @return the result with either the entity updated or the current entity, that is empty when there is not
+     * any entity with the key
+     * @throws NullPointerException          when either entity or condition is null
+     * @throws UnsupportedOperationException when the database does not support conditional writes
+     */
+    default ConditionalResult<DocumentEntity> updateIf(DocumentEntity entity, DocumentCondition condition)
+            throws NullPointerException, UnsupportedOperationException {
+        Objects.requireNonNull(entity, "entity is required");
+        Objects.requireNonNull(condition, "condition is required");
+        throw new UnsupportedOperationException("The conditional update is not supported");
+    }
+
+    /**
+     * Deletes the entity with the key of the informed entity when it matches the condition. See
+     * {@link #insertIfAbsent(DocumentEntity)} about the drivers
+     *
+     * @param entity    an entity with the key of the entity to be deleted
+     * @param condition the condition that the current entity must match
+     * @return the result with either the entity deleted or the current entity, that is empty when there is not
+     * any entity with the key
+     * @throws NullPointerException          when either entity or condition is null
+     * @throws UnsupportedOperationException when the database does not support conditional writes
+     */
+    default ConditionalResult<DocumentEntity> deleteIf(DocumentEntity entity, DocumentCondition condition)
+            throws NullPointerException, UnsupportedOperationException {
+        Objects.requireNonNull(entity, "entity is required");
+        Objects.requireNonNull(condition, "condition is required");
+        throw new UnsupportedOperationException("The conditional delete is not supported");
+    }
+
     /**
      * closes a resource
      */
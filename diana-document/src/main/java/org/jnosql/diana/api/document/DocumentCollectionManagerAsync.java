@@ -20,6 +20,9 @@ package org.jnosql.diana.api.document;
 
 import org.jnosql.diana.api.ExecuteAsyncQueryException;
 import org.jnosql.diana.api.NonUniqueResultException;
+import org.jnosql.diana.api.aggregation.AggregateResult;
+import org.jnosql.diana.api.aggregation.Aggregator;
+import org.jnosql.diana.api.document.query.DocumentQueryBuilder;
 
 import java.time.Duration;
 import java.util.List;
@@ -36,6 +39,29 @@ import java.util.stream.StreamSupport;
  */
 public interface DocumentCollectionManagerAsync extends AutoCloseable {
 
+    /**
+     * Creates a {@link DocumentCollectionManagerAsync} that runs the operations of a synchronous
+     * {@link DocumentCollectionManager} using the default settings of {@link DocumentCollectionManagerAsyncBuilder}
+     *
+     * @param manager the synchronous manager
+     * @return a {@link DocumentCollectionManagerAsync} instance
+     * @throws NullPointerException when manager is null
+     */
+    static DocumentCollectionManagerAsync of(DocumentCollectionManager manager) throws NullPointerException {
+        return builder(manager).build();
+    }
+
+    /**
+     * Creates a builder to a {@link DocumentCollectionManagerAsync} that runs the operations of a synchronous
+     * {@link DocumentCollectionManager}
+     *
+     * @param manager the synchronous manager
+     * @return a {@link DocumentCollectionManagerAsyncBuilder} instance
+     * @throws NullPointerException when manager is null
+     */
+    static DocumentCollectionManagerAsyncBuilder builder(DocumentCollectionManager manager) throws NullPointerException {
+        return new DocumentCollectionManagerAsyncBuilder(manager);
+    }
 
     /**
      * Saves an entity asynchronously
@@ -61,7 +87,8 @@ public interface DocumentCollectionManagerAsync extends AutoCloseable {
     /**
      * Saves entities asynchronously, by default it's just run for each saving using
      * {@link DocumentCollectionManagerAsync#insert(DocumentEntity)},
-     * each NoSQL vendor might replace to a more appropriate one.
+     * each NoSQL vendor might replace to a more appropriate one. There is no limit to the operations in flight,
+     * to a bounded bulk load see {@link DocumentBatches}.
      *
      * @param entities entities to be saved
      * @throws ExecuteAsyncQueryException    when there is a async error
@@ -76,7 +103,8 @@ public interface DocumentCollectionManagerAsync extends AutoCloseable {
     /**
      * Saves entities asynchronously with time to live, by default it's just run for each saving using
      * {@link DocumentCollectionManagerAsync#insert(DocumentEntity, Duration)},
-     * each NoSQL vendor might replace to a more appropriate one.
+     * each NoSQL vendor might replace to a more appropriate one. There is no limit to the operations in flight,
+     * to a bounded bulk load see {@link DocumentBatches}.
      *
      * @param entities entities to be saved
      * @param ttl      time to live
@@ -104,6 +132,29 @@ public interface DocumentCollectionManagerAsync extends AutoCloseable {
     void insert(DocumentEntity entity, Consumer<DocumentEntity> callBack) throws
             ExecuteAsyncQueryException, UnsupportedOperationException, NullPointerException;
 
+    /**
+     * Saves an entity asynchronously, the onError is called instead of the callback when the operation fails.
+     * By default it calls {@link DocumentCollectionManagerAsync#insert(DocumentEntity, Consumer)} and just the failures
+     * thrown by that call go to the onError, each NoSQL vendor might replace to report the asynchronous ones too.
+     *
+     * @param entity   entity to be saved
+     * @param callBack the callback, when the process is finished will call this instance returning the saved entity
+     *                 within parameters
+     * @param onError  the callback to the failure
+     * @throws NullPointerException when either entity, callback or onError are null
+     */
+    default void insert(DocumentEntity entity, Consumer<DocumentEntity> callBack, Consumer<Throwable> onError)
+            throws NullPointerException {
+        Objects.requireNonNull(entity, "entity is required");
+        Objects.requireNonNull(callBack, "callBack is required");
+        Objects.requireNonNull(onError, "onError is required");
+        try {
+            insert(entity, callBack);
+        } catch (RuntimeException e) {
+            onError.accept(e);
+        }
+    }
+
     /**
      * Saves an entity asynchronously with time to live
      *
@@ -118,6 +169,32 @@ public interface DocumentCollectionManagerAsync extends AutoCloseable {
     void insert(DocumentEntity entity, Duration ttl, Consumer<DocumentEntity> callBack) throws
             ExecuteAsyncQueryException, UnsupportedOperationException, NullPointerException;
 
+    /**
+     * Saves an entity asynchronously with time to live, the onError is called instead of the callback when the
+     * operation fails. By default it calls
+     * {@link DocumentCollectionManagerAsync#insert(DocumentEntity, Duration, Consumer)} and just the failures thrown
+     * by that call go to the onError, each NoSQL vendor might replace to report the asynchronous ones too.
+     *
+     * @param entity   entity to be saved
+     * @param ttl      time to live
+     * @param callBack the callback, when the process is finished will call this instance returning the saved entity
+     *                 within parameters
+     * @param onError  the callback to the failure
+     * @throws NullPointerException when either entity, ttl, callback or onError are null
+     */
+    default void insert(DocumentEntity entity, Duration ttl, Consumer<DocumentEntity> callBack,
+                        Consumer<Throwable> onError) throws NullPointerException {
+        Objects.requireNonNull(entity, "entity is required");
+        Objects.requireNonNull(ttl, "ttl is required");
+        Objects.requireNonNull(callBack, "callBack is required");
+        Objects.requireNonNull(onError, "onError is required");
+        try {
+            insert(entity, ttl, callBack);
+        } catch (RuntimeException e) {
+            onError.accept(e);
+        }
+    }
+
 
     /**
      * Updates an entity asynchronously
@@ -132,7 +209,8 @@ public interface DocumentCollectionManagerAsync extends AutoCloseable {
     /**
      * Updates entities asynchronously, by default it's just run for each saving using
      * {@link DocumentCollectionManagerAsync#update(DocumentEntity)},
-     * each NoSQL vendor might replace to a more appropriate one.
+     * each NoSQL vendor might replace to a more appropriate one. There is no limit to the operations in flight,
+     * to a bounded bulk load see {@link DocumentBatches}.
      *
      * @param entities entities to be saved
      * @throws ExecuteAsyncQueryException    when there is a async error
@@ -157,6 +235,29 @@ public interface DocumentCollectionManagerAsync extends AutoCloseable {
     void update(DocumentEntity entity, Consumer<DocumentEntity> callBack) throws
             ExecuteAsyncQueryException, UnsupportedOperationException, NullPointerException;
 
+    /**
+     * Updates an entity asynchronously, the onError is called instead of the callback when the operation fails.
+     * By default it calls {@link DocumentCollectionManagerAsync#update(DocumentEntity, Consumer)} and just the failures
+     * thrown by that call go to the onError, each NoSQL vendor might replace to report the asynchronous ones too.
+     *
+     * @param entity   entity to be saved
+     * @param callBack the callback, when the process is finished will call this instance returning
+     *                 the updated entity within parameters
+     * @param onError  the callback to the failure
+     * @throws NullPointerException when either entity, callback or onError are null
+     */
+    default void update(DocumentEntity entity, Consumer<DocumentEntity> callBack, Consumer<Throwable> onError)
+            throws NullPointerException {
+        Objects.requireNonNull(entity, "entity is required");
+        Objects.requireNonNull(callBack, "callBack is required");
+        Objects.requireNonNull(onError, "onError is required");
+        try {
+            update(entity, callBack);
+        } catch (RuntimeException e) {
+            onError.accept(e);
+        }
+    }
+
 
     /**
      * Deletes an entity asynchronously
@@ -180,6 +281,30 @@ public interface DocumentCollectionManagerAsync extends AutoCloseable {
     void delete(DocumentDeleteQuery query, Consumer<Void> callBack) throws ExecuteAsyncQueryException,
             UnsupportedOperationException, NullPointerException;
 
+    /**
+     * Deletes an entity asynchronously, the onError is called instead of the callback when the operation fails.
+     * By default it calls {@link DocumentCollectionManagerAsync#delete(DocumentDeleteQuery, Consumer)} and just the
+     * failures thrown by that call go to the onError, each NoSQL vendor might replace to report the asynchronous
+     * ones too.
+     *
+     * @param query    select to delete an entity
+     * @param callBack the callback, when the process is finished will call this instance returning
+     *                 the null within parameters
+     * @param onError  the callback to the failure
+     * @throws NullPointerException when either select, callback or onError are null
+     */
+    default void delete(DocumentDeleteQuery query, Consumer<Void> callBack, Consumer<Throwable> onError)
+            throws NullPointerException {
+        Objects.requireNonNull(query, "query is required");
+        Objects.requireNonNull(callBack, "callBack is required");
+        Objects.requireNonNull(onError, "onError is required");
+        try {
+            delete(query, callBack);
+        } catch (RuntimeException e) {
+            onError.accept(e);
+        }
+    }
+
     /**
      * Finds {@link DocumentEntity} from select asynchronously
      *
@@ -193,6 +318,30 @@ public interface DocumentCollectionManagerAsync extends AutoCloseable {
     void select(DocumentQuery query, Consumer<List<DocumentEntity>> callBack) throws
             ExecuteAsyncQueryException, UnsupportedOperationException, NullPointerException;
 
+    /**
+     * Finds {@link DocumentEntity} from select asynchronously, the onError is called instead of the callback when
+     * the operation fails. By default it calls {@link DocumentCollectionManagerAsync#select(DocumentQuery, Consumer)}
+     * and just the failures thrown by that call go to the onError, each NoSQL vendor might replace to report the
+     * asynchronous ones too.
+     *
+     * @param query    select to select entities
+     * @param callBack the callback, when the process is finished will call this instance returning the
+     *                 result of select within parameters
+     * @param onError  the callback to the failure
+     * @throws NullPointerException when either select, callback or onError are null
+     */
+    default void select(DocumentQuery query, Consumer<List<DocumentEntity>> callBack, Consumer<Throwable> onError)
+            throws NullPointerException {
+        Objects.requireNonNull(query, "query is required");
+        Objects.requireNonNull(callBack, "callBack is required");
+        Objects.requireNonNull(onError, "onError is required");
+        try {
+            select(query, callBack);
+        } catch (RuntimeException e) {
+            onError.accept(e);
+        }
+    }
+
     /**
      * Returns a single entity from select
      *
@@ -217,6 +366,53 @@ public interface DocumentCollectionManagerAsync extends AutoCloseable {
 
     }
 
+    /**
+     * Executes an aggregation asynchronously, see {@link DocumentCollectionManager#aggregate(DocumentAggregateQuery)}.
+     * A driver whose database can aggregate overrides this method to push the aggregation down, by default it
+     * selects {@link DocumentAggregateQuery#toQuery()} and aggregates the entities of the result with an
+     * {@link Aggregator}
+     *
+     * @param query    the aggregation
+     * @param callBack the callback, when the process is finished will call this instance returning the result of
+     *                 the aggregation
+     * @throws ExecuteAsyncQueryException    when there is a async error
+     * @throws UnsupportedOperationException when the database does not support this feature
+     * @throws NullPointerException          when either query or callback are null
+     */
+    default void aggregate(DocumentAggregateQuery query, Consumer<AggregateResult> callBack) throws
+            ExecuteAsyncQueryException, UnsupportedOperationException, NullPointerException {
+        Objects.requireNonNull(query, "query is required");
+        Objects.requireNonNull(callBack, "callBack is required");
+        select(query.toQuery(), entities -> {
+            Aggregator<DocumentEntity> aggregator = Aggregator.of(query.getGroupBy(), query.getAggregates(),
+                    name -> entity -> entity.find(name).map(Document::getValue).orElse(null));
+            entities.forEach(aggregator);
+            callBack.accept(aggregator.getResult());
+        });
+    }
+
+    /**
+     * Counts the entities that match the condition of the query asynchronously, the first result, the max results, the
+     * sorts and the documents of the query are ignored, see {@link DocumentCollectionManager#count(DocumentQuery)}. By
+     * default it runs the {@link DocumentQueryBuilder#count(DocumentQuery)} aggregation, see
+     * {@link #aggregate(DocumentAggregateQuery, Consumer)}, so a driver that aggregates counts without moving the
+     * entities, and otherwise a single document of each entity is selected.
+     *
+     * @param query    the query
+     * @param callBack the callback, when the process is finished will call this instance returning the number of
+     *                 entities
+     * @throws ExecuteAsyncQueryException    when there is a async error
+     * @throws UnsupportedOperationException when the database does not support this feature
+     * @throws NullPointerException          when either query or callback are null
+     */
+    default void count(DocumentQuery query, Consumer<Long> callBack) throws ExecuteAsyncQueryException,
+            UnsupportedOperationException, NullPointerException {
+        Objects.requireNonNull(query, "query is required");
+        Objects.requireNonNull(callBack, "callBack is required");
+        aggregate(DocumentQueryBuilder.count(query), result -> callBack.accept(result.singleResult()
+                .flatMap(g -> g.find("count")).map(v -> v.get(Long.class)).orElse(0L)));
+    }
+
     /**
      * closes a resource
      */
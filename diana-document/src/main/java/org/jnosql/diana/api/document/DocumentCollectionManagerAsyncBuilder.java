@@ -0,0 +1,155 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+
+package org.jnosql.diana.api.document;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The builder to a {@link DocumentCollectionManagerAsync} that works on top of a synchronous {@link DocumentCollectionManager},
+ * it is useful when a NoSQL vendor just has the synchronous API.
+ * Each operation runs on the {@link ExecutorService} informed, so on a JVM with virtual threads a
+ * virtual-thread-per-task executor might be used, otherwise a fixed pool is created using the
+ * {@link DocumentCollectionManagerAsyncBuilder#maxConcurrency(int)} as the pool size.
+ * <p>{@code
+ * DocumentCollectionManagerAsync managerAsync = DocumentCollectionManagerAsync.builder(manager)
+ * .executor(executor).maxConcurrency(1_000).build();
+ * }</p>
+ *
+ * @see DocumentCollectionManagerAsync#builder(DocumentCollectionManager)
+ */
+public final class DocumentCollectionManagerAsyncBuilder {
+
+    private static final int DEFAULT_CONCURRENCY = Runtime.getRuntime().availableProcessors();
+
+    private final DocumentCollectionManager manager;
+
+    private ExecutorService executor;
+
+    private Executor callbackExecutor = Runnable::run;
+
+    private int maxConcurrency;
+
+    private Consumer<Throwable> onError;
+
+    DocumentCollectionManagerAsyncBuilder(DocumentCollectionManager manager) {
+        this.manager = requireNonNull(manager, "manager is required");
+    }
+
+    /**
+     * Defines the executor that runs the synchronous operations. The {@link DocumentCollectionManagerAsync#close()}
+     * does not shut down an executor informed here.
+     *
+     * @param executor the executor
+     * @return the builder
+     * @throws NullPointerException when executor is null
+     */
+    public DocumentCollectionManagerAsyncBuilder executor(ExecutorService executor) throws NullPointerException {
+        this.executor = requireNonNull(executor, "executor is required");
+        return this;
+    }
+
+    /**
+     * Defines the executor that runs the callbacks, by default the callback runs on the same thread
+     * that ran the operation.
+     *
+     * @param callbackExecutor the callback executor
+     * @return the builder
+     * @throws NullPointerException when callbackExecutor is null
+     */
+    public DocumentCollectionManagerAsyncBuilder callbackExecutor(Executor callbackExecutor) throws NullPointerException {
+        this.callbackExecutor = requireNonNull(callbackExecutor, "callbackExecutor is required");
+        return this;
+    }
+
+    /**
+     * Defines the maximum number of operations running or waiting on the executor at the same time.
+     * When the limit is reached the caller waits until an operation finishes.
+     *
+     * @param maxConcurrency the limit
+     * @return the builder
+     * @throws IllegalArgumentException when maxConcurrency is either zero or negative
+     */
+    public DocumentCollectionManagerAsyncBuilder maxConcurrency(int maxConcurrency) throws IllegalArgumentException {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be greater than zero");
+        }
+        this.maxConcurrency = maxConcurrency;
+        return this;
+    }
+
+    /**
+     * Defines the consumer of the failures of the operations called without an error callback, it runs on the
+     * callback executor. By default, a failure goes to the uncaught exception handler of the thread that ran the
+     * operation.
+     *
+     * @param onError the consumer of the failures
+     * @return the builder
+     * @throws NullPointerException when onError is null
+     */
+    public DocumentCollectionManagerAsyncBuilder onError(Consumer<Throwable> onError) throws NullPointerException {
+        this.onError = requireNonNull(onError, "onError is required");
+        return this;
+    }
+
+    /**
+     * Creates a new {@link DocumentCollectionManagerAsync} instance
+     *
+     * @return a new {@link DocumentCollectionManagerAsync} instance
+     */
+    public DocumentCollectionManagerAsync build() {
+        Semaphore permits = maxConcurrency > 0 ? new Semaphore(maxConcurrency) : null;
+        if (executor == null) {
+            int threads = maxConcurrency > 0 ? maxConcurrency : DEFAULT_CONCURRENCY;
+            ExecutorService defaultExecutor = Executors.newFixedThreadPool(threads, new DaemonThreadFactory());
+            return new DocumentCollectionManagerAsyncAdapter(manager, defaultExecutor, callbackExecutor, onError,
+                    permits, true);
+        }
+        return new DocumentCollectionManagerAsyncAdapter(manager, executor, callbackExecutor, onError, permits, false);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DocumentCollectionManagerAsyncBuilder{");
+        sb.append("manager=").append(manager);
+        sb.append(", executor=").append(executor);
+        sb.append(", maxConcurrency=").append(maxConcurrency);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "diana-document-async-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
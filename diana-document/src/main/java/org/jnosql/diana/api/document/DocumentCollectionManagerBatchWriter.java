@@ -0,0 +1,83 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+
+package org.jnosql.diana.api.document;
+
+import org.jnosql.diana.api.batch.BatchFailure;
+import org.jnosql.diana.api.batch.BatchWriteException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The {@link DocumentBatchWriter} to the NoSQL vendors that don't have a native batch,
+ * it saves each entity with the {@link DocumentCollectionManager}.
+ */
+final class DocumentCollectionManagerBatchWriter implements DocumentBatchWriter {
+
+    private final DocumentCollectionManager manager;
+
+    DocumentCollectionManagerBatchWriter(DocumentCollectionManager manager) {
+        this.manager = requireNonNull(manager, "manager is required");
+    }
+
+    @Override
+    public void insert(String collection, List<DocumentEntity> entities) {
+        execute(collection, entities, manager::insert);
+    }
+
+    @Override
+    public void insert(String collection, List<DocumentEntity> entities, Duration ttl) {
+        requireNonNull(ttl, "ttl is required");
+        execute(collection, entities, e -> manager.insert(e, ttl));
+    }
+
+    @Override
+    public void update(String collection, List<DocumentEntity> entities) {
+        execute(collection, entities, manager::update);
+    }
+
+    private void execute(String collection, List<DocumentEntity> entities, Consumer<DocumentEntity> operation) {
+        requireNonNull(collection, "collection is required");
+        requireNonNull(entities, "entities is required");
+        List<BatchFailure<DocumentEntity>> failures = new ArrayList<>();
+        for (DocumentEntity entity : entities) {
+            try {
+                operation.accept(entity);
+            } catch (RuntimeException exception) {
+                failures.add(BatchFailure.of(entity, exception));
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new BatchWriteException(failures.size() + " entities failed on the collection "
+                    + collection, failures);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DocumentCollectionManagerBatchWriter{");
+        sb.append("manager=").append(manager);
+        sb.append('}');
+        return sb.toString();
+    }
+}
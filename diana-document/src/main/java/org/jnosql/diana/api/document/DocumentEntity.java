@@ -27,6 +27,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 /**
  * A document-oriented database, or document store, is a computer program designed for storing, retrieving,
@@ -90,6 +91,18 @@ public interface DocumentEntity extends Serializable {
      */
     List<Document> getDocuments();
 
+    /**
+     * Performs the action to each document of this entity, the name and the value are given without creating
+     * a {@link Document}, so it is the cheapest way to walk the documents
+     *
+     * @param action the action to each name and value
+     * @throws NullPointerException when action is null
+     */
+    default void forEach(BiConsumer<String, Value> action) throws NullPointerException {
+        Objects.requireNonNull(action, "action is required");
+        getDocuments().forEach(d -> action.accept(d.getName(), d.getValue()));
+    }
+
     /**
      * add a document within {@link DocumentEntity}
      *
@@ -129,7 +142,8 @@ public interface DocumentEntity extends Serializable {
     void addAll(Iterable<Document> documents) throws UnsupportedOperationException, NullPointerException;
 
     /**
-     * Find document a document from document name
+     * Find document a document from document name, an entity created by {@link DocumentEntity#of(String)} reads the
+     * name as a {@link DocumentPath} when there is not a top-level document with it
      *
      * @param documentName a name of a document
      * @return an {@link Optional} instance with the result
@@ -0,0 +1,52 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+
+package org.jnosql.diana.api.document;
+
+import org.jnosql.diana.api.Sizes;
+
+/**
+ * Estimates the memory that a {@link DocumentEntity} takes
+ *
+ * @see Sizes
+ */
+final class DocumentEntitySizes {
+
+    private DocumentEntitySizes() {
+    }
+
+    static long estimate(DocumentEntity entity) {
+        long size = Sizes.OBJECT_HEADER + Sizes.estimate(entity.getName());
+        for (Document document : entity.getDocuments()) {
+            size += Sizes.REFERENCE + estimateNested(document);
+        }
+        return size;
+    }
+
+    private static long estimateNested(Object value) {
+        if (value instanceof Document) {
+            Document document = Document.class.cast(value);
+            return Sizes.OBJECT_HEADER + Sizes.estimate(document.getName())
+                    + Sizes.estimate(document.getValue(), DocumentEntitySizes::estimateNested);
+        }
+        if (value instanceof DocumentEntity) {
+            return estimate(DocumentEntity.class.cast(value));
+        }
+        return Sizes.OBJECT_HEADER;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.document;
+
+
+import org.jnosql.diana.api.PatchOperation;
+import org.jnosql.diana.api.Value;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Class that contains information to do a partial update to {@link DocumentEntity}: the operations change just some
+ * documents of the entities that match the condition
+ *
+ * @see DocumentCollectionManager#patch(DocumentPatchQuery)
+ * @see PatchOperation
+ */
+public interface DocumentPatchQuery {
+
+    /**
+     * The collection name
+     *
+     * @return the collection name
+     */
+    String getDocumentCollection();
+
+    /**
+     * The conditions that contains in this {@link DocumentPatchQuery}, when empty every entity is changed
+     *
+     * @return the conditions
+     */
+    Optional<DocumentCondition> getCondition();
+
+    /**
+     * The operations, in the order in which they are applied, there is at least one
+     *
+     * @return the operations
+     */
+    List<PatchOperation> getOperations();
+
+    /**
+     * Applies the operations to an entity, e.g. to a driver that can not do partial updates
+     *
+     * @param entity the entity to be changed
+     * @return the entity
+     * @throws NullPointerException     when entity is null
+     * @throws IllegalArgumentException when an operation can not be applied to the value of the document
+     * @see PatchOperation#apply(Object)
+     */
+    default DocumentEntity apply(DocumentEntity entity) throws NullPointerException, IllegalArgumentException {
+        Objects.requireNonNull(entity, "entity is required");
+        for (PatchOperation operation : getOperations()) {
+            Object value = operation.apply(entity.find(operation.getName()).map(Document::getValue).orElse(null));
+            if (value == null) {
+                entity.remove(operation.getName());
+            } else if (value instanceof Value) {
+                entity.add(operation.getName(), (Value) value);
+            } else {
+                entity.add(operation.getName(), value);
+            }
+        }
+        return entity;
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.document;
+
+import org.jnosql.diana.api.Value;
+
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A compiled path to a value inside a {@link DocumentEntity}. The path has names separated by dots and might have
+ * an index, zero based, after each name, e.g. {@code address.city} or {@code items[3].sku}.
+ * A sub-document might be a {@link DocumentEntity}, a {@link Document}, an {@link Iterable} of {@link Document},
+ * or a {@link Map}, and an index works on a {@link List}, on an {@link Iterable} or on an array.
+ * The path is compiled once and the compiled paths are cached, so a path written as a {@link String}, as in a
+ * {@link DocumentCondition}, a sort or a projection of a {@link DocumentQuery}, might use {@link #of(String)}
+ * on every read. Reading a path walks the values without creating a {@link Document} to each level.
+ * <pre>
+ * DocumentPath path = DocumentPath.of("items[3].sku");
+ * Optional&lt;Value&gt; sku = path.get(entity);
+ * </pre>
+ */
+public final class DocumentPath implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int MAX_CACHED = 4_096;
+
+    private static final Map<String, DocumentPath> CACHE = new ConcurrentHashMap<>();
+
+    private static final int NAME = -1;
+
+    private final String path;
+
+    private final String[] names;
+
+    private final int[] indexes;
+
+    private DocumentPath(String path, String[] names, int[] indexes) {
+        this.path = path;
+        this.names = names;
+        this.indexes = indexes;
+    }
+
+    /**
+     * Returns the compiled path
+     *
+     * @param path the path
+     * @return a {@link DocumentPath} instance
+     * @throws NullPointerException     when path is null
+     * @throws IllegalArgumentException when the path is not valid
+     */
+    public static DocumentPath of(String path) throws NullPointerException, IllegalArgumentException {
+        requireNonNull(path, "path is required");
+        DocumentPath documentPath = compile(path);
+        if (documentPath == null) {
+            throw new IllegalArgumentException("The document path is not valid: " + path);
+        }
+        return documentPath;
+    }
+
+    /**
+     * Checks if a name uses the path syntax, so it has either a dot or an index
+     *
+     * @param name the name
+     * @return true when the name has either a dot or an index
+     * @throws NullPointerException when name is null
+     */
+    public static boolean isPath(String name) throws NullPointerException {
+        requireNonNull(name, "name is required");
+        return name.indexOf('.') >= 0 || name.indexOf('[') >= 0;
+    }
+
+    /**
+     * Returns the compiled path or null when the path is not valid
+     */
+    static DocumentPath compile(String path) {
+        DocumentPath documentPath = CACHE.get(path);
+        if (documentPath != null) {
+            return documentPath;
+        }
+        documentPath = parse(path);
+        if (documentPath != null && CACHE.size() < MAX_CACHED) {
+            CACHE.putIfAbsent(path, documentPath);
+        }
+        return documentPath;
+    }
+
+    private static DocumentPath parse(String path) {
+        List<String> names = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        int position = 0;
+        int length = path.length();
+        while (true) {
+            int start = position;
+            while (position < length && path.charAt(position) != '.' && path.charAt(position) != '[') {
+                if (path.charAt(position) == ']') {
+                    return null;
+                }
+                position++;
+            }
+            if (position == start) {
+                return null;
+            }
+            names.add(path.substring(start, position));
+            indexes.add(NAME);
+            while (position < length && path.charAt(position) == '[') {
+                int close = path.indexOf(']', position);
+                if (close < 0 || close == position + 1) {
+                    return null;
+                }
+                int index = 0;
+                for (int digit = position + 1; digit < close; digit++) {
+                    char character = path.charAt(digit);
+                    if (character < '0' || character > '9' || index > (Integer.MAX_VALUE - 9) / 10) {
+                        return null;
+                    }
+                    index = index * 10 + (character - '0');
+                }
+                names.add(null);
+                indexes.add(index);
+                position = close + 1;
+            }
+            if (position == length) {
+                break;
+            }
+            if (path.charAt(position) != '.') {
+                return null;
+            }
+            position++;
+        }
+        return new DocumentPath(path, names.toArray(new String[names.size()]),
+                indexes.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Reads the value in this path
+     *
+     * @param entity the entity
+     * @return the value or {@link Optional#empty()} when there is no value in this path
+     * @throws NullPointerException when entity is null
+     */
+    public Optional<Value> get(DocumentEntity entity) throws NullPointerException {
+        requireNonNull(entity, "entity is required");
+        Object current = entity;
+        for (int step = 0; step < names.length && current != null; step++) {
+            if (current instanceof Value) {
+                current = Value.class.cast(current).get();
+            }
+            current = indexes[step] == NAME ? name(current, names[step]) : index(current, indexes[step]);
+        }
+        if (current == null) {
+            return Optional.empty();
+        }
+        if (current instanceof Value) {
+            return Optional.of(Value.class.cast(current));
+        }
+        return Optional.of(Value.of(current));
+    }
+
+    /**
+     * Finds the value in this path as a {@link Document} whose name is the path
+     *
+     * @param entity the entity
+     * @return the document or {@link Optional#empty()} when there is no value in this path
+     * @throws NullPointerException when entity is null
+     */
+    public Optional<Document> find(DocumentEntity entity) throws NullPointerException {
+        return get(entity).map(v -> Document.of(path, v));
+    }
+
+    private static Object name(Object current, String name) {
+        if (current instanceof DefaultDocumentEntity) {
+            return DefaultDocumentEntity.class.cast(current).getValue(name);
+        }
+        if (current instanceof DocumentEntity) {
+            return DocumentEntity.class.cast(current).find(name).map(Document::getValue).orElse(null);
+        }
+        if (current instanceof Document) {
+            Document document = Document.class.cast(current);
+            return name.equals(document.getName()) ? document.getValue() : null;
+        }
+        if (current instanceof Map) {
+            return Map.class.cast(current).get(name);
+        }
+        if (current instanceof Iterable) {
+            for (Object element : Iterable.class.cast(current)) {
+                if (element instanceof Document && name.equals(Document.class.cast(element).getName())) {
+                    return Document.class.cast(element).getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Object index(Object current, int index) {
+        if (current instanceof List) {
+            List<?> list = List.class.cast(current);
+            return index < list.size() ? list.get(index) : null;
+        }
+        if (current instanceof Iterable) {
+            Iterator<?> iterator = Iterable.class.cast(current).iterator();
+            for (int position = 0; iterator.hasNext(); position++) {
+                Object element = iterator.next();
+                if (position == index) {
+                    return element;
+                }
+            }
+            return null;
+        }
+        if (current.getClass().isArray()) {
+            return index < Array.getLength(current) ? Array.get(current, index) : null;
+        }
+        return null;
+    }
+
+    /**
+     * @return the path as it was written
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return the number of steps, a name or an index, in this path
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @return the first name of this path
+     */
+    public String getRoot() {
+        return names[0];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DocumentPath)) {
+            return false;
+        }
+        return path.equals(DocumentPath.class.cast(o).path);
+    }
+
+    @Override
+    public int hashCode() {
+        return path.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
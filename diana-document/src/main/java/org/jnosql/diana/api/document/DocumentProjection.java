@@ -0,0 +1,187 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.document;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The projection of a {@link DocumentQuery}, see {@link DocumentQuery#getDocuments()}: when it is empty the query returns
+ * every document, otherwise each entity returned has only the listed documents that it has, a document that the entity does
+ * not have is not returned with a null value, it is just absent. The key document is not added when it is not listed.
+ * The repeated names are ignored. A name may be a {@link DocumentPath}, such as {@code address.city}, the value it
+ * reaches is returned as a top-level document with the path as name.
+ * Drivers and engines use it to skip the documents not requested instead of decoding the whole entity, either through
+ * {@link #apply(DocumentEntity)} or {@link #lazy(String, Function)} that reads a document only when it is requested.
+ *
+ * @see DocumentProjection#of(DocumentQuery)
+ */
+public final class DocumentProjection {
+
+    private static final DocumentProjection ALL = new DocumentProjection(Collections.emptyList());
+
+    private final List<String> documents;
+
+    private final Map<String, Integer> positions;
+
+    private DocumentProjection(List<String> documents) {
+        this.documents = Collections.unmodifiableList(documents);
+        this.positions = new HashMap<>(documents.size() * 2);
+        for (int index = 0; index < documents.size(); index++) {
+            positions.put(documents.get(index), index);
+        }
+    }
+
+    /**
+     * Creates a {@link DocumentProjection}
+     *
+     * @param documents the documents, when empty every document
+     * @return a {@link DocumentProjection} instance
+     * @throws NullPointerException when documents or any document is null
+     */
+    public static DocumentProjection of(List<String> documents) throws NullPointerException {
+        requireNonNull(documents, "documents is required");
+        if (documents.isEmpty()) {
+            return ALL;
+        }
+        LinkedHashSet<String> names = new LinkedHashSet<>(documents.size() * 2);
+        for (String document : documents) {
+            names.add(requireNonNull(document, "document is required"));
+        }
+        return new DocumentProjection(new ArrayList<>(names));
+    }
+
+    /**
+     * Creates the {@link DocumentProjection} of a query
+     *
+     * @param query the query
+     * @return a {@link DocumentProjection} instance
+     * @throws NullPointerException when query is null
+     */
+    public static DocumentProjection of(DocumentQuery query) throws NullPointerException {
+        requireNonNull(query, "query is required");
+        return of(query.getDocuments());
+    }
+
+    /**
+     * @return true when the projection returns every document
+     */
+    public boolean isAll() {
+        return documents.isEmpty();
+    }
+
+    /**
+     * @return the documents without repetition, empty when the projection returns every document
+     */
+    public List<String> getDocuments() {
+        return documents;
+    }
+
+    /**
+     * Whether the projection returns the document
+     *
+     * @param document the document name
+     * @return true when the document is returned
+     * @throws NullPointerException when document is null
+     */
+    public boolean contains(String document) throws NullPointerException {
+        requireNonNull(document, "document is required");
+        return isAll() || positions.containsKey(document);
+    }
+
+    /**
+     * Creates a new entity with the documents of this projection, the documents not requested are not read from the entity
+     *
+     * @param entity the entity
+     * @return a new entity, a copy of the entity when the projection returns every document
+     * @throws NullPointerException when entity is null
+     */
+    public DocumentEntity apply(DocumentEntity entity) throws NullPointerException {
+        requireNonNull(entity, "entity is required");
+        if (isAll()) {
+            return entity.copy();
+        }
+        DocumentEntity projection = DocumentEntity.of(entity.getName());
+        for (String document : documents) {
+            entity.find(document).ifPresent(projection::add);
+        }
+        return projection;
+    }
+
+    /**
+     * Creates a read-only entity with the documents of this projection that reads each document from the reader only when
+     * it is first requested, e.g. a driver decodes just the documents that the caller reads from a wide entity.
+     * The operations on the whole entity, such as {@link DocumentEntity#getDocuments()}, read every document of the
+     * projection, never the others. {@link DocumentEntity#copy()} returns a mutable entity.
+     * The entity is not thread-safe.
+     *
+     * @param name   the document family name
+     * @param reader reads the value, either a raw object or a {@link org.jnosql.diana.api.Value}, of a document from
+     *               its name, it returns null when the entity does not have the document
+     * @return a lazy entity
+     * @throws NullPointerException  when either name or reader is null
+     * @throws IllegalStateException when the projection returns every document, so the names are not known
+     */
+    public DocumentEntity lazy(String name, Function<String, ?> reader) throws NullPointerException,
+            IllegalStateException {
+        requireNonNull(name, "name is required");
+        requireNonNull(reader, "reader is required");
+        if (isAll()) {
+            throw new IllegalStateException("A lazy entity requires the documents of the projection");
+        }
+        return new ProjectedDocumentEntity(name, this, reader);
+    }
+
+    int position(String document) {
+        Integer position = positions.get(document);
+        return position == null ? -1 : position;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        DocumentProjection that = (DocumentProjection) o;
+        return Objects.equals(positions.keySet(), that.positions.keySet());
+    }
+
+    @Override
+    public int hashCode() {
+        return positions.keySet().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DocumentProjection{");
+        sb.append("documents=").append(documents);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -71,7 +71,9 @@ public interface DocumentQuery {
 
     /**
      * Returns the documents to returns in that query if empty will return all elements in the query.
-     * The implementation might ignore this option.
+     * Otherwise each entity returned has only the listed documents that it has, the semantics are described in
+     * {@link DocumentProjection}, an implementation that can not skip the other documents when it reads the
+     * entities removes them with {@link DocumentProjection#apply(DocumentEntity)}.
      *
      * @return the documents
      */
@@ -0,0 +1,242 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.document;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A dictionary that gives an ordinal slot to each document name. The {@link DocumentEntity} instances created with the
+ * same schema share the names, each one just keeps its values by slot, so a result set from a select might use a
+ * single schema to all its rows:
+ * <pre>
+ * DocumentSchema schema = DocumentSchema.of("id", "name", "age");
+ * DocumentEntity row = schema.newEntity("person");
+ * </pre>
+ * A slot never changes and the names are only added, so this class is thread-safe and the lookups do not lock.
+ * The schema just maps the names to slots, each entity keeps only the values it has.
+ */
+public final class DocumentSchema implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The maximum number of names of the schema shared by a collection, when it is full the collection moves
+     * to a new schema and the entities that need more names move to a schema of their own
+     */
+    static final int MAX_COLLECTION_NAMES = 1_024;
+
+    /**
+     * The maximum number of collections that share a schema, a collection is evicted to make room to another
+     * one and its entities keep the schema they already have
+     */
+    static final int MAX_COLLECTIONS = 256;
+
+    private static final int MIN_CAPACITY = 8;
+
+    private static final Map<String, DocumentSchema> COLLECTIONS = new ConcurrentHashMap<>();
+
+    private final Map<String, Integer> slots;
+
+    private volatile String[] names;
+
+    private volatile int size;
+
+    private DocumentSchema(int capacity, Map<String, Integer> slots) {
+        this.names = new String[Math.max(MIN_CAPACITY, capacity)];
+        this.slots = slots;
+    }
+
+    /**
+     * Creates an empty {@link DocumentSchema}
+     *
+     * @return a {@link DocumentSchema} instance
+     */
+    public static DocumentSchema of() {
+        return new DocumentSchema(MIN_CAPACITY, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Creates a {@link DocumentSchema} with the names in the slots following the order
+     *
+     * @param names the names
+     * @return a {@link DocumentSchema} instance
+     * @throws NullPointerException when either names or a name are null
+     */
+    public static DocumentSchema of(String... names) throws NullPointerException {
+        requireNonNull(names, "names is required");
+        DocumentSchema schema = new DocumentSchema(names.length, new ConcurrentHashMap<>());
+        for (String name : names) {
+            schema.add(name);
+        }
+        return schema;
+    }
+
+    /**
+     * Creates a {@link DocumentSchema} with the names in the slots following the order
+     *
+     * @param names the names
+     * @return a {@link DocumentSchema} instance
+     * @throws NullPointerException when either names or a name are null
+     */
+    public static DocumentSchema of(Iterable<String> names) throws NullPointerException {
+        requireNonNull(names, "names is required");
+        DocumentSchema schema = of();
+        names.forEach(schema::add);
+        return schema;
+    }
+
+    /**
+     * Creates a schema to the names of a single entity, it is not thread-safe, so it must not be shared
+     *
+     * @return a {@link DocumentSchema} instance
+     */
+    static DocumentSchema local() {
+        return new DocumentSchema(MIN_CAPACITY, new HashMap<>());
+    }
+
+    /**
+     * Returns the schema shared by the entities of a collection that were not created with a schema. A collection
+     * whose schema is full gets a new one, and when there are {@link #MAX_COLLECTIONS} collections another one is
+     * evicted, the entities keep the schema they were created with.
+     *
+     * @return the shared schema
+     */
+    static DocumentSchema collection(String collection) {
+        DocumentSchema schema = COLLECTIONS.get(collection);
+        if (schema != null && schema.size() < MAX_COLLECTION_NAMES) {
+            return schema;
+        }
+        if (schema == null && COLLECTIONS.size() >= MAX_COLLECTIONS) {
+            Iterator<String> collections = COLLECTIONS.keySet().iterator();
+            if (collections.hasNext()) {
+                collections.next();
+                collections.remove();
+            }
+        }
+        return COLLECTIONS.compute(collection, (k, current) ->
+                current == null || current.size() >= MAX_COLLECTION_NAMES ? of() : current);
+    }
+
+    /**
+     * @return the number of collections that share a schema
+     */
+    static int collections() {
+        return COLLECTIONS.size();
+    }
+
+    /**
+     * Creates an empty {@link DocumentEntity} that keeps its names in this schema
+     *
+     * @param name the collection name
+     * @return a {@link DocumentEntity} instance
+     * @throws NullPointerException when name is null
+     */
+    public DocumentEntity newEntity(String name) throws NullPointerException {
+        return new DefaultDocumentEntity(name, this);
+    }
+
+    /**
+     * Returns the slot of a name
+     *
+     * @param name the name
+     * @return the slot or -1 when the name is not in this schema
+     * @throws NullPointerException when name is null
+     */
+    public int getSlot(String name) throws NullPointerException {
+        Integer slot = slots.get(requireNonNull(name, "name is required"));
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Returns the slot of a name, the name is added to the next slot when it is not in this schema
+     *
+     * @param name the name
+     * @return the slot
+     * @throws NullPointerException when name is null
+     */
+    public int add(String name) throws NullPointerException {
+        Integer slot = slots.get(requireNonNull(name, "name is required"));
+        if (slot != null) {
+            return slot;
+        }
+        return append(name);
+    }
+
+    private synchronized int append(String name) {
+        Integer slot = slots.get(name);
+        if (slot != null) {
+            return slot;
+        }
+        int next = size;
+        String[] current = names;
+        if (next == current.length) {
+            current = Arrays.copyOf(current, next + (next >> 1));
+        }
+        current[next] = name;
+        names = current;
+        size = next + 1;
+        slots.put(name, next);
+        return next;
+    }
+
+    /**
+     * Returns the name in a slot
+     *
+     * @param slot the slot
+     * @return the name
+     * @throws IndexOutOfBoundsException when there is no name in the slot
+     */
+    public String getName(int slot) throws IndexOutOfBoundsException {
+        if (slot < 0 || slot >= size) {
+            throw new IndexOutOfBoundsException("There is no name in the slot " + slot);
+        }
+        return names[slot];
+    }
+
+    /**
+     * @return the number of names
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the names following the slots order
+     */
+    public List<String> getNames() {
+        int current = size;
+        return Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(names, current)));
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DocumentSchema{");
+        sb.append("names=").append(getNames());
+        sb.append('}');
+        return sb.toString();
+    }
+}
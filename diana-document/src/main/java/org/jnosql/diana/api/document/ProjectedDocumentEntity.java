@@ -0,0 +1,220 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.document;
+
+import org.jnosql.diana.api.Value;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A read-only {@link DocumentEntity} with the documents of a {@link DocumentProjection}, each document is read once from the
+ * reader, when it is first requested. {@link #find(String)} reads a {@link DocumentPath} through the documents of the
+ * projection.
+ *
+ * @see DocumentProjection#lazy(String, Function)
+ */
+final class ProjectedDocumentEntity implements DocumentEntity {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String READ_ONLY = "The entity is read only, use copy to change it";
+
+    private final String name;
+
+    private final DocumentProjection projection;
+
+    private final Function<String, ?> reader;
+
+    private final Value[] values;
+
+    private final boolean[] loaded;
+
+    private DocumentEntity entity;
+
+    ProjectedDocumentEntity(String name, DocumentProjection projection, Function<String, ?> reader) {
+        this.name = name;
+        this.projection = projection;
+        this.reader = reader;
+        this.values = new Value[projection.getDocuments().size()];
+        this.loaded = new boolean[values.length];
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Optional<Document> find(String documentName) throws NullPointerException {
+        Value value = load(documentName);
+        if (value != null) {
+            return Optional.of(Document.of(documentName, value));
+        }
+        if (projection.position(documentName) < 0 && DocumentPath.isPath(documentName)) {
+            DocumentPath path = DocumentPath.compile(documentName);
+            return path == null ? Optional.empty() : path.find(this);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean contains(String documentName) {
+        return load(documentName) != null;
+    }
+
+    @Override
+    public List<Document> getDocuments() {
+        return Collections.unmodifiableList(entity().getDocuments());
+    }
+
+    @Override
+    public void forEach(BiConsumer<String, Value> action) throws NullPointerException {
+        entity().forEach(action);
+    }
+
+    @Override
+    public Map<String, Object> toMap() {
+        return Collections.unmodifiableMap(entity().toMap());
+    }
+
+    @Override
+    public int size() {
+        return entity().size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return entity().isEmpty();
+    }
+
+    @Override
+    public Set<String> getDocumentNames() {
+        return Collections.unmodifiableSet(entity().getDocumentNames());
+    }
+
+    @Override
+    public Collection<Value> getValues() {
+        return Collections.unmodifiableCollection(entity().getValues());
+    }
+
+    @Override
+    public DocumentEntity copy() {
+        return entity().copy();
+    }
+
+    @Override
+    public void addAll(Iterable<Document> documents) throws UnsupportedOperationException, NullPointerException {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public void add(Document document) throws UnsupportedOperationException, NullPointerException {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public void add(String documentName, Object value) throws UnsupportedOperationException, NullPointerException {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public void add(String documentName, Value value) throws UnsupportedOperationException, NullPointerException {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public boolean remove(String documentName) throws NullPointerException {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    private Value load(String documentName) {
+        int position = projection.position(requireNonNull(documentName, "documentName is required"));
+        if (position < 0) {
+            return null;
+        }
+        if (!loaded[position]) {
+            Object value = reader.apply(documentName);
+            values[position] = value == null || value instanceof Value ? (Value) value : Value.of(value);
+            loaded[position] = true;
+        }
+        return values[position];
+    }
+
+    /**
+     * Neither the projection nor the reader are serializable, so the entity is serialized with its documents read
+     */
+    private Object writeReplace() {
+        return entity();
+    }
+
+    /**
+     * @return the entity with every document of the projection, it is created on the first call
+     */
+    private DocumentEntity entity() {
+        if (entity == null) {
+            DocumentEntity documents = DocumentEntity.of(name);
+            for (String document : projection.getDocuments()) {
+                Value value = load(document);
+                if (value != null) {
+                    documents.add(document, value);
+                }
+            }
+            entity = documents;
+        }
+        return entity;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return entity().equals(((ProjectedDocumentEntity) o).entity());
+    }
+
+    @Override
+    public int hashCode() {
+        return entity().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ProjectedDocumentEntity{");
+        sb.append("name='").append(name).append('\'');
+        sb.append(", projection=").append(projection.getDocuments());
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.document;
+
+import org.jnosql.diana.api.Value;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A read-only view of a {@link DocumentEntity}, that might be shared by many callers. The methods that change the
+ * entity throw {@link UnsupportedOperationException}, {@link DocumentEntity#copy()} returns a mutable copy.
+ * As the other entities, a view is equal only to a view of an equal entity.
+ */
+final class ReadOnlyDocumentEntity implements DocumentEntity {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String READ_ONLY = "The entity is read only, use copy to change it";
+
+    private final DocumentEntity entity;
+
+    ReadOnlyDocumentEntity(DocumentEntity entity) {
+        this.entity = requireNonNull(entity, "entity is required");
+    }
+
+    @Override
+    public String getName() {
+        return entity.getName();
+    }
+
+    @Override
+    public boolean remove(String documentName) throws NullPointerException {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public List<Document> getDocuments() {
+        return Collections.unmodifiableList(entity.getDocuments());
+    }
+
+    @Override
+    public void forEach(BiConsumer<String, Value> action) throws NullPointerException {
+        entity.forEach(action);
+    }
+
+    @Override
+    public void add(Document document) throws UnsupportedOperationException, NullPointerException {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public void add(String documentName, Object value) throws UnsupportedOperationException, NullPointerException {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public void add(String documentName, Value value) throws UnsupportedOperationException, NullPointerException {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public void addAll(Iterable<Document> documents) throws UnsupportedOperationException, NullPointerException {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public Optional<Document> find(String documentName) throws NullPointerException {
+        return entity.find(documentName);
+    }
+
+    @Override
+    public int size() {
+        return entity.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return entity.isEmpty();
+    }
+
+    @Override
+    public DocumentEntity copy() {
+        return entity.copy();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @Override
+    public Set<String> getDocumentNames() {
+        return Collections.unmodifiableSet(entity.getDocumentNames());
+    }
+
+    @Override
+    public Collection<Value> getValues() {
+        return Collections.unmodifiableCollection(entity.getValues());
+    }
+
+    @Override
+    public boolean contains(String documentName) {
+        return entity.contains(documentName);
+    }
+
+    @Override
+    public Map<String, Object> toMap() {
+        return Collections.unmodifiableMap(entity.toMap());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return entity.equals(((ReadOnlyDocumentEntity) o).entity);
+    }
+
+    @Override
+    public int hashCode() {
+        return entity.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ReadOnlyDocumentEntity{");
+        sb.append("entity=").append(entity);
+        sb.append('}');
+        return sb.toString();
+    }
+}
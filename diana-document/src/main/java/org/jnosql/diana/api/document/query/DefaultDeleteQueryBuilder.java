@@ -161,7 +161,7 @@ class DefaultDeleteQueryBuilder implements DocumentDelete, DocumentDeleteFrom,
     public <T> DocumentDeleteWhere in(Iterable<T> values) throws NullPointerException {
         requireNonNull(values, "values is required");
         DocumentCondition newCondition = DocumentCondition.in(Document.of(name, values));
-        return this;
+        return appendCondition(newCondition);
     }
 
     @Override
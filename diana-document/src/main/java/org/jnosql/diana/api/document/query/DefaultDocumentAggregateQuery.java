@@ -0,0 +1,143 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.document.query;
+
+
+import org.jnosql.diana.api.aggregation.Aggregate;
+import org.jnosql.diana.api.document.DocumentAggregateQuery;
+import org.jnosql.diana.api.document.DocumentCondition;
+import org.jnosql.diana.api.document.DocumentQuery;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Optional.ofNullable;
+
+/**
+ * The default implementation of document aggregate query.
+ */
+class DefaultDocumentAggregateQuery implements DocumentAggregateQuery {
+
+    /**
+     * The document selected when the aggregation reads no document and has no condition
+     */
+    static final String KEY = "_id";
+
+    private final String documentCollection;
+
+    private final DocumentCondition condition;
+
+    private final List<String> groupBy;
+
+    private final List<Aggregate> aggregates;
+
+    DefaultDocumentAggregateQuery(String documentCollection, DocumentCondition condition, List<String> groupBy,
+                                List<Aggregate> aggregates) {
+        this.documentCollection = documentCollection;
+        this.condition = ofNullable(condition).map(ReadOnlyDocumentCondition::new).orElse(null);
+        this.groupBy = groupBy;
+        this.aggregates = aggregates;
+    }
+
+    @Override
+    public String getDocumentCollection() {
+        return documentCollection;
+    }
+
+    @Override
+    public Optional<DocumentCondition> getCondition() {
+        return ofNullable(condition);
+    }
+
+    @Override
+    public List<String> getGroupBy() {
+        return unmodifiableList(groupBy);
+    }
+
+    @Override
+    public List<Aggregate> getAggregates() {
+        return unmodifiableList(aggregates);
+    }
+
+    @Override
+    public DocumentQuery toQuery() {
+        Set<String> documents = new LinkedHashSet<>(groupBy);
+        for (Aggregate aggregate : aggregates) {
+            aggregate.getField().ifPresent(documents::add);
+        }
+        if (documents.isEmpty()) {
+            documents.add(condition == null ? KEY : firstName(condition));
+        }
+        return new DefaultDocumentQuery(0L, 0L, documentCollection, new ArrayList<>(documents), emptyList(), condition);
+    }
+
+    /**
+     * Returns the name of the first document of a condition, so a count selects a document the condition reads
+     */
+    private static String firstName(DocumentCondition condition) {
+        Object value = condition.getDocument().get();
+        switch (condition.getCondition()) {
+            case AND:
+            case OR:
+                Iterator<?> conditions = ((Iterable<?>) value).iterator();
+                return conditions.hasNext() ? firstName(DocumentCondition.class.cast(conditions.next())) : KEY;
+            case NOT:
+                return firstName(DocumentCondition.class.cast(value));
+            default:
+                return condition.getDocument().getName();
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DefaultDocumentAggregateQuery)) {
+            return false;
+        }
+        DefaultDocumentAggregateQuery that = (DefaultDocumentAggregateQuery) o;
+        return Objects.equals(documentCollection, that.documentCollection) &&
+                Objects.equals(condition, that.condition) &&
+                Objects.equals(groupBy, that.groupBy) &&
+                Objects.equals(aggregates, that.aggregates);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(documentCollection, condition, groupBy, aggregates);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DefaultDocumentAggregateQuery{");
+        sb.append("documentCollection='").append(documentCollection).append('\'');
+        sb.append(", condition=").append(condition);
+        sb.append(", groupBy=").append(groupBy);
+        sb.append(", aggregates=").append(aggregates);
+        sb.append('}');
+        return sb.toString();
+    }
+}
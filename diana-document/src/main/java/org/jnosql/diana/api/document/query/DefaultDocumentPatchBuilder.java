@@ -0,0 +1,90 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.document.query;
+
+
+import org.jnosql.diana.api.PatchOperation;
+import org.jnosql.diana.api.document.DocumentCondition;
+import org.jnosql.diana.api.document.DocumentPatchQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The default implementation of the patch in the document
+ */
+class DefaultDocumentPatchBuilder implements DocumentPatch {
+
+    private final String documentCollection;
+
+    private final List<PatchOperation> operations = new ArrayList<>();
+
+    DefaultDocumentPatchBuilder(String documentCollection) {
+        this.documentCollection = documentCollection;
+    }
+
+    @Override
+    public DocumentPatch set(String name, Object value) throws NullPointerException {
+        operations.add(PatchOperation.set(name, value));
+        return this;
+    }
+
+    @Override
+    public DocumentPatch unset(String name) throws NullPointerException {
+        operations.add(PatchOperation.unset(name));
+        return this;
+    }
+
+    @Override
+    public DocumentPatch increment(String name, Number value) throws NullPointerException {
+        operations.add(PatchOperation.increment(name, value));
+        return this;
+    }
+
+    @Override
+    public DocumentPatch append(String name, Object value) throws NullPointerException {
+        operations.add(PatchOperation.append(name, value));
+        return this;
+    }
+
+    @Override
+    public DocumentPatch remove(String name, Object value) throws NullPointerException {
+        operations.add(PatchOperation.remove(name, value));
+        return this;
+    }
+
+    @Override
+    public DocumentPatchQuery where(DocumentCondition condition) throws NullPointerException, IllegalStateException {
+        requireNonNull(condition, "condition is required");
+        return create(condition);
+    }
+
+    @Override
+    public DocumentPatchQuery build() throws IllegalStateException {
+        return create(null);
+    }
+
+    private DocumentPatchQuery create(DocumentCondition condition) {
+        if (operations.isEmpty()) {
+            throw new IllegalStateException("The patch requires at least one operation");
+        }
+        return new DefaultDocumentPatchQuery(documentCollection, condition, new ArrayList<>(operations));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.document.query;
+
+
+import org.jnosql.diana.api.PatchOperation;
+import org.jnosql.diana.api.document.DocumentCondition;
+import org.jnosql.diana.api.document.DocumentPatchQuery;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Optional.ofNullable;
+
+/**
+ * The default implementation of document patch query.
+ */
+class DefaultDocumentPatchQuery implements DocumentPatchQuery {
+
+    private final String documentCollection;
+
+    private final DocumentCondition condition;
+
+    private final List<PatchOperation> operations;
+
+    DefaultDocumentPatchQuery(String documentCollection, DocumentCondition condition, List<PatchOperation> operations) {
+        this.documentCollection = documentCollection;
+        this.condition = ofNullable(condition).map(ReadOnlyDocumentCondition::new).orElse(null);
+        this.operations = operations;
+    }
+
+    @Override
+    public String getDocumentCollection() {
+        return documentCollection;
+    }
+
+    @Override
+    public Optional<DocumentCondition> getCondition() {
+        return ofNullable(condition);
+    }
+
+    @Override
+    public List<PatchOperation> getOperations() {
+        return unmodifiableList(operations);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DefaultDocumentPatchQuery)) {
+            return false;
+        }
+        DefaultDocumentPatchQuery that = (DefaultDocumentPatchQuery) o;
+        return Objects.equals(documentCollection, that.documentCollection) &&
+                Objects.equals(condition, that.condition) &&
+                Objects.equals(operations, that.operations);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(documentCollection, condition, operations);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DefaultDocumentPatchQuery{");
+        sb.append("documentCollection='").append(documentCollection).append('\'');
+        sb.append(", condition=").append(condition);
+        sb.append(", operations=").append(operations);
+        sb.append('}');
+        return sb.toString();
+    }
+}
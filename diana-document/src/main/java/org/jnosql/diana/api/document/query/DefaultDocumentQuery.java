@@ -95,7 +95,7 @@ class DefaultDocumentQuery implements DocumentQuery {
         return maxResult == that.getMaxResults() &&
                 firstResult == that.getFirstResult() &&
                 Objects.equals(documentCollection, that.getDocumentCollection()) &&
-                Objects.equals(condition, that.getCondition()) &&
+                Objects.equals(getCondition(), that.getCondition()) &&
                 Objects.equals(sorts, that.getSorts()) &&
                 Objects.equals(documents, that.getDocuments());
     }
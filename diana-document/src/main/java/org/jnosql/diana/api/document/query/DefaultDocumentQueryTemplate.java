@@ -0,0 +1,382 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.document.query;
+
+import org.jnosql.diana.api.Condition;
+import org.jnosql.diana.api.Fingerprint;
+import org.jnosql.diana.api.Parameter;
+import org.jnosql.diana.api.Sort;
+import org.jnosql.diana.api.document.Document;
+import org.jnosql.diana.api.document.DocumentCondition;
+import org.jnosql.diana.api.document.DocumentFingerprints;
+import org.jnosql.diana.api.document.DocumentQuery;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The default implementation of {@link DocumentQueryTemplate}
+ */
+final class DefaultDocumentQueryTemplate implements DocumentQueryTemplate {
+
+    private static final Map<Condition, Function<Document, DocumentCondition>> CONDITIONS = new EnumMap<>(Condition.class);
+
+    static {
+        CONDITIONS.put(Condition.EQUALS, DocumentCondition::eq);
+        CONDITIONS.put(Condition.GREATER_THAN, DocumentCondition::gt);
+        CONDITIONS.put(Condition.GREATER_EQUALS_THAN, DocumentCondition::gte);
+        CONDITIONS.put(Condition.LESSER_THAN, DocumentCondition::lt);
+        CONDITIONS.put(Condition.LESSER_EQUALS_THAN, DocumentCondition::lte);
+        CONDITIONS.put(Condition.IN, DocumentCondition::in);
+        CONDITIONS.put(Condition.LIKE, DocumentCondition::like);
+        CONDITIONS.put(Condition.BETWEEN, DocumentCondition::between);
+    }
+
+    private final DocumentQuery query;
+
+    private final List<String> documents;
+
+    private final List<Sort> sorts;
+
+    private final Node condition;
+
+    private final List<Parameter> parameters;
+
+    private final boolean named;
+
+    private volatile Fingerprint fingerprint;
+
+    private final ConcurrentMap<Object, Object> prepared = new ConcurrentHashMap<>();
+
+    private DefaultDocumentQueryTemplate(DocumentQuery query, Node condition, List<Parameter> parameters, boolean named) {
+        this.query = query;
+        this.documents = new ArrayList<>(query.getDocuments());
+        this.sorts = new ArrayList<>(query.getSorts());
+        this.condition = condition;
+        this.parameters = Collections.unmodifiableList(parameters);
+        this.named = named;
+    }
+
+    static DefaultDocumentQueryTemplate of(DocumentQuery query) {
+        requireNonNull(query, "query is required");
+        Compiler compiler = new Compiler();
+        Node condition = query.getCondition().map(compiler::compile).orElse(null);
+        return new DefaultDocumentQueryTemplate(query, condition, compiler.parameters(),
+                Boolean.TRUE.equals(compiler.named));
+    }
+
+    @Override
+    public DocumentQuery getQuery() {
+        return query;
+    }
+
+    @Override
+    public List<Parameter> getParameters() {
+        return parameters;
+    }
+
+    @Override
+    public Fingerprint getFingerprint() {
+        Fingerprint current = fingerprint;
+        if (current == null) {
+            current = DocumentFingerprints.of(query);
+            fingerprint = current;
+        }
+        return current;
+    }
+
+    @Override
+    public DocumentQuery bind(Object... values) {
+        requireNonNull(values, "values is required");
+        if (named) {
+            throw new IllegalStateException("The template has named parameters: " + parameters);
+        }
+        if (values.length != parameters.size()) {
+            throw new IllegalArgumentException(String.format("The template has %d parameters instead of %d",
+                    parameters.size(), values.length));
+        }
+        for (int index = 0; index < values.length; index++) {
+            requireNonNull(values[index], "the value of the parameter ?" + index + " is required");
+        }
+        return build(values);
+    }
+
+    @Override
+    public DocumentQuery bind(Map<String, ?> values) {
+        requireNonNull(values, "values is required");
+        if (!named && !parameters.isEmpty()) {
+            throw new IllegalStateException("The template has positional parameters: " + parameters);
+        }
+        if (values.size() != parameters.size()) {
+            for (String name : values.keySet()) {
+                if (!parameters.contains(Parameter.of(name))) {
+                    throw new IllegalArgumentException("The template has no parameter " + name);
+                }
+            }
+        }
+        Object[] slots = new Object[parameters.size()];
+        for (int slot = 0; slot < slots.length; slot++) {
+            String name = parameters.get(slot).getName();
+            Object value = values.get(name);
+            if (value == null) {
+                if (values.containsKey(name)) {
+                    throw new NullPointerException("the value of the parameter :" + name + " is required");
+                }
+                throw new IllegalArgumentException("The parameter :" + name + " has no value");
+            }
+            slots[slot] = value;
+        }
+        return build(slots);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T prepared(Object key, Function<DocumentQueryTemplate, T> prepare) {
+        requireNonNull(key, "key is required");
+        requireNonNull(prepare, "prepare is required");
+        return (T) prepared.computeIfAbsent(key, k -> prepare.apply(this));
+    }
+
+    private DocumentQuery build(Object[] values) {
+        DocumentCondition bound = condition == null ? null : condition.bind(values);
+        return new DefaultDocumentQuery(query.getMaxResults(), query.getFirstResult(), query.getDocumentCollection(),
+                documents, sorts, bound);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DefaultDocumentQueryTemplate{");
+        sb.append("query=").append(query);
+        sb.append(", parameters=").append(parameters);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    /**
+     * A compiled condition
+     */
+    private interface Node {
+
+        DocumentCondition bind(Object[] values);
+    }
+
+    /**
+     * A condition without parameters, it is the same to every execution
+     */
+    private static final class Constant implements Node {
+
+        private final DocumentCondition condition;
+
+        private Constant(DocumentCondition condition) {
+            this.condition = condition;
+        }
+
+        @Override
+        public DocumentCondition bind(Object[] values) {
+            return condition;
+        }
+    }
+
+    private static final class Composite implements Node {
+
+        private final boolean and;
+
+        private final Node[] conditions;
+
+        private Composite(boolean and, Node[] conditions) {
+            this.and = and;
+            this.conditions = conditions;
+        }
+
+        @Override
+        public DocumentCondition bind(Object[] values) {
+            DocumentCondition[] bound = new DocumentCondition[conditions.length];
+            for (int index = 0; index < bound.length; index++) {
+                bound[index] = conditions[index].bind(values);
+            }
+            return and ? DocumentCondition.and(bound) : DocumentCondition.or(bound);
+        }
+    }
+
+    private static final class Negation implements Node {
+
+        private final Node condition;
+
+        private Negation(Node condition) {
+            this.condition = condition;
+        }
+
+        @Override
+        public DocumentCondition bind(Object[] values) {
+            return condition.bind(values).negate();
+        }
+    }
+
+    /**
+     * A condition whose value is either a parameter, when elements is null, or a list with parameters
+     */
+    private static final class Leaf implements Node {
+
+        private final Condition type;
+
+        private final Function<Document, DocumentCondition> factory;
+
+        private final String name;
+
+        private final int slot;
+
+        private final Object[] elements;
+
+        private Leaf(Condition type, String name, int slot, Object[] elements) {
+            this.type = type;
+            this.factory = CONDITIONS.get(type);
+            this.name = name;
+            this.slot = slot;
+            this.elements = elements;
+        }
+
+        @Override
+        public DocumentCondition bind(Object[] values) {
+            Object value;
+            if (elements == null) {
+                value = values[slot];
+                if (Condition.IN.equals(type) && !(value instanceof Iterable)) {
+                    throw new IllegalArgumentException("The value of an IN must be an Iterable, document: " + name);
+                }
+            } else {
+                List<Object> list = new ArrayList<>(elements.length);
+                for (Object element : elements) {
+                    list.add(element instanceof Slot ? values[((Slot) element).slot] : element);
+                }
+                value = list;
+            }
+            return factory.apply(Document.of(name, value));
+        }
+    }
+
+    /**
+     * The position of a parameter within the value of a condition
+     */
+    private static final class Slot {
+
+        private final int slot;
+
+        private Slot(int slot) {
+            this.slot = slot;
+        }
+    }
+
+    private static final class Compiler {
+
+        private final Map<Parameter, Integer> slots = new LinkedHashMap<>();
+
+        private Boolean named;
+
+        private Node compile(DocumentCondition condition) {
+            Condition type = condition.getCondition();
+            Document document = condition.getDocument();
+            switch (type) {
+                case AND:
+                case OR:
+                    List<Node> nodes = new ArrayList<>();
+                    flatten(type, document, nodes);
+                    if (nodes.stream().allMatch(Constant.class::isInstance)) {
+                        return new Constant(condition);
+                    }
+                    return new Composite(Condition.AND.equals(type), nodes.toArray(new Node[nodes.size()]));
+                case NOT:
+                    Node negated = compile(DocumentCondition.class.cast(document.get()));
+                    return negated instanceof Constant ? new Constant(condition) : new Negation(negated);
+                default:
+                    return leaf(condition, type, document);
+            }
+        }
+
+        private void flatten(Condition type, Document document, List<Node> nodes) {
+            for (Object value : Iterable.class.cast(document.get())) {
+                DocumentCondition condition = DocumentCondition.class.cast(value);
+                if (type.equals(condition.getCondition())) {
+                    flatten(type, condition.getDocument(), nodes);
+                } else {
+                    nodes.add(compile(condition));
+                }
+            }
+        }
+
+        private Node leaf(DocumentCondition condition, Condition type, Document document) {
+            Object value = document.get();
+            if (value instanceof Parameter) {
+                return new Leaf(type, document.getName(), slot(Parameter.class.cast(value)), null);
+            }
+            if (value instanceof Iterable) {
+                List<Object> elements = new ArrayList<>();
+                boolean parameters = false;
+                for (Object element : Iterable.class.cast(value)) {
+                    if (element instanceof Parameter) {
+                        elements.add(new Slot(slot(Parameter.class.cast(element))));
+                        parameters = true;
+                    } else {
+                        elements.add(element);
+                    }
+                }
+                if (parameters) {
+                    return new Leaf(type, document.getName(), -1, elements.toArray());
+                }
+            }
+            return new Constant(condition);
+        }
+
+        private int slot(Parameter parameter) {
+            if (named == null) {
+                named = parameter.isNamed();
+            } else if (named != parameter.isNamed()) {
+                throw new IllegalArgumentException("A template cannot mix named and positional parameters: "
+                        + parameter);
+            }
+            if (parameter.isNamed()) {
+                return slots.computeIfAbsent(parameter, p -> slots.size());
+            }
+            slots.putIfAbsent(parameter, parameter.getIndex());
+            return parameter.getIndex();
+        }
+
+        private List<Parameter> parameters() {
+            if (Boolean.FALSE.equals(named)) {
+                TreeSet<Integer> indexes = new TreeSet<>(slots.values());
+                if (indexes.last() != indexes.size() - 1) {
+                    throw new IllegalArgumentException("The positional parameters must start from zero and have "
+                            + "no gaps: " + indexes);
+                }
+                List<Parameter> parameters = new ArrayList<>();
+                indexes.forEach(index -> parameters.add(Parameter.of(index)));
+                return parameters;
+            }
+            return new ArrayList<>(slots.keySet());
+        }
+    }
+}
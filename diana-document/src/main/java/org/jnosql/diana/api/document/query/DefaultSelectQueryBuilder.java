@@ -17,13 +17,19 @@
 package org.jnosql.diana.api.document.query;
 
 
+import org.jnosql.diana.api.Continuation;
 import org.jnosql.diana.api.Sort;
+import org.jnosql.diana.api.aggregation.Aggregate;
 import org.jnosql.diana.api.document.Document;
+import org.jnosql.diana.api.document.DocumentAggregateQuery;
 import org.jnosql.diana.api.document.DocumentCondition;
+import org.jnosql.diana.api.document.DocumentEntity;
 import org.jnosql.diana.api.document.DocumentQuery;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static java.util.Arrays.asList;
 import static java.util.Objects.nonNull;
@@ -33,7 +39,7 @@ import static java.util.Objects.requireNonNull;
  * The default implementation of the Select in the document
  */
 class DefaultSelectQueryBuilder implements DocumentSelect, DocumentFrom, DocumentWhere, DocumentLimit,
-        DocumentStart, DocumentOrder, DocumentWhereName, DocumentNotCondition {
+        DocumentStart, DocumentOrder, DocumentWhereName, DocumentNotCondition, DocumentGroupBy {
 
 
     private String documentCollection;
@@ -48,12 +54,16 @@ class DefaultSelectQueryBuilder implements DocumentSelect, DocumentFrom, Documen
 
     private final List<String> documents;
 
+    private final List<String> groupBy = new ArrayList<>();
+
     private String name;
 
     private boolean negate;
 
     private boolean and;
 
+    private boolean after;
+
     DefaultSelectQueryBuilder(List<String> documents) {
         this.documents = documents;
     }
@@ -95,10 +105,71 @@ class DefaultSelectQueryBuilder implements DocumentSelect, DocumentFrom, Documen
     @Override
     public DocumentOrder orderBy(Sort sort) throws NullPointerException {
         requireNonNull(sort, "sort is required");
+        if (after) {
+            throw new IllegalStateException("The sorts must be defined before the after");
+        }
         this.sorts.add(sort);
         return this;
     }
 
+    @Override
+    public DocumentOrder after(DocumentEntity entity) throws NullPointerException, IllegalArgumentException {
+        requireNonNull(entity, "entity is required");
+        if (sorts.isEmpty()) {
+            throw new IllegalStateException("The after requires at least one sort");
+        }
+        return after(values(sorts, entity));
+    }
+
+    @Override
+    public DocumentOrder after(Continuation continuation) throws NullPointerException, IllegalArgumentException {
+        requireNonNull(continuation, "continuation is required");
+        if (!sorts.equals(continuation.getSorts())) {
+            throw new IllegalArgumentException(String.format("The continuation was created to the sorts %s "
+                    + "instead of %s", continuation.getSorts(), sorts));
+        }
+        return after(continuation.getValues());
+    }
+
+    /**
+     * Appends the keyset condition: (s0 > v0) or (s0 = v0 and s1 > v1) and so on, where a descending sort uses
+     * lesser than
+     */
+    private DocumentOrder after(List<Object> values) {
+        if (after) {
+            throw new IllegalStateException("The query already has an after");
+        }
+        List<DocumentCondition> branches = new ArrayList<>(sorts.size());
+        for (int index = 0; index < sorts.size(); index++) {
+            List<DocumentCondition> conditions = new ArrayList<>(index + 1);
+            for (int previous = 0; previous < index; previous++) {
+                conditions.add(DocumentCondition.eq(Document.of(sorts.get(previous).getName(),
+                        values.get(previous))));
+            }
+            Sort sort = sorts.get(index);
+            Document document = Document.of(sort.getName(), values.get(index));
+            conditions.add(Sort.SortType.DESC.equals(sort.getType()) ? DocumentCondition.lt(document)
+                    : DocumentCondition.gt(document));
+            branches.add(conditions.size() == 1 ? conditions.get(0)
+                    : DocumentCondition.and(conditions.toArray(new DocumentCondition[conditions.size()])));
+        }
+        DocumentCondition keyset = branches.size() == 1 ? branches.get(0)
+                : DocumentCondition.or(branches.toArray(new DocumentCondition[branches.size()]));
+        this.condition = condition == null ? keyset : condition.and(keyset);
+        this.after = true;
+        return this;
+    }
+
+    static List<Object> values(List<Sort> sorts, DocumentEntity entity) {
+        List<Object> values = new ArrayList<>(sorts.size());
+        for (Sort sort : sorts) {
+            Document document = entity.find(sort.getName()).orElseThrow(() ->
+                    new IllegalArgumentException("The entity has no document to the sort: " + sort.getName()));
+            values.add(document.get());
+        }
+        return values;
+    }
+
     @Override
     public DocumentWhere and(DocumentCondition condition) throws NullPointerException {
         requireNonNull(condition, "condition is required");
@@ -190,7 +261,7 @@ class DefaultSelectQueryBuilder implements DocumentSelect, DocumentFrom, Documen
     public <T> DocumentWhere in(Iterable<T> values) throws NullPointerException {
         requireNonNull(values, "values is required");
         DocumentCondition newCondition = DocumentCondition.in(Document.of(name, values));
-        return this;
+        return appendCondition(newCondition);
     }
 
     @Override
@@ -198,6 +269,40 @@ class DefaultSelectQueryBuilder implements DocumentSelect, DocumentFrom, Documen
         return new DefaultDocumentQuery(limit, start, documentCollection, documents, sorts, condition);
     }
 
+    @Override
+    public DocumentGroupBy groupBy(String... names) throws NullPointerException, IllegalArgumentException {
+        requireNonNull(names, "names is required");
+        if (names.length == 0) {
+            throw new IllegalArgumentException("At least one name is required to the group by");
+        }
+        for (String name : names) {
+            groupBy.add(requireNonNull(name, "name is required"));
+        }
+        return this;
+    }
+
+    @Override
+    public DocumentAggregateQuery aggregate(Aggregate... aggregates) throws NullPointerException,
+            IllegalArgumentException, IllegalStateException {
+        requireNonNull(aggregates, "aggregates is required");
+        if (!documents.isEmpty()) {
+            throw new IllegalStateException("An aggregation does not have documents, use the group by instead: "
+                    + documents);
+        }
+        if (aggregates.length == 0) {
+            throw new IllegalArgumentException("At least one aggregate is required");
+        }
+        Set<String> aliases = new HashSet<>();
+        for (Aggregate aggregate : aggregates) {
+            requireNonNull(aggregate, "aggregate is required");
+            if (!aliases.add(aggregate.getAlias())) {
+                throw new IllegalArgumentException("There are two aggregates with the alias " + aggregate.getAlias());
+            }
+        }
+        return new DefaultDocumentAggregateQuery(documentCollection, condition, new ArrayList<>(groupBy),
+                new ArrayList<>(asList(aggregates)));
+    }
+
     private DocumentWhere appendCondition(DocumentCondition newCondition) {
         if (negate) {
             newCondition = newCondition.negate();
@@ -0,0 +1,40 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.document.query;
+
+
+import org.jnosql.diana.api.aggregation.Aggregate;
+import org.jnosql.diana.api.document.DocumentAggregateQuery;
+
+/**
+ * The group by of an aggregation query
+ */
+public interface DocumentGroupBy {
+
+    /**
+     * Creates a new instance of {@link DocumentAggregateQuery} with the aggregates
+     *
+     * @param aggregates the aggregates
+     * @return a new {@link DocumentAggregateQuery} instance
+     * @throws NullPointerException     when aggregates or any aggregate is null
+     * @throws IllegalArgumentException when aggregates is empty or two aggregates have the same alias
+     * @throws IllegalStateException    when the select has documents
+     */
+    DocumentAggregateQuery aggregate(Aggregate... aggregates) throws NullPointerException, IllegalArgumentException,
+            IllegalStateException;
+}
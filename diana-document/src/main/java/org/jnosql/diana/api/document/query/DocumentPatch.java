@@ -0,0 +1,98 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.document.query;
+
+
+import org.jnosql.diana.api.document.DocumentCondition;
+import org.jnosql.diana.api.document.DocumentPatchQuery;
+
+/**
+ * The partial update query, each method adds an operation, they are applied in the order in which they were added
+ *
+ * @see DocumentQueryBuilder#patch(String)
+ */
+public interface DocumentPatch {
+
+    /**
+     * Sets the value of a document
+     *
+     * @param name  the document name
+     * @param value the value
+     * @return this patch
+     * @throws NullPointerException when either name or value is null
+     */
+    DocumentPatch set(String name, Object value) throws NullPointerException;
+
+    /**
+     * Removes a document
+     *
+     * @param name the document name
+     * @return this patch
+     * @throws NullPointerException when name is null
+     */
+    DocumentPatch unset(String name) throws NullPointerException;
+
+    /**
+     * Adds a number to a document
+     *
+     * @param name  the document name
+     * @param value the number to add
+     * @return this patch
+     * @throws NullPointerException when either name or value is null
+     */
+    DocumentPatch increment(String name, Number value) throws NullPointerException;
+
+    /**
+     * Appends an element to the list of a document
+     *
+     * @param name  the document name
+     * @param value the element
+     * @return this patch
+     * @throws NullPointerException when either name or value is null
+     */
+    DocumentPatch append(String name, Object value) throws NullPointerException;
+
+    /**
+     * Removes every occurrence of an element from the list of a document
+     *
+     * @param name  the document name
+     * @param value the element
+     * @return this patch
+     * @throws NullPointerException when either name or value is null
+     */
+    DocumentPatch remove(String name, Object value) throws NullPointerException;
+
+    /**
+     * Creates a new instance of {@link DocumentPatchQuery} that changes the entities that match the condition,
+     * e.g. an equals condition to the key
+     *
+     * @param condition the condition
+     * @return a new {@link DocumentPatchQuery} instance
+     * @throws NullPointerException  when condition is null
+     * @throws IllegalStateException when there is not any operation
+     */
+    DocumentPatchQuery where(DocumentCondition condition) throws NullPointerException, IllegalStateException;
+
+    /**
+     * Creates a new instance of {@link DocumentPatchQuery} that changes every entity of the collection
+     *
+     * @return a new {@link DocumentPatchQuery} instance
+     * @throws IllegalStateException when there is not any operation
+     */
+    DocumentPatchQuery build() throws IllegalStateException;
+}
@@ -16,10 +16,18 @@
  */
 package org.jnosql.diana.api.document.query;
 
+import org.jnosql.diana.api.Continuation;
+import org.jnosql.diana.api.aggregation.Aggregate;
+import org.jnosql.diana.api.document.DocumentAggregateQuery;
+import org.jnosql.diana.api.document.DocumentCollectionManager;
+import org.jnosql.diana.api.document.DocumentEntity;
+import org.jnosql.diana.api.document.DocumentPatchQuery;
+import org.jnosql.diana.api.document.DocumentQuery;
 
 import java.util.stream.Stream;
 
 import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 
@@ -78,4 +86,47 @@ public final class DocumentQueryBuilder {
     public static DocumentDelete delete() throws NullPointerException {
         return new DefaultDeleteQueryBuilder(emptyList());
     }
+
+    /**
+     * Creates a partial update to Document, see {@link DocumentCollectionManager#patch(DocumentPatchQuery)}
+     *
+     * @param documentCollection the collection name
+     * @return a new {@link DocumentPatch} instance
+     * @throws NullPointerException when documentCollection is null
+     */
+    public static DocumentPatch patch(String documentCollection) throws NullPointerException {
+        requireNonNull(documentCollection, "documentCollection is required");
+        return new DefaultDocumentPatchBuilder(documentCollection);
+    }
+
+    /**
+     * Creates the continuation of a page, to select the next page with {@link DocumentOrder#after(Continuation)}
+     *
+     * @param query the query of the page
+     * @param last  the last entity of the page
+     * @return the {@link Continuation}
+     * @throws NullPointerException     when either query or last is null
+     * @throws IllegalArgumentException when the query has no sort, the entity has no document of a sort or has a
+     *                                  value of a type that is not supported by {@link Continuation}
+     */
+    public static Continuation continuation(DocumentQuery query, DocumentEntity last) throws NullPointerException,
+            IllegalArgumentException {
+        requireNonNull(query, "query is required");
+        requireNonNull(last, "last is required");
+        return Continuation.of(query.getSorts(), DefaultSelectQueryBuilder.values(query.getSorts(), last));
+    }
+
+    /**
+     * Creates the aggregation that counts the entities that match the condition of the query, the first result,
+     * the max results, the sorts and the documents of the query are ignored
+     *
+     * @param query the query
+     * @return a new {@link DocumentAggregateQuery} instance with the {@link Aggregate#count()}
+     * @throws NullPointerException when query is null
+     */
+    public static DocumentAggregateQuery count(DocumentQuery query) throws NullPointerException {
+        requireNonNull(query, "query is required");
+        return new DefaultDocumentAggregateQuery(query.getDocumentCollection(), query.getCondition().orElse(null), emptyList(),
+                singletonList(Aggregate.count()));
+    }
 }
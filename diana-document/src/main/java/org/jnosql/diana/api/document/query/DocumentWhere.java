@@ -19,6 +19,8 @@ package org.jnosql.diana.api.document.query;
 
 
 import org.jnosql.diana.api.Sort;
+import org.jnosql.diana.api.aggregation.Aggregate;
+import org.jnosql.diana.api.document.DocumentAggregateQuery;
 import org.jnosql.diana.api.document.DocumentCondition;
 import org.jnosql.diana.api.document.DocumentQuery;
 
@@ -95,4 +97,26 @@ public interface DocumentWhere {
      * @return a new {@link DocumentQuery} instance
      */
     DocumentQuery build();
+
+    /**
+     * Groups the aggregation by documents
+     *
+     * @param names the document names
+     * @return a query with the group by defined
+     * @throws NullPointerException     when names or any name is null
+     * @throws IllegalArgumentException when names is empty
+     */
+    DocumentGroupBy groupBy(String... names) throws NullPointerException, IllegalArgumentException;
+
+    /**
+     * Creates a new instance of {@link DocumentAggregateQuery} without group by
+     *
+     * @param aggregates the aggregates
+     * @return a new {@link DocumentAggregateQuery} instance
+     * @throws NullPointerException     when aggregates or any aggregate is null
+     * @throws IllegalArgumentException when aggregates is empty or two aggregates have the same alias
+     * @throws IllegalStateException    when the select has documents
+     */
+    DocumentAggregateQuery aggregate(Aggregate... aggregates) throws NullPointerException, IllegalArgumentException,
+            IllegalStateException;
 }
@@ -66,11 +66,20 @@ class ReadOnlyDocumentCondition implements DocumentCondition {
             return false;
         }
         DocumentCondition that = (DocumentCondition) o;
-        return Objects.equals(condition, that.getCondition());
+        return Objects.equals(condition.getDocument(), that.getDocument()) &&
+                condition.getCondition() == that.getCondition();
     }
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(condition);
+        return Objects.hash(condition.getDocument(), condition.getCondition());
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ReadOnlyDocumentCondition{");
+        sb.append("condition=").append(condition);
+        sb.append('}');
+        return sb.toString();
     }
 }
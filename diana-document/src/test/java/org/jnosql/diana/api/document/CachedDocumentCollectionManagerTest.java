@@ -0,0 +1,272 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.document;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.jnosql.diana.api.document.DocumentCondition.eq;
+import static org.jnosql.diana.api.document.DocumentCondition.gt;
+import static org.jnosql.diana.api.document.DocumentCondition.in;
+import static org.jnosql.diana.api.document.query.DocumentQueryBuilder.delete;
+import static org.jnosql.diana.api.document.query.DocumentQueryBuilder.select;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CachedDocumentCollectionManagerTest {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenManagerIsNull() {
+        CachedDocumentCollectionManager.of(null, 1024, TTL);
+    }
+
+    @Test
+    public void shouldCacheTheSameQuery() {
+        CountingManager manager = new CountingManager();
+        CachedDocumentCollectionManager cached = CachedDocumentCollectionManager.of(manager, 1024 * 1024, TTL);
+        DocumentQuery query = select().from("person").where(eq(Document.of("name", "Ada"))).build();
+
+        assertEquals(manager.entities, copies(cached.select(query)));
+        assertEquals(manager.entities, copies(cached.select(query)));
+        assertEquals(manager.entities.get(0), cached.singleResult(query).get().copy());
+        assertEquals(1, manager.selects.get());
+        assertEquals(2L, cached.getStats().getHitCount());
+    }
+
+    @Test
+    public void shouldShareTheResultOfEquivalentQueries() {
+        CountingManager manager = new CountingManager();
+        CachedDocumentCollectionManager cached = CachedDocumentCollectionManager.of(manager, 1024 * 1024, TTL);
+        cached.select(select().from("person").where(eq(Document.of("name", "Ada")))
+                .and(in(Document.of("age", Arrays.asList(10, 20)))).build());
+        cached.select(select().from("person").where(in(Document.of("age", Arrays.asList(20, 10))))
+                .and(eq(Document.of("name", "Ada"))).build());
+        assertEquals(1, manager.selects.get());
+
+        cached.select(select().from("person").where(eq(Document.of("name", "Poliana"))).build());
+        assertEquals(2, manager.selects.get());
+    }
+
+    @Test
+    public void shouldReturnReadOnlySharedEntities() {
+        CountingManager manager = new CountingManager();
+        CachedDocumentCollectionManager cached = CachedDocumentCollectionManager.of(manager, 1024 * 1024, TTL);
+        DocumentQuery query = select().from("person").build();
+        cached.select(query);
+
+        DocumentEntity entity = cached.select(query).get(0);
+        assertSame(entity, cached.select(query).get(0));
+        assertEquals(manager.entities.get(0), entity.copy());
+        try {
+            entity.add(Document.of("changed", true));
+        } catch (UnsupportedOperationException e) {
+            DocumentEntity copy = entity.copy();
+            copy.add(Document.of("changed", true));
+            assertTrue(copy.contains("changed"));
+            assertEquals(manager.entities.get(0), cached.select(query).get(0).copy());
+            return;
+        }
+        throw new AssertionError("a cached entity must be read only");
+    }
+
+    @Test
+    public void shouldInvalidateTheCollectionOnWrite() {
+        CountingManager manager = new CountingManager();
+        CachedDocumentCollectionManager cached = CachedDocumentCollectionManager.of(manager, 1024 * 1024, TTL);
+        DocumentQuery person = select().from("person").build();
+        DocumentQuery animal = select().from("animal").build();
+        cached.select(person);
+        cached.select(animal);
+
+        cached.insert(DocumentEntity.of("person"));
+        cached.select(person);
+        cached.select(animal);
+        assertEquals(3, manager.selects.get());
+
+        cached.update(Collections.singletonList(DocumentEntity.of("animal")));
+        cached.select(person);
+        cached.select(animal);
+        assertEquals(4, manager.selects.get());
+
+        cached.delete(delete().from("person").build());
+        cached.select(person);
+        assertEquals(5, manager.selects.get());
+
+        cached.invalidate("animal");
+        cached.select(animal);
+        assertEquals(6, manager.selects.get());
+    }
+
+    @Test
+    public void shouldInvalidateOnTheWriteOfAOneShotIterable() {
+        CountingManager manager = new CountingManager();
+        CachedDocumentCollectionManager cached = CachedDocumentCollectionManager.of(manager, 1024 * 1024, TTL);
+        DocumentQuery person = select().from("person").build();
+        cached.select(person);
+
+        List<DocumentEntity> entities = Collections.singletonList(DocumentEntity.of("person"));
+        AtomicBoolean read = new AtomicBoolean();
+        cached.insert(() -> {
+            if (read.getAndSet(true)) {
+                throw new IllegalStateException("The entities were already read");
+            }
+            return entities.iterator();
+        });
+        cached.select(person);
+        assertEquals(2, manager.selects.get());
+    }
+
+    @Test
+    public void shouldInvalidateByIndexedDocument() {
+        CountingManager manager = new CountingManager();
+        CachedDocumentCollectionManager cached = CachedDocumentCollectionManager.of(manager, 1024 * 1024, TTL,
+                Collections.singletonMap("orders", Collections.singleton("customer")));
+        DocumentQuery first = select().from("orders").where(eq(Document.of("customer", 1))).build();
+        DocumentQuery second = select().from("orders").where(gt(Document.of("total", 10)))
+                .and(eq(Document.of("customer", 2))).build();
+        DocumentQuery all = select().from("orders").where(gt(Document.of("total", 10))).build();
+        cached.select(first);
+        cached.select(second);
+        cached.select(all);
+        assertEquals(3, manager.selects.get());
+
+        cached.insert(DocumentEntity.of("orders", Arrays.asList(Document.of("customer", 1L),
+                Document.of("total", 20))));
+        cached.select(first);
+        cached.select(second);
+        cached.select(all);
+        assertEquals(5, manager.selects.get());
+
+        cached.delete(delete().from("orders").where(eq(Document.of("customer", 2))).build());
+        cached.select(first);
+        cached.select(second);
+        cached.select(all);
+        assertEquals(7, manager.selects.get());
+
+        cached.delete(delete().from("orders").where(gt(Document.of("total", 100))).build());
+        cached.select(first);
+        cached.select(second);
+        cached.select(all);
+        assertEquals(10, manager.selects.get());
+    }
+
+    @Test
+    public void shouldBoundTheCacheBySize() {
+        CountingManager manager = new CountingManager();
+        CachedDocumentCollectionManager cached = CachedDocumentCollectionManager.of(manager, 1024, TTL);
+        for (int index = 0; index < 100; index++) {
+            cached.select(select().from("person").where(eq(Document.of("id", index))).build());
+        }
+        assertTrue(cached.getStats().getEvictionCount() > 0);
+    }
+
+    @Test
+    public void shouldCoalesceConcurrentQueries() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        CountingManager manager = new CountingManager() {
+            @Override
+            public List<DocumentEntity> select(DocumentQuery query) {
+                started.incrementAndGet();
+                try {
+                    latch.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.select(query);
+            }
+        };
+        CachedDocumentCollectionManager cached = CachedDocumentCollectionManager.of(manager, 1024 * 1024, TTL);
+        DocumentQuery query = select().from("person").build();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<List<DocumentEntity>> first = executor.submit(() -> cached.select(query));
+            while (manager.started.get() == 0) {
+                Thread.yield();
+            }
+            Future<List<DocumentEntity>> second = executor.submit(() -> cached.select(query));
+            Future<List<DocumentEntity>> third = executor.submit(() -> cached.select(query));
+            TimeUnit.MILLISECONDS.sleep(50);
+            latch.countDown();
+
+            assertEquals(manager.entities, copies(first.get(5, TimeUnit.SECONDS)));
+            assertEquals(manager.entities, copies(second.get(5, TimeUnit.SECONDS)));
+            assertEquals(manager.entities, copies(third.get(5, TimeUnit.SECONDS)));
+            assertEquals(1, manager.selects.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<DocumentEntity> copies(List<DocumentEntity> entities) {
+        return entities.stream().map(DocumentEntity::copy).collect(Collectors.toList());
+    }
+
+    private static class CountingManager implements DocumentCollectionManager {
+
+        final AtomicInteger started = new AtomicInteger();
+
+        final AtomicInteger selects = new AtomicInteger();
+
+        final List<DocumentEntity> entities = Collections.singletonList(
+                DocumentEntity.of("person", Arrays.asList(Document.of("name", "Ada"), Document.of("age", 10))));
+
+        @Override
+        public DocumentEntity insert(DocumentEntity entity) {
+            return entity;
+        }
+
+        @Override
+        public DocumentEntity insert(DocumentEntity entity, Duration ttl) {
+            return entity;
+        }
+
+        @Override
+        public DocumentEntity update(DocumentEntity entity) {
+            return entity;
+        }
+
+        @Override
+        public void delete(DocumentDeleteQuery query) {
+        }
+
+        @Override
+        public List<DocumentEntity> select(DocumentQuery query) {
+            selects.incrementAndGet();
+            return entities;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
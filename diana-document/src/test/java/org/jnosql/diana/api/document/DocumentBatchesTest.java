@@ -0,0 +1,254 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+
+package org.jnosql.diana.api.document;
+
+import org.jnosql.diana.api.ExecuteAsyncQueryException;
+import org.jnosql.diana.api.batch.BatchPolicy;
+import org.jnosql.diana.api.batch.BatchWriteException;
+import org.jnosql.diana.api.batch.Batcher;
+import org.jnosql.diana.api.batch.BulkExecutor;
+import org.jnosql.diana.api.batch.BulkResult;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DocumentBatchesTest {
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenManagerIsNull() {
+        DocumentBatches.of(null, BatchPolicy.of(10));
+    }
+
+    @Test
+    public void shouldInsertInBatchesGroupedByCollection() {
+        BatchManager manager = new BatchManager();
+        DocumentCollectionManager batchManager = DocumentBatches.of(manager, BatchPolicy.of(2));
+        List<DocumentEntity> entities = Arrays.asList(entity("person", 1), entity("animal", 2),
+                entity("person", 3), entity("person", 4));
+        Iterable<DocumentEntity> result = batchManager.insert(entities);
+
+        assertEquals(entities, result);
+        assertEquals(3, manager.batches.size());
+        assertEquals(Arrays.asList("person", "animal", "person"), manager.collections);
+        assertEquals(Arrays.asList(entities.get(0), entities.get(2)), manager.batches.get(0));
+        assertEquals(Collections.singletonList(entities.get(3)), manager.batches.get(2));
+    }
+
+    @Test
+    public void shouldUpdateInBatches() {
+        BatchManager manager = new BatchManager();
+        DocumentCollectionManager batchManager = DocumentBatches.of(manager, BatchPolicy.of(10));
+        batchManager.update(Arrays.asList(entity("person", 1), entity("person", 2)));
+        assertEquals(1, manager.batches.size());
+        assertEquals(2, manager.batches.get(0).size());
+    }
+
+    @Test
+    public void shouldReportTheEntitiesThatFailed() {
+        BatchManager manager = new BatchManager();
+        DocumentCollectionManager batchManager = DocumentBatches.of(manager, DocumentBatchWriter.of(manager),
+                BatchPolicy.of(10));
+        DocumentEntity error = entity("error", 2);
+        try {
+            batchManager.insert(Arrays.asList(entity("person", 1), error));
+            fail("It should fail");
+        } catch (BatchWriteException exception) {
+            assertEquals(1, exception.getFailures().size());
+            assertEquals(error, exception.getFailures().get(0).getItem());
+        }
+        assertEquals(1, manager.inserted.size());
+    }
+
+    @Test
+    public void shouldSaveWhenTheBatcherIsFlushed() {
+        BatchManager manager = new BatchManager();
+        List<Object> failures = new ArrayList<>();
+        Batcher<String, DocumentEntity> inserter = DocumentBatches.inserter(manager, BatchPolicy.of(10),
+                failures::add, null);
+        inserter.add(entity("person", 1));
+        assertEquals(0, manager.batches.size());
+        inserter.flush();
+        assertEquals(1, manager.batches.size());
+        assertEquals(0, failures.size());
+    }
+
+    @Test
+    public void shouldInsertAsynchronouslyWithBoundedInFlight() throws InterruptedException {
+        BatchManager manager = new BatchManager();
+        DocumentCollectionManagerAsync managerAsync = DocumentCollectionManagerAsync.of(manager);
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<BulkResult<DocumentEntity>> result = new AtomicReference<>();
+        DocumentBatches.insert(managerAsync, Arrays.asList(entity("person", 1), entity("error", 2),
+                entity("person", 3)), BulkExecutor.of(2), r -> {
+            result.set(r);
+            latch.countDown();
+        });
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        managerAsync.close();
+        assertEquals(2L, result.get().getSucceeded());
+        assertEquals(1, result.get().getFailures().size());
+    }
+
+    @Test
+    public void shouldReportTheFailuresOfAnyAsyncManager() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<BulkResult<DocumentEntity>> result = new AtomicReference<>();
+        DocumentBatches.insert(new RejectingManagerAsync(), Arrays.asList(entity("person", 1), entity("error", 2)),
+                BulkExecutor.of(2), r -> {
+                    result.set(r);
+                    latch.countDown();
+                });
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(1L, result.get().getSucceeded());
+        assertEquals(1, result.get().getFailures().size());
+    }
+
+    private static DocumentEntity entity(String collection, int id) {
+        DocumentEntity entity = DocumentEntity.of(collection);
+        entity.add("id", id);
+        return entity;
+    }
+
+    /**
+     * An asynchronous manager that rejects the entities named error when they are submitted
+     */
+    private static class RejectingManagerAsync implements DocumentCollectionManagerAsync {
+
+        @Override
+        public void insert(DocumentEntity entity) {
+            insert(entity, e -> {
+            });
+        }
+
+        @Override
+        public void insert(DocumentEntity entity, Duration ttl) {
+            insert(entity);
+        }
+
+        @Override
+        public void insert(DocumentEntity entity, Consumer<DocumentEntity> callBack) {
+            if ("error".equals(entity.getName())) {
+                throw new ExecuteAsyncQueryException("rejected");
+            }
+            callBack.accept(entity);
+        }
+
+        @Override
+        public void insert(DocumentEntity entity, Duration ttl, Consumer<DocumentEntity> callBack) {
+            insert(entity, callBack);
+        }
+
+        @Override
+        public void update(DocumentEntity entity) {
+            insert(entity);
+        }
+
+        @Override
+        public void update(DocumentEntity entity, Consumer<DocumentEntity> callBack) {
+            insert(entity, callBack);
+        }
+
+        @Override
+        public void delete(DocumentDeleteQuery query) {
+        }
+
+        @Override
+        public void delete(DocumentDeleteQuery query, Consumer<Void> callBack) {
+            callBack.accept(null);
+        }
+
+        @Override
+        public void select(DocumentQuery query, Consumer<List<DocumentEntity>> callBack) {
+            callBack.accept(Collections.emptyList());
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static class BatchManager implements DocumentCollectionManager, DocumentBatchWriter {
+
+        private final List<String> collections = new ArrayList<>();
+
+        private final List<List<DocumentEntity>> batches = new ArrayList<>();
+
+        private final List<DocumentEntity> inserted = new ArrayList<>();
+
+        @Override
+        public void insert(String collection, List<DocumentEntity> entities) {
+            collections.add(collection);
+            batches.add(new ArrayList<>(entities));
+        }
+
+        @Override
+        public void insert(String collection, List<DocumentEntity> entities, Duration ttl) {
+            insert(collection, entities);
+        }
+
+        @Override
+        public void update(String collection, List<DocumentEntity> entities) {
+            insert(collection, entities);
+        }
+
+        @Override
+        public DocumentEntity insert(DocumentEntity entity) {
+            if ("error".equals(entity.getName())) {
+                throw new IllegalStateException("error");
+            }
+            inserted.add(entity);
+            return entity;
+        }
+
+        @Override
+        public DocumentEntity update(DocumentEntity entity) {
+            return insert(entity);
+        }
+
+        @Override
+        public DocumentEntity insert(DocumentEntity entity, Duration ttl) {
+            return insert(entity);
+        }
+
+        @Override
+        public void delete(DocumentDeleteQuery query) {
+        }
+
+        @Override
+        public List<DocumentEntity> select(DocumentQuery query) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
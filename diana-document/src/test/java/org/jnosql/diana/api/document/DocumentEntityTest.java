@@ -20,9 +20,12 @@ package org.jnosql.diana.api.document;
 import org.jnosql.diana.api.Value;
 import org.junit.Test;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
@@ -300,4 +303,83 @@ public class DocumentEntityTest {
         assertTrue(collection.isEmpty());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldWalkEachNameAndValue() {
+        DocumentEntity entity = DocumentEntity.of("entity", asList(Document.of("name", "Ada"), Document.of("age", 10)));
+        Map<String, Object> result = new HashMap<>();
+        entity.forEach((name, value) -> result.put(name, value.get()));
+        assertEquals(entity.toMap(), result);
+    }
+
+    @Test
+    public void shouldReturnLiveViews() {
+        DocumentEntity entity = DocumentEntity.of("entity");
+        Set<String> names = entity.getDocumentNames();
+        Collection<Value> values = entity.getValues();
+        List<Document> documents = entity.getDocuments();
+        Map<String, Object> map = entity.toMap();
+        entity.add("name", "Ada");
+        entity.add("age", 10);
+
+        assertThat(names, containsInAnyOrder("name", "age"));
+        assertThat(values, containsInAnyOrder(Value.of("Ada"), Value.of(10)));
+        assertThat(documents, containsInAnyOrder(Document.of("name", "Ada"), Document.of("age", 10)));
+        assertEquals(10, map.get("age"));
+        entity.remove("name");
+        assertEquals(1, names.size());
+        assertEquals(Document.of("age", 10), documents.get(0));
+        assertFalse(map.containsKey("name"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldReturnErrorWhenViewIsChanged() {
+        DocumentEntity entity = DocumentEntity.of("entity");
+        entity.add("name", "Ada");
+        entity.getDocuments().remove(0);
+    }
+
+    @Test
+    public void shouldNotChangeTheCopyWhenTheEntityIsChanged() {
+        DocumentEntity entity = DocumentEntity.of("entity", asList(Document.of("name", "Ada"), Document.of("age", 10)));
+        DocumentEntity copy = entity.copy();
+        entity.add("name", "Grace");
+        entity.remove("age");
+        assertEquals("Ada", copy.find("name").get().get());
+        assertEquals(10, copy.find("age").get().get());
+
+        DocumentEntity second = copy.copy();
+        second.clear();
+        assertEquals(2, copy.size());
+        assertTrue(second.isEmpty());
+    }
+
+    @Test
+    public void shouldBeEqualsRegardlessTheOrder() {
+        DocumentEntity first = DocumentEntity.of("entity", asList(Document.of("name", "Ada"), Document.of("age", 10)));
+        DocumentEntity second = DocumentEntity.of("entity", asList(Document.of("age", 10), Document.of("name", "Ada")));
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+
+        second.add("age", 11);
+        assertFalse(first.equals(second));
+        second.add("age", 10);
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+
+        second.add("city", "London");
+        second.remove("city");
+        assertEquals(first.hashCode(), second.hashCode());
+        first.clear();
+        assertEquals(DocumentEntity.of("entity").hashCode(), first.hashCode());
+    }
+
+    @Test
+    public void shouldBeEqualsToTheSameKindOfEntityOnly() {
+        DocumentEntity entity = DocumentEntity.of("entity", singletonList(Document.of("name", "Ada")));
+        DocumentEntity view = new ReadOnlyDocumentEntity(entity.copy());
+        assertFalse(entity.equals(view));
+        assertFalse(view.equals(entity));
+        assertEquals(new ReadOnlyDocumentEntity(entity), view);
+        assertEquals(entity, view.copy());
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.document;
+
+import org.jnosql.diana.api.Sort;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.jnosql.diana.api.document.DocumentCondition.eq;
+import static org.jnosql.diana.api.document.DocumentCondition.gt;
+import static org.jnosql.diana.api.document.DocumentCondition.in;
+import static org.jnosql.diana.api.document.query.DocumentQueryBuilder.delete;
+import static org.jnosql.diana.api.document.query.DocumentQueryBuilder.select;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class DocumentFingerprintsTest {
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenQueryIsNull() {
+        DocumentFingerprints.of((DocumentQuery) null);
+    }
+
+    @Test
+    public void shouldIgnoreTheOrderOfConditionsAndValues() {
+        DocumentQuery first = select("name", "age").from("person").where(eq(Document.of("name", "Ada")))
+                .and(in(Document.of("age", Arrays.asList(10, 20)))).build();
+        DocumentQuery second = select("age", "name").from("person").where(in(Document.of("age", Arrays.asList(20L, 10L))))
+                .and(eq(Document.of("name", "Ada"))).build();
+        assertEquals(DocumentFingerprints.of(first), DocumentFingerprints.of(second));
+        assertEquals(DocumentFingerprints.shape(first), DocumentFingerprints.shape(second));
+    }
+
+    @Test
+    public void shouldDifferByValue() {
+        DocumentQuery first = select().from("person").where(eq(Document.of("name", "Ada"))).build();
+        DocumentQuery second = select().from("person").where(eq(Document.of("name", "Poliana"))).build();
+        assertNotEquals(DocumentFingerprints.of(first), DocumentFingerprints.of(second));
+        assertEquals(DocumentFingerprints.shape(first), DocumentFingerprints.shape(second));
+    }
+
+    @Test
+    public void shouldDifferByStructure() {
+        DocumentQuery query = select().from("person").where(eq(Document.of("name", "Ada"))).build();
+        DocumentQuery other = select().from("person").where(gt(Document.of("name", "Ada"))).build();
+        DocumentQuery negated = select().from("person").where(eq(Document.of("name", "Ada")).negate()).build();
+        DocumentQuery sorted = select().from("person").where(eq(Document.of("name", "Ada")))
+                .orderBy(Sort.of("age", Sort.SortType.ASC)).build();
+        DocumentQuery family = select().from("animal").where(eq(Document.of("name", "Ada"))).build();
+        for (DocumentQuery different : Arrays.asList(other, negated, sorted, family)) {
+            assertNotEquals(DocumentFingerprints.of(query), DocumentFingerprints.of(different));
+            assertNotEquals(DocumentFingerprints.shape(query), DocumentFingerprints.shape(different));
+        }
+    }
+
+    @Test
+    public void shouldIgnoreTheLimitsInTheShape() {
+        DocumentQuery first = select().from("person").start(10).limit(20).build();
+        DocumentQuery second = select().from("person").start(30).limit(40).build();
+        assertNotEquals(DocumentFingerprints.of(first), DocumentFingerprints.of(second));
+        assertEquals(DocumentFingerprints.shape(first), DocumentFingerprints.shape(second));
+        assertNotEquals(DocumentFingerprints.shape(first), DocumentFingerprints.shape(select().from("person").build()));
+    }
+
+    @Test
+    public void shouldBeStable() {
+        DocumentQuery query = select().from("person").where(eq(Document.of("name", "Ada"))).build();
+        assertEquals(DocumentFingerprints.of(query).toString(), DocumentFingerprints.of(query).toString());
+        assertEquals(32, DocumentFingerprints.of(query).toString().length());
+    }
+
+    @Test
+    public void shouldFingerprintDeleteQuery() {
+        DocumentDeleteQuery first = delete().from("person").where(eq(Document.of("name", "Ada"))).build();
+        DocumentDeleteQuery second = delete().from("person").where(eq(Document.of("name", "Poliana"))).build();
+        assertNotEquals(DocumentFingerprints.of(first), DocumentFingerprints.of(second));
+        assertEquals(DocumentFingerprints.shape(first), DocumentFingerprints.shape(second));
+        assertNotEquals(DocumentFingerprints.of(first),
+                DocumentFingerprints.of(select().from("person").where(eq(Document.of("name", "Ada"))).build()));
+    }
+}
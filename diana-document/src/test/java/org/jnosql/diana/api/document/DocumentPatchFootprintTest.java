@@ -0,0 +1,76 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.document;
+
+import org.jnosql.diana.api.PatchOperation;
+import org.jnosql.diana.api.Sizes;
+import org.junit.Test;
+
+import static org.jnosql.diana.api.document.query.DocumentQueryBuilder.patch;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the bytes that a driver moves to change a field: the whole entity with an update or just the
+ * operations with a patch
+ */
+public class DocumentPatchFootprintTest {
+
+    private static final int FIELDS = 200;
+
+    @Test
+    public void shouldMoveLessBytesThanAnUpdate() {
+        DocumentEntity entity = entity();
+        DocumentPatchQuery query = patch("patch").increment("visits", 1).append("tags", "patched")
+                .where(DocumentCondition.eq(Document.of("_id", 10L)));
+
+        long updateBytes = DocumentEntitySizes.estimate(query.apply(entity.copy()));
+        long patchBytes = estimate(query);
+        assertTrue("update: " + updateBytes + " patch: " + patchBytes, patchBytes * 100 < updateBytes);
+    }
+
+    @Test
+    public void shouldChangeTheSameFieldsThanAnUpdate() {
+        DocumentEntity entity = entity();
+        DocumentPatchQuery query = patch("patch").increment("visits", 1).unset("field0").build();
+        DocumentEntity patched = query.apply(entity.copy());
+
+        entity.add("visits", 11L);
+        entity.remove("field0");
+        assertEquals(entity.toMap(), patched.toMap());
+    }
+
+    private static DocumentEntity entity() {
+        DocumentEntity entity = DocumentEntity.of("patch");
+        entity.add("_id", 10L);
+        entity.add("visits", 10L);
+        for (int index = 0; index < FIELDS; index++) {
+            entity.add("field" + index, "the value of the field " + index);
+        }
+        return entity;
+    }
+
+    private static long estimate(DocumentPatchQuery query) {
+        long size = Sizes.OBJECT_HEADER + Sizes.estimate(query.getDocumentCollection());
+        for (PatchOperation operation : query.getOperations()) {
+            size += Sizes.OBJECT_HEADER + Sizes.estimate(operation.getName())
+                    + Sizes.estimate(operation.getValue().orElse(null));
+        }
+        return size;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.document;
+
+import org.jnosql.diana.api.Value;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DocumentPathTest {
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenPathIsNull() {
+        DocumentPath.of(null);
+    }
+
+    @Test
+    public void shouldReturnErrorWhenPathIsInvalid() {
+        for (String path : Arrays.asList("", ".a", "a.", "a..b", "a[", "a[]", "a[x]", "a]", "[1]", "a[1]b")) {
+            try {
+                DocumentPath.of(path);
+                throw new AssertionError("It should fail: " + path);
+            } catch (IllegalArgumentException exception) {
+                assertTrue(exception.getMessage().contains(path));
+            }
+        }
+    }
+
+    @Test
+    public void shouldCompileOnce() {
+        DocumentPath path = DocumentPath.of("items[3].sku");
+        assertSame(path, DocumentPath.of("items[3].sku"));
+        assertEquals(3, path.size());
+        assertEquals("items", path.getRoot());
+        assertEquals("items[3].sku", path.toString());
+    }
+
+    @Test
+    public void shouldReadSubDocuments() {
+        DocumentEntity address = DocumentEntity.of("address");
+        address.add("city", "London");
+        DocumentEntity entity = DocumentEntity.of("person");
+        entity.add("address", address);
+        entity.add("contact", asList(Document.of("email", "ada@example.com"), Document.of("phone", "123")));
+        entity.add("tags", Collections.singletonMap("main", "math"));
+
+        assertEquals("London", DocumentPath.of("address.city").get(entity).get().get());
+        assertEquals("123", DocumentPath.of("contact.phone").get(entity).get().get());
+        assertEquals("math", DocumentPath.of("tags.main").get(entity).get().get());
+        assertFalse(DocumentPath.of("address.country").get(entity).isPresent());
+        assertFalse(DocumentPath.of("address.city.name").get(entity).isPresent());
+    }
+
+    @Test
+    public void shouldReadIndexes() {
+        DocumentEntity entity = DocumentEntity.of("order");
+        entity.add("items", asList(asList(Document.of("sku", "a1")), asList(Document.of("sku", "b2"))));
+        entity.add("matrix", new int[][]{{1, 2}, {3, 4}});
+
+        assertEquals("b2", DocumentPath.of("items[1].sku").get(entity).get().get());
+        assertEquals(4, DocumentPath.of("matrix[1][1]").get(entity).get().get());
+        assertFalse(DocumentPath.of("items[2].sku").get(entity).isPresent());
+    }
+
+    @Test
+    public void shouldFindPathInEntity() {
+        DocumentEntity address = DocumentEntity.of("address");
+        address.add("city", "London");
+        DocumentEntity entity = DocumentEntity.of("person");
+        entity.add("address", address);
+        entity.add("a.b", "top level");
+
+        Optional<Document> city = entity.find("address.city");
+        assertEquals(Document.of("address.city", "London"), city.get());
+        assertEquals(Document.of("address.city", Value.of("London")), DocumentPath.of("address.city").find(entity).get());
+        assertEquals("top level", entity.find("a.b").get().get());
+        assertFalse(entity.find("a..b").isPresent());
+        assertFalse(entity.contains("address.city"));
+    }
+}
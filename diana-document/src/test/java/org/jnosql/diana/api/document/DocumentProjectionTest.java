@@ -0,0 +1,152 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.document;
+
+import org.jnosql.diana.api.Value;
+import org.jnosql.diana.api.document.query.DocumentQueryBuilder;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DocumentProjectionTest {
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenDocumentsIsNull() {
+        DocumentProjection.of((List<String>) null);
+    }
+
+    @Test
+    public void shouldReturnEveryDocumentWhenEmpty() {
+        DocumentProjection projection = DocumentProjection.of(DocumentQueryBuilder.select().from("person").build());
+        assertTrue(projection.isAll());
+        assertTrue(projection.contains("name"));
+        DocumentEntity entity = person();
+        DocumentEntity result = projection.apply(entity);
+        assertEquals(entity, result);
+        result.remove("name");
+        assertTrue(entity.contains("name"));
+    }
+
+    @Test
+    public void shouldIgnoreRepeatedDocuments() {
+        DocumentProjection projection = DocumentProjection.of(Arrays.asList("name", "age", "name"));
+        assertEquals(Arrays.asList("name", "age"), projection.getDocuments());
+        assertEquals(DocumentProjection.of(Arrays.asList("age", "name")), projection);
+        assertFalse(projection.contains("city"));
+    }
+
+    @Test
+    public void shouldApply() {
+        DocumentProjection projection = DocumentProjection.of(DocumentQueryBuilder.select("name", "phone").from("person")
+                .build());
+        DocumentEntity result = projection.apply(person());
+        assertEquals(Collections.singletonList(Document.of("name", "Ada")), result.getDocuments());
+        result.add("city", "Paris");
+        assertEquals(2, result.size());
+    }
+
+    @Test
+    public void shouldReadOnlyTheRequestedDocuments() {
+        List<String> read = new ArrayList<>();
+        DocumentEntity row = person();
+        Function<String, Object> reader = name -> {
+            read.add(name);
+            return row.find(name).map(Document::getValue).orElse(null);
+        };
+        DocumentEntity entity = DocumentProjection.of(Arrays.asList("name", "age", "phone")).lazy("person", reader);
+        assertTrue(read.isEmpty());
+        assertEquals(Value.of("Ada"), entity.find("name").get().getValue());
+        assertFalse(entity.find("city").isPresent());
+        entity.find("name");
+        assertEquals(Collections.singletonList("name"), read);
+
+        assertEquals(2, entity.size());
+        assertEquals(Arrays.asList("name", "age", "phone"), read);
+        DocumentEntity copy = entity.copy();
+        copy.add("city", "London");
+        assertEquals(3, copy.size());
+        assertEquals(DocumentEntity.of("person", Arrays.asList(Document.of("name", "Ada"), Document.of("age", 36))),
+                DocumentProjection.of(Arrays.asList("name", "age")).apply(copy));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldReturnErrorWhenLazyEntityIsChanged() {
+        DocumentProjection.of(Collections.singletonList("name")).lazy("person", name -> "Ada").add("age", 10);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldReturnErrorWhenLazyEntityHasEveryDocument() {
+        DocumentProjection.of(Collections.emptyList()).lazy("person", name -> null);
+    }
+
+    @Test
+    public void shouldReturnSameProjectionWhenEveryDocument() {
+        assertSame(DocumentProjection.of(Collections.emptyList()), DocumentProjection.of(new ArrayList<>()));
+    }
+
+    @Test
+    public void shouldProjectPath() {
+        DocumentEntity entity = person();
+        entity.add("address", Arrays.asList(Document.of("city", "London"), Document.of("zip", "N1")));
+        DocumentProjection projection = DocumentProjection.of(Collections.singletonList("address.city"));
+        assertEquals(Collections.singletonList(Document.of("address.city", "London")),
+                projection.apply(entity).getDocuments());
+
+        DocumentEntity lazy = DocumentProjection.of(Collections.singletonList("address"))
+                .lazy("person", name -> entity.find(name).map(Document::getValue).orElse(null));
+        assertEquals(Value.of("London"), lazy.find("address.city").get().getValue());
+        assertFalse(lazy.find("name").isPresent());
+    }
+
+    @Test
+    public void shouldSerializeALazyEntityWithItsValues() throws IOException, ClassNotFoundException {
+        DocumentEntity row = person();
+        DocumentEntity entity = DocumentProjection.of(Arrays.asList("name", "age")).lazy("person",
+                name -> row.find(name).map(Document::getValue).orElse(null));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(entity);
+        }
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(entity.copy(), input.readObject());
+        }
+    }
+
+    private static DocumentEntity person() {
+        DocumentEntity entity = DocumentEntity.of("person");
+        entity.add("_id", 1);
+        entity.add("name", "Ada");
+        entity.add("age", 36);
+        entity.add("city", "London");
+        return entity;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.document;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class DocumentSchemaTest {
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenNameIsNull() {
+        DocumentSchema.of("id", null);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void shouldReturnErrorWhenSlotDoesNotExist() {
+        DocumentSchema.of("id").getName(1);
+    }
+
+    @Test
+    public void shouldGiveSlotsFollowingTheOrder() {
+        DocumentSchema schema = DocumentSchema.of("id", "name");
+        assertEquals(0, schema.getSlot("id"));
+        assertEquals(1, schema.getSlot("name"));
+        assertEquals(-1, schema.getSlot("age"));
+        assertEquals(2, schema.add("age"));
+        assertEquals(2, schema.add("age"));
+        assertEquals("age", schema.getName(2));
+        assertThat(schema.getNames(), contains("id", "name", "age"));
+    }
+
+    @Test
+    public void shouldShareTheSchemaAmongEntities() {
+        DocumentSchema schema = DocumentSchema.of("id", "name");
+        DocumentEntity first = schema.newEntity("person");
+        first.add("id", 1);
+        first.add("name", "Ada");
+        DocumentEntity second = schema.newEntity("person");
+        second.add("name", "Grace");
+        second.add("age", 30);
+
+        assertEquals(3, schema.size());
+        assertEquals("Ada", first.find("name").get().get());
+        assertFalse(first.contains("age"));
+        assertThat(second.getDocumentNames(), containsInAnyOrder("name", "age"));
+        assertTrue(second.remove("name"));
+        assertEquals(1, second.size());
+        assertEquals(2, first.size());
+    }
+
+    @Test
+    public void shouldBeEqualsWhenTheSchemasAreDifferent() {
+        DocumentEntity first = DocumentSchema.of("id", "name").newEntity("person");
+        first.add("id", 1);
+        first.add("name", "Ada");
+        DocumentEntity second = DocumentSchema.of("name", "id").newEntity("person");
+        second.add("name", "Ada");
+        second.add("id", 1);
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+    }
+
+    @Test
+    public void shouldMoveToItsOwnSchemaWhenTheCollectionIsFull() {
+        DocumentEntity wide = DocumentEntity.of("wide_schema_test");
+        int documents = DocumentSchema.MAX_COLLECTION_NAMES + 10;
+        for (int index = 0; index < documents; index++) {
+            wide.add("document" + index, index);
+        }
+        assertEquals(documents, wide.size());
+        assertEquals(DocumentSchema.MAX_COLLECTION_NAMES + 5, wide.find("document" + (DocumentSchema.MAX_COLLECTION_NAMES + 5))
+                .get().get());
+        assertEquals(0, DocumentSchema.collection("wide_schema_test").size());
+    }
+
+    @Test
+    public void shouldEvictACollectionWhenThereAreTooMany() {
+        for (int index = 0; index < DocumentSchema.MAX_COLLECTIONS * 2; index++) {
+            DocumentEntity.of("evicted_schema_test" + index).add("id", index);
+        }
+        assertTrue(DocumentSchema.collections() <= DocumentSchema.MAX_COLLECTIONS);
+        DocumentEntity entity = DocumentEntity.of("evicted_schema_test0");
+        entity.add("id", 0);
+        assertEquals(0, entity.find("id").get().get());
+    }
+
+    @Test
+    public void shouldNotShareTheSchemaOfItsOwnWithACopy() {
+        DefaultDocumentEntity entity = (DefaultDocumentEntity) DocumentEntity.of("copy_schema_test");
+        for (int index = 0; index <= DocumentSchema.MAX_COLLECTION_NAMES; index++) {
+            entity.add("document" + index, index);
+        }
+        DocumentSchema own = entity.getSchema();
+        DefaultDocumentEntity copy = (DefaultDocumentEntity) entity.copy();
+        copy.add("copied", 1);
+        entity.add("original", 2);
+
+        assertEquals(DocumentSchema.MAX_COLLECTION_NAMES + 1, own.size());
+        assertFalse(own.getNames().contains("copied"));
+        assertFalse(own.getNames().contains("original"));
+        assertFalse(entity.getSchema().getNames().contains("copied"));
+        assertFalse(copy.getSchema().getNames().contains("original"));
+        assertFalse(entity.contains("copied"));
+        assertEquals(1, copy.find("copied").get().get());
+        assertEquals(DocumentSchema.MAX_COLLECTION_NAMES + 2, copy.size());
+        assertEquals(DocumentSchema.MAX_COLLECTION_NAMES + 2, entity.size());
+    }
+
+    @Test
+    public void shouldAddConcurrently() throws InterruptedException {
+        DocumentSchema schema = DocumentSchema.of();
+        List<String> names = IntStream.range(0, 1_000).mapToObj(i -> "name" + i).collect(Collectors.toList());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int thread = 0; thread < 4; thread++) {
+            executor.execute(() -> names.forEach(schema::add));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(1_000, schema.size());
+        names.forEach(n -> assertEquals(n, schema.getName(schema.getSlot(n))));
+        assertFalse(schema.getNames().contains(null));
+    }
+
+    @Test
+    public void shouldReadTheNameOfASlotAddedConcurrently() throws InterruptedException {
+        List<String> names = IntStream.range(0, 2_000).mapToObj(i -> "name" + i).collect(Collectors.toList());
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int round = 0; round < 50; round++) {
+                DocumentSchema schema = DocumentSchema.of();
+                CountDownLatch done = new CountDownLatch(4);
+                for (int thread = 0; thread < 4; thread++) {
+                    executor.execute(() -> {
+                        for (String name : names) {
+                            try {
+                                if (!name.equals(schema.getName(schema.add(name)))) {
+                                    failures.incrementAndGet();
+                                }
+                            } catch (IndexOutOfBoundsException exception) {
+                                failures.incrementAndGet();
+                            }
+                        }
+                        done.countDown();
+                    });
+                }
+                assertTrue(done.await(10, TimeUnit.SECONDS));
+                assertEquals(2_000, schema.size());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(0, failures.get());
+    }
+}
@@ -26,6 +26,7 @@ import org.jnosql.diana.api.document.DocumentDeleteQuery;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static org.hamcrest.Matchers.containsInAnyOrder;
@@ -234,6 +235,21 @@ public class DefaultDeleteQueryBuilderTest {
         Assert.assertThat(document.get(new TypeReference<List<Number>>() {}), Matchers.contains(10, 20));
     }
 
+    @Test
+    public void shouldSelectWhereNameIn() {
+        String documentCollection = "documentCollection";
+        DocumentDeleteQuery query = delete().from(documentCollection).where("name").in(Arrays.asList(10, 20)).build();
+        DocumentCondition condition = query.getCondition().get();
+
+        Document document = condition.getDocument();
+
+        assertTrue(query.getDocuments().isEmpty());
+        assertEquals(documentCollection, query.getDocumentCollection());
+        assertEquals(Condition.IN, condition.getCondition());
+        assertEquals("name", document.getName());
+        Assert.assertThat(document.get(new TypeReference<List<Number>>() {}), Matchers.contains(10, 20));
+    }
+
     @Test
     public void shouldSelectWhereNameNot() {
         String documentCollection = "documentCollection";
@@ -0,0 +1,88 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.document.query;
+
+import org.jnosql.diana.api.PatchOperation;
+import org.jnosql.diana.api.document.Document;
+import org.jnosql.diana.api.document.DocumentCondition;
+import org.jnosql.diana.api.document.DocumentEntity;
+import org.jnosql.diana.api.document.DocumentPatchQuery;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.jnosql.diana.api.document.query.DocumentQueryBuilder.patch;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class DefaultDocumentPatchBuilderTest {
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenDocumentCollectionIsNull() {
+        patch(null);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldReturnErrorWhenThereIsNotAnyOperation() {
+        patch("person").build();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenConditionIsNull() {
+        patch("person").set("name", "Ada").where(null);
+    }
+
+    @Test
+    public void shouldPatch() {
+        DocumentCondition condition = DocumentCondition.eq(Document.of("_id", 10L));
+        DocumentPatchQuery query = patch("person").set("name", "Ada").unset("nickname").increment("age", 1)
+                .append("phones", "123").remove("tags", "old").where(condition);
+        assertEquals("person", query.getDocumentCollection());
+        assertEquals(condition, query.getCondition().get());
+        assertEquals(Arrays.asList(PatchOperation.set("name", "Ada"), PatchOperation.unset("nickname"),
+                PatchOperation.increment("age", 1), PatchOperation.append("phones", "123"),
+                PatchOperation.remove("tags", "old")), query.getOperations());
+    }
+
+    @Test
+    public void shouldPatchEveryEntity() {
+        DocumentPatchQuery query = patch("person").increment("age", 1).build();
+        assertFalse(query.getCondition().isPresent());
+        assertEquals(query, patch("person").increment("age", 1).build());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldNotChangeTheOperations() {
+        patch("person").increment("age", 1).build().getOperations().clear();
+    }
+
+    @Test
+    public void shouldApply() {
+        DocumentEntity entity = DocumentEntity.of("person", Arrays.asList(Document.of("name", "Poliana"),
+                Document.of("nickname", "Poli"), Document.of("age", 10), Document.of("tags", Arrays.asList("old", "new"))));
+        DocumentPatchQuery query = patch("person").set("name", "Ada").unset("nickname").increment("age", 1)
+                .append("phones", "123").remove("tags", "old").build();
+        query.apply(entity);
+        assertEquals("Ada", entity.find("name").get().get());
+        assertFalse(entity.find("nickname").isPresent());
+        assertEquals(11L, entity.find("age").get().get());
+        assertEquals(Collections.singletonList("123"), entity.find("phones").get().get());
+        assertEquals(Collections.singletonList("new"), entity.find("tags").get().get());
+    }
+}
@@ -17,12 +17,15 @@
 package org.jnosql.diana.api.document.query;
 
 import org.jnosql.diana.api.Sort;
+import org.jnosql.diana.api.document.Document;
+import org.jnosql.diana.api.document.DocumentCondition;
 import org.jnosql.diana.api.document.DocumentQuery;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.util.List;
 
+import static org.jnosql.diana.api.document.DocumentCondition.eq;
 import static org.jnosql.diana.api.document.query.DocumentQueryBuilder.select;
 import static org.junit.Assert.*;
 
@@ -53,4 +56,24 @@ public class DefaultDocumentQueryTest {
         assertTrue(sorts.isEmpty());
         sorts.clear();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldBeEqualsToTheSameQuery() {
+        DocumentQuery first = select().from("person").where(eq(Document.of("name", "Ada"))).build();
+        DocumentQuery second = select().from("person").where(eq(Document.of("name", "Ada"))).build();
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertEquals(select().from("person").build(), select().from("person").build());
+        assertNotEquals(first, select().from("person").where(eq(Document.of("name", "Poliana"))).build());
+    }
+
+    @Test
+    public void shouldConditionBeEqualsToTheBuiltCondition() {
+        DocumentCondition condition = eq(Document.of("name", "Ada"));
+        DocumentCondition readOnly = select().from("person").where(condition).build().getCondition().get();
+        assertEquals(condition, readOnly);
+        assertEquals(readOnly, condition);
+        assertEquals(condition.hashCode(), readOnly.hashCode());
+        assertTrue(readOnly.toString().contains("Ada"));
+    }
+}
@@ -18,14 +18,19 @@ package org.jnosql.diana.api.document.query;
 
 import org.hamcrest.Matchers;
 import org.jnosql.diana.api.Condition;
+import org.jnosql.diana.api.Continuation;
 import org.jnosql.diana.api.Sort;
 import org.jnosql.diana.api.TypeReference;
+import org.jnosql.diana.api.aggregation.Aggregate;
 import org.jnosql.diana.api.document.Document;
+import org.jnosql.diana.api.document.DocumentAggregateQuery;
 import org.jnosql.diana.api.document.DocumentCondition;
+import org.jnosql.diana.api.document.DocumentEntity;
 import org.jnosql.diana.api.document.DocumentQuery;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static org.hamcrest.Matchers.contains;
@@ -269,6 +274,21 @@ public class DefaultSelectQueryBuilderTest {
         Assert.assertThat(document.get(new TypeReference<List<Number>>() {}), Matchers.contains(10, 20));
     }
 
+    @Test
+    public void shouldSelectWhereNameIn() {
+        String documentCollection = "documentCollection";
+        DocumentQuery query = select().from(documentCollection).where("name").in(Arrays.asList(10, 20)).build();
+        DocumentCondition condition = query.getCondition().get();
+
+        Document document = condition.getDocument();
+
+        assertTrue(query.getDocuments().isEmpty());
+        assertEquals(documentCollection, query.getDocumentCollection());
+        assertEquals(Condition.IN, condition.getCondition());
+        assertEquals("name", document.getName());
+        Assert.assertThat(document.get(new TypeReference<List<Number>>() {}), Matchers.contains(10, 20));
+    }
+
     @Test
     public void shouldSelectWhereNameNot() {
         String documentCollection = "documentCollection";
@@ -385,4 +405,92 @@ public class DefaultSelectQueryBuilderTest {
         assertThat(conditions, Matchers.containsInAnyOrder(DocumentCondition.eq(Document.of("name", name)),
                 DocumentCondition.gt(Document.of("age", 10))));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldSelectAfterEntity() {
+        DocumentEntity last = DocumentEntity.of("person", Arrays.asList(Document.of("age", 10), Document.of("id", 3L)));
+        DocumentQuery query = select().from("person").where(DocumentCondition.eq(Document.of("active", true)))
+                .orderBy(Sort.of("age", Sort.SortType.DESC)).orderBy(Sort.of("id", ASC)).after(last).limit(10).build();
+
+        DocumentCondition expected = DocumentCondition.eq(Document.of("active", true)).and(DocumentCondition.or(
+                DocumentCondition.lt(Document.of("age", 10)),
+                DocumentCondition.and(DocumentCondition.eq(Document.of("age", 10)), DocumentCondition.gt(Document.of("id", 3L)))));
+        assertEquals(expected, query.getCondition().get());
+        assertEquals(10L, query.getMaxResults());
+        assertEquals(0L, query.getFirstResult());
+    }
+
+    @Test
+    public void shouldSelectAfterContinuation() {
+        DocumentQuery query = select().from("person").orderBy(Sort.of("age", ASC)).limit(10).build();
+        DocumentEntity last = DocumentEntity.of("person", Arrays.asList(Document.of("name", "Ada"), Document.of("age", 10)));
+        Continuation continuation = Continuation.parse(DocumentQueryBuilder.continuation(query, last).toToken());
+
+        DocumentQuery next = select().from("person").orderBy(Sort.of("age", ASC)).after(continuation).limit(10).build();
+        assertEquals(DocumentCondition.gt(Document.of("age", 10)), next.getCondition().get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenContinuationHasOtherSorts() {
+        Continuation continuation = Continuation.of(Arrays.asList(Sort.of("age", ASC)), Arrays.asList(10));
+        select().from("person").orderBy(Sort.of("name", ASC)).after(continuation);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenEntityHasNoSortValue() {
+        select().from("person").orderBy(Sort.of("age", ASC)).after(DocumentEntity.of("person"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldReturnErrorWhenSortAfterAfter() {
+        DocumentEntity last = DocumentEntity.of("person", Arrays.asList(Document.of("age", 10)));
+        select().from("person").orderBy(Sort.of("age", ASC)).after(last).orderBy(Sort.of("name", ASC));
+    }
+
+    @Test
+    public void shouldSelectAggregate() {
+        DocumentAggregateQuery query = select().from("person").where("age").gt(10).groupBy("city", "country")
+                .aggregate(Aggregate.count(), Aggregate.avg("age").as("average"));
+        assertEquals("person", query.getDocumentCollection());
+        assertEquals(gt(Document.of("age", 10)), query.getCondition().get());
+        assertEquals(Arrays.asList("city", "country"), query.getGroupBy());
+        assertEquals(Arrays.asList(Aggregate.count(), Aggregate.avg("age").as("average")), query.getAggregates());
+
+        DocumentQuery select = query.toQuery();
+        assertEquals(Arrays.asList("city", "country", "age"), select.getDocuments());
+        assertEquals(query.getCondition(), select.getCondition());
+    }
+
+    @Test
+    public void shouldSelectOneDocumentToCount() {
+        DocumentCondition condition = eq(Document.of("name", "Ada")).and(gt(Document.of("age", 10))).negate();
+        DocumentQuery query = select().from("person").where(condition).build();
+        assertEquals(Arrays.asList("name"), DocumentQueryBuilder.count(query).toQuery().getDocuments());
+        query = select().from("person").build();
+        assertEquals(Arrays.asList("_id"), DocumentQueryBuilder.count(query).toQuery().getDocuments());
+    }
+
+    @Test
+    public void shouldSelectAggregateWithoutGroupBy() {
+        DocumentAggregateQuery query = select().from("person").aggregate(Aggregate.sum("age"));
+        assertFalse(query.getCondition().isPresent());
+        assertTrue(query.getGroupBy().isEmpty());
+        assertEquals(select().from("person").aggregate(Aggregate.sum("age")), query);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldReturnErrorWhenAggregateHasDocuments() {
+        select("name").from("person").aggregate(Aggregate.count());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenAggregatesHaveSameAlias() {
+        select().from("person").aggregate(Aggregate.count(), Aggregate.sum("age").as("count"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenGroupByIsEmpty() {
+        select().from("person").groupBy();
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.document.query;
+
+import org.jnosql.diana.api.Parameter;
+import org.jnosql.diana.api.document.Document;
+import org.jnosql.diana.api.document.DocumentFingerprints;
+import org.jnosql.diana.api.document.DocumentQuery;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.jnosql.diana.api.document.DocumentCondition.between;
+import static org.jnosql.diana.api.document.DocumentCondition.eq;
+import static org.jnosql.diana.api.document.DocumentCondition.gt;
+import static org.jnosql.diana.api.document.DocumentCondition.in;
+import static org.jnosql.diana.api.document.query.DocumentQueryBuilder.select;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class DocumentQueryTemplateTest {
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenQueryIsNull() {
+        DocumentQueryTemplate.of(null);
+    }
+
+    @Test
+    public void shouldBindNamedParameters() {
+        DocumentQueryTemplate template = DocumentQueryTemplate.of(select("name").from("person")
+                .where(eq(Document.of("name", Parameter.of("name"))))
+                .and(gt(Document.of("age", Parameter.of("age")))).limit(10).build());
+        assertEquals(Arrays.asList(Parameter.of("name"), Parameter.of("age")), template.getParameters());
+
+        Map<String, Object> values = new HashMap<>();
+        values.put("name", "Ada");
+        values.put("age", 10);
+        DocumentQuery expected = select("name").from("person").where(eq(Document.of("name", "Ada")))
+                .and(gt(Document.of("age", 10))).limit(10).build();
+        DocumentQuery query = template.bind(values);
+        assertEquals(expected, query);
+        assertEquals(DocumentFingerprints.of(expected), DocumentFingerprints.of(query));
+    }
+
+    @Test
+    public void shouldBindPositionalParameters() {
+        DocumentQueryTemplate template = DocumentQueryTemplate.of(select().from("person")
+                .where(in(Document.of("age", Arrays.asList(Parameter.of(1), 30, Parameter.of(0)))))
+                .or(between(Document.of("salary", Arrays.asList(Parameter.of(2), Parameter.of(3))))).build());
+        assertEquals(Arrays.asList(Parameter.of(0), Parameter.of(1), Parameter.of(2), Parameter.of(3)),
+                template.getParameters());
+
+        DocumentQuery query = template.bind(10, 20, 100, 200);
+        DocumentQuery expected = select().from("person").where(in(Document.of("age", Arrays.asList(20, 30, 10))))
+                .or(between(Document.of("salary", Arrays.asList(100, 200)))).build();
+        assertEquals(expected, query);
+    }
+
+    @Test
+    public void shouldReuseTheConditionsWithoutParameters() {
+        DocumentQueryTemplate template = DocumentQueryTemplate.of(select().from("person")
+                .where(eq(Document.of("name", Parameter.of(0))))
+                .and(gt(Document.of("age", 10)).or(eq(Document.of("active", true)))).build());
+        List<?> first = List.class.cast(template.bind("Ada").getCondition().get().getDocument().get());
+        List<?> second = List.class.cast(template.bind("Poliana").getCondition().get().getDocument().get());
+        assertEquals(eq(Document.of("name", "Ada")), first.get(0));
+        assertEquals(eq(Document.of("name", "Poliana")), second.get(0));
+        assertSame(first.get(1), second.get(1));
+    }
+
+    @Test
+    public void shouldFlattenNestedConditions() {
+        DocumentQueryTemplate template = DocumentQueryTemplate.of(select().from("person")
+                .where(eq(Document.of("name", Parameter.of(0))))
+                .and(gt(Document.of("age", 10)).and(eq(Document.of("active", Parameter.of(1))))).build());
+        DocumentQuery query = template.bind("Ada", true);
+        assertEquals(3, List.class.cast(query.getCondition().get().getDocument().get()).size());
+    }
+
+    @Test
+    public void shouldBindNegatedCondition() {
+        DocumentQueryTemplate template = DocumentQueryTemplate.of(select().from("person")
+                .where(eq(Document.of("name", Parameter.of(0))).negate()).build());
+        assertEquals(select().from("person").where(eq(Document.of("name", "Ada")).negate()).build(),
+                template.bind("Ada"));
+    }
+
+    @Test
+    public void shouldBindTemplateWithoutParameters() {
+        DocumentQuery query = select().from("person").where(eq(Document.of("name", "Ada"))).build();
+        DocumentQueryTemplate template = DocumentQueryTemplate.of(query);
+        assertEquals(query, template.bind());
+        assertEquals(query, template.bind(Collections.emptyMap()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenMixParameters() {
+        DocumentQueryTemplate.of(select().from("person").where(eq(Document.of("name", Parameter.of(0))))
+                .and(eq(Document.of("age", Parameter.of("age")))).build());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenThereIsAGap() {
+        DocumentQueryTemplate.of(select().from("person").where(eq(Document.of("name", Parameter.of(1)))).build());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenMissingValue() {
+        DocumentQueryTemplate.of(select().from("person").where(eq(Document.of("name", Parameter.of("name")))).build())
+                .bind(Collections.singletonMap("age", 10));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenWrongNumberOfValues() {
+        DocumentQueryTemplate.of(select().from("person").where(eq(Document.of("name", Parameter.of(0)))).build())
+                .bind("Ada", 10);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldReturnErrorWhenBindPositionalToNamed() {
+        DocumentQueryTemplate.of(select().from("person").where(eq(Document.of("name", Parameter.of("name")))).build())
+                .bind("Ada");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenValueIsNull() {
+        DocumentQueryTemplate.of(select().from("person").where(eq(Document.of("name", Parameter.of(0)))).build())
+                .bind((Object) null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenInIsNotIterable() {
+        DocumentQueryTemplate.of(select().from("person").where(in(Document.of("age", Parameter.of(0)))).build())
+                .bind(10);
+    }
+
+    @Test
+    public void shouldPrepareOnce() {
+        DocumentQueryTemplate template = DocumentQueryTemplate.of(select().from("person")
+                .where(eq(Document.of("name", Parameter.of(0)))).build());
+        AtomicInteger prepares = new AtomicInteger();
+        String statement = template.prepared("session", t -> "statement-" + prepares.incrementAndGet());
+        assertSame(statement, template.prepared("session", t -> "statement-" + prepares.incrementAndGet()));
+        assertEquals(1, prepares.get());
+        assertEquals(DocumentFingerprints.of(template.getQuery()), template.getFingerprint());
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.memory.key;
+
+
+import org.jnosql.diana.api.ConditionalResult;
+import org.jnosql.diana.api.Sorts;
+import org.jnosql.diana.api.Value;
+import org.jnosql.diana.api.expiration.Expiration;
+import org.jnosql.diana.api.expiration.ExpirationScheduler;
+import org.jnosql.diana.api.key.BucketManager;
+import org.jnosql.diana.api.key.KeyValueEntity;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The in-memory {@link BucketManager}. The bucket is a {@link java.util.concurrent.ConcurrentHashMap}, so the reads
+ * do not lock and the writes just lock the bin of their key. A counter is a cell updated in place, so its increments
+ * do not lock either.
+ * The expired keys are removed by an {@link ExpirationScheduler} and skipped by the reads that come before it.
+ * The managers of the same bucket share the same data, closing a manager does not discard them,
+ * just closing the {@link MemoryBucketManagerFactory} does.
+ */
+public final class MemoryBucketManager implements BucketManager {
+
+    private final ConcurrentMap<Object, MemoryValue> bucket;
+
+    private final Supplier<ExpirationScheduler> scheduler;
+
+    MemoryBucketManager(ConcurrentMap<Object, MemoryValue> bucket, Supplier<ExpirationScheduler> scheduler) {
+        this.bucket = bucket;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public <K, V> void put(K key, V value) throws NullPointerException {
+        requireNonNull(key, "key is required");
+        requireNonNull(value, "value is required");
+        store(key, new MemoryValue(toValue(value), null));
+    }
+
+    @Override
+    public <K> void put(KeyValueEntity<K> entity) throws NullPointerException {
+        requireNonNull(entity, "entity is required");
+        store(entity.getKey(), new MemoryValue(entity.getValue(), null));
+    }
+
+    @Override
+    public <K> void put(KeyValueEntity<K> entity, Duration ttl) throws NullPointerException {
+        requireNonNull(entity, "entity is required");
+        requireNonNull(ttl, "ttl is required");
+        store(entity.getKey(), new MemoryValue(entity.getValue(), expiration(entity.getKey(), ttl)));
+    }
+
+    @Override
+    public <K> void put(Iterable<KeyValueEntity<K>> entities) throws NullPointerException {
+        requireNonNull(entities, "entities is required");
+        entities.forEach(this::put);
+    }
+
+    @Override
+    public <K> void put(Iterable<KeyValueEntity<K>> entities, Duration ttl) throws NullPointerException {
+        requireNonNull(entities, "entities is required");
+        requireNonNull(ttl, "ttl is required");
+        for (KeyValueEntity<K> entity : entities) {
+            put(entity, ttl);
+        }
+    }
+
+    @Override
+    public <K> Optional<Value> get(K key) throws NullPointerException {
+        requireNonNull(key, "key is required");
+        return Optional.ofNullable(find(key));
+    }
+
+    /**
+     * Finds the values of the keys, the keys that are not found are skipped, so the result keeps the order of the
+     * keys but it might be shorter.
+     *
+     * @param keys the keys to be used in this query
+     * @param <K>  the key type
+     * @return the values
+     * @throws NullPointerException when either the keys or one of them is null
+     */
+    @Override
+    public <K> Iterable<Value> get(Iterable<K> keys) throws NullPointerException {
+        requireNonNull(keys, "keys is required");
+        List<Value> values = new ArrayList<>();
+        for (K key : keys) {
+            requireNonNull(key, "key is required");
+            Value value = find(key);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public <K> void remove(K key) throws NullPointerException {
+        requireNonNull(key, "key is required");
+        MemoryValue old = bucket.remove(key);
+        if (old != null) {
+            old.cancel();
+        }
+    }
+
+    @Override
+    public <K> void remove(Iterable<K> keys) throws NullPointerException {
+        requireNonNull(keys, "keys is required");
+        keys.forEach(this::remove);
+    }
+
+    @Override
+    public <K, V> ConditionalResult<Value> putIfAbsent(K key, V value) throws NullPointerException {
+        requireNonNull(key, "key is required");
+        requireNonNull(value, "value is required");
+        MemoryValue stored = new MemoryValue(toValue(value), null);
+        MemoryValue current = bucket.compute(key, (k, old) -> old == null || old.isExpired() ? replace(old, stored)
+                : old);
+        return current == stored ? ConditionalResult.applied(stored.getValue())
+                : ConditionalResult.rejected(current.getValue());
+    }
+
+    /**
+     * Sets the value when the current one is equal to the expected, the key keeps its time to live.
+     * The numbers are compared by value, so a counter matches the expected value whatever its number type.
+     *
+     * @param key      the key
+     * @param expected the value that the key must have
+     * @param value    the new value
+     * @param <K>      the key type
+     * @param <V>      the value type
+     * @return the result with either the value saved or the current value
+     * @throws NullPointerException when either key, expected or value are null
+     */
+    @Override
+    public <K, V> ConditionalResult<Value> compareAndSet(K key, V expected, V value) throws NullPointerException {
+        requireNonNull(key, "key is required");
+        Value expectedValue = toValue(requireNonNull(expected, "expected is required"));
+        Value newValue = toValue(requireNonNull(value, "value is required"));
+        AtomicReference<ConditionalResult<Value>> result = new AtomicReference<>(ConditionalResult.rejected(null));
+        bucket.computeIfPresent(key, (k, old) -> {
+            if (old.isExpired()) {
+                return null;
+            }
+            if (!matches(expectedValue, old.getValue())) {
+                result.set(ConditionalResult.rejected(old.getValue()));
+                return old;
+            }
+            result.set(ConditionalResult.applied(newValue));
+            return new MemoryValue(newValue, old.getExpiration());
+        });
+        return result.get();
+    }
+
+    /**
+     * Adds the delta to the counter of a key, a key with an integer value becomes a counter that starts at the value.
+     * After the first increment the increments of a key just update its cell, without locking.
+     *
+     * @param key   the key
+     * @param delta the number to add
+     * @param <K>   the key type
+     * @return the new value
+     * @throws NullPointerException     when key is null
+     * @throws IllegalArgumentException when the key has a value that is not an integer
+     * @throws ArithmeticException      when the new value overflows a long
+     */
+    @Override
+    public <K> long increment(K key, long delta) throws NullPointerException, IllegalArgumentException {
+        requireNonNull(key, "key is required");
+        return counter(key, null).add(delta);
+    }
+
+    @Override
+    public <K> long increment(K key, long delta, Duration ttl) throws NullPointerException, IllegalArgumentException {
+        requireNonNull(key, "key is required");
+        requireNonNull(ttl, "ttl is required");
+        return counter(key, ttl).add(delta);
+    }
+
+    /**
+     * @return the number of keys stored, the expired ones that were not removed yet included
+     */
+    int size() {
+        return bucket.size();
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private void store(Object key, MemoryValue value) {
+        MemoryValue old = bucket.put(key, value);
+        if (old != null) {
+            old.cancel();
+        }
+    }
+
+    private MemoryValue counter(Object key, Duration ttl) {
+        MemoryValue current = bucket.get(key);
+        if (current != null && current.isCounter() && !current.isExpired()) {
+            return current;
+        }
+        return bucket.compute(key, (k, old) -> {
+            if (old == null || old.isExpired()) {
+                return replace(old, new MemoryValue(0L, ttl == null ? null : expiration(k, ttl)));
+            }
+            if (old.isCounter()) {
+                return old;
+            }
+            Object value = old.getValue().get();
+            if (!(value instanceof Long || value instanceof Integer || value instanceof Short
+                    || value instanceof Byte)) {
+                throw new IllegalArgumentException("The value of the key " + k + " is not an integer: " + value);
+            }
+            return new MemoryValue(((Number) value).longValue(), old.getExpiration());
+        });
+    }
+
+    private static MemoryValue replace(MemoryValue old, MemoryValue value) {
+        if (old != null) {
+            old.cancel();
+        }
+        return value;
+    }
+
+    private Expiration expiration(Object key, Duration ttl) {
+        return scheduler.get().schedule(ttl, () -> bucket.computeIfPresent(key, (k, v) -> v.isExpired() ? null : v));
+    }
+
+    private Value find(Object key) {
+        MemoryValue value = bucket.get(key);
+        if (value == null) {
+            return null;
+        }
+        if (value.isExpired()) {
+            bucket.remove(key, value);
+            return null;
+        }
+        return value.getValue();
+    }
+
+    private static boolean matches(Value expected, Value current) {
+        Object left = expected.get();
+        Object right = current.get();
+        if (left instanceof Number && right instanceof Number) {
+            return Sorts.order().compare(left, right) == 0;
+        }
+        return expected.equals(current);
+    }
+
+    private static Value toValue(Object value) {
+        if (value instanceof Value) {
+            return (Value) value;
+        }
+        return Value.of(value);
+    }
+}
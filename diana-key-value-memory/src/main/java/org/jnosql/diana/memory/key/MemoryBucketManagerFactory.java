@@ -0,0 +1,139 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.memory.key;
+
+
+import org.jnosql.diana.api.expiration.ExpirationScheduler;
+import org.jnosql.diana.api.key.BucketManagerFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The {@link MemoryBucketManager} factory, it holds the data of every bucket until it is closed.
+ * The structures are backed by concurrent collections that are shared by bucket name:
+ * <ul>
+ * <li>{@link List}: a {@link CopyOnWriteArrayList}, it fits lists that are read much more than changed</li>
+ * <li>{@link Set}: a {@link ConcurrentHashMap#newKeySet()}</li>
+ * <li>{@link Queue}: a {@link ConcurrentLinkedQueue}</li>
+ * <li>{@link Map}: a {@link ConcurrentHashMap}</li>
+ * </ul>
+ * The structures are returned as checked views of the informed classes, so they reject an element of another type.
+ * The keys put with time to live are removed by an {@link ExpirationScheduler}, started by the first of them.
+ */
+public class MemoryBucketManagerFactory implements BucketManagerFactory<MemoryBucketManager> {
+
+    private final ConcurrentMap<String, ConcurrentMap<Object, MemoryValue>> buckets = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, List<Object>> lists = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Set<Object>> sets = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Queue<Object>> queues = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Map<Object, Object>> maps = new ConcurrentHashMap<>();
+
+    private volatile ExpirationScheduler scheduler;
+
+    MemoryBucketManagerFactory() {
+    }
+
+    @Override
+    public MemoryBucketManager getBucketManager(String bucketName) throws NullPointerException {
+        requireNonNull(bucketName, "bucketName is required");
+        return new MemoryBucketManager(buckets.computeIfAbsent(bucketName, b -> new ConcurrentHashMap<>()),
+                this::getScheduler);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> List<T> getList(String bucketName, Class<T> clazz) throws NullPointerException {
+        requireNonNull(bucketName, "bucketName is required");
+        requireNonNull(clazz, "clazz is required");
+        List<Object> list = lists.computeIfAbsent(bucketName, b -> new CopyOnWriteArrayList<>());
+        return Collections.checkedList((List<T>) list, clazz);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Set<T> getSet(String bucketName, Class<T> clazz) throws NullPointerException {
+        requireNonNull(bucketName, "bucketName is required");
+        requireNonNull(clazz, "clazz is required");
+        Set<Object> set = sets.computeIfAbsent(bucketName, b -> ConcurrentHashMap.newKeySet());
+        return Collections.checkedSet((Set<T>) set, clazz);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Queue<T> getQueue(String bucketName, Class<T> clazz) throws NullPointerException {
+        requireNonNull(bucketName, "bucketName is required");
+        requireNonNull(clazz, "clazz is required");
+        Queue<Object> queue = queues.computeIfAbsent(bucketName, b -> new ConcurrentLinkedQueue<>());
+        return Collections.checkedQueue((Queue<T>) queue, clazz);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K, V> Map<K, V> getMap(String bucketName, Class<K> keyValue, Class<V> valueValue) throws
+            NullPointerException {
+        requireNonNull(bucketName, "bucketName is required");
+        requireNonNull(keyValue, "keyValue is required");
+        requireNonNull(valueValue, "valueValue is required");
+        Map<Object, Object> map = maps.computeIfAbsent(bucketName, b -> new ConcurrentHashMap<>());
+        return Collections.checkedMap((Map<K, V>) map, keyValue, valueValue);
+    }
+
+    /**
+     * Discards the data of every bucket and structure and stops the expiration of the keys with time to live
+     */
+    @Override
+    public synchronized void close() {
+        buckets.clear();
+        lists.clear();
+        sets.clear();
+        queues.clear();
+        maps.clear();
+        if (scheduler != null) {
+            scheduler.close();
+            scheduler = null;
+        }
+    }
+
+    private ExpirationScheduler getScheduler() {
+        ExpirationScheduler current = scheduler;
+        if (current == null) {
+            synchronized (this) {
+                current = scheduler;
+                if (current == null) {
+                    current = ExpirationScheduler.of();
+                    scheduler = current;
+                }
+            }
+        }
+        return current;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.memory.key;
+
+
+import org.jnosql.diana.api.Settings;
+import org.jnosql.diana.api.key.KeyValueConfiguration;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The configuration of the in-memory key-value engine, a reference implementation of the key-value API to
+ * tests, prototypes and as an embedded cache.
+ */
+public class MemoryKeyValueConfiguration implements KeyValueConfiguration<MemoryBucketManagerFactory> {
+
+    @Override
+    public MemoryBucketManagerFactory get() {
+        return new MemoryBucketManagerFactory();
+    }
+
+    @Override
+    public MemoryBucketManagerFactory get(Settings settings) throws NullPointerException {
+        requireNonNull(settings, "settings is required");
+        return get();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.memory.key;
+
+
+import org.jnosql.diana.api.Value;
+import org.jnosql.diana.api.expiration.Expiration;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A stored value with its expiration. A counter keeps its value in an {@link AtomicLong} cell, so the increments of
+ * the same key do not lock nor replace the stored value
+ */
+final class MemoryValue {
+
+    private final Value value;
+
+    private final AtomicLong counter;
+
+    private final Expiration expiration;
+
+    MemoryValue(Value value, Expiration expiration) {
+        this.value = value;
+        this.counter = null;
+        this.expiration = expiration;
+    }
+
+    MemoryValue(long counter, Expiration expiration) {
+        this.value = null;
+        this.counter = new AtomicLong(counter);
+        this.expiration = expiration;
+    }
+
+    Value getValue() {
+        return counter == null ? value : Value.of(counter.get());
+    }
+
+    Expiration getExpiration() {
+        return expiration;
+    }
+
+    boolean isCounter() {
+        return counter != null;
+    }
+
+    /**
+     * Adds the delta to the counter
+     *
+     * @throws ArithmeticException when the new value overflows a long
+     */
+    long add(long delta) {
+        return counter.accumulateAndGet(delta, Math::addExact);
+    }
+
+    boolean isExpired() {
+        return expiration != null && expiration.isExpired();
+    }
+
+    void cancel() {
+        if (expiration != null) {
+            expiration.cancel();
+        }
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.memory.key;
+
+import org.jnosql.diana.api.ConditionalResult;
+import org.jnosql.diana.api.Value;
+import org.jnosql.diana.api.key.KeyValueEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MemoryBucketManagerTest {
+
+    private MemoryBucketManagerFactory factory;
+
+    private MemoryBucketManager manager;
+
+    @Before
+    public void setUp() {
+        factory = new MemoryKeyValueConfiguration().get();
+        manager = factory.getBucketManager("bucket");
+    }
+
+    @After
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenKeyIsNull() {
+        manager.put(null, "value");
+    }
+
+    @Test
+    public void shouldPutAndGet() {
+        manager.put("ada", "Ada Lovelace");
+        manager.put(KeyValueEntity.of(10, Value.of(26)));
+        assertEquals("Ada Lovelace", manager.get("ada").get().get());
+        assertEquals(Integer.valueOf(26), manager.get(10).get().get(Integer.class));
+        assertFalse(manager.get("unknown").isPresent());
+    }
+
+    @Test
+    public void shouldPutIfAbsent() {
+        assertEquals(ConditionalResult.applied(Value.of("Ada")), manager.putIfAbsent("ada", "Ada"));
+        assertEquals(ConditionalResult.rejected(Value.of("Ada")), manager.putIfAbsent("ada", "Bob"));
+        assertEquals("Ada", manager.get("ada").get().get());
+    }
+
+    @Test
+    public void shouldPutIfAbsentWhenExpired() throws InterruptedException {
+        manager.put(KeyValueEntity.of("ada", "Ada"), Duration.ofMillis(10L));
+        TimeUnit.MILLISECONDS.sleep(30L);
+        assertTrue(manager.putIfAbsent("ada", "Bob").isApplied());
+        assertEquals("Bob", manager.get("ada").get().get());
+    }
+
+    @Test
+    public void shouldCompareAndSet() {
+        manager.put("counter", 1);
+        ConditionalResult<Value> rejected = manager.compareAndSet("counter", 2, 3);
+        assertFalse(rejected.isApplied());
+        assertEquals(Value.of(1), rejected.getValue().get());
+        assertTrue(manager.compareAndSet("counter", 1, 2).isApplied());
+        assertEquals(2, manager.get("counter").get().get());
+        assertFalse(manager.compareAndSet("unknown", 1, 2).getValue().isPresent());
+        assertFalse(manager.get("unknown").isPresent());
+    }
+
+    @Test
+    public void shouldCompareAndSetACounterByValue() {
+        manager.increment("visits", 5L);
+        assertTrue(manager.compareAndSet("visits", 5, 6).isApplied());
+        assertEquals(6, manager.get("visits").get().get());
+        assertTrue(manager.compareAndSet("visits", 6L, 7L).isApplied());
+        assertFalse(manager.compareAndSet("visits", 6, 8).isApplied());
+        assertEquals(8L, manager.increment("visits", 1L));
+    }
+
+    @Test
+    public void shouldApplyOnePutIfAbsentOnly() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        AtomicInteger applied = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(100);
+        for (int index = 0; index < 100; index++) {
+            int value = index;
+            executor.execute(() -> {
+                if (manager.putIfAbsent("lock", value).isApplied()) {
+                    applied.incrementAndGet();
+                }
+                latch.countDown();
+            });
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertEquals(1, applied.get());
+    }
+
+    @Test
+    public void shouldIncrement() {
+        assertEquals(5L, manager.increment("visits", 5L));
+        assertEquals(6L, manager.increment("visits", 1L));
+        assertEquals(4L, manager.decrement("visits", 2L));
+        assertEquals(4L, manager.get("visits").get().get());
+        manager.put("total", 10);
+        assertEquals(11L, manager.increment("total", 1L));
+        manager.put("visits", "reset");
+        assertEquals("reset", manager.get("visits").get().get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldReturnErrorWhenIncrementsAValueThatIsNotAnInteger() {
+        manager.put("name", "Ada");
+        manager.increment("name", 1L);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void shouldReturnErrorWhenIncrementOverflows() {
+        manager.increment("visits", Long.MAX_VALUE);
+        manager.increment("visits", 1L);
+    }
+
+    @Test
+    public void shouldExpireCounter() throws InterruptedException {
+        assertEquals(1L, manager.increment("requests", 1L, Duration.ofMillis(100L)));
+        assertEquals(2L, manager.increment("requests", 1L, Duration.ofHours(1L)));
+        TimeUnit.MILLISECONDS.sleep(200L);
+        assertFalse(manager.get("requests").isPresent());
+        assertEquals(-1L, manager.decrement("requests", 1L, Duration.ofHours(1L)));
+    }
+
+    @Test
+    public void shouldIncrementConcurrently() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch latch = new CountDownLatch(8);
+        for (int thread = 0; thread < 8; thread++) {
+            executor.execute(() -> {
+                for (int index = 0; index < 1_000; index++) {
+                    manager.increment("visits", 1L);
+                }
+                latch.countDown();
+            });
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertEquals(8_000L, manager.get("visits").get().get());
+    }
+
+    @Test
+    public void shouldUseBulkOperations() {
+        List<KeyValueEntity<String>> entities = asList(KeyValueEntity.of("a", 1), KeyValueEntity.of("b", 2),
+                KeyValueEntity.of("c", 3));
+        manager.put(entities);
+        List<Object> values = new ArrayList<>();
+        manager.get(asList("c", "x", "a")).forEach(v -> values.add(v.get()));
+        assertEquals(asList(3, 1), values);
+        manager.remove(asList("a", "b"));
+        assertFalse(manager.get("a").isPresent());
+        assertTrue(manager.get("c").isPresent());
+    }
+
+    @Test
+    public void shouldExpire() throws InterruptedException {
+        manager.put(KeyValueEntity.of("short", "value"), Duration.ofMillis(10L));
+        manager.put(asList(KeyValueEntity.of("long", "value")), Duration.ofHours(1L));
+        TimeUnit.MILLISECONDS.sleep(50L);
+        assertFalse(manager.get("short").isPresent());
+        assertTrue(manager.get("long").isPresent());
+        manager.put(KeyValueEntity.of("long", "other"));
+        assertEquals("other", manager.get("long").get().get());
+    }
+
+    @Test
+    public void shouldRemoveExpiredKeysWithoutReads() throws InterruptedException {
+        manager.put(KeyValueEntity.of("short", "value"), Duration.ofMillis(20L));
+        manager.put(KeyValueEntity.of("replaced", "value"), Duration.ofMillis(20L));
+        manager.put("replaced", "value");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+        while (manager.size() > 1 && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10L);
+        }
+        assertEquals(1, manager.size());
+        assertTrue(manager.get("replaced").isPresent());
+    }
+
+    @Test
+    public void shouldShareBucket() {
+        manager.put("ada", "Ada Lovelace");
+        assertTrue(factory.getBucketManager("bucket").get("ada").isPresent());
+        assertFalse(factory.getBucketManager("other").get("ada").isPresent());
+    }
+
+    @Test
+    public void shouldPutConcurrently() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch latch = new CountDownLatch(4);
+        for (int thread = 0; thread < 4; thread++) {
+            int offset = thread * 1_000;
+            executor.execute(() -> {
+                for (int index = 0; index < 1_000; index++) {
+                    manager.put(offset + index, index);
+                }
+                latch.countDown();
+            });
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        List<Integer> keys = new ArrayList<>();
+        for (int index = 0; index < 4_000; index++) {
+            keys.add(index);
+        }
+        List<Value> values = new ArrayList<>();
+        manager.get(keys).forEach(values::add);
+        assertEquals(4_000, values.size());
+    }
+
+    @Test
+    public void shouldShareStructures() {
+        List<String> list = factory.getList("names", String.class);
+        list.add("Ada");
+        assertEquals(asList("Ada"), factory.getList("names", String.class));
+
+        Set<String> set = factory.getSet("names", String.class);
+        set.add("Ada");
+        set.add("Ada");
+        assertEquals(1, factory.getSet("names", String.class).size());
+
+        Queue<Integer> queue = factory.getQueue("numbers", Integer.class);
+        queue.add(1);
+        queue.add(2);
+        assertEquals(Integer.valueOf(1), factory.getQueue("numbers", Integer.class).poll());
+
+        Map<String, Integer> map = factory.getMap("ages", String.class, Integer.class);
+        map.put("Ada", 36);
+        assertEquals(Integer.valueOf(36), factory.getMap("ages", String.class, Integer.class).get("Ada"));
+    }
+
+    @Test(expected = ClassCastException.class)
+    @SuppressWarnings("unchecked")
+    public void shouldReturnErrorWhenStructureHasOtherType() {
+        List<Object> raw = (List<Object>) (List<?>) factory.getList("names", String.class);
+        raw.add(10);
+    }
+}
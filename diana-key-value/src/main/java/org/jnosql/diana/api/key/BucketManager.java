@@ -18,11 +18,14 @@
 package org.jnosql.diana.api.key;
 
 
+import org.jnosql.diana.api.ConditionalResult;
 import org.jnosql.diana.api.Value;
 
 import java.time.Duration;
 import java.util.Optional;
 
+import static java.util.Objects.requireNonNull;
+
 /**
  * Interface used to interact with the persistence context to {@link KeyValueEntity}
  * The BucketManager API is used to create and remove persistent {@link KeyValueEntity}.
@@ -119,6 +122,128 @@ public interface BucketManager extends AutoCloseable {
      */
     <K> void remove(Iterable<K> keys) throws NullPointerException;
 
+    /**
+     * Associates the specified value with the specified key when the key is not associated with any value, e.g. to
+     * take a lock or to create a unique key. A driver whose database has an atomic operation to it, such as SETNX,
+     * overrides this method, by default it is not supported, since a get and a put are not atomic
+     *
+     * @param key   the key
+     * @param value the value
+     * @param <K>   the key type
+     * @param <V>   the value type
+     * @return the result with either the value saved or the current value
+     * @throws NullPointerException          when either key or value are null
+     * @throws UnsupportedOperationException when the database does not support conditional writes
+     */
+    default <K, V> ConditionalResult<Value> putIfAbsent(K key, V value) throws NullPointerException,
+            UnsupportedOperationException {
+        requireNonNull(key, "key is required");
+        requireNonNull(value, "value is required");
+        throw new UnsupportedOperationException("The put if absent is not supported");
+    }
+
+    /**
+     * Associates the specified value with the specified key when the key is associated with the expected value,
+     * the values are compared by {@link Value#equals(Object)}. See {@link #putIfAbsent(Object, Object)} about the
+     * drivers
+     *
+     * @param key      the key
+     * @param expected the value that the key must have
+     * @param value    the new value
+     * @param <K>      the key type
+     * @param <V>      the value type
+     * @return the result with either the value saved or the current value, that is empty when the key is not
+     * associated with any value
+     * @throws NullPointerException          when either key, expected or value are null
+     * @throws UnsupportedOperationException when the database does not support conditional writes
+     */
+    default <K, V> ConditionalResult<Value> compareAndSet(K key, V expected, V value) throws NullPointerException,
+            UnsupportedOperationException {
+        requireNonNull(key, "key is required");
+        requireNonNull(expected, "expected is required");
+        requireNonNull(value, "value is required");
+        throw new UnsupportedOperationException("The compare and set is not supported");
+    }
+
+    /**
+     * Adds the delta to the counter of a key and returns the new value, a key that is not associated with any value
+     * starts at zero, e.g. a rate limiter or a metric. A driver whose database has an atomic increment, such as
+     * INCRBY, overrides this method, by default it is not supported, since a get and a put are not atomic
+     *
+     * @param key   the key
+     * @param delta the number to add
+     * @param <K>   the key type
+     * @return the new value
+     * @throws NullPointerException          when key is null
+     * @throws IllegalArgumentException      when the key has a value that is not an integer
+     * @throws ArithmeticException           when the new value overflows a long
+     * @throws UnsupportedOperationException when the database does not support counters
+     */
+    default <K> long increment(K key, long delta) throws NullPointerException, IllegalArgumentException,
+            UnsupportedOperationException {
+        requireNonNull(key, "key is required");
+        throw new UnsupportedOperationException("The counters are not supported");
+    }
+
+    /**
+     * Adds the delta to the counter of a key and returns the new value, when the key is not associated with any
+     * value the counter starts at zero and expires after the time to live, e.g. the window of a rate limiter. The
+     * increments of an existing counter do not change its time to live. See {@link #increment(Object, long)}
+     *
+     * @param key   the key
+     * @param delta the number to add
+     * @param ttl   the time to live of a new counter
+     * @param <K>   the key type
+     * @return the new value
+     * @throws NullPointerException          when either key or ttl is null
+     * @throws IllegalArgumentException      when the key has a value that is not an integer
+     * @throws ArithmeticException           when the new value overflows a long
+     * @throws UnsupportedOperationException when the database does not support counters
+     */
+    default <K> long increment(K key, long delta, Duration ttl) throws NullPointerException, IllegalArgumentException,
+            UnsupportedOperationException {
+        requireNonNull(key, "key is required");
+        requireNonNull(ttl, "ttl is required");
+        throw new UnsupportedOperationException("The counters are not supported");
+    }
+
+    /**
+     * Subtracts the delta from the counter of a key and returns the new value, by default it is an
+     * {@link #increment(Object, long)} of the negated delta
+     *
+     * @param key   the key
+     * @param delta the number to subtract
+     * @param <K>   the key type
+     * @return the new value
+     * @throws NullPointerException          when key is null
+     * @throws IllegalArgumentException      when the key has a value that is not an integer
+     * @throws ArithmeticException           when the new value overflows a long
+     * @throws UnsupportedOperationException when the database does not support counters
+     */
+    default <K> long decrement(K key, long delta) throws NullPointerException, IllegalArgumentException,
+            UnsupportedOperationException {
+        return increment(key, Math.negateExact(delta));
+    }
+
+    /**
+     * Subtracts the delta from the counter of a key and returns the new value, by default it is an
+     * {@link #increment(Object, long, Duration)} of the negated delta
+     *
+     * @param key   the key
+     * @param delta the number to subtract
+     * @param ttl   the time to live of a new counter
+     * @param <K>   the key type
+     * @return the new value
+     * @throws NullPointerException          when either key or ttl is null
+     * @throws IllegalArgumentException      when the key has a value that is not an integer
+     * @throws ArithmeticException           when the new value overflows a long
+     * @throws UnsupportedOperationException when the database does not support counters
+     */
+    default <K> long decrement(K key, long delta, Duration ttl) throws NullPointerException, IllegalArgumentException,
+            UnsupportedOperationException {
+        return increment(key, Math.negateExact(delta), ttl);
+    }
+
     /**
      * closes a resource
      */
@@ -0,0 +1,346 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.key;
+
+
+import org.jnosql.diana.api.ConditionalResult;
+import org.jnosql.diana.api.Sizes;
+import org.jnosql.diana.api.Value;
+import org.jnosql.diana.api.cache.Cache;
+import org.jnosql.diana.api.cache.CacheStats;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link BucketManager} decorator that keeps a bounded local near cache of the values, so the hot keys are read
+ * from the heap instead of the key-value store. The cache is a W-TinyLFU {@link Cache}, a key read once does not
+ * evict the popular ones.
+ * <ul>
+ * <li>A put writes to the store and then to the cache, with the same time to live, so a local entry never outlives
+ * the remote one. When another local write to a key of the same stripe ran at the same time, the stores might have
+ * applied them in any order, so the key is invalidated instead of cached.</li>
+ * <li>A remove removes from the store and invalidates the cache, and so do a conditional write and a counter.</li>
+ * <li>A value loaded by a miss is cached only when no local write to a key of the same stripe happened while it
+ * was loaded, so a load does not overwrite a newer local write. Writes from other clients are seen after the
+ * cache time to live, defined by {@link org.jnosql.diana.api.cache.CacheBuilder#expireAfterWrite(Duration)}.</li>
+ * <li>A get of many keys is answered by the cache only when every key is cached, otherwise it goes to the store,
+ * since {@link BucketManager#get(Iterable)} does not tell which key each value belongs to.</li>
+ * </ul>
+ *
+ * <pre>
+ * NearCacheBucketManager cached = NearCacheBucketManager.of(manager, Cache.&lt;Object, Value&gt;builder()
+ *         .maximumWeight(64 * 1024 * 1024, (k, v) -&gt; Sizes.estimate(v.get()))
+ *         .expireAfterWrite(Duration.ofSeconds(30))
+ *         .build());
+ * </pre>
+ */
+public final class NearCacheBucketManager implements BucketManager {
+
+    private final BucketManager manager;
+
+    private final Cache<Object, Value> cache;
+
+    private static final int STRIPES = 64;
+
+    private final AtomicLongArray writes = new AtomicLongArray(STRIPES);
+
+    private NearCacheBucketManager(BucketManager manager, Cache<Object, Value> cache) {
+        this.manager = manager;
+        this.cache = cache;
+    }
+
+    /**
+     * Creates a {@link NearCacheBucketManager} with a cache bounded by number of keys
+     *
+     * @param manager     the manager to be decorated
+     * @param maximumSize the maximum number of keys in the cache
+     * @return a {@link NearCacheBucketManager} instance
+     * @throws NullPointerException     when manager is null
+     * @throws IllegalArgumentException when maximumSize is either zero or negative
+     */
+    public static NearCacheBucketManager of(BucketManager manager, long maximumSize) throws NullPointerException,
+            IllegalArgumentException {
+        requireNonNull(manager, "manager is required");
+        return new NearCacheBucketManager(manager, Cache.<Object, Value>builder().maximumSize(maximumSize).build());
+    }
+
+    /**
+     * Creates a {@link NearCacheBucketManager} with a cache bounded by the estimated size, in bytes, of the values
+     *
+     * @param manager   the manager to be decorated
+     * @param maxBytes  the maximum estimated size of the cached values
+     * @param ttl       the time to live of the cached keys, that bounds how stale a key written by other
+     *                  clients might be
+     * @return a {@link NearCacheBucketManager} instance
+     * @throws NullPointerException     when either manager or ttl is null
+     * @throws IllegalArgumentException when either maxBytes or ttl is either zero or negative
+     * @see Sizes#estimate(Object)
+     */
+    public static NearCacheBucketManager of(BucketManager manager, long maxBytes, Duration ttl)
+            throws NullPointerException, IllegalArgumentException {
+        requireNonNull(manager, "manager is required");
+        return new NearCacheBucketManager(manager, Cache.<Object, Value>builder()
+                .maximumWeight(maxBytes, (k, v) -> Sizes.estimate(k) + Sizes.estimate(v.get()))
+                .expireAfterWrite(ttl).build());
+    }
+
+    /**
+     * Creates a {@link NearCacheBucketManager}
+     *
+     * @param manager the manager to be decorated
+     * @param cache   the cache
+     * @return a {@link NearCacheBucketManager} instance
+     * @throws NullPointerException when either manager or cache is null
+     */
+    public static NearCacheBucketManager of(BucketManager manager, Cache<Object, Value> cache)
+            throws NullPointerException {
+        requireNonNull(manager, "manager is required");
+        requireNonNull(cache, "cache is required");
+        return new NearCacheBucketManager(manager, cache);
+    }
+
+    @Override
+    public <K, V> void put(K key, V value) throws NullPointerException {
+        requireNonNull(key, "key is required");
+        requireNonNull(value, "value is required");
+        int stripe = stripe(key);
+        long version = writes.incrementAndGet(stripe);
+        manager.put(key, value);
+        cacheWritten(key, value instanceof Value ? (Value) value : Value.of(value), null, stripe, version);
+    }
+
+    @Override
+    public <K> void put(KeyValueEntity<K> entity) throws NullPointerException {
+        requireNonNull(entity, "entity is required");
+        int stripe = stripe(entity.getKey());
+        long version = writes.incrementAndGet(stripe);
+        manager.put(entity);
+        cacheWritten(entity.getKey(), entity.getValue(), null, stripe, version);
+    }
+
+    @Override
+    public <K> void put(KeyValueEntity<K> entity, Duration ttl) throws NullPointerException,
+            UnsupportedOperationException {
+        requireNonNull(entity, "entity is required");
+        requireNonNull(ttl, "ttl is required");
+        int stripe = stripe(entity.getKey());
+        long version = writes.incrementAndGet(stripe);
+        manager.put(entity, ttl);
+        cacheWritten(entity.getKey(), entity.getValue(), ttl, stripe, version);
+    }
+
+    @Override
+    public <K> void put(Iterable<KeyValueEntity<K>> entities) throws NullPointerException {
+        requireNonNull(entities, "entities is required");
+        List<KeyValueEntity<K>> written = toList(entities);
+        long[] versions = written(written);
+        manager.put(written);
+        written.forEach(e -> cacheWritten(e.getKey(), e.getValue(), null, stripe(e.getKey()),
+                versions[stripe(e.getKey())]));
+    }
+
+    @Override
+    public <K> void put(Iterable<KeyValueEntity<K>> entities, Duration ttl) throws NullPointerException,
+            UnsupportedOperationException {
+        requireNonNull(entities, "entities is required");
+        requireNonNull(ttl, "ttl is required");
+        List<KeyValueEntity<K>> written = toList(entities);
+        long[] versions = written(written);
+        manager.put(written, ttl);
+        written.forEach(e -> cacheWritten(e.getKey(), e.getValue(), ttl, stripe(e.getKey()),
+                versions[stripe(e.getKey())]));
+    }
+
+    @Override
+    public <K> Optional<Value> get(K key) throws NullPointerException {
+        requireNonNull(key, "key is required");
+        Optional<Value> cached = cache.get(key);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        int stripe = stripe(key);
+        long version = writes.get(stripe);
+        Optional<Value> value = manager.get(key);
+        if (value.isPresent() && version == writes.get(stripe)) {
+            cache.putIfAbsent(key, value.get());
+            if (version != writes.get(stripe)) {
+                cache.remove(key);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public <K> Iterable<Value> get(Iterable<K> keys) throws NullPointerException {
+        requireNonNull(keys, "keys is required");
+        List<K> read = toList(keys);
+        List<Value> values = new ArrayList<>(read.size());
+        for (K key : read) {
+            Optional<Value> cached = cache.get(requireNonNull(key, "key is required"));
+            if (!cached.isPresent()) {
+                return manager.get(read);
+            }
+            values.add(cached.get());
+        }
+        return values;
+    }
+
+    @Override
+    public <K> void remove(K key) throws NullPointerException {
+        requireNonNull(key, "key is required");
+        written(key);
+        cache.remove(key);
+        manager.remove(key);
+        cache.remove(key);
+    }
+
+    @Override
+    public <K> void remove(Iterable<K> keys) throws NullPointerException {
+        requireNonNull(keys, "keys is required");
+        List<K> removed = toList(keys);
+        removed.forEach(this::written);
+        removed.forEach(cache::remove);
+        manager.remove(removed);
+        removed.forEach(cache::remove);
+    }
+
+    @Override
+    public <K, V> ConditionalResult<Value> putIfAbsent(K key, V value) throws NullPointerException,
+            UnsupportedOperationException {
+        requireNonNull(key, "key is required");
+        return invalidating(key, () -> manager.putIfAbsent(key, value));
+    }
+
+    @Override
+    public <K, V> ConditionalResult<Value> compareAndSet(K key, V expected, V value) throws NullPointerException,
+            UnsupportedOperationException {
+        requireNonNull(key, "key is required");
+        return invalidating(key, () -> manager.compareAndSet(key, expected, value));
+    }
+
+    @Override
+    public <K> long increment(K key, long delta) throws NullPointerException, IllegalArgumentException,
+            UnsupportedOperationException {
+        requireNonNull(key, "key is required");
+        return invalidating(key, () -> manager.increment(key, delta));
+    }
+
+    @Override
+    public <K> long increment(K key, long delta, Duration ttl) throws NullPointerException, IllegalArgumentException,
+            UnsupportedOperationException {
+        requireNonNull(key, "key is required");
+        return invalidating(key, () -> manager.increment(key, delta, ttl));
+    }
+
+    @Override
+    public <K> long decrement(K key, long delta) throws NullPointerException, IllegalArgumentException,
+            UnsupportedOperationException {
+        requireNonNull(key, "key is required");
+        return invalidating(key, () -> manager.decrement(key, delta));
+    }
+
+    @Override
+    public <K> long decrement(K key, long delta, Duration ttl) throws NullPointerException, IllegalArgumentException,
+            UnsupportedOperationException {
+        requireNonNull(key, "key is required");
+        return invalidating(key, () -> manager.decrement(key, delta, ttl));
+    }
+
+    /**
+     * The time to live of the stored value is unknown, so the key is invalidated instead of cached
+     */
+    private <T> T invalidating(Object key, Supplier<T> operation) {
+        written(key);
+        cache.remove(key);
+        try {
+            return operation.get();
+        } finally {
+            cache.remove(key);
+        }
+    }
+
+    /**
+     * Caches a value just written to the store when the version of its stripe did not change since the write
+     * started, the version is read again after the cache is written, so of two concurrent writes to a key at least
+     * the last one to reach the cache sees the other and invalidates the key
+     */
+    private void cacheWritten(Object key, Value value, Duration ttl, int stripe, long version) {
+        if (writes.get(stripe) == version) {
+            if (ttl == null) {
+                cache.put(key, value);
+            } else {
+                cache.put(key, value, ttl);
+            }
+            if (writes.get(stripe) == version) {
+                return;
+            }
+        }
+        writes.incrementAndGet(stripe);
+        cache.remove(key);
+    }
+
+    private void written(Object key) {
+        writes.incrementAndGet(stripe(key));
+    }
+
+    /**
+     * @return the version of each stripe after the writes of the entities
+     */
+    private <K> long[] written(List<KeyValueEntity<K>> entities) {
+        long[] versions = new long[STRIPES];
+        for (KeyValueEntity<K> entity : entities) {
+            int stripe = stripe(entity.getKey());
+            versions[stripe] = writes.incrementAndGet(stripe);
+        }
+        return versions;
+    }
+
+    private static <T> List<T> toList(Iterable<T> elements) {
+        List<T> list = new ArrayList<>();
+        elements.forEach(list::add);
+        return list;
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    /**
+     * @return a snapshot of the near cache statistics
+     */
+    public CacheStats getStats() {
+        return cache.getStats();
+    }
+
+    /**
+     * Closes the decorated manager and discards the near cache
+     */
+    @Override
+    public void close() {
+        cache.clear();
+        manager.close();
+    }
+}
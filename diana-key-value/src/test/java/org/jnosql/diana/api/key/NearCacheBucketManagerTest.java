@@ -0,0 +1,290 @@
+/*
+ *
+ *  Copyright (c) 2017 Otávio Santana and others
+ *   All rights reserved. This program and the accompanying materials
+ *   are made available under the terms of the Eclipse Public License v1.0
+ *   and Apache License v2.0 which accompanies this distribution.
+ *   The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ *   and the Apache License v2.0 is available at http://www.opensource.org/licenses/apache2.0.php.
+ *
+ *   You may elect to redistribute this code under either of these licenses.
+ *
+ *   Contributors:
+ *
+ *   Otavio Santana
+ *
+ */
+
+package org.jnosql.diana.api.key;
+
+import org.jnosql.diana.api.ConditionalResult;
+import org.jnosql.diana.api.Value;
+import org.jnosql.diana.api.cache.CacheStats;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NearCacheBucketManagerTest {
+
+    private CountingBucketManager remote;
+
+    private NearCacheBucketManager manager;
+
+    @Before
+    public void setUp() {
+        remote = new CountingBucketManager();
+        manager = NearCacheBucketManager.of(remote, 100L);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenManagerIsNull() {
+        NearCacheBucketManager.of(null, 100L);
+    }
+
+    @Test
+    public void shouldReadHotKeysLocally() {
+        remote.put("ada", "Ada Lovelace");
+        for (int index = 0; index < 10; index++) {
+            assertEquals("Ada Lovelace", manager.get("ada").get().get());
+        }
+        assertEquals(1, remote.reads);
+        CacheStats stats = manager.getStats();
+        assertEquals(9L, stats.getHitCount());
+        assertEquals(1L, stats.getMissCount());
+    }
+
+    @Test
+    public void shouldWriteThrough() {
+        manager.put("ada", "Ada Lovelace");
+        assertEquals("Ada Lovelace", remote.get("ada").get().get());
+        remote.reads = 0;
+        assertEquals("Ada Lovelace", manager.get("ada").get().get());
+        assertEquals(0, remote.reads);
+    }
+
+    @Test
+    public void shouldInvalidateOnRemove() {
+        manager.put("ada", "Ada Lovelace");
+        manager.remove("ada");
+        assertFalse(manager.get("ada").isPresent());
+        manager.put(asList(KeyValueEntity.of("a", 1), KeyValueEntity.of("b", 2)));
+        manager.remove(asList("a", "b"));
+        assertFalse(manager.get("a").isPresent());
+    }
+
+    @Test
+    public void shouldNotCacheAPutWhenTheKeyIsRemovedMeanwhile() {
+        remote.onPut = () -> manager.remove("ada");
+        manager.put("ada", "Ada Lovelace");
+        assertFalse(remote.data.containsKey("ada"));
+        assertFalse(manager.get("ada").isPresent());
+
+        remote.onPut = () -> manager.remove("a");
+        manager.put(asList(KeyValueEntity.of("a", 1), KeyValueEntity.of("b", 2)));
+        assertFalse(manager.get("a").isPresent());
+        assertEquals(2, manager.get("b").get().get());
+    }
+
+    @Test
+    public void shouldReadTheEntitiesOnce() {
+        List<KeyValueEntity<String>> entities = asList(KeyValueEntity.of("a", 1), KeyValueEntity.of("b", 2));
+        AtomicBoolean read = new AtomicBoolean();
+        Iterable<KeyValueEntity<String>> once = () -> {
+            if (read.getAndSet(true)) {
+                throw new IllegalStateException("The entities were already read");
+            }
+            return entities.iterator();
+        };
+        manager.put(once, Duration.ofMinutes(1L));
+        remote.reads = 0;
+        assertEquals(1, manager.get("a").get().get());
+        assertEquals(2, manager.get("b").get().get());
+        assertEquals(0, remote.reads);
+    }
+
+    @Test
+    public void shouldReadTheKeysOnce() {
+        manager.put("a", 1);
+        remote.put("b", 2);
+        List<String> keys = asList("a", "b");
+        AtomicBoolean read = new AtomicBoolean();
+        Iterable<String> once = () -> {
+            if (read.getAndSet(true)) {
+                throw new IllegalStateException("The keys were already read");
+            }
+            return keys.iterator();
+        };
+        List<Object> values = new ArrayList<>();
+        manager.get(once).forEach(v -> values.add(v.get()));
+        assertEquals(asList(1, 2), values);
+    }
+
+    @Test
+    public void shouldInvalidateOnConditionalWrite() {
+        manager.put("ada", "Ada Lovelace");
+        assertTrue(manager.compareAndSet("ada", "Ada Lovelace", "Ada King").isApplied());
+        remote.reads = 0;
+        assertEquals("Ada King", manager.get("ada").get().get());
+        assertEquals(1, remote.reads);
+    }
+
+    @Test
+    public void shouldInvalidateOnIncrement() {
+        manager.put("visits", 1L);
+        assertEquals(3L, manager.increment("visits", 2L));
+        assertEquals(2L, manager.decrement("visits", 1L));
+        assertEquals(2L, manager.get("visits").get().get());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldNotSupportCountersByDefault() {
+        manager.increment("visits", 1L, Duration.ofMinutes(1L));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldNotSupportPutIfAbsentByDefault() {
+        manager.putIfAbsent("ada", "Ada Lovelace");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenTtlIsNullByDefault() {
+        remote.increment("visits", 1L, null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldReturnErrorWhenExpectedIsNullByDefault() {
+        remote.compareAndSet("ada", null, "Ada Lovelace");
+    }
+
+    @Test
+    public void shouldRespectTimeToLive() throws InterruptedException {
+        manager.put(KeyValueEntity.of("ada", "Ada Lovelace"), Duration.ofMillis(10L));
+        TimeUnit.MILLISECONDS.sleep(30L);
+        remote.data.remove("ada");
+        assertFalse(manager.get("ada").isPresent());
+    }
+
+    @Test
+    public void shouldReadManyKeys() {
+        manager.put(asList(KeyValueEntity.of("a", 1), KeyValueEntity.of("b", 2)));
+        remote.reads = 0;
+        List<Object> values = new ArrayList<>();
+        manager.get(asList("a", "b")).forEach(v -> values.add(v.get()));
+        assertEquals(asList(1, 2), values);
+        assertEquals(0, remote.reads);
+        values.clear();
+        remote.put("c", 3);
+        manager.get(asList("a", "c")).forEach(v -> values.add(v.get()));
+        assertEquals(asList(1, 3), values);
+    }
+
+    @Test
+    public void shouldBoundByWeight() {
+        NearCacheBucketManager weighted = NearCacheBucketManager.of(remote, 1_024L, Duration.ofMinutes(1L));
+        for (int index = 0; index < 100; index++) {
+            weighted.put(index, "a value that is about eighty bytes in memory");
+        }
+        assertTrue(weighted.getStats().getEvictionCount() > 0L);
+    }
+
+    private static class CountingBucketManager implements BucketManager {
+
+        private final Map<Object, Value> data = new HashMap<>();
+
+        private int reads;
+
+        private Runnable onPut;
+
+        @Override
+        public <K, V> void put(K key, V value) {
+            data.put(key, Value.of(value));
+            written();
+        }
+
+        @Override
+        public <K> void put(KeyValueEntity<K> entity) {
+            data.put(entity.getKey(), entity.getValue());
+            written();
+        }
+
+        private void written() {
+            Runnable action = onPut;
+            onPut = null;
+            if (action != null) {
+                action.run();
+            }
+        }
+
+        @Override
+        public <K> void put(KeyValueEntity<K> entity, Duration ttl) {
+            put(entity);
+        }
+
+        @Override
+        public <K> void put(Iterable<KeyValueEntity<K>> entities) {
+            entities.forEach(this::put);
+        }
+
+        @Override
+        public <K> void put(Iterable<KeyValueEntity<K>> entities, Duration ttl) {
+            put(entities);
+        }
+
+        @Override
+        public <K> Optional<Value> get(K key) {
+            reads++;
+            return Optional.ofNullable(data.get(key));
+        }
+
+        @Override
+        public <K> Iterable<Value> get(Iterable<K> keys) {
+            List<Value> values = new ArrayList<>();
+            keys.forEach(k -> get(k).ifPresent(values::add));
+            return values;
+        }
+
+        @Override
+        public <K> void remove(K key) {
+            data.remove(key);
+        }
+
+        @Override
+        public <K> void remove(Iterable<K> keys) {
+            keys.forEach(this::remove);
+        }
+
+        @Override
+        public <K, V> ConditionalResult<Value> compareAndSet(K key, V expected, V value) {
+            Value current = data.get(key);
+            if (!Value.of(expected).equals(current)) {
+                return ConditionalResult.rejected(current);
+            }
+            data.put(key, Value.of(value));
+            return ConditionalResult.applied(Value.of(value));
+        }
+
+        @Override
+        public <K> long increment(K key, long delta) {
+            long value = data.containsKey(key) ? data.get(key).get(Long.class) + delta : delta;
+            data.put(key, Value.of(value));
+            return value;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}